@@ -0,0 +1,117 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.commons.functional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Infinite, lazy evaluated stream of dates, backed by {@link LongLazyStream} of epoch millis. Dates are created only when they
+ * are requested, so traversing the stream doesn't allocate mutable Date instances for each visited element.
+ *
+ * Thread safety: Stream can be safely shared between threads (as long as induction function is thread-safe). Each call to
+ * head() returns new Date instance.
+ *
+ * @since 1.5
+ */
+public final class DateLazyStream {
+
+    private final LongLazyStream millisStream;
+
+    /**
+     * Create a new instance of DateLazyStream.
+     *
+     * @param firstElement
+     *            first date
+     * @param inductionStep
+     *            function consuming current date millis and producing next one.
+     * @return new instance of DateLazyStream
+     */
+    public static DateLazyStream create(final Date firstElement, final LongUnaryOperator inductionStep) {
+        return new DateLazyStream(LongLazyStream.create(firstElement.getTime(), inductionStep));
+    }
+
+    /**
+     * Create a new instance of DateLazyStream, which elements are shifted by given number of milliseconds.
+     *
+     * @param firstElement
+     *            first date
+     * @param stepMillis
+     *            difference between consecutive dates, in milliseconds
+     * @return new instance of DateLazyStream
+     */
+    public static DateLazyStream iterate(final Date firstElement, final long stepMillis) {
+        return new DateLazyStream(LongLazyStream.iterate(firstElement.getTime(), stepMillis));
+    }
+
+    private DateLazyStream(final LongLazyStream millisStream) {
+        this.millisStream = millisStream;
+    }
+
+    public Date head() {
+        return new Date(millisStream.head());
+    }
+
+    public long headMillis() {
+        return millisStream.head();
+    }
+
+    public DateLazyStream tail() {
+        return new DateLazyStream(millisStream.tail());
+    }
+
+    /**
+     * Returns stream starting from the first date which is equal or after given date.
+     *
+     * @param date
+     *            lower bound
+     * @return stream starting from the first date which is equal or after given date
+     */
+    public DateLazyStream dropBefore(final Date date) {
+        final long millis = date.getTime();
+        return new DateLazyStream(millisStream.dropWhile(value -> value >= millis));
+    }
+
+    /**
+     * Returns leading dates which are before given date.
+     *
+     * @param date
+     *            upper bound (exclusive)
+     * @return list of the leading dates which are before given date
+     */
+    public List<Date> takeBefore(final Date date) {
+        final long millis = date.getTime();
+        long[] values = millisStream.takeWhile(value -> value < millis);
+
+        List<Date> dates = Lists.newArrayListWithCapacity(values.length);
+        for (long value : values) {
+            dates.add(new Date(value));
+        }
+        return dates;
+    }
+
+}
@@ -26,6 +26,7 @@ package com.qcadoo.commons.functional;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
@@ -42,7 +43,9 @@ import com.google.common.collect.Lists;
  * passed induction function. If passed function doesn't override equals/hashCode, LazyStream.equals will return false for the 2
  * identical LazyStreams which uses two separate instances of the same function. Be aware of this.
  * 
- * Thread safety: Current implementation is not thread-safe.
+ * Thread safety: Stream can be safely shared between threads (as long as induction function is thread-safe). Tail is memoised
+ * using compare-and-set, so concurrent callers of tail() always get the same instance, although induction function may be
+ * evaluated more than once for the same element when threads race.
  * 
  * Terminating: Because this collection has indefinable length, simply iteration over its element will cause infinite loop. To
  * obtain arbitrary number of elements, use Iterables.limit(lazyStream, n) or FluentIterable.from(lazyStream).limit(n)
@@ -55,9 +58,13 @@ import com.google.common.collect.Lists;
  */
 public class LazyStream<T> implements Iterable<T> {
 
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LazyStream, LazyStream> TAIL_UPDATER = AtomicReferenceFieldUpdater
+            .newUpdater(LazyStream.class, LazyStream.class, "lazyTail");
+
     private final T head;
 
-    private LazyStream<T> lazyTail;
+    private volatile LazyStream<T> lazyTail;
 
     private final Function<T, T> inductionStep;
 
@@ -96,12 +103,14 @@ public class LazyStream<T> implements Iterable<T> {
      * 
      * @return alternate elements as a LazyStream.
      */
+    @SuppressWarnings("unchecked")
     public LazyStream<T> tail() {
-        // synchronize me to obtain thread-safety
-        if (lazyTail == null) {
-            lazyTail = new LazyStream<T>(inductionStep.apply(head), inductionStep);
+        LazyStream<T> tail = lazyTail;
+        if (tail == null) {
+            TAIL_UPDATER.compareAndSet(this, null, new LazyStream<T>(inductionStep.apply(head), inductionStep));
+            tail = lazyTail;
         }
-        return lazyTail;
+        return tail;
     }
 
     public LazyStream<T> dropWhile(final Predicate<T> predicate) {
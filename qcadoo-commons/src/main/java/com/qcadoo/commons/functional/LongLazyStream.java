@@ -0,0 +1,141 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.commons.functional;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Infinite, lazy evaluated stream of primitive long values. This is an unboxed counterpart of {@link LazyStream}, suitable for
+ * generating long sequences like timestamps of the consecutive time range boundaries.
+ *
+ * Thread safety: Stream is immutable and can be safely shared between threads (as long as induction function is thread-safe).
+ * Tail is memoised in the same way as in {@link LazyStream}.
+ *
+ * Terminating: use takeWhile(..) or dropWhile(..) with predicate which eventually stops matching, otherwise these methods will
+ * never return.
+ *
+ * @since 1.5
+ */
+public final class LongLazyStream {
+
+    private static final AtomicReferenceFieldUpdater<LongLazyStream, LongLazyStream> TAIL_UPDATER = AtomicReferenceFieldUpdater
+            .newUpdater(LongLazyStream.class, LongLazyStream.class, "lazyTail");
+
+    private static final int INITIAL_BUFFER_SIZE = 16;
+
+    private final long head;
+
+    private final LongUnaryOperator inductionStep;
+
+    private volatile LongLazyStream lazyTail;
+
+    /**
+     * Create a new instance of LongLazyStream.
+     *
+     * @param firstElement
+     *            first element, will be used to calculate tail (and therefore alternate element)
+     * @param inductionStep
+     *            function consuming current stream's element and producing next one.
+     * @return new instance of LongLazyStream
+     */
+    public static LongLazyStream create(final long firstElement, final LongUnaryOperator inductionStep) {
+        return new LongLazyStream(firstElement, inductionStep);
+    }
+
+    /**
+     * Create a new instance of LongLazyStream, which elements are incremented by given step.
+     *
+     * @param firstElement
+     *            first element
+     * @param step
+     *            difference between consecutive elements
+     * @return new instance of LongLazyStream
+     */
+    public static LongLazyStream iterate(final long firstElement, final long step) {
+        return new LongLazyStream(firstElement, value -> value + step);
+    }
+
+    private LongLazyStream(final long head, final LongUnaryOperator inductionStep) {
+        this.head = head;
+        this.inductionStep = inductionStep;
+    }
+
+    /**
+     * Return underlying value, contained in this particular LongLazyStream chain.
+     *
+     * @return underlying value
+     */
+    public long head() {
+        return head;
+    }
+
+    /**
+     * Returns forwarding elements as a LongLazyStream. Returned stream is generated lazily, when you're calling tail() for the
+     * first time, and stored for further invocations.
+     *
+     * @return alternate elements as a LongLazyStream.
+     */
+    public LongLazyStream tail() {
+        LongLazyStream tail = lazyTail;
+        if (tail == null) {
+            TAIL_UPDATER.compareAndSet(this, null, new LongLazyStream(inductionStep.applyAsLong(head), inductionStep));
+            tail = lazyTail;
+        }
+        return tail;
+    }
+
+    public LongLazyStream dropWhile(final LongPredicate predicate) {
+        LongLazyStream res = this;
+        while (!predicate.test(res.head)) {
+            res = res.tail();
+        }
+        return res;
+    }
+
+    /**
+     * Returns leading elements matching given predicate. Unlike {@link #dropWhile(LongPredicate)} this method doesn't memoise
+     * visited elements, so no stream nodes are allocated during traversal.
+     *
+     * @param predicate
+     *            predicate
+     * @return array of the leading elements matching given predicate
+     */
+    public long[] takeWhile(final LongPredicate predicate) {
+        long[] res = new long[INITIAL_BUFFER_SIZE];
+        int size = 0;
+        long curr = head;
+        while (predicate.test(curr)) {
+            if (size == res.length) {
+                res = Arrays.copyOf(res, size * 2);
+            }
+            res[size++] = curr;
+            curr = inductionStep.applyAsLong(curr);
+        }
+        return Arrays.copyOf(res, size);
+    }
+
+}
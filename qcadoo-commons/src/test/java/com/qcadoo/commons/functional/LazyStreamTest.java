@@ -24,6 +24,11 @@
 package com.qcadoo.commons.functional;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.joda.time.LocalDate;
 import org.junit.Assert;
@@ -133,4 +138,47 @@ public class LazyStreamTest {
         Assert.assertEquals(Lists.newArrayList(1, 2, 3, 4, 5), takeResult);
     }
 
+    @Test
+    public final void shouldReturnTheSameTailForConcurrentCallers() throws Exception {
+        // given
+        final AtomicInteger evaluations = new AtomicInteger();
+        final LazyStream<Integer> stream = LazyStream.create(1, new Function<Integer, Integer>() {
+
+            @Override
+            public Integer apply(final Integer input) {
+                evaluations.incrementAndGet();
+                return input + 1;
+            }
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<LazyStream<Integer>>> results = Lists.newArrayList();
+
+        // when
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<LazyStream<Integer>>() {
+
+                    @Override
+                    public LazyStream<Integer> call() {
+                        LazyStream<Integer> curr = stream;
+                        for (int j = 0; j < 1000; j++) {
+                            curr = curr.tail();
+                        }
+                        return curr;
+                    }
+                }));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        LazyStream<Integer> expected = results.get(0).get();
+        for (Future<LazyStream<Integer>> result : results) {
+            Assert.assertSame(expected, result.get());
+        }
+        Assert.assertEquals((Integer) 1001, expected.head());
+        Assert.assertTrue(evaluations.get() >= 1000);
+    }
+
 }
@@ -0,0 +1,89 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.commons.functional;
+
+import java.util.Date;
+import java.util.List;
+
+import org.joda.time.DateTime;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class LongLazyStreamTest {
+
+    @Test
+    public final void shouldGenerateStream() {
+        // when
+        LongLazyStream stream = LongLazyStream.create(1L, value -> value * 2);
+
+        // then
+        Assert.assertEquals(1L, stream.head());
+        Assert.assertEquals(2L, stream.tail().head());
+        Assert.assertEquals(4L, stream.tail().tail().head());
+        Assert.assertSame(stream.tail(), stream.tail());
+    }
+
+    @Test
+    public final void shouldDropElementsUntilPredicateMatches() {
+        // given
+        LongLazyStream stream = LongLazyStream.iterate(1L, 1L);
+
+        // when
+        LongLazyStream dropResult = stream.dropWhile(value -> value > 5);
+
+        // then
+        Assert.assertEquals(6L, dropResult.head());
+    }
+
+    @Test
+    public final void shouldTakeElementsMatchingPredicate() {
+        // given
+        LongLazyStream stream = LongLazyStream.iterate(0L, 10L);
+
+        // when
+        long[] takeResult = stream.takeWhile(value -> value < 200);
+
+        // then
+        Assert.assertEquals(20, takeResult.length);
+        Assert.assertEquals(0L, takeResult[0]);
+        Assert.assertEquals(190L, takeResult[19]);
+    }
+
+    @Test
+    public final void shouldGenerateDates() {
+        // given
+        DateTime start = new DateTime(2014, 8, 14, 6, 0);
+        DateLazyStream stream = DateLazyStream.create(start.toDate(), millis -> new DateTime(millis).plusHours(8).getMillis());
+
+        // when
+        List<Date> dates = stream.dropBefore(start.plusHours(10).toDate()).takeBefore(start.plusDays(1).toDate());
+
+        // then
+        Assert.assertEquals(Lists.newArrayList(start.plusHours(16).toDate()), dates);
+        Assert.assertEquals(start.plusHours(8).getMillis(), stream.tail().headMillis());
+    }
+
+}
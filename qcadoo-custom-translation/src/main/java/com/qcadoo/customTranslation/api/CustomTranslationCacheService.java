@@ -130,4 +130,14 @@ public interface CustomTranslationCacheService {
      */
     void loadCustomTranslations(final List<Entity> customTranslations);
 
+    /**
+     * Loads active custom translations at once, see {@link CustomTranslationManagementService#getActiveCustomTranslations()}
+     * 
+     * @param activeTranslations
+     *            active custom translations by locale and key
+     * 
+     * @since 1.5
+     */
+    void loadActiveCustomTranslations(final Map<String, Map<String, String>> activeTranslations);
+
 }
\ No newline at end of file
@@ -97,6 +97,15 @@ public interface CustomTranslationManagementService {
      */
     List<Entity> getCustomTranslations();
 
+    /**
+     * Gets active custom translations with one query, without loading whole entities
+     * 
+     * @return the active custom translations by locale and key
+     * 
+     * @since 1.5
+     */
+    Map<String, Map<String, String>> getActiveCustomTranslations();
+
     /**
      * Gets DataDefinition for model custom translation
      * 
@@ -28,79 +28,80 @@ import static com.qcadoo.customTranslation.constants.CustomTranslationFields.KEY
 import static com.qcadoo.customTranslation.constants.CustomTranslationFields.LOCALE;
 
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.google.common.collect.Maps;
 import com.qcadoo.customTranslation.api.CustomTranslationCacheService;
 import com.qcadoo.customTranslation.constants.CustomTranslationFields;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.tenant.api.MultiTenantService;
 
+/**
+ * Custom translations are kept as the immutable snapshot for each tenant. Reads don't lock - they only get the current snapshot
+ * of the tenant. Changes build the new snapshot and publish it with compare-and-set, retrying if the other change was published
+ * in the meantime.
+ */
 @Service
 public class CustomTranslationCacheServiceImpl implements CustomTranslationCacheService {
 
     @Autowired
     private MultiTenantService multiTenantService;
 
-    private final Map<Integer, Map<String, Map<String, String>>> customTranslationsCache;
+    private final ConcurrentMap<Integer, CustomTranslationsSnapshot> customTranslationsCache;
 
     public CustomTranslationCacheServiceImpl() {
-        this.customTranslationsCache = Maps.newHashMap();
+        this.customTranslationsCache = new ConcurrentHashMap<>();
     }
 
     @Override
     public void addCustomTranslation(final String key, final String locale, final String customTranslation) {
-        Map<String, String> localeAndCustomTranslation = Maps.newHashMap();
-        localeAndCustomTranslation.put(locale, customTranslation);
-
-        getTenantCustomTranslationsCache().put(key, localeAndCustomTranslation);
+        update(snapshot -> snapshot.withoutTranslations(Collections.singleton(key)).with(key, locale, customTranslation));
     }
 
     @Override
     public void updateCustomTranslation(final String key, final String locale, final String customTranslation) {
-        if (isCustomTranslationAdded(key)) {
-            getTenantCustomTranslationsCache().get(key).put(locale, customTranslation);
-        }
+        update(snapshot -> {
+            if (snapshot.containsKey(key)) {
+                return snapshot.with(key, locale, customTranslation);
+            }
+            return snapshot;
+        });
     }
 
     @Override
     public void manageCustomTranslation(final String key, final String locale, final String customTranslation) {
-        if (isCustomTranslationAdded(key)) {
-            updateCustomTranslation(key, locale, customTranslation);
-        } else {
-            addCustomTranslation(key, locale, customTranslation);
-        }
+        update(snapshot -> {
+            if (snapshot.containsKey(key)) {
+                return snapshot.with(key, locale, customTranslation);
+            }
+            return snapshot.withoutTranslations(Collections.singleton(key)).with(key, locale, customTranslation);
+        });
     }
 
     @Override
     public void removeCustomTranslations(final List<String> keys) {
         if (keys != null) {
-            for (String key : keys) {
-                if (isCustomTranslationAdded(key)) {
-                    for (String locale : getTenantCustomTranslationsCache().get(key).keySet()) {
-                        updateCustomTranslation(key, locale, null);
-                    }
-                }
-            }
+            update(snapshot -> snapshot.withoutTranslations(new HashSet<String>(keys)));
         }
     }
 
     @Override
     public String getCustomTranslation(final String key, final String locale) {
-        if (getTenantCustomTranslationsCache().containsKey(key)
-                && getTenantCustomTranslationsCache().get(key).containsKey(locale)) {
-            return getTenantCustomTranslationsCache().get(key).get(locale);
-        }
-        return null;
+        return getTenantCustomTranslationsCache().get(key, locale);
     }
 
     @Override
     public Map<String, Map<String, String>> getCustomTranslations() {
-        return Collections.unmodifiableMap(getTenantCustomTranslationsCache());
+        return Collections.unmodifiableMap(getTenantCustomTranslationsCache().getTranslationsByKey());
     }
 
     @Override
@@ -110,39 +111,63 @@ public class CustomTranslationCacheServiceImpl implements CustomTranslationCache
 
     @Override
     public boolean isCustomTranslationActive(final String key, final String locale) {
-        if (getTenantCustomTranslationsCache().containsKey(key)
-                && getTenantCustomTranslationsCache().get(key).containsKey(locale)) {
-            return getTenantCustomTranslationsCache().get(key).get(locale) != null;
-        }
-
-        return false;
+        return getTenantCustomTranslationsCache().get(key, locale) != null;
     }
 
     @Override
     public void loadCustomTranslations(final List<Entity> customTranslations) {
-        for (Entity customTranslation : customTranslations) {
-            boolean active = customTranslation.getBooleanField(ACTIVE);
+        Map<String, Map<String, String>> activeTranslations = new HashMap<>();
+        Set<String> inactiveKeys = new HashSet<>();
 
+        for (Entity customTranslation : customTranslations) {
             String key = customTranslation.getStringField(KEY);
             String translation = customTranslation.getStringField(CustomTranslationFields.CUSTOM_TRANSLATION);
-            String locale = (active) ? customTranslation.getStringField(LOCALE) : null;
 
-            manageCustomTranslation(key, locale, translation);
+            if (customTranslation.getBooleanField(ACTIVE) && translation != null) {
+                String locale = customTranslation.getStringField(LOCALE);
+
+                if (!activeTranslations.containsKey(locale)) {
+                    activeTranslations.put(locale, new HashMap<String, String>());
+                }
+
+                activeTranslations.get(locale).put(key, translation);
+            } else {
+                inactiveKeys.add(key);
+            }
         }
-    }
 
-    private Map<String, Map<String, String>> getTenantCustomTranslationsCache() {
-        final int tenantId = multiTenantService.getCurrentTenantId();
+        update(snapshot -> snapshot.withAll(activeTranslations, inactiveKeys));
+    }
 
-        Map<String, Map<String, String>> tenantCustomTranslationsCache = customTranslationsCache.get(tenantId);
+    @Override
+    public void loadActiveCustomTranslations(final Map<String, Map<String, String>> activeTranslations) {
+        update(snapshot -> snapshot.withAll(activeTranslations, Collections.<String> emptySet()));
+    }
 
-        if (tenantCustomTranslationsCache == null) {
-            tenantCustomTranslationsCache = Maps.newHashMap();
+    private CustomTranslationsSnapshot getTenantCustomTranslationsCache() {
+        CustomTranslationsSnapshot snapshot = customTranslationsCache.get(multiTenantService.getCurrentTenantId());
 
-            customTranslationsCache.put(tenantId, tenantCustomTranslationsCache);
+        if (snapshot == null) {
+            return CustomTranslationsSnapshot.EMPTY;
         }
 
-        return tenantCustomTranslationsCache;
+        return snapshot;
+    }
+
+    private void update(final UnaryOperator<CustomTranslationsSnapshot> change) {
+        final int tenantId = multiTenantService.getCurrentTenantId();
+
+        while (true) {
+            CustomTranslationsSnapshot snapshot = customTranslationsCache.get(tenantId);
+
+            if (snapshot == null) {
+                if (customTranslationsCache.putIfAbsent(tenantId, change.apply(CustomTranslationsSnapshot.EMPTY)) == null) {
+                    return;
+                }
+            } else if (customTranslationsCache.replace(tenantId, snapshot, change.apply(snapshot))) {
+                return;
+            }
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -41,6 +41,7 @@ import org.springframework.security.util.FieldUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.collect.Maps;
 import com.qcadoo.customTranslation.api.CustomTranslationManagementService;
 import com.qcadoo.customTranslation.constants.CustomTranslationContants;
 import com.qcadoo.model.api.DataDefinition;
@@ -130,6 +131,33 @@ public class CustomTranslationManagementServiceImpl implements CustomTranslation
         return getCustomTranslationDD().find().list().getEntities();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Map<String, Map<String, String>> getActiveCustomTranslations() {
+        DataDefinition customTranslationDD = getCustomTranslationDD();
+        Session currentSession = getCurrentSession(customTranslationDD);
+
+        List<Object[]> rows = currentSession.createQuery(
+                "SELECT locale, key, customTranslation FROM "
+                        + "com.qcadoo.model.beans.qcadooCustomTranslation.QcadooCustomTranslationCustomTranslation "
+                        + "WHERE active = true AND customTranslation IS NOT NULL").list();
+
+        Map<String, Map<String, String>> activeTranslations = Maps.newHashMap();
+
+        for (Object[] row : rows) {
+            String locale = (String) row[0];
+
+            if (!activeTranslations.containsKey(locale)) {
+                activeTranslations.put(locale, Maps.<String, String> newHashMap());
+            }
+
+            activeTranslations.get(locale).put((String) row[1], (String) row[2]);
+        }
+
+        return activeTranslations;
+    }
+
     @Override
     public DataDefinition getCustomTranslationDD() {
         return dataDefinitionService.get(CustomTranslationContants.PLUGIN_IDENTIFIER,
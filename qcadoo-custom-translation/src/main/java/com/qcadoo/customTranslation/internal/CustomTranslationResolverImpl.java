@@ -25,20 +25,29 @@ package com.qcadoo.customTranslation.internal;
 
 import com.qcadoo.customTranslation.api.CustomTranslationCacheService;
 import com.qcadoo.customTranslation.api.CustomTranslationResolver;
-import org.apache.commons.lang3.ArrayUtils;
+import com.qcadoo.localization.api.utils.CompiledMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.ObjectUtils;
 
-import java.text.MessageFormat;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 public class CustomTranslationResolverImpl implements CustomTranslationResolver {
 
+    @Value("${customTranslationFormatCacheSize:10000}")
+    private int maxFormatCacheSize;
+
     @Autowired
     private CustomTranslationCacheService customTranslationCacheService;
 
+    /**
+     * Compiled messages by the custom translation text, so changed translation is compiled again without any invalidation.
+     */
+    private final ConcurrentMap<Locale, ConcurrentMap<String, CompiledMessage>> compiledMessages = new ConcurrentHashMap<>();
+
     @Override
     public boolean isCustomTranslationActive(final String key, final Locale locale) {
         return customTranslationCacheService.isCustomTranslationActive(key, locale.getLanguage());
@@ -51,18 +60,36 @@ public class CustomTranslationResolverImpl implements CustomTranslationResolver
         if (translation == null) {
             return null;
         } else {
-            translation = translation.replace("'", "''");
+            return getCompiledMessage(translation, locale).format(args);
+        }
+    }
+
+    private CompiledMessage getCompiledMessage(final String translation, final Locale locale) {
+        ConcurrentMap<String, CompiledMessage> localeMessages = compiledMessages.get(locale);
+
+        if (localeMessages == null) {
+            localeMessages = new ConcurrentHashMap<>();
 
-            Object[] argsToUse = args;
+            ConcurrentMap<String, CompiledMessage> existingLocaleMessages = compiledMessages.putIfAbsent(locale, localeMessages);
 
-            if (!ObjectUtils.isEmpty(argsToUse)) {
-                argsToUse = ArrayUtils.EMPTY_OBJECT_ARRAY;
+            if (existingLocaleMessages != null) {
+                localeMessages = existingLocaleMessages;
             }
+        }
+
+        CompiledMessage compiledMessage = localeMessages.get(translation);
 
-            MessageFormat messageFormat = new MessageFormat(translation);
+        if (compiledMessage == null) {
+            if (localeMessages.size() >= maxFormatCacheSize) {
+                localeMessages.clear();
+            }
 
-            return messageFormat.format(argsToUse);
+            compiledMessage = CompiledMessage.compile(translation.replace("'", "''"), locale);
+
+            localeMessages.putIfAbsent(translation, compiledMessage);
         }
+
+        return compiledMessage;
     }
 
-}
\ No newline at end of file
+}
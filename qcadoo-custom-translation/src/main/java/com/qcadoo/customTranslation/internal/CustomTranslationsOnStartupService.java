@@ -23,8 +23,6 @@
  */
 package com.qcadoo.customTranslation.internal;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -32,7 +30,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.qcadoo.customTranslation.api.CustomTranslationCacheService;
 import com.qcadoo.customTranslation.api.CustomTranslationManagementService;
-import com.qcadoo.model.api.Entity;
 import com.qcadoo.plugin.api.Module;
 
 @Service
@@ -51,8 +48,8 @@ public class CustomTranslationsOnStartupService extends Module {
     @Transactional
     public void multiTenantEnableOnStartup() {
         if (useCustomTranslations) {
-            final List<Entity> customTranslations = customTranslationManagementService.getCustomTranslations();
-            customTranslationCacheService.loadCustomTranslations(customTranslations);
+            customTranslationCacheService.loadActiveCustomTranslations(customTranslationManagementService
+                    .getActiveCustomTranslations());
         }
     }
 
@@ -0,0 +1,182 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.customTranslation.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Immutable custom translations of one tenant. Active translations are partitioned by locale, so the change copies only the map
+ * of the affected locale, maps of the other locales are shared with the previous snapshot.
+ */
+final class CustomTranslationsSnapshot {
+
+    static final CustomTranslationsSnapshot EMPTY = new CustomTranslationsSnapshot(
+            Collections.<String, Map<String, String>> emptyMap(), Collections.<String> emptySet());
+
+    private final Map<String, Map<String, String>> translationsByLocale;
+
+    private final Set<String> keys;
+
+    private CustomTranslationsSnapshot(final Map<String, Map<String, String>> translationsByLocale, final Set<String> keys) {
+        this.translationsByLocale = translationsByLocale;
+        this.keys = keys;
+    }
+
+    String get(final String key, final String locale) {
+        Map<String, String> localeTranslations = translationsByLocale.get(locale);
+
+        if (localeTranslations == null) {
+            return null;
+        }
+
+        return localeTranslations.get(key);
+    }
+
+    boolean containsKey(final String key) {
+        return keys.contains(key);
+    }
+
+    /**
+     * Returns snapshot with the translation set (or removed if the translation is null).
+     *
+     * @param key
+     *            translation key
+     * @param locale
+     *            locale, if null only the key is added
+     * @param translation
+     *            active custom translation or null
+     * @return new snapshot
+     */
+    CustomTranslationsSnapshot with(final String key, final String locale, final String translation) {
+        Set<String> newKeys = keys;
+
+        if (!keys.contains(key)) {
+            Set<String> copiedKeys = new HashSet<String>(keys);
+            copiedKeys.add(key);
+
+            newKeys = Collections.unmodifiableSet(copiedKeys);
+        }
+
+        if (locale == null) {
+            return new CustomTranslationsSnapshot(translationsByLocale, newKeys);
+        }
+
+        Map<String, String> localeTranslations = copy(translationsByLocale.get(locale));
+
+        if (translation == null) {
+            localeTranslations.remove(key);
+        } else {
+            localeTranslations.put(key, translation);
+        }
+
+        Map<String, Map<String, String>> newTranslationsByLocale = new HashMap<String, Map<String, String>>(translationsByLocale);
+        newTranslationsByLocale.put(locale, Collections.unmodifiableMap(localeTranslations));
+
+        return new CustomTranslationsSnapshot(Collections.unmodifiableMap(newTranslationsByLocale), newKeys);
+    }
+
+    /**
+     * Returns snapshot with all the given translations set, used for bulk loading. Each locale map is copied once.
+     *
+     * @param translations
+     *            active translations by locale and key
+     * @param addedKeys
+     *            keys which are added without active translation
+     * @return new snapshot
+     */
+    CustomTranslationsSnapshot withAll(final Map<String, Map<String, String>> translations, final Collection<String> addedKeys) {
+        Set<String> newKeys = new HashSet<String>(keys);
+        newKeys.addAll(addedKeys);
+
+        Map<String, Map<String, String>> newTranslationsByLocale = new HashMap<String, Map<String, String>>(translationsByLocale);
+
+        for (Entry<String, Map<String, String>> localeTranslations : translations.entrySet()) {
+            Map<String, String> newLocaleTranslations = copy(translationsByLocale.get(localeTranslations.getKey()));
+            newLocaleTranslations.putAll(localeTranslations.getValue());
+
+            newTranslationsByLocale.put(localeTranslations.getKey(), Collections.unmodifiableMap(newLocaleTranslations));
+            newKeys.addAll(localeTranslations.getValue().keySet());
+        }
+
+        return new CustomTranslationsSnapshot(Collections.unmodifiableMap(newTranslationsByLocale),
+                Collections.unmodifiableSet(newKeys));
+    }
+
+    /**
+     * Returns snapshot without translations of the given keys in all locales. Keys stay added.
+     *
+     * @param keysToRemove
+     *            translation keys
+     * @return new snapshot
+     */
+    CustomTranslationsSnapshot withoutTranslations(final Collection<String> keysToRemove) {
+        Map<String, Map<String, String>> newTranslationsByLocale = new HashMap<String, Map<String, String>>(translationsByLocale);
+
+        for (Entry<String, Map<String, String>> localeTranslations : translationsByLocale.entrySet()) {
+            if (!Collections.disjoint(localeTranslations.getValue().keySet(), keysToRemove)) {
+                Map<String, String> newLocaleTranslations = copy(localeTranslations.getValue());
+                newLocaleTranslations.keySet().removeAll(keysToRemove);
+
+                newTranslationsByLocale.put(localeTranslations.getKey(), Collections.unmodifiableMap(newLocaleTranslations));
+            }
+        }
+
+        return new CustomTranslationsSnapshot(Collections.unmodifiableMap(newTranslationsByLocale), keys);
+    }
+
+    /**
+     * Returns active translations by key and locale.
+     *
+     * @return translations
+     */
+    Map<String, Map<String, String>> getTranslationsByKey() {
+        Map<String, Map<String, String>> translationsByKey = new HashMap<String, Map<String, String>>();
+
+        for (String key : keys) {
+            translationsByKey.put(key, new HashMap<String, String>());
+        }
+        for (Entry<String, Map<String, String>> localeTranslations : translationsByLocale.entrySet()) {
+            for (Entry<String, String> translation : localeTranslations.getValue().entrySet()) {
+                translationsByKey.get(translation.getKey()).put(localeTranslations.getKey(), translation.getValue());
+            }
+        }
+
+        return translationsByKey;
+    }
+
+    private Map<String, String> copy(final Map<String, String> localeTranslations) {
+        if (localeTranslations == null) {
+            return new HashMap<String, String>();
+        }
+
+        return new HashMap<String, String>(localeTranslations);
+    }
+
+}
@@ -23,37 +23,28 @@
  */
 package com.qcadoo.customTranslation.internal.aop;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Properties;
 import java.util.Set;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
-import com.google.common.base.Charsets;
 import com.google.common.collect.Maps;
 import com.qcadoo.customTranslation.api.CustomTranslationCacheService;
 import com.qcadoo.customTranslation.api.CustomTranslationManagementService;
 import com.qcadoo.customTranslation.constants.CustomTranslationContants;
+import com.qcadoo.localization.api.TranslationRepository;
 import com.qcadoo.localization.api.TranslationService;
 import com.qcadoo.plugin.api.PluginStateResolver;
 
 @Service
 public class TranslationModuleOverrideUtil {
 
-    private static final Logger LOG = LoggerFactory.getLogger(TranslationModuleOverrideUtil.class);
-
     @Value("${useCustomTranslations}")
     private boolean useCustomTranslations;
 
@@ -63,6 +54,9 @@ public class TranslationModuleOverrideUtil {
     @Autowired
     private TranslationService translationService;
 
+    @Autowired
+    private TranslationRepository translationRepository;
+
     @Autowired
     private PluginStateResolver pluginStateResolver;
 
@@ -81,7 +75,7 @@ public class TranslationModuleOverrideUtil {
             Map<String, String> translations = Maps.newHashMap();
 
             for (Resource resource : getPropertiesResources(basenames, locale)) {
-                translations.putAll(getTranslationsFromProperties(resource));
+                translations.putAll(translationRepository.getBundle(resource).getMessages());
             }
 
             customTranslationManagementService.addCustomTranslations(pluginIdentifier, locale, translations);
@@ -108,46 +102,4 @@ public class TranslationModuleOverrideUtil {
         return resources;
     }
 
-    private Map<String, String> getTranslationsFromProperties(final Resource resource) {
-        Map<String, String> translations = Maps.newHashMap();
-
-        Properties properties = new Properties();
-
-        InputStream inputStream = null;
-        InputStreamReader inputStreamReader = null;
-
-        try {
-            inputStream = resource.getInputStream();
-            inputStreamReader = new InputStreamReader(inputStream, Charsets.UTF_8);
-
-            properties.load(inputStreamReader);
-
-            for (Entry<Object, Object> translation : properties.entrySet()) {
-                String key = (String) translation.getKey();
-                String value = (String) translation.getValue();
-
-                translations.put(key, value);
-            }
-        } catch (IOException e) {
-            LOG.error("Can not read properties file", e);
-        } finally {
-            try {
-                if (inputStreamReader != null) {
-                    inputStreamReader.close();
-                }
-            } catch (IOException e) {
-                LOG.error("Can not close inputStreamReader", e);
-            } finally {
-                if (inputStream != null) {
-                    try {
-                        inputStream.close();
-                    } catch (IOException e) {
-                        LOG.error("Can not close inputStream", e);
-                    }
-                }
-            }
-        }
-
-        return translations;
-    }
 }
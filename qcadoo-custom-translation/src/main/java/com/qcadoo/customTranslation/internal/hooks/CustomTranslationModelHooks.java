@@ -30,9 +30,11 @@ import static com.qcadoo.customTranslation.constants.CustomTranslationFields.LOC
 import static com.qcadoo.customTranslation.constants.CustomTranslationFields.PLUGIN_IDENTIFIER;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.qcadoo.customTranslation.api.CustomTranslationCacheService;
+import com.qcadoo.localization.api.TranslationsChangedEvent;
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.api.search.SearchCriteriaBuilder;
@@ -49,6 +51,9 @@ public final class CustomTranslationModelHooks {
     @Autowired
     private PluginStateResolver pluginStateResolver;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     public boolean checkIfCustomTranslationIsUnique(final DataDefinition customTranslationDD, final Entity customTranslation) {
         String pluginIdentifier = customTranslation.getStringField(PLUGIN_IDENTIFIER);
         String locale = customTranslation.getStringField(LOCALE);
@@ -91,6 +96,7 @@ public final class CustomTranslationModelHooks {
         String translation = (active) ? customTranslation.getStringField(CUSTOM_TRANSLATION) : null;
 
         customTranslationCacheService.manageCustomTranslation(key, locale, translation);
+        applicationEventPublisher.publishEvent(new TranslationsChangedEvent(this));
     }
 
 }
@@ -0,0 +1,87 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.customTranslation.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class CustomTranslationsSnapshotTest {
+
+    private static final String L_KEY = "key";
+
+    private static final String L_OTHER_KEY = "otherKey";
+
+    @Test
+    public void shouldNotChangePreviousSnapshot() {
+        // given
+        CustomTranslationsSnapshot snapshot = CustomTranslationsSnapshot.EMPTY.with(L_KEY, "pl", "tłumaczenie");
+
+        // when
+        CustomTranslationsSnapshot changedSnapshot = snapshot.with(L_KEY, "pl", "zmienione").with(L_KEY, "en", "changed");
+
+        // then
+        assertEquals("tłumaczenie", snapshot.get(L_KEY, "pl"));
+        assertNull(snapshot.get(L_KEY, "en"));
+        assertEquals("zmienione", changedSnapshot.get(L_KEY, "pl"));
+        assertEquals("changed", changedSnapshot.get(L_KEY, "en"));
+    }
+
+    @Test
+    public void shouldKeepKeyAddedWhenTranslationsAreRemoved() {
+        // given
+        CustomTranslationsSnapshot snapshot = CustomTranslationsSnapshot.EMPTY.withAll(
+                ImmutableMap.<String, Map<String, String>> of("pl", ImmutableMap.of(L_KEY, "tłumaczenie"), "en",
+                        ImmutableMap.of(L_KEY, "translation", L_OTHER_KEY, "other")), Collections.<String> emptySet());
+
+        // when
+        CustomTranslationsSnapshot changedSnapshot = snapshot.withoutTranslations(Collections.singleton(L_KEY));
+
+        // then
+        assertTrue(changedSnapshot.containsKey(L_KEY));
+        assertNull(changedSnapshot.get(L_KEY, "pl"));
+        assertNull(changedSnapshot.get(L_KEY, "en"));
+        assertEquals("other", changedSnapshot.get(L_OTHER_KEY, "en"));
+        assertEquals(Collections.singletonMap("en", "other"), changedSnapshot.getTranslationsByKey().get(L_OTHER_KEY));
+    }
+
+    @Test
+    public void shouldAddKeyWithoutLocale() {
+        // when
+        CustomTranslationsSnapshot snapshot = CustomTranslationsSnapshot.EMPTY.with(L_KEY, null, "translation");
+
+        // then
+        assertTrue(snapshot.containsKey(L_KEY));
+        assertNull(snapshot.get(L_KEY, "en"));
+        assertTrue(snapshot.getTranslationsByKey().get(L_KEY).isEmpty());
+    }
+
+}
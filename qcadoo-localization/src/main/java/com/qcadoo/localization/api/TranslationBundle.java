@@ -0,0 +1,76 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.api;
+
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Immutable content of one translation (properties) file.
+ * 
+ * @since 1.5
+ */
+public final class TranslationBundle {
+
+    private final String location;
+
+    private final Map<String, String> messages;
+
+    private final long version;
+
+    public TranslationBundle(final String location, final Map<String, String> messages, final long version) {
+        this.location = location;
+        this.messages = ImmutableMap.copyOf(messages);
+        this.version = version;
+    }
+
+    /**
+     * Returns description of the file the bundle was parsed from.
+     * 
+     * @return location
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Returns messages by code.
+     * 
+     * @return immutable map of messages
+     */
+    public Map<String, String> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Returns version of the translations the bundle was parsed at, see {@link TranslationRepository#getVersion()}.
+     * 
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.api;
+
+import org.springframework.core.io.Resource;
+
+/**
+ * Repository of the parsed translation files. Each file is parsed once. In the hot deploy mode the files are watched and the
+ * changed ones are parsed again.
+ * 
+ * @since 1.5
+ */
+public interface TranslationRepository {
+
+    /**
+     * Returns parsed translation file.
+     * 
+     * @param resource
+     *            properties file
+     * 
+     * @return bundle, empty if the file doesn't exist or can't be read
+     */
+    TranslationBundle getBundle(Resource resource);
+
+    /**
+     * Returns version of the translations, incremented each time any translation file is changed. Caches which keep translated
+     * content can compare it with the version they were filled at, {@link TranslationsChangedEvent} is published as well.
+     * 
+     * @return version
+     */
+    long getVersion();
+
+}
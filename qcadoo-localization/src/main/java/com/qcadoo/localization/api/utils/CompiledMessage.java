@@ -0,0 +1,191 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.api.utils;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Message pattern parsed once and formatted many times. Formats messages the same way as {@link MessageFormat}, but it's
+ * immutable (so it can be shared between threads without locking) and message without arguments is formatted once, when it's
+ * compiled.
+ *
+ * Only quotes and simple arguments ({0}, {1}, ...) are parsed. Patterns with typed arguments (e.g. {0,number}) or invalid
+ * patterns are formatted by the new {@link MessageFormat} on each call.
+ *
+ * @since 1.5
+ */
+public final class CompiledMessage {
+
+    private static final int L_MAX_ARGUMENT_INDEX_LENGTH = 4;
+
+    private final String pattern;
+
+    private final Locale locale;
+
+    private final String[] literals;
+
+    private final int[] argumentIndexes;
+
+    private final String formattedWithoutArguments;
+
+    private CompiledMessage(final String pattern, final Locale locale, final String[] literals, final int[] argumentIndexes) {
+        this.pattern = pattern;
+        this.locale = locale;
+        this.literals = literals;
+        this.argumentIndexes = argumentIndexes;
+
+        if (literals == null) {
+            this.formattedWithoutArguments = null;
+        } else {
+            this.formattedWithoutArguments = format(literals, argumentIndexes, new String[0]);
+        }
+    }
+
+    /**
+     * Compiles message pattern.
+     *
+     * @param pattern
+     *            pattern in the {@link MessageFormat} syntax
+     * @param locale
+     *            locale used by typed arguments
+     * @return compiled message
+     */
+    public static CompiledMessage compile(final String pattern, final Locale locale) {
+        checkNotNull(pattern, "pattern must be given");
+
+        List<String> literals = new ArrayList<String>();
+        List<Integer> argumentIndexes = new ArrayList<Integer>();
+
+        StringBuilder literal = new StringBuilder(pattern.length());
+        boolean inQuote = false;
+
+        for (int i = 0; i < pattern.length(); i++) {
+            char ch = pattern.charAt(i);
+
+            if (ch == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literal.append(ch);
+                    i++;
+                } else {
+                    inQuote = !inQuote;
+                }
+            } else if (ch == '{' && !inQuote) {
+                int end = pattern.indexOf('}', i + 1);
+
+                if (end < 0 || !isArgumentIndex(pattern, i + 1, end)) {
+                    return new CompiledMessage(pattern, locale, null, null);
+                }
+
+                literals.add(literal.toString());
+                argumentIndexes.add(Integer.valueOf(pattern.substring(i + 1, end)));
+
+                literal.setLength(0);
+                i = end;
+            } else {
+                literal.append(ch);
+            }
+        }
+
+        literals.add(literal.toString());
+
+        int[] indexes = new int[argumentIndexes.size()];
+
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = argumentIndexes.get(i);
+        }
+
+        return new CompiledMessage(pattern, locale, literals.toArray(new String[literals.size()]), indexes);
+    }
+
+    private static boolean isArgumentIndex(final String pattern, final int start, final int end) {
+        if (start == end || end - start > L_MAX_ARGUMENT_INDEX_LENGTH) {
+            return false;
+        }
+
+        for (int i = start; i < end; i++) {
+            if (pattern.charAt(i) < '0' || pattern.charAt(i) > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns pattern the message was compiled from.
+     *
+     * @return pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Formats message with the given arguments, like {@link MessageFormat#format(Object)}.
+     *
+     * @param args
+     *            arguments, may be null
+     * @return formatted message
+     */
+    public String format(final String... args) {
+        if (literals == null) {
+            return new MessageFormat(pattern, locale).format(args);
+        }
+        if (argumentIndexes.length == 0 || args == null || args.length == 0) {
+            return formattedWithoutArguments;
+        }
+
+        return format(literals, argumentIndexes, args);
+    }
+
+    private static String format(final String[] literals, final int[] argumentIndexes, final String[] args) {
+        if (argumentIndexes.length == 0) {
+            return literals[0];
+        }
+
+        StringBuilder message = new StringBuilder();
+
+        for (int i = 0; i < argumentIndexes.length; i++) {
+            message.append(literals[i]);
+
+            int argumentIndex = argumentIndexes[i];
+
+            if (argumentIndex < args.length) {
+                message.append(args[argumentIndex]);
+            } else {
+                message.append('{').append(argumentIndex).append('}');
+            }
+        }
+
+        message.append(literals[argumentIndexes.length]);
+
+        return message.toString();
+    }
+
+}
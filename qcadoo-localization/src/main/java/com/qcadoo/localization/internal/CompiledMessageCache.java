@@ -0,0 +1,145 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.internal;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Service;
+
+import com.qcadoo.localization.api.TranslationsChangedEvent;
+import com.qcadoo.localization.api.utils.CompiledMessage;
+
+/**
+ * Messages of the message source compiled once for each locale and code. Missing messages are cached too, because views ask
+ * for many optional codes. Lookup doesn't allocate: messages are kept in the separate map for each locale, so no composite key is
+ * needed.
+ *
+ * Cache is dropped when translations change or when it grows over the configured size.
+ */
+@Service
+public class CompiledMessageCache implements ApplicationListener<TranslationsChangedEvent> {
+
+    private static final CompiledMessage MISSING_MESSAGE = CompiledMessage.compile("", Locale.ROOT);
+
+    @Value("${translationCacheSize:100000}")
+    private int maxSize;
+
+    @Autowired
+    private MessageSource messageSource;
+
+    private final ConcurrentMap<Locale, ConcurrentMap<String, CompiledMessage>> messages = new ConcurrentHashMap<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Returns message formatted with the given arguments. Just like the message source, message without arguments is returned
+     * as is, without {@link java.text.MessageFormat} processing.
+     *
+     * @param code
+     *            message code
+     * @param locale
+     *            locale
+     * @param args
+     *            arguments
+     * @return message or null if not found
+     */
+    public String getMessage(final String code, final Locale locale, final String[] args) {
+        CompiledMessage message = getCompiledMessage(code, locale);
+
+        if (message == MISSING_MESSAGE) {
+            return null;
+        }
+        if (args == null || args.length == 0) {
+            return message.getPattern();
+        }
+
+        return message.format(args);
+    }
+
+    private CompiledMessage getCompiledMessage(final String code, final Locale locale) {
+        ConcurrentMap<String, CompiledMessage> localeMessages = getLocaleMessages(locale);
+
+        CompiledMessage message = localeMessages.get(code);
+
+        if (message == null) {
+            if (size.get() >= maxSize) {
+                invalidate();
+
+                localeMessages = getLocaleMessages(locale);
+            }
+
+            message = compile(code, locale);
+
+            if (localeMessages.putIfAbsent(code, message) == null) {
+                size.incrementAndGet();
+            }
+        }
+
+        return message;
+    }
+
+    private ConcurrentMap<String, CompiledMessage> getLocaleMessages(final Locale locale) {
+        ConcurrentMap<String, CompiledMessage> localeMessages = messages.get(locale);
+
+        if (localeMessages == null) {
+            localeMessages = new ConcurrentHashMap<String, CompiledMessage>();
+
+            ConcurrentMap<String, CompiledMessage> existingLocaleMessages = messages.putIfAbsent(locale, localeMessages);
+
+            if (existingLocaleMessages != null) {
+                localeMessages = existingLocaleMessages;
+            }
+        }
+
+        return localeMessages;
+    }
+
+    private CompiledMessage compile(final String code, final Locale locale) {
+        String pattern = messageSource.getMessage(code, null, null, locale);
+
+        if (pattern == null) {
+            return MISSING_MESSAGE;
+        }
+
+        return CompiledMessage.compile(pattern, locale);
+    }
+
+    public void invalidate() {
+        messages.clear();
+        size.set(0);
+    }
+
+    @Override
+    public void onApplicationEvent(final TranslationsChangedEvent event) {
+        invalidate();
+    }
+
+}
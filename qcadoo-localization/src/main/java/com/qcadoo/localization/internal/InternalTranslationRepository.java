@@ -0,0 +1,46 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.internal;
+
+import java.util.Collection;
+
+import org.springframework.core.io.Resource;
+
+import com.qcadoo.localization.api.TranslationRepository;
+
+/**
+ * Repository of the parsed translation files.
+ */
+public interface InternalTranslationRepository extends TranslationRepository {
+
+    /**
+     * Watches the given translation files for changes, if the hot deploy mode is on. Files read by the message source have to be
+     * registered here, even if they are never read through the repository.
+     * 
+     * @param resources
+     *            translation files
+     */
+    void watch(Collection<Resource> resources);
+
+}
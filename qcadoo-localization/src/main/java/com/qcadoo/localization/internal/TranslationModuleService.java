@@ -40,6 +40,8 @@ import org.springframework.context.support.ReloadableResourceBundleMessageSource
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import com.qcadoo.localization.api.TranslationsChangedEvent;
+
 @Service
 public class TranslationModuleService {
 
@@ -51,6 +53,9 @@ public class TranslationModuleService {
     @Autowired
     private ApplicationContext applicationContext;
 
+    @Autowired
+    private InternalTranslationRepository translationRepository;
+
     private final Set<String> basenames = new LinkedHashSet<>();
 
     public void addTranslationModule(final Collection<? extends String> moduleBasenames) {
@@ -59,15 +64,22 @@ public class TranslationModuleService {
         String[] basenamesArray = basenames.toArray(new String[basenames.size()]);
         ArrayUtils.reverse(basenamesArray);
         messageSource.setBasenames(basenamesArray);
+        translationRepository.watch(getLocalizationResources(moduleBasenames));
+        applicationContext.publishEvent(new TranslationsChangedEvent(this));
     }
 
     public void removeTranslationModule(final Collection<? extends String> moduleBasenames) {
         basenames.removeAll(moduleBasenames);
         messageSource.clearCache();
         messageSource.setBasenames(basenames.toArray(new String[basenames.size()]));
+        applicationContext.publishEvent(new TranslationsChangedEvent(this));
     }
 
     public List<Resource> getLocalizationResources() {
+        return getLocalizationResources(basenames);
+    }
+
+    private List<Resource> getLocalizationResources(final Collection<? extends String> basenames) {
         List<Resource> resources = new LinkedList<>();
         for (String basename : basenames) {
             String searchName = basename + "*.properties";
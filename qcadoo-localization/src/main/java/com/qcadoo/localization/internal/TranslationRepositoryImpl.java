@@ -0,0 +1,297 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.internal;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.qcadoo.localization.api.TranslationBundle;
+import com.qcadoo.localization.api.TranslationsChangedEvent;
+
+/**
+ * Parsed translation files are kept until the file changes. In the hot deploy mode directories of the translation files are
+ * watched by the {@link WatchService}: changed file is dropped from the repository (and parsed again on the next access), the
+ * message source cache is cleared and {@link TranslationsChangedEvent} is published. Outside of the hot deploy mode the files
+ * never change, so nothing is watched.
+ */
+@Service
+public class TranslationRepositoryImpl implements InternalTranslationRepository {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TranslationRepositoryImpl.class);
+
+    private static final String L_PROPERTIES_EXTENSION = ".properties";
+
+    @Autowired
+    private ConfigUtil configUtil;
+
+    @Autowired
+    private ReloadableResourceBundleMessageSource messageSource;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final ConcurrentMap<String, TranslationBundle> bundles = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Path, String> watchedFiles = new ConcurrentHashMap<>();
+
+    private final Set<Path> watchedDirectories = Collections.newSetFromMap(new ConcurrentHashMap<Path, Boolean>());
+
+    private WatchService watchService;
+
+    private ExecutorService watcher;
+
+    @PostConstruct
+    public void init() {
+        if (!configUtil.isHotDeploy()) {
+            return;
+        }
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+        } catch (IOException e) {
+            LOG.warn("Can not watch translation files, changes won't be reloaded", e);
+            return;
+        }
+
+        watcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(runnable, "qcadoo-translation-watcher");
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        });
+        watcher.execute(new Runnable() {
+
+            @Override
+            public void run() {
+                watchChanges();
+            }
+
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+        }
+
+        IOUtils.closeQuietly(watchService);
+    }
+
+    @Override
+    public TranslationBundle getBundle(final Resource resource) {
+        String location = resource.getDescription();
+
+        TranslationBundle bundle = bundles.get(location);
+
+        if (bundle == null) {
+            if (!resource.exists()) {
+                return new TranslationBundle(location, Collections.<String, String> emptyMap(), version.get());
+            }
+
+            watch(resource);
+
+            bundle = parse(location, resource);
+
+            TranslationBundle existingBundle = bundles.putIfAbsent(location, bundle);
+
+            if (existingBundle != null) {
+                bundle = existingBundle;
+            } else if (bundle.getVersion() != version.get()) {
+                // file was changed while it was parsed, so the bundle may be stale - it's parsed again on the next access
+                bundles.remove(location, bundle);
+            }
+        }
+
+        return bundle;
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void watch(final Collection<Resource> resources) {
+        for (Resource resource : resources) {
+            watch(resource);
+        }
+    }
+
+    private void watch(final Resource resource) {
+        if (watchService == null) {
+            return;
+        }
+
+        try {
+            Path file = resource.getFile().toPath().toAbsolutePath();
+            Path directory = file.getParent();
+
+            watchedFiles.put(file, resource.getDescription());
+
+            if (watchedDirectories.add(directory)) {
+                directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            // resource isn't a file (e.g. it's packed in the jar), so it never changes
+            LOG.debug("Can not watch translation file " + resource.getDescription(), e);
+        }
+    }
+
+    private TranslationBundle parse(final String location, final Resource resource) {
+        long parsedVersion = version.get();
+        Properties properties = new Properties();
+        InputStream inputStream = null;
+
+        try {
+            inputStream = resource.getInputStream();
+            properties.load(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            LOG.error("Can not read properties file " + location, e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+
+        Map<String, String> messages = new HashMap<>();
+
+        for (Entry<Object, Object> message : properties.entrySet()) {
+            messages.put((String) message.getKey(), (String) message.getValue());
+        }
+
+        return new TranslationBundle(location, messages, parsedVersion);
+    }
+
+    private void watchChanges() {
+        while (!Thread.currentThread().isInterrupted()) {
+            WatchKey key;
+
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = (Path) key.watchable();
+            boolean changed = false;
+            boolean overflow = false;
+            Set<String> changedLocations = new HashSet<>();
+
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    overflow = true;
+                    changed = true;
+                    continue;
+                }
+
+                Path file = directory.resolve((Path) event.context());
+
+                if (file.toString().endsWith(L_PROPERTIES_EXTENSION)) {
+                    String location = watchedFiles.get(file);
+
+                    if (location != null) {
+                        changedLocations.add(location);
+                    }
+
+                    changed = true;
+                }
+            }
+
+            key.reset();
+
+            if (changed) {
+                // version is incremented before the bundles are dropped, so the bundle parsed concurrently from the old file
+                // content has the old version and isn't kept by getBundle
+                version.incrementAndGet();
+
+                if (overflow) {
+                    bundles.clear();
+                } else {
+                    for (String location : changedLocations) {
+                        bundles.remove(location);
+                    }
+                }
+
+                onChange();
+            }
+        }
+    }
+
+    private void onChange() {
+        try {
+            messageSource.clearCache();
+            applicationEventPublisher.publishEvent(new TranslationsChangedEvent(this));
+
+            LOG.info("Translations reloaded, version " + version.get());
+        } catch (RuntimeException e) {
+            // exception would stop the watcher
+            LOG.warn("Can not reload translations", e);
+        }
+    }
+
+}
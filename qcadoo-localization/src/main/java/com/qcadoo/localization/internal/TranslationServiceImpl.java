@@ -23,27 +23,23 @@
  */
 package com.qcadoo.localization.internal;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Properties;
 import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.MessageSource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.Lists;
-import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import com.qcadoo.localization.api.TranslationRepository;
 
 @Service
 public final class TranslationServiceImpl implements InternalTranslationService {
@@ -57,18 +53,16 @@ public final class TranslationServiceImpl implements InternalTranslationService
     @Value("${ignoreMissingTranslations}")
     private boolean ignoreMissingTranslations;
 
-    private long lastHotDeployClearCache;
-
     private final Map<String, String> locales = new HashMap<>();
 
     @Autowired
-    private MessageSource messageSource;
+    private TranslationModuleService translationModuleService;
 
     @Autowired
-    private TranslationModuleService translationModuleService;
+    private TranslationRepository translationRepository;
 
     @Autowired
-    private ConfigUtil configUtil;
+    private CompiledMessageCache compiledMessageCache;
     
     @Override
     public String translate(final String code, final Locale locale, final String... args) {
@@ -116,19 +110,7 @@ public final class TranslationServiceImpl implements InternalTranslationService
     }
 
     private String translateWithError(final String messageCode, final Locale locale, final String[] args) {
-        if (configUtil.isHotDeploy() && this.messageSource instanceof ReloadableResourceBundleMessageSource) {
-            ReloadableResourceBundleMessageSource reloadableResourceBundleMessageSource = (ReloadableResourceBundleMessageSource) this.messageSource;
-
-            if ((System.currentTimeMillis() - lastHotDeployClearCache) >= 2500) {
-                reloadableResourceBundleMessageSource.clearCache();
-                lastHotDeployClearCache = System.currentTimeMillis();
-            }
-
-            return reloadableResourceBundleMessageSource.getMessage(messageCode, args, null, locale);
-
-        } else {
-            return messageSource.getMessage(messageCode, args, null, locale);
-        }
+        return compiledMessageCache.getMessage(messageCode, locale, args);
     }
 
     @Override
@@ -154,27 +136,16 @@ public final class TranslationServiceImpl implements InternalTranslationService
     }
 
     private void getMessagesByPrefix(final String prefix, final Set<String> messages) {
-        try {
-            for (Resource resource : translationModuleService.getLocalizationResources()) {
-                getMessagesByPrefix(prefix, messages, resource.getInputStream());
+        for (Resource resource : translationModuleService.getLocalizationResources()) {
+            for (String message : translationRepository.getBundle(resource).getMessages().keySet()) {
+                if (message.startsWith(prefix)) {
+                    messages.add(message);
+                }
             }
-        } catch (IOException e) {
-            LOG.error("Can not read messages file", e);
         }
         LOG.info("Messages for " + prefix + ": " + messages);
     }
 
-    private void getMessagesByPrefix(final String prefix, final Set<String> messages, final InputStream inputStream)
-            throws IOException {
-        Properties properties = new Properties();
-        properties.load(inputStream);
-        for (Object property : properties.keySet()) {
-            if (String.valueOf(property).startsWith(prefix)) {
-                messages.add((String) property);
-            }
-        }
-    }
-
     @Override
     public void addLocaleToList(final String locale, final String label) {
         locales.put(locale, label);
@@ -0,0 +1,76 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.api.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.text.MessageFormat;
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class CompiledMessageTest {
+
+    private static final Locale L_LOCALE = Locale.ENGLISH;
+
+    @Test
+    public void shouldFormatLikeMessageFormat() {
+        // given
+        String[] patterns = { "simple text", "{0} of {1}", "{1} and {0} and {1}", "don''t {0}", "'{0}' is quoted",
+                "it''s '{'{0}'}'", "{2} is missing", "closing } brace", "", "{00}", "''''", "a '' b 'c''d' {1}" };
+        String[] args = { "first", null };
+
+        for (String pattern : patterns) {
+            // when
+            String message = CompiledMessage.compile(pattern, L_LOCALE).format(args);
+
+            // then
+            assertEquals(pattern, new MessageFormat(pattern, L_LOCALE).format(args), message);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnFormattingInvalidPatternLikeMessageFormat() {
+        // given
+        CompiledMessage compiledMessage = CompiledMessage.compile("{0 is unmatched", L_LOCALE);
+
+        // when
+        compiledMessage.format("first");
+    }
+
+    @Test
+    public void shouldReuseMessageFormattedWithoutArguments() {
+        // given
+        CompiledMessage compiledMessage = CompiledMessage.compile("it''s {0}", L_LOCALE);
+
+        // when
+        String message = compiledMessage.format();
+
+        // then
+        assertEquals("it's {0}", message);
+        assertSame(message, compiledMessage.format((String[]) null));
+    }
+
+}
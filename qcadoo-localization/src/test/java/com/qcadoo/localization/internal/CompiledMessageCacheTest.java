@@ -0,0 +1,179 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.localization.api.TranslationsChangedEvent;
+
+public class CompiledMessageCacheTest {
+
+    private static final Locale L_LOCALE = Locale.ENGLISH;
+
+    private CompiledMessageCache compiledMessageCache;
+
+    private MessageSource messageSource;
+
+    @Before
+    public void init() {
+        messageSource = mock(MessageSource.class);
+
+        compiledMessageCache = createCache(messageSource, 100);
+    }
+
+    private CompiledMessageCache createCache(final MessageSource messageSource, final int maxSize) {
+        CompiledMessageCache cache = new CompiledMessageCache();
+
+        ReflectionTestUtils.setField(cache, "messageSource", messageSource);
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+
+        return cache;
+    }
+
+    @Test
+    public void shouldReturnTheSameMessagesAsMessageSource() {
+        // given
+        StaticMessageSource staticMessageSource = new StaticMessageSource();
+        staticMessageSource.addMessage("simple", L_LOCALE, "simple text");
+        staticMessageSource.addMessage("arguments", L_LOCALE, "{1} and {0}");
+        staticMessageSource.addMessage("quoted", L_LOCALE, "it''s '{0}' {0}");
+        staticMessageSource.addMessage("typed", L_LOCALE, "{0,number,#} items");
+
+        CompiledMessageCache cache = createCache(staticMessageSource, 100);
+
+        String[][] argsVariants = { null, new String[0], { "first", "second" } };
+
+        for (String code : new String[] { "simple", "arguments", "quoted" }) {
+            for (String[] args : argsVariants) {
+                // when
+                String message = cache.getMessage(code, L_LOCALE, args);
+
+                // then
+                assertEquals(code, staticMessageSource.getMessage(code, args, L_LOCALE), message);
+            }
+        }
+
+        assertEquals("typed", staticMessageSource.getMessage("typed", null, L_LOCALE),
+                cache.getMessage("typed", L_LOCALE, null));
+    }
+
+    @Test
+    public void shouldApplyArgumentsToCachedMessage() {
+        // given
+        given(messageSource.getMessage("code", null, null, L_LOCALE)).willReturn("{0} of {1}");
+
+        // when
+        String message1 = compiledMessageCache.getMessage("code", L_LOCALE, new String[] { "1", "2" });
+        String message2 = compiledMessageCache.getMessage("code", L_LOCALE, new String[] { "3", "4" });
+        String message3 = compiledMessageCache.getMessage("code", L_LOCALE, null);
+
+        // then
+        assertEquals("1 of 2", message1);
+        assertEquals("3 of 4", message2);
+        assertEquals("{0} of {1}", message3);
+        verify(messageSource, times(1)).getMessage("code", null, null, L_LOCALE);
+    }
+
+    @Test
+    public void shouldCacheMessagesForEachLocaleSeparately() {
+        // given
+        given(messageSource.getMessage("code", null, null, Locale.ENGLISH)).willReturn("english");
+        given(messageSource.getMessage("code", null, null, Locale.GERMAN)).willReturn("german");
+
+        // when
+        String english = compiledMessageCache.getMessage("code", Locale.ENGLISH, null);
+        String german = compiledMessageCache.getMessage("code", Locale.GERMAN, null);
+
+        // then
+        assertEquals("english", english);
+        assertEquals("german", german);
+    }
+
+    @Test
+    public void shouldReturnNullAndCacheMissingCode() {
+        // given
+        given(messageSource.getMessage("missing", null, null, L_LOCALE)).willReturn(null);
+
+        // when
+        String message1 = compiledMessageCache.getMessage("missing", L_LOCALE, new String[] { "1" });
+        String message2 = compiledMessageCache.getMessage("missing", L_LOCALE, null);
+
+        // then
+        assertNull(message1);
+        assertNull(message2);
+        verify(messageSource, times(1)).getMessage("missing", null, null, L_LOCALE);
+    }
+
+    @Test
+    public void shouldClearCacheOnTranslationsChangedEvent() {
+        // given
+        given(messageSource.getMessage("code", null, null, L_LOCALE)).willReturn("old", "new");
+        given(messageSource.getMessage("missing", null, null, L_LOCALE)).willReturn(null, "added");
+
+        compiledMessageCache.getMessage("code", L_LOCALE, null);
+        compiledMessageCache.getMessage("missing", L_LOCALE, null);
+
+        // when
+        compiledMessageCache.onApplicationEvent(new TranslationsChangedEvent(this));
+
+        // then
+        assertEquals("new", compiledMessageCache.getMessage("code", L_LOCALE, null));
+        assertEquals("added", compiledMessageCache.getMessage("missing", L_LOCALE, null));
+    }
+
+    @Test
+    public void shouldClearCacheWhenMaxSizeIsReached() {
+        // given
+        CompiledMessageCache cache = createCache(messageSource, 2);
+
+        given(messageSource.getMessage("code1", null, null, L_LOCALE)).willReturn("message1");
+        given(messageSource.getMessage("code2", null, null, L_LOCALE)).willReturn("message2");
+        given(messageSource.getMessage("code3", null, null, L_LOCALE)).willReturn("message3");
+
+        cache.getMessage("code1", L_LOCALE, null);
+        cache.getMessage("code2", L_LOCALE, null);
+
+        // when
+        cache.getMessage("code3", L_LOCALE, null);
+        cache.getMessage("code1", L_LOCALE, null);
+
+        // then
+        verify(messageSource, times(2)).getMessage("code1", null, null, L_LOCALE);
+        verify(messageSource, times(1)).getMessage("code3", null, null, L_LOCALE);
+    }
+
+}
@@ -0,0 +1,167 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.localization.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.support.ReloadableResourceBundleMessageSource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.localization.api.TranslationBundle;
+import com.qcadoo.localization.api.TranslationsChangedEvent;
+
+public class TranslationRepositoryImplTest {
+
+    private static final int L_WATCH_TIMEOUT = 30000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TranslationRepositoryImpl translationRepository;
+
+    @Mock
+    private ConfigUtil configUtil;
+
+    @Mock
+    private ReloadableResourceBundleMessageSource messageSource;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+
+        given(configUtil.isHotDeploy()).willReturn(false);
+
+        translationRepository = createRepository();
+    }
+
+    private TranslationRepositoryImpl createRepository() {
+        TranslationRepositoryImpl repository = new TranslationRepositoryImpl();
+
+        ReflectionTestUtils.setField(repository, "configUtil", configUtil);
+        ReflectionTestUtils.setField(repository, "messageSource", messageSource);
+        ReflectionTestUtils.setField(repository, "applicationEventPublisher", applicationEventPublisher);
+
+        repository.init();
+
+        return repository;
+    }
+
+    @Test
+    public void shouldParseFileOnce() throws Exception {
+        // given
+        File file = folder.newFile("messages_pl.properties");
+        FileUtils.writeStringToFile(file, "plugin.label=Zażółć\nplugin.other=gęślą\n", StandardCharsets.UTF_8);
+
+        // when
+        TranslationBundle bundle = translationRepository.getBundle(new FileSystemResource(file));
+
+        // then
+        assertEquals("Zażółć", bundle.getMessages().get("plugin.label"));
+        assertEquals(2, bundle.getMessages().size());
+        assertSame(bundle, translationRepository.getBundle(new FileSystemResource(file)));
+    }
+
+    @Test
+    public void shouldReturnEmptyBundleForMissingFile() {
+        // when
+        TranslationBundle bundle = translationRepository.getBundle(new FileSystemResource(new File(folder.getRoot(),
+                "missing_pl.properties")));
+
+        // then
+        assertTrue(bundle.getMessages().isEmpty());
+        assertEquals(0L, bundle.getVersion());
+    }
+
+    @Test
+    public void shouldReloadChangedFileInHotDeployMode() throws Exception {
+        // given
+        given(configUtil.isHotDeploy()).willReturn(true);
+
+        File file = folder.newFile("messages_en.properties");
+        FileUtils.writeStringToFile(file, "plugin.label=old\n", StandardCharsets.UTF_8);
+
+        Resource resource = new FileSystemResource(file);
+        TranslationRepositoryImpl hotDeployRepository = createRepository();
+
+        try {
+            hotDeployRepository.watch(Collections.singletonList(resource));
+
+            assertEquals("old", hotDeployRepository.getBundle(resource).getMessages().get("plugin.label"));
+
+            // when
+            FileUtils.writeStringToFile(file, "plugin.label=new\n", StandardCharsets.UTF_8);
+
+            // then
+            TranslationBundle bundle = waitForChange(hotDeployRepository, resource, "new");
+
+            assertEquals("new", bundle.getMessages().get("plugin.label"));
+            assertTrue(hotDeployRepository.getVersion() > 0L);
+            verify(messageSource, timeout(L_WATCH_TIMEOUT).atLeastOnce()).clearCache();
+            verify(applicationEventPublisher, timeout(L_WATCH_TIMEOUT).atLeastOnce()).publishEvent(
+                    any(TranslationsChangedEvent.class));
+        } finally {
+            hotDeployRepository.destroy();
+        }
+    }
+
+    private TranslationBundle waitForChange(final TranslationRepositoryImpl repository, final Resource resource,
+            final String expectedLabel) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + L_WATCH_TIMEOUT;
+        TranslationBundle bundle = repository.getBundle(resource);
+
+        while (System.currentTimeMillis() < deadline
+                && (repository.getVersion() == 0L || !expectedLabel.equals(bundle.getMessages().get("plugin.label")))) {
+            Thread.sleep(50);
+
+            bundle = repository.getBundle(resource);
+        }
+
+        return bundle;
+    }
+
+}
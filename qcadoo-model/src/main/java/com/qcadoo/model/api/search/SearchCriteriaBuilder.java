@@ -23,6 +23,8 @@
  */
 package com.qcadoo.model.api.search;
 
+import java.util.function.Consumer;
+
 import com.qcadoo.model.api.Entity;
 
 /**
@@ -66,6 +68,38 @@ public interface SearchCriteriaBuilder {
      */
     Entity uniqueResult();
 
+    /**
+     * Checks if there is at least one entity matching this criteria. Entities aren't loaded, first result, max results and orders
+     * are ignored and pending session changes aren't flushed before the query.
+     * 
+     * @return true if at least one entity matches this criteria
+     * @since 1.5
+     */
+    boolean exists();
+
+    /**
+     * Counts entities matching this criteria. Entities aren't loaded, first result, max results and orders are ignored and
+     * pending session changes aren't flushed before the query.
+     * 
+     * @return number of entities matching this criteria
+     * @since 1.5
+     */
+    long count();
+
+    /**
+     * Passes entities matching this criteria to the given consumer one by one, reading them from the forward-only database
+     * cursor. Entities are detached from the session once consumed, so memory usage doesn't depend on the number of results.
+     * First result and max results are ignored, orders are applied the same way as in {@link #list()} and pending session changes
+     * aren't flushed before the query.
+     * 
+     * @param fetchSize
+     *            number of rows fetched from the database in one round trip
+     * @param consumer
+     *            consumer of the entities
+     * @since 1.5
+     */
+    void scroll(int fetchSize, Consumer<Entity> consumer);
+
     /**
      * Sets the ascending order by given field, by default there is an order by id.
      * 
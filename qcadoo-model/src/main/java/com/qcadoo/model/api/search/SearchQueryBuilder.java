@@ -88,6 +88,25 @@ public interface SearchQueryBuilder {
      */
     Entity uniqueResult();
 
+    /**
+     * Checks if there is at least one entity matching this query. Entities aren't loaded, first result, max results and orders
+     * are ignored and pending session changes aren't flushed before the query.
+     * 
+     * @return true if at least one entity matches this query
+     * @since 1.5
+     */
+    boolean exists();
+
+    /**
+     * Counts entities matching this query. Entities aren't loaded, first result, max results and orders are ignored and
+     * pending session changes aren't flushed before the query. Count query is derived from this query, queries with group by,
+     * having, aggregates or distinct over several columns in the select section are executed and their rows are counted.
+     * 
+     * @return number of entities matching this query
+     * @since 1.5
+     */
+    long count();
+
     /**
      * Sets the max results, by default there is no limit.
      * 
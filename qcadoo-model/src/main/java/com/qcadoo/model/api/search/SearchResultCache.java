@@ -0,0 +1,59 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.api.search;
+
+/**
+ * Short-lived cache of the search results, shared between users of the same tenant. Cached results of the model are dropped
+ * when any entity of this model is saved or deleted, other changes (e.g. changes of the related models shown through database
+ * views or raw SQL updates) become visible after the configured time to live.
+ * 
+ * @since 1.5
+ */
+public interface SearchResultCache {
+
+    /**
+     * Returns results of the given criteria, executing it only if results aren't cached yet. Criteria with projections are
+     * always executed.
+     * 
+     * @param searchCriteriaBuilder
+     *            search criteria
+     * @return search result, entities are copies which can be freely modified
+     */
+    SearchResult list(SearchCriteriaBuilder searchCriteriaBuilder);
+
+    /**
+     * Returns number of the searches answered from the cache.
+     * 
+     * @return number of hits
+     */
+    long getHitCount();
+
+    /**
+     * Returns number of the searches which had to be executed.
+     * 
+     * @return number of misses
+     */
+    long getMissCount();
+
+}
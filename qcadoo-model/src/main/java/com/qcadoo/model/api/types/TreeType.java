@@ -32,4 +32,13 @@ public interface TreeType extends CollectionFieldType {
 
     String NODE_NUMBER_FIELD = "nodeNumber";
 
+    /**
+     * Name of the optional materialised path field of the tree node model. If the node model declares it, the framework keeps it
+     * up to date on save and trees of this model can be queried using {@link com.qcadoo.model.api.utils.TreePathService}. The
+     * field should be declared as text, string field limits the path to 255 characters and saving deeper node fails.
+     * 
+     * @since 1.5
+     */
+    String NODE_PATH_FIELD = "nodePath";
+
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.api.utils;
+
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.search.SearchCriterion;
+
+/**
+ * Service for prefix searching of the string fields using the normalised autocomplete key. A model opts in by declaring an
+ * additional string field named after the searched field with {@link #KEY_FIELD_SUFFIX} (e.g. "numberAutocompleteKey" for the
+ * "number" field). The framework fills the key on every save with the normalised value of the searched field (trimmed, lower
+ * case, without diacritics) and the key column gets a database index, so prefix search doesn't need to scan the table.
+ * 
+ * @since 1.5
+ */
+public interface AutocompleteKeyService {
+
+    String KEY_FIELD_SUFFIX = "AutocompleteKey";
+
+    /**
+     * Normalises given value the same way as it's done for the autocomplete key.
+     * 
+     * @param value
+     *            value
+     * @return normalised value, null for null
+     */
+    String normalize(String value);
+
+    /**
+     * Checks if the autocomplete key is maintained for given field.
+     * 
+     * @param dataDefinition
+     *            data definition
+     * @param fieldName
+     *            searched field
+     * @return true if the model declares the key field for given field
+     */
+    boolean isKeyIndexed(DataDefinition dataDefinition, String fieldName);
+
+    /**
+     * Creates criterion matching entities which field value starts with given prefix, ignoring case and diacritics. If the field
+     * doesn't have the autocomplete key case-insensitive prefix match on the field itself is used.
+     * 
+     * @param dataDefinition
+     *            data definition
+     * @param fieldName
+     *            searched field
+     * @param prefix
+     *            prefix
+     * @return search criterion
+     */
+    SearchCriterion startsWith(DataDefinition dataDefinition, String fieldName, String prefix);
+
+    /**
+     * Rebuilds autocomplete keys of all entities of given data definition, e.g. after adding the key field to the existing model.
+     * 
+     * @param dataDefinition
+     *            data definition
+     * @return number of updated entities
+     */
+    int rebuildKeys(DataDefinition dataDefinition);
+
+}
@@ -0,0 +1,100 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.api.utils;
+
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.SearchCriteriaBuilder;
+import com.qcadoo.model.api.types.TreeType;
+
+/**
+ * Service for querying parts of the trees which node model declares the materialised path field ({@link TreeType#NODE_PATH_FIELD}
+ * ). The path contains ids of all ancestors of the node and the node itself (e.g. "12/45/78/"), it's maintained by the framework
+ * on every save of the node. All criteria returned by this service are resolved with one query using prefix match on the path,
+ * so the path column should be indexed.
+ * 
+ * @since 1.5
+ */
+public interface TreePathService {
+
+    /**
+     * Checks if tree nodes of given data definition have the materialised path field.
+     * 
+     * @param dataDefinition
+     *            tree node's data definition
+     * @return true if the path is maintained for given data definition
+     */
+    boolean isPathIndexed(DataDefinition dataDefinition);
+
+    /**
+     * Creates search criteria builder for given node and all its descendants.
+     * 
+     * @param node
+     *            tree node
+     * @return new search criteria builder
+     */
+    SearchCriteriaBuilder findSubtree(Entity node);
+
+    /**
+     * Creates search criteria builder for given node and its descendants at most maxDepth levels below the node.
+     * 
+     * @param node
+     *            tree node
+     * @param maxDepth
+     *            number of levels below given node, 0 means only the node itself
+     * @return new search criteria builder
+     */
+    SearchCriteriaBuilder findSubtree(Entity node, int maxDepth);
+
+    /**
+     * Creates search criteria builder for all ancestors of given node, from the root to the direct parent.
+     * 
+     * @param node
+     *            tree node
+     * @return new search criteria builder
+     */
+    SearchCriteriaBuilder findAncestors(Entity node);
+
+    /**
+     * Returns depth of given node, the root node has depth equal to zero.
+     * 
+     * @param node
+     *            tree node
+     * @return depth of the node
+     */
+    int getDepth(Entity node);
+
+    /**
+     * Rebuilds paths of all nodes of the tree, e.g. after adding the path field to the existing model.
+     * 
+     * @param dataDefinition
+     *            tree node's data definition
+     * @param joinFieldName
+     *            name of the field joining nodes with the tree owner
+     * @param belongsToEntityId
+     *            id of the tree owner
+     */
+    void rebuildPaths(DataDefinition dataDefinition, String joinFieldName, Long belongsToEntityId);
+
+}
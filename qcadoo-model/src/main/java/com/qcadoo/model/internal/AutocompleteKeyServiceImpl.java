@@ -0,0 +1,164 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.FieldDefinition;
+import com.qcadoo.model.api.search.SearchCriterion;
+import com.qcadoo.model.api.search.SearchMatchMode;
+import com.qcadoo.model.api.search.SearchRestrictions;
+import com.qcadoo.model.api.utils.AutocompleteKeyService;
+import com.qcadoo.model.internal.api.AutocompleteKeyIndexService;
+import com.qcadoo.model.internal.api.EntityService;
+import com.qcadoo.model.internal.api.HibernateService;
+import com.qcadoo.model.internal.api.InternalDataDefinition;
+
+@Service
+public final class AutocompleteKeyServiceImpl implements AutocompleteKeyService, AutocompleteKeyIndexService {
+
+    private static final Pattern L_DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern L_WHITESPACES = Pattern.compile("\\s+");
+
+    private static final int L_REBUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private HibernateService hibernateService;
+
+    @Autowired
+    private EntityService entityService;
+
+    @Override
+    public String normalize(final String value) {
+        if (value == null) {
+            return null;
+        }
+
+        String normalized = Normalizer.normalize(value, Normalizer.Form.NFD);
+        normalized = L_DIACRITICS.matcher(normalized).replaceAll("");
+        normalized = L_WHITESPACES.matcher(normalized).replaceAll(" ");
+
+        return normalized.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean isKeyIndexed(final DataDefinition dataDefinition, final String fieldName) {
+        return isStringField(dataDefinition.getField(fieldName))
+                && isStringField(dataDefinition.getField(fieldName + KEY_FIELD_SUFFIX));
+    }
+
+    @Override
+    public SearchCriterion startsWith(final DataDefinition dataDefinition, final String fieldName, final String prefix) {
+        if (isKeyIndexed(dataDefinition, fieldName)) {
+            return SearchRestrictions.like(fieldName + KEY_FIELD_SUFFIX, normalize(prefix), SearchMatchMode.START);
+        }
+
+        return SearchRestrictions.ilike(fieldName, prefix, SearchMatchMode.START);
+    }
+
+    @Override
+    public void indexEntity(final InternalDataDefinition dataDefinition, final Object databaseEntity) {
+        for (FieldDefinition keyFieldDefinition : dataDefinition.getFields().values()) {
+            String keyFieldName = keyFieldDefinition.getName();
+
+            if (!keyFieldName.endsWith(KEY_FIELD_SUFFIX) || !isStringField(keyFieldDefinition)) {
+                continue;
+            }
+
+            FieldDefinition fieldDefinition = dataDefinition.getField(StringUtils.removeEnd(keyFieldName, KEY_FIELD_SUFFIX));
+
+            if (!isStringField(fieldDefinition)) {
+                continue;
+            }
+
+            Object value = entityService.getField(databaseEntity, fieldDefinition);
+
+            entityService.setField(databaseEntity, keyFieldDefinition, value == null ? null : normalize(value.toString()));
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuildKeys(final DataDefinition dataDefinition) {
+        InternalDataDefinition internalDataDefinition = (InternalDataDefinition) dataDefinition;
+
+        checkArgument(hasKeyFields(internalDataDefinition), "Model " + dataDefinition.getName()
+                + " doesn't have autocomplete key fields");
+
+        Session session = hibernateService.getCurrentSession();
+
+        ScrollableResults results = session.createCriteria(internalDataDefinition.getClassForEntity())
+                .setFetchSize(L_REBUILD_BATCH_SIZE).scroll(ScrollMode.FORWARD_ONLY);
+
+        int count = 0;
+
+        try {
+            while (results.next()) {
+                Object databaseEntity = results.get(0);
+
+                indexEntity(internalDataDefinition, databaseEntity);
+                session.update(databaseEntity);
+
+                if (++count % L_REBUILD_BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        } finally {
+            results.close();
+        }
+
+        return count;
+    }
+
+    private boolean hasKeyFields(final DataDefinition dataDefinition) {
+        for (String fieldName : dataDefinition.getFields().keySet()) {
+            if (fieldName.endsWith(KEY_FIELD_SUFFIX)
+                    && isKeyIndexed(dataDefinition, StringUtils.removeEnd(fieldName, KEY_FIELD_SUFFIX))) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isStringField(final FieldDefinition fieldDefinition) {
+        return fieldDefinition != null && String.class.equals(fieldDefinition.getType().getType());
+    }
+
+}
@@ -37,12 +37,18 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.regex.Matcher;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
+import org.hibernate.FlushMode;
 import org.hibernate.Query;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.classic.Session;
 import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.impl.CriteriaImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -81,12 +87,15 @@ import com.qcadoo.model.api.utils.EntityUtils;
 import com.qcadoo.model.api.validators.ErrorMessage;
 import com.qcadoo.model.api.validators.GlobalMessage;
 import com.qcadoo.model.constants.VersionableConstants;
+import com.qcadoo.model.internal.api.AutocompleteKeyIndexService;
 import com.qcadoo.model.internal.api.DataAccessService;
 import com.qcadoo.model.internal.api.EntityService;
 import com.qcadoo.model.internal.api.HibernateService;
 import com.qcadoo.model.internal.api.InternalDataDefinition;
 import com.qcadoo.model.internal.api.InternalFieldDefinition;
 import com.qcadoo.model.internal.api.PriorityService;
+import com.qcadoo.model.internal.api.SearchResultCacheInvalidator;
+import com.qcadoo.model.internal.api.TreePathIndexService;
 import com.qcadoo.model.internal.api.ValidationService;
 import com.qcadoo.model.internal.search.SearchCriteria;
 import com.qcadoo.model.internal.search.SearchQuery;
@@ -112,6 +121,15 @@ public class DataAccessServiceImpl implements DataAccessService {
     @Autowired
     private PriorityService priorityService;
 
+    @Autowired
+    private TreePathIndexService treePathIndexService;
+
+    @Autowired
+    private AutocompleteKeyIndexService autocompleteKeyIndexService;
+
+    @Autowired
+    private SearchResultCacheInvalidator searchResultCacheInvalidator;
+
     @Autowired
     private ExpressionService expressionService;
 
@@ -181,6 +199,8 @@ public class DataAccessServiceImpl implements DataAccessService {
         if (alreadySavedEntities.contains(genericEntity)) {
             return genericEntity;
         }
+
+        searchResultCacheInvalidator.invalidate(dataDefinition);
         Entity genericEntityToSave = genericEntity.copy();
 
         Object existingDatabaseEntity = getExistingDatabaseEntity(dataDefinition, genericEntity);
@@ -205,12 +225,16 @@ public class DataAccessServiceImpl implements DataAccessService {
         }
         Object databaseEntity = entityService.convertToDatabaseEntity(dataDefinition, genericEntity, existingDatabaseEntity);
 
+        autocompleteKeyIndexService.indexEntity(dataDefinition, databaseEntity);
+
         if (genericEntity.getId() == null) {
             priorityService.prioritizeEntity(dataDefinition, databaseEntity);
         }
 
         saveDatabaseEntity(dataDefinition, databaseEntity);
 
+        treePathIndexService.indexTreeNode(dataDefinition, databaseEntity, existingGenericEntity);
+
         if(dataDefinition.isVersionable()){
             hibernateService.getCurrentSession().flush();
         }
@@ -801,6 +825,98 @@ public class DataAccessServiceImpl implements DataAccessService {
         return getResultSet(searchQueryDataDefinition, totalNumberOfEntities, results);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Monitorable
+    public boolean exists(final SearchCriteria searchCriteria) {
+        checkArgument(searchCriteria != null, "SearchCriteria must be given");
+
+        return hibernateService.exists(searchCriteria.createCriteria(hibernateService.getCurrentSession()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Monitorable
+    public long count(final SearchCriteria searchCriteria) {
+        checkArgument(searchCriteria != null, "SearchCriteria must be given");
+
+        return hibernateService.count(searchCriteria.createCriteria(hibernateService.getCurrentSession()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Monitorable
+    public void scroll(final SearchCriteria searchCriteria, final int fetchSize, final Consumer<Entity> consumer) {
+        checkArgument(searchCriteria != null, "SearchCriteria must be given");
+        checkArgument(fetchSize > 0, "Fetch size must be positive");
+        checkArgument(consumer != null, "Consumer must be given");
+
+        Session session = hibernateService.getCurrentSession();
+        Criteria criteria = searchCriteria.createCriteria(session);
+
+        searchCriteria.addOrders(criteria);
+
+        InternalDataDefinition searchQueryDataDefinition = (InternalDataDefinition) searchCriteria.getDataDefinition();
+
+        if (searchQueryDataDefinition == null) {
+            searchQueryDataDefinition = hibernateService.resolveDataDefinition(criteria);
+        }
+
+        boolean hasProjection = ((CriteriaImpl) criteria).getProjection() != null;
+
+        ScrollableResults results = criteria.setFetchSize(fetchSize).setFlushMode(FlushMode.MANUAL)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        try {
+            while (results.next()) {
+                Object[] row = results.get();
+                Object databaseEntity = row.length == 1 ? row[0] : row;
+
+                consumer.accept(entityService.convertToGenericEntity(searchQueryDataDefinition, databaseEntity));
+
+                if (!hasProjection) {
+                    session.evict(databaseEntity);
+                }
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Monitorable
+    public boolean exists(final SearchQuery searchQuery) {
+        checkArgument(searchQuery != null, "SearchQuery must be given");
+
+        Query query = searchQuery.createExistsQuery(hibernateService.getCurrentSession());
+        searchQuery.addParameters(query);
+
+        return hibernateService.exists(query);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Monitorable
+    public long count(final SearchQuery searchQuery) {
+        checkArgument(searchQuery != null, "SearchQuery must be given");
+
+        Session session = hibernateService.getCurrentSession();
+
+        if (!searchQuery.hasCountQuery()) {
+            // group by, aggregates or distinct over several columns - the number of rows is known only after the execution
+            Query query = searchQuery.createQuery(session);
+            searchQuery.addParameters(query);
+
+            return hibernateService.countRows(query);
+        }
+
+        Query query = searchQuery.createCountQuery(session);
+        searchQuery.addParameters(query);
+
+        return hibernateService.count(query);
+    }
+
     @Override
     public void moveTo(final InternalDataDefinition dataDefinition, final Long entityId, final int position) {
         checkState(position > 0, "Position must be greaten than 0");
@@ -828,6 +944,7 @@ public class DataAccessServiceImpl implements DataAccessService {
         }
 
         priorityService.move(dataDefinition, databaseEntity, position, offset);
+        searchResultCacheInvalidator.invalidate(dataDefinition);
         logEntityInfo(dataDefinition, entityId, "has been prioritized");
     }
 
@@ -893,6 +1010,7 @@ public class DataAccessServiceImpl implements DataAccessService {
             try {
                 databaseEntity = getDatabaseEntity(dataDefinition, entityId);
                 if (databaseEntity != null) {
+                    searchResultCacheInvalidator.invalidate(dataDefinition);
                     hibernateService.getCurrentSession().delete(databaseEntity);
                     hibernateService.getCurrentSession().flush();
                 }
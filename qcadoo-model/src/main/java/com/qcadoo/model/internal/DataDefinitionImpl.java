@@ -44,11 +44,9 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.*;
-import static com.qcadoo.model.api.search.SearchOrders.asc;
-import static com.qcadoo.model.api.search.SearchProjections.alias;
-import static com.qcadoo.model.api.search.SearchProjections.rowCount;
 
 public final class DataDefinitionImpl implements InternalDataDefinition {
 
@@ -138,21 +136,16 @@ public final class DataDefinitionImpl implements InternalDataDefinition {
 
     @Override
     public long count(){
-        return count(null);
+        return find().count();
     }
 
     @Override
     public long count(final SearchCriterion criterion) {
-        final String countAlias = "count";
         SearchCriteriaBuilder scb = find();
         if (criterion != null) {
             scb.add(criterion);
         }
-        scb.setProjection(alias(rowCount(), countAlias));
-        scb.addOrder(asc(countAlias));
-
-        Entity countProjection = scb.setMaxResults(1).uniqueResult();
-        return (Long) countProjection.getField(countAlias);
+        return scb.count();
     }
 
     @Override
@@ -165,6 +158,21 @@ public final class DataDefinitionImpl implements InternalDataDefinition {
         return dataAccessService.find(searchCriteria);
     }
 
+    @Override
+    public boolean exists(final SearchCriteria searchCriteria) {
+        return dataAccessService.exists(searchCriteria);
+    }
+
+    @Override
+    public long count(final SearchCriteria searchCriteria) {
+        return dataAccessService.count(searchCriteria);
+    }
+
+    @Override
+    public void scroll(final SearchCriteria searchCriteria, final int fetchSize, final Consumer<Entity> consumer) {
+        dataAccessService.scroll(searchCriteria, fetchSize, consumer);
+    }
+
     @Override
     public void move(final Long id, final int offset) {
         dataAccessService.move(this, id, offset);
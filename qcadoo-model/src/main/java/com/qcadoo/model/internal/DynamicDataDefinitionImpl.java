@@ -38,6 +38,7 @@ import com.qcadoo.model.internal.search.SearchCriteria;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public class DynamicDataDefinitionImpl implements InternalDataDefinition {
 
@@ -176,6 +177,21 @@ public class DynamicDataDefinitionImpl implements InternalDataDefinition {
         throw new UnsupportedOperationException(L_CANNOT_FIND_ENTITY_FOR_DYNAMIC_DATA_DEFINITION);
     }
 
+    @Override
+    public boolean exists(final SearchCriteria searchCriteria) {
+        throw new UnsupportedOperationException(L_CANNOT_FIND_ENTITY_FOR_DYNAMIC_DATA_DEFINITION);
+    }
+
+    @Override
+    public long count(final SearchCriteria searchCriteria) {
+        throw new UnsupportedOperationException("Cannot count entities for dynamic data definition");
+    }
+
+    @Override
+    public void scroll(final SearchCriteria searchCriteria, final int fetchSize, final Consumer<Entity> consumer) {
+        throw new UnsupportedOperationException(L_CANNOT_FIND_ENTITY_FOR_DYNAMIC_DATA_DEFINITION);
+    }
+
     @Override
     public String getFullyQualifiedClassName() {
         throw new UnsupportedOperationException("Cannot get class for dynamic data definition");
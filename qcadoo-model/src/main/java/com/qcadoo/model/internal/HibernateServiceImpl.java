@@ -35,9 +35,14 @@ import com.qcadoo.model.internal.types.DecimalType;
 import com.qcadoo.model.internal.types.StringType;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Criteria;
+import org.hibernate.FlushMode;
 import org.hibernate.Query;
+import org.hibernate.SQLQuery;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
 import org.hibernate.SessionFactory;
 import org.hibernate.classic.Session;
+import org.hibernate.criterion.Projections;
 import org.hibernate.engine.SessionFactoryImplementor;
 import org.hibernate.engine.SessionImplementor;
 import org.hibernate.impl.CriteriaImpl;
@@ -45,11 +50,13 @@ import org.hibernate.loader.criteria.CriteriaJoinWalker;
 import org.hibernate.loader.criteria.CriteriaQueryTranslator;
 import org.hibernate.persister.entity.OuterJoinLoadable;
 import org.hibernate.type.*;
+import org.hibernate.util.SerializationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 
@@ -71,7 +78,63 @@ public class HibernateServiceImpl implements HibernateService {
 
     @Override
     public int getTotalNumberOfEntities(final Criteria criteria) {
-        final CriteriaImpl criteriaImpl = (CriteriaImpl) criteria;
+        getCurrentSession().flush(); // is this safe?
+
+        return (int) countRows(criteria);
+    }
+
+    @Override
+    public boolean exists(final Criteria criteria) {
+        CriteriaImpl probe = copyWithoutOrders(criteria);
+
+        if (probe.getProjection() == null) {
+            probe.setProjection(Projections.id());
+        }
+
+        return !probe.setFirstResult(0).setMaxResults(1).list().isEmpty();
+    }
+
+    @Override
+    public long count(final Criteria criteria) {
+        return countRows(criteria);
+    }
+
+    /**
+     * Counts rows returned by given criteria. Plain entity criteria are counted by the row count projection. Criteria with their
+     * own projection (which may be grouped or distinct) are counted by wrapping the SQL of the projection - it contains only the
+     * projected columns. Orders are dropped in both cases and the session isn't flushed.
+     */
+    private long countRows(final Criteria criteria) {
+        CriteriaImpl countCriteria = copyWithoutOrders(criteria);
+
+        if (countCriteria.getProjection() == null) {
+            countCriteria.setProjection(Projections.rowCount()).setFirstResult(0);
+
+            return ((Number) countCriteria.uniqueResult()).longValue();
+        }
+
+        return ((Number) createWrappingCountQuery(countCriteria).uniqueResult()).longValue();
+    }
+
+    /**
+     * Creates copy of given criteria without orders, so criteria itself (projection, paging, flush mode) is left untouched and
+     * the builder it comes from can be executed again.
+     */
+    private CriteriaImpl copyWithoutOrders(final Criteria criteria) {
+        CriteriaImpl copy = (CriteriaImpl) SerializationHelper.clone((CriteriaImpl) criteria);
+        copy.setSession((SessionImplementor) getCurrentSession());
+
+        for (Iterator<?> orders = copy.iterateOrderings(); orders.hasNext();) {
+            orders.next();
+            orders.remove();
+        }
+
+        copy.setFlushMode(FlushMode.MANUAL);
+
+        return copy;
+    }
+
+    private SQLQuery createWrappingCountQuery(final CriteriaImpl criteriaImpl) {
         final SessionImplementor session = (SessionImplementor) getCurrentSession();
         SessionFactoryImplementor factory = session.getFactory();
         CriteriaQueryTranslator translator = new CriteriaQueryTranslator(factory, criteriaImpl,
@@ -83,12 +146,39 @@ public class HibernateServiceImpl implements HibernateService {
 
         final String sql = "select count(*) as cnt from (" + walker.getSQLString() + ") sq";
 
-        getCurrentSession().flush(); // is this safe?
+        SQLQuery query = getCurrentSession().createSQLQuery(sql);
+        query.setParameters(translator.getQueryParameters().getPositionalParameterValues(), translator.getQueryParameters()
+                .getPositionalParameterTypes());
+        query.setFlushMode(FlushMode.MANUAL);
+
+        return query;
+    }
+
+    @Override
+    public boolean exists(final Query query) {
+        return !query.setMaxResults(1).setFlushMode(FlushMode.MANUAL).list().isEmpty();
+    }
+
+    @Override
+    public long count(final Query query) {
+        return ((Number) query.setFlushMode(FlushMode.MANUAL).uniqueResult()).longValue();
+    }
+
+    @Override
+    public long countRows(final Query query) {
+        ScrollableResults results = query.setFlushMode(FlushMode.MANUAL).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+
+        try {
+            long rows = 0;
 
-        return ((Number) getCurrentSession()
-                .createSQLQuery(sql)
-                .setParameters(translator.getQueryParameters().getPositionalParameterValues(),
-                        translator.getQueryParameters().getPositionalParameterTypes()).uniqueResult()).intValue();
+            while (results.next()) {
+                rows++;
+            }
+
+            return rows;
+        } finally {
+            results.close();
+        }
     }
 
     @Override
@@ -0,0 +1,231 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.internal;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.criterion.Restrictions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.FieldDefinition;
+import com.qcadoo.model.api.search.SearchCriteriaBuilder;
+import com.qcadoo.model.api.search.SearchRestrictions;
+import com.qcadoo.model.api.types.TreeType;
+import com.qcadoo.model.api.utils.TreePathService;
+import com.qcadoo.model.internal.api.EntityService;
+import com.qcadoo.model.internal.api.HibernateService;
+import com.qcadoo.model.internal.api.InternalDataDefinition;
+import com.qcadoo.model.internal.api.TreePathIndexService;
+import com.qcadoo.model.internal.types.TextType;
+
+@Service
+public final class TreePathServiceImpl implements TreePathService, TreePathIndexService {
+
+    private static final String L_PARENT = "parent";
+
+    private static final char L_SEPARATOR = '/';
+
+    private static final int L_STRING_PATH_MAX_LENGTH = 255;
+
+    @Autowired
+    private HibernateService hibernateService;
+
+    @Autowired
+    private EntityService entityService;
+
+    @Override
+    public boolean isPathIndexed(final DataDefinition dataDefinition) {
+        return dataDefinition.getField(TreeType.NODE_PATH_FIELD) != null && dataDefinition.getField(L_PARENT) != null;
+    }
+
+    @Override
+    public void indexTreeNode(final InternalDataDefinition dataDefinition, final Object databaseEntity,
+            final Entity existingGenericEntity) {
+        if (!isPathIndexed(dataDefinition)) {
+            return;
+        }
+
+        FieldDefinition pathFieldDefinition = dataDefinition.getField(TreeType.NODE_PATH_FIELD);
+
+        String path = buildPath(dataDefinition, databaseEntity);
+
+        setPath(databaseEntity, pathFieldDefinition, path);
+
+        if (existingGenericEntity == null) {
+            return;
+        }
+
+        String oldPath = existingGenericEntity.getStringField(TreeType.NODE_PATH_FIELD);
+
+        if (oldPath != null && !oldPath.equals(path)) {
+            movePaths(dataDefinition, databaseEntity, oldPath, path);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void movePaths(final InternalDataDefinition dataDefinition, final Object databaseEntity, final String oldPath,
+            final String path) {
+        FieldDefinition pathFieldDefinition = dataDefinition.getField(TreeType.NODE_PATH_FIELD);
+
+        List<Object> descendants = hibernateService.getCurrentSession().createCriteria(dataDefinition.getClassForEntity())
+                .add(Restrictions.like(pathFieldDefinition.getName(), oldPath + "%"))
+                .add(Restrictions.not(Restrictions.idEq(entityService.getId(databaseEntity)))).list();
+
+        for (Object descendant : descendants) {
+            String descendantPath = (String) entityService.getField(descendant, pathFieldDefinition);
+            setPath(descendant, pathFieldDefinition, path + descendantPath.substring(oldPath.length()));
+            hibernateService.getCurrentSession().update(descendant);
+        }
+    }
+
+    private String getPath(final InternalDataDefinition dataDefinition, final Object databaseEntity) {
+        FieldDefinition pathFieldDefinition = dataDefinition.getField(TreeType.NODE_PATH_FIELD);
+
+        String path = (String) entityService.getField(databaseEntity, pathFieldDefinition);
+
+        if (path == null) {
+            path = buildPath(dataDefinition, databaseEntity);
+            setPath(databaseEntity, pathFieldDefinition, path);
+        }
+
+        return path;
+    }
+
+    private void setPath(final Object databaseEntity, final FieldDefinition pathFieldDefinition, final String path) {
+        checkState(pathFieldDefinition.getType() instanceof TextType || path.length() <= L_STRING_PATH_MAX_LENGTH,
+                "Path of tree node %s has %s characters, it doesn't fit into string field %s (max %s characters), "
+                        + "declare the path field as text", entityService.getId(databaseEntity), path.length(),
+                pathFieldDefinition.getName(), L_STRING_PATH_MAX_LENGTH);
+
+        entityService.setField(databaseEntity, pathFieldDefinition, path);
+    }
+
+    private String buildPath(final InternalDataDefinition dataDefinition, final Object databaseEntity) {
+        String nodePath = String.valueOf(entityService.getId(databaseEntity)) + L_SEPARATOR;
+
+        Entity parent = (Entity) entityService.getField(databaseEntity, dataDefinition.getField(L_PARENT));
+
+        if (parent == null || parent.getId() == null) {
+            return nodePath;
+        }
+
+        Object parentDatabaseEntity = hibernateService.getCurrentSession().get(dataDefinition.getClassForEntity(),
+                parent.getId());
+
+        checkState(parentDatabaseEntity != null, "Parent for tree node not found");
+
+        return getPath(dataDefinition, parentDatabaseEntity) + nodePath;
+    }
+
+    @Override
+    public SearchCriteriaBuilder findSubtree(final Entity node) {
+        return node.getDataDefinition().find().add(SearchRestrictions.like(TreeType.NODE_PATH_FIELD, getNodePath(node) + "%"));
+    }
+
+    @Override
+    public SearchCriteriaBuilder findSubtree(final Entity node, final int maxDepth) {
+        checkArgument(maxDepth >= 0, "Depth must be greater than or equal to 0");
+
+        String path = getNodePath(node);
+
+        return node.getDataDefinition().find().add(SearchRestrictions.like(TreeType.NODE_PATH_FIELD, path + "%"))
+                .add(SearchRestrictions.not(SearchRestrictions.like(TreeType.NODE_PATH_FIELD,
+                        path + StringUtils.repeat("%" + L_SEPARATOR, maxDepth + 1))));
+    }
+
+    @Override
+    public SearchCriteriaBuilder findAncestors(final Entity node) {
+        String[] ids = StringUtils.split(getNodePath(node), L_SEPARATOR);
+
+        List<Long> ancestorIds = new ArrayList<Long>();
+
+        for (int i = 0; i < ids.length - 1; i++) {
+            ancestorIds.add(Long.valueOf(ids[i]));
+        }
+
+        if (ancestorIds.isEmpty()) {
+            // root has no ancestors
+            return node.getDataDefinition().find().add(SearchRestrictions.isNull("id"));
+        }
+
+        return node.getDataDefinition().find().add(SearchRestrictions.in("id", ancestorIds));
+    }
+
+    @Override
+    public int getDepth(final Entity node) {
+        return StringUtils.countMatches(getNodePath(node), String.valueOf(L_SEPARATOR)) - 1;
+    }
+
+    private String getNodePath(final Entity node) {
+        checkArgument(node != null, "Tree node must be given");
+        checkArgument(isPathIndexed(node.getDataDefinition()), "Tree node model doesn't have path field");
+
+        String path = node.getStringField(TreeType.NODE_PATH_FIELD);
+
+        if (path == null && node.getId() != null) {
+            Entity databaseNode = node.getDataDefinition().get(node.getId());
+
+            if (databaseNode != null) {
+                path = databaseNode.getStringField(TreeType.NODE_PATH_FIELD);
+            }
+        }
+
+        checkState(path != null, "Tree node " + node + " doesn't have path, it has to be saved or tree paths have to be rebuilt");
+
+        return path;
+    }
+
+    @Override
+    @Transactional
+    @SuppressWarnings("unchecked")
+    public void rebuildPaths(final DataDefinition dataDefinition, final String joinFieldName, final Long belongsToEntityId) {
+        InternalDataDefinition internalDataDefinition = (InternalDataDefinition) dataDefinition;
+
+        checkArgument(isPathIndexed(internalDataDefinition), "Tree node model doesn't have path field");
+
+        FieldDefinition pathFieldDefinition = internalDataDefinition.getField(TreeType.NODE_PATH_FIELD);
+
+        List<Object> nodes = hibernateService.getCurrentSession().createCriteria(internalDataDefinition.getClassForEntity())
+                .add(Restrictions.eq(joinFieldName + ".id", belongsToEntityId)).list();
+
+        for (Object node : nodes) {
+            entityService.setField(node, pathFieldDefinition, null);
+        }
+
+        for (Object node : nodes) {
+            getPath(internalDataDefinition, node);
+            hibernateService.getCurrentSession().update(node);
+        }
+    }
+
+}
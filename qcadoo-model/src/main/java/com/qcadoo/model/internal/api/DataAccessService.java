@@ -24,6 +24,7 @@
 package com.qcadoo.model.internal.api;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.api.EntityOpResult;
@@ -118,6 +119,48 @@ public interface DataAccessService {
      */
     SearchResult find(SearchQuery searchQuery);
 
+    /**
+     * Check if there is any entity matching given search criteria, without loading entities and flushing the session.
+     * 
+     * @param searchCriteria
+     * @return true if at least one entity matches
+     */
+    boolean exists(SearchCriteria searchCriteria);
+
+    /**
+     * Check if there is any entity matching given search query, without loading entities and flushing the session.
+     * 
+     * @param searchQuery
+     * @return true if at least one entity matches
+     */
+    boolean exists(SearchQuery searchQuery);
+
+    /**
+     * Count entities matching given search criteria, without loading entities and flushing the session.
+     * 
+     * @param searchCriteria
+     * @return number of matching entities
+     */
+    long count(SearchCriteria searchCriteria);
+
+    /**
+     * Pass entities matching given search criteria to the consumer, reading them from the forward-only cursor and detaching
+     * them from the session once consumed.
+     * 
+     * @param searchCriteria
+     * @param fetchSize
+     * @param consumer
+     */
+    void scroll(SearchCriteria searchCriteria, int fetchSize, Consumer<Entity> consumer);
+
+    /**
+     * Count entities matching given search query, without loading entities and flushing the session.
+     * 
+     * @param searchQuery
+     * @return number of matching entities
+     */
+    long count(SearchQuery searchQuery);
+
     /**
      * Move the prioritizable entity to the target position.
      * 
@@ -35,6 +35,16 @@ public interface HibernateService {
 
     int getTotalNumberOfEntities(Criteria criteria);
 
+    boolean exists(Criteria criteria);
+
+    long count(Criteria criteria);
+
+    boolean exists(Query query);
+
+    long count(Query query);
+
+    long countRows(Query query);
+
     InternalDataDefinition resolveDataDefinition(Criteria criteria);
 
     InternalDataDefinition resolveDataDefinition(Query query);
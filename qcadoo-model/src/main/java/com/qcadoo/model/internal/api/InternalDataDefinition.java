@@ -23,6 +23,8 @@
  */
 package com.qcadoo.model.internal.api;
 
+import java.util.function.Consumer;
+
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.api.search.SearchResult;
@@ -43,6 +45,36 @@ public interface InternalDataDefinition extends DataDefinition {
      */
     SearchResult find(final SearchCriteria searchCriteria);
 
+    /**
+     * Checks if there is any entity for this data definition matching given search criteria.
+     * 
+     * @param searchCriteria
+     *            search criteria
+     * @return true if at least one entity matches
+     */
+    boolean exists(final SearchCriteria searchCriteria);
+
+    /**
+     * Counts entities for this data definition matching given search criteria.
+     * 
+     * @param searchCriteria
+     *            search criteria
+     * @return number of matching entities
+     */
+    long count(final SearchCriteria searchCriteria);
+
+    /**
+     * Passes entities for this data definition matching given search criteria to the consumer, one by one.
+     * 
+     * @param searchCriteria
+     *            search criteria
+     * @param fetchSize
+     *            number of rows fetched from the database in one round trip
+     * @param consumer
+     *            consumer of the entities
+     */
+    void scroll(final SearchCriteria searchCriteria, final int fetchSize, final Consumer<Entity> consumer);
+
     /**
      * Get fully qualified class name representing given data definition.
      * 
@@ -38,6 +38,7 @@ import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import javax.activation.FileTypeMap;
 import javax.activation.MimetypesFileTypeMap;
 
 import com.google.common.base.Preconditions;
@@ -70,6 +71,8 @@ public class FileServiceImpl implements FileService {
 
     private static final String L_FILE_URL_PREFIX = "/files/";
 
+    private static final FileTypeMap MIME_TYPES = new MimetypesFileTypeMap();
+
     private File uploadDirectory;
 
     public FileServiceImpl() {
@@ -250,7 +253,7 @@ public class FileServiceImpl implements FileService {
 
     @Override
     public String getContentType(final String path) {
-        return new MimetypesFileTypeMap().getContentType(new File(path));
+        return MIME_TYPES.getContentType(new File(path));
     }
 
     @Override
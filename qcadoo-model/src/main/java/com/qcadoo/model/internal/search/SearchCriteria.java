@@ -53,4 +53,20 @@ public interface SearchCriteria {
 
     DetachedCriteria getHibernateDetachedCriteria();
 
+    /**
+     * Checks if projection has been set, results of such criteria aren't entities of the searched model.
+     * 
+     * @return true if criteria has projection
+     * @since 1.5
+     */
+    boolean hasProjection();
+
+    /**
+     * Returns string which identifies this criteria - its restrictions, aliases, orders and paging.
+     * 
+     * @return fingerprint of the criteria
+     * @since 1.5
+     */
+    String getFingerprint();
+
 }
@@ -38,6 +38,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -86,6 +87,11 @@ public final class SearchCriteriaImpl implements SearchCriteriaBuilder, SearchCr
         return sourceDataDefinition;
     }
 
+    @Override
+    public boolean hasProjection() {
+        return hasProjection;
+    }
+
     @Override
     public DetachedCriteria getHibernateDetachedCriteria() {
         return criteria;
@@ -109,6 +115,21 @@ public final class SearchCriteriaImpl implements SearchCriteriaBuilder, SearchCr
         }
     }
 
+    @Override
+    public boolean exists() {
+        return ((InternalDataDefinition) sourceDataDefinition).exists(this);
+    }
+
+    @Override
+    public long count() {
+        return ((InternalDataDefinition) sourceDataDefinition).count(this);
+    }
+
+    @Override
+    public void scroll(final int fetchSize, final Consumer<Entity> consumer) {
+        ((InternalDataDefinition) sourceDataDefinition).scroll(this, fetchSize, consumer);
+    }
+
     @Override
     public Criteria createCriteria(final Session session) {
         Criteria executableCriteria = criteria.getExecutableCriteria(session);
@@ -217,6 +238,11 @@ public final class SearchCriteriaImpl implements SearchCriteriaBuilder, SearchCr
         return joinType.getIntValue();
     }
 
+    @Override
+    public String getFingerprint() {
+        return criteria.toString() + orders + "[" + firstResult + "," + maxResults + "," + hasProjection + "]";
+    }
+
     @Override
     public int hashCode() {
         return HashCodeBuilder.reflectionHashCode(this);
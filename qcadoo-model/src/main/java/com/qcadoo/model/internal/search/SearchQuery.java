@@ -33,6 +33,12 @@ public interface SearchQuery extends SearchQueryBuilder {
 
     Query createQuery(Session session);
 
+    boolean hasCountQuery();
+
+    Query createCountQuery(Session session);
+
+    Query createExistsQuery(Session session);
+
     DataDefinition getDataDefinition();
 
     void addParameters(Query query);
@@ -45,6 +45,22 @@ public class SearchQueryImpl implements SearchQuery {
 
     private final Pattern pattern = Pattern.compile("#([a-zA-Z0-9]+)_([a-zA-Z0-9]+)");
 
+    private final Pattern orderByPattern = Pattern.compile("\\sorder\\s+by\\s", Pattern.CASE_INSENSITIVE);
+
+    private final Pattern selectPattern = Pattern.compile("select\\s+", Pattern.CASE_INSENSITIVE);
+
+    private final Pattern distinctPattern = Pattern.compile("distinct\\s+", Pattern.CASE_INSENSITIVE);
+
+    private final Pattern fromPattern = Pattern.compile("\\sfrom\\s", Pattern.CASE_INSENSITIVE);
+
+    private final Pattern groupByPattern = Pattern.compile("\\s(group\\s+by|having)\\s", Pattern.CASE_INSENSITIVE);
+
+    private final Pattern aggregatePattern = Pattern.compile("\\b(count|sum|avg|min|max)\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    private final Pattern aliasPattern = Pattern.compile("\\s+as\\s+\\w+\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private final Pattern commaPattern = Pattern.compile(",");
+
     private final Map<String, String> strings = new HashMap<String, String>();
 
     private final Map<String, Boolean> booleans = new HashMap<String, Boolean>();
@@ -152,6 +168,16 @@ public class SearchQueryImpl implements SearchQuery {
         }
     }
 
+    @Override
+    public boolean exists() {
+        return dataAccessService.exists(this);
+    }
+
+    @Override
+    public long count() {
+        return dataAccessService.count(this);
+    }
+
     public SearchQueryBuilder setCacheable(final boolean cacheable){
         this.cacheable = cacheable;
         return this;
@@ -286,6 +312,133 @@ public class SearchQueryImpl implements SearchQuery {
         return session.createQuery(queryString);
     }
 
+    @Override
+    public Query createExistsQuery(final Session session) {
+        String selectClause = getSelectClause();
+        String fromClause = getFromClauseWithoutOrders();
+
+        if (fromClause == null || (selectClause != null && indexOfTopLevel(aggregatePattern, selectClause) != -1)) {
+            // query without the parsable from clause or with aggregates always returns its own rows
+            return createQuery(session);
+        }
+
+        return session.createQuery("select 1 " + fromClause);
+    }
+
+    @Override
+    public boolean hasCountQuery() {
+        return getCountExpression() != null;
+    }
+
+    @Override
+    public Query createCountQuery(final Session session) {
+        String countExpression = getCountExpression();
+
+        if (countExpression == null) {
+            throw new IllegalStateException("Cannot build count query for " + queryString);
+        }
+
+        return session.createQuery("select " + countExpression + " " + getFromClauseWithoutOrders());
+    }
+
+    /**
+     * Returns count expression which gives the number of rows returned by this query or null if group by, having, aggregates or
+     * distinct over several columns make the number of rows impossible to count without executing the query.
+     */
+    private String getCountExpression() {
+        String selectClause = getSelectClause();
+        String fromClause = getFromClauseWithoutOrders();
+
+        if (fromClause == null || indexOfTopLevel(groupByPattern, fromClause) != -1
+                || (selectClause != null && indexOfTopLevel(aggregatePattern, selectClause) != -1)) {
+            return null;
+        }
+        if (selectClause == null) {
+            return "count(*)";
+        }
+
+        Matcher distinctMatcher = distinctPattern.matcher(selectClause);
+
+        if (!distinctMatcher.lookingAt()) {
+            // select section without distinct and aggregates doesn't change the number of rows
+            return "count(*)";
+        }
+
+        String expression = aliasPattern.matcher(selectClause.substring(distinctMatcher.end())).replaceFirst("");
+
+        if (indexOfTopLevel(commaPattern, expression) != -1) {
+            return null;
+        }
+
+        return "count(distinct " + expression + ")";
+    }
+
+    private String getSelectClause() {
+        if (queryString.startsWith("from")) {
+            return null;
+        }
+
+        Matcher selectMatcher = selectPattern.matcher(queryString);
+        int fromIndex = indexOfTopLevel(fromPattern, queryString);
+
+        if (!selectMatcher.lookingAt() || fromIndex == -1) {
+            return null;
+        }
+
+        return queryString.substring(selectMatcher.end(), fromIndex).trim();
+    }
+
+    private String getFromClauseWithoutOrders() {
+        int fromIndex = 0;
+
+        if (!queryString.startsWith("from")) {
+            fromIndex = indexOfTopLevel(fromPattern, queryString);
+
+            if (fromIndex == -1) {
+                return null;
+            }
+        }
+
+        int orderByIndex = indexOfTopLevel(orderByPattern, queryString);
+
+        if (orderByIndex == -1) {
+            return queryString.substring(fromIndex).trim();
+        }
+
+        return queryString.substring(fromIndex, orderByIndex).trim();
+    }
+
+    /**
+     * Returns index of the first match which isn't inside the parentheses (subquery, function call) or the string literal.
+     */
+    private int indexOfTopLevel(final Pattern keywordPattern, final String string) {
+        Matcher matcher = keywordPattern.matcher(string);
+
+        int depth = 0;
+        int position = 0;
+        boolean inQuote = false;
+
+        while (matcher.find()) {
+            for (; position < matcher.start(); position++) {
+                char character = string.charAt(position);
+
+                if (character == '\'') {
+                    inQuote = !inQuote;
+                } else if (!inQuote && character == '(') {
+                    depth++;
+                } else if (!inQuote && character == ')') {
+                    depth--;
+                }
+            }
+
+            if (depth == 0 && !inQuote) {
+                return matcher.start();
+            }
+        }
+
+        return -1;
+    }
+
     @Override
     public void addParameters(final Query query) {
         for (Map.Entry<String, String> parameter : strings.entrySet()) {
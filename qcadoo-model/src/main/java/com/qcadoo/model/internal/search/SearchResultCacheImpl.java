@@ -0,0 +1,251 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.internal.search;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.SearchCriteriaBuilder;
+import com.qcadoo.model.api.search.SearchResult;
+import com.qcadoo.model.api.search.SearchResultCache;
+import com.qcadoo.model.internal.api.InternalDataDefinition;
+import com.qcadoo.model.internal.api.SearchResultCacheInvalidator;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+/**
+ * Results are keyed by tenant, model, version of the model and fingerprint of the criteria. Saving or deleting entity bumps the
+ * version of its model (again after the transaction completes, so results read from uncommitted state aren't reused), which
+ * makes older results unreachable. Unreachable and expired results are purged when cache reaches its maximum size.
+ */
+@Service
+public final class SearchResultCacheImpl implements SearchResultCache, SearchResultCacheInvalidator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchResultCacheImpl.class);
+
+    @Value("${searchResultCacheSize:1000}")
+    private int maxSize;
+
+    @Value("${searchResultCacheTtl:30}")
+    private int ttlInSeconds;
+
+    @Autowired
+    private MultiTenantService multiTenantService;
+
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<String, AtomicLong>();
+
+    private final ConcurrentMap<Key, CachedResult> results = new ConcurrentHashMap<Key, CachedResult>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    @Override
+    public SearchResult list(final SearchCriteriaBuilder searchCriteriaBuilder) {
+        SearchCriteria searchCriteria = (SearchCriteria) searchCriteriaBuilder;
+        DataDefinition dataDefinition = searchCriteria.getDataDefinition();
+
+        if (searchCriteria.hasProjection() || dataDefinition == null) {
+            return searchCriteriaBuilder.list();
+        }
+
+        String model = getModelKey(multiTenantService.getCurrentTenantId(), dataDefinition);
+        Key key = new Key(model, getVersion(model).get(), searchCriteria.getFingerprint());
+
+        long now = System.currentTimeMillis();
+
+        CachedResult cachedResult = results.get(key);
+
+        if (cachedResult != null && cachedResult.expiresAt > now) {
+            hits.incrementAndGet();
+            return cachedResult.copy();
+        }
+
+        misses.incrementAndGet();
+
+        SearchResult result = searchCriteriaBuilder.list();
+
+        if (results.size() >= maxSize) {
+            purge(now);
+        }
+
+        results.put(key, new CachedResult(result, now + TimeUnit.SECONDS.toMillis(ttlInSeconds)));
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Search result cache miss for " + model + ", hits: " + hits.get() + ", misses: " + misses.get());
+        }
+
+        return copy(result.getEntities(), result.getTotalNumberOfEntities());
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void invalidate(final InternalDataDefinition dataDefinition) {
+        final AtomicLong version = getVersion(getModelKey(multiTenantService.getCurrentTenantId(), dataDefinition));
+
+        version.incrementAndGet();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    version.incrementAndGet();
+                }
+
+            });
+        }
+    }
+
+    private void purge(final long now) {
+        for (Iterator<CachedResult> iterator = results.values().iterator(); iterator.hasNext();) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+            }
+        }
+        for (Iterator<Key> iterator = results.keySet().iterator(); iterator.hasNext();) {
+            Key key = iterator.next();
+            if (key.version != getVersion(key.model).get()) {
+                iterator.remove();
+            }
+        }
+        if (results.size() >= maxSize) {
+            results.clear();
+        }
+    }
+
+    private AtomicLong getVersion(final String model) {
+        AtomicLong version = versions.get(model);
+
+        if (version == null) {
+            version = new AtomicLong();
+
+            AtomicLong existingVersion = versions.putIfAbsent(model, version);
+
+            if (existingVersion != null) {
+                version = existingVersion;
+            }
+        }
+
+        return version;
+    }
+
+    private String getModelKey(final int tenantId, final DataDefinition dataDefinition) {
+        return tenantId + ":" + dataDefinition.getPluginIdentifier() + "." + dataDefinition.getName();
+    }
+
+    private static SearchResult copy(final List<Entity> entities, final int totalNumberOfEntities) {
+        List<Entity> copiedEntities = Lists.newArrayListWithCapacity(entities.size());
+
+        for (Entity entity : entities) {
+            copiedEntities.add(entity.copy());
+        }
+
+        SearchResultImpl result = new SearchResultImpl();
+        result.setResults(copiedEntities);
+        result.setTotalNumberOfEntities(totalNumberOfEntities);
+        return result;
+    }
+
+    private static final class CachedResult {
+
+        private final List<Entity> entities;
+
+        private final int totalNumberOfEntities;
+
+        private final long expiresAt;
+
+        private CachedResult(final SearchResult result, final long expiresAt) {
+            this.entities = copy(result.getEntities(), 0).getEntities();
+            this.totalNumberOfEntities = result.getTotalNumberOfEntities();
+            this.expiresAt = expiresAt;
+        }
+
+        private SearchResult copy() {
+            return SearchResultCacheImpl.copy(entities, totalNumberOfEntities);
+        }
+
+    }
+
+    private static final class Key {
+
+        private final String model;
+
+        private final long version;
+
+        private final String fingerprint;
+
+        private final int hashCode;
+
+        private Key(final String model, final long version, final String fingerprint) {
+            this.model = model;
+            this.version = version;
+            this.fingerprint = fingerprint;
+            this.hashCode = Objects.hashCode(model, version, fingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return version == other.version && model.equals(other.model) && fingerprint.equals(other.fingerprint);
+        }
+
+    }
+
+}
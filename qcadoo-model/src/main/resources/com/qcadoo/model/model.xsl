@@ -197,6 +197,11 @@
 					<xsl:value-of select="concat(concat(/qcd:model/@plugin, '_', /qcd:model/@name), '_tenantId')" />
 				</xsl:attribute>
 			</xsl:if>
+			<xsl:if test="local-name()='string' and substring(@name, string-length(@name) - 14) = 'AutocompleteKey'">
+				<xsl:attribute name="index">
+					<xsl:value-of select="concat(concat(/qcd:model/@plugin, '_', /qcd:model/@name), '_', @name)" />
+				</xsl:attribute>
+			</xsl:if>
 			<xsl:choose>
 				<xsl:when test="./qcd:validatesLength[@is]">
 					<xsl:attribute name="length">
@@ -24,6 +24,11 @@
 package com.qcadoo.model.integration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -479,4 +484,78 @@ public class CriteriaIntegrationTest extends IntegrationTest {
         assertEquals(2L, count);
     }
 
+    @Test
+    public void shouldCheckIfEntitiesExist() {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        boolean asdExists = productDao.find().add(SearchRestrictions.eq("name", "asd")).exists();
+        boolean csdExists = productDao.find().add(SearchRestrictions.eq("name", "csd")).exists();
+
+        // then
+        assertTrue(asdExists);
+        assertFalse(csdExists);
+    }
+
+    @Test
+    public void shouldCountEntitiesIgnoringPagingAndOrders() {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd1", "asd1"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        long count = productDao.find().add(SearchRestrictions.like("name", "asd", SearchRestrictions.SearchMatchMode.START))
+                .addOrder(SearchOrders.desc("name")).setFirstResult(1).setMaxResults(1).count();
+
+        // then
+        assertEquals(2L, count);
+    }
+
+    @Test
+    public void shouldCountProjectedEntities() {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        long count = productDao.find().setProjection(SearchProjections.distinct(SearchProjections.field("name"))).count();
+
+        // then
+        assertEquals(2L, count);
+    }
+
+    @Test
+    public void shouldListEntitiesAfterExistsAndCountOnTheSameBuilder() {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd1", "asd1"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        SearchCriteriaBuilder criteriaBuilder = productDao.find().add(
+                SearchRestrictions.like("name", "asd", SearchRestrictions.SearchMatchMode.START));
+
+        // when
+        boolean exists = criteriaBuilder.exists();
+        long count = criteriaBuilder.count();
+        List<Entity> entities = criteriaBuilder.list().getEntities();
+
+        // then
+        assertTrue(exists);
+        assertEquals(2L, count);
+        assertEquals(2, entities.size());
+        assertNotNull(entities.get(0).getStringField("name"));
+    }
+
 }
@@ -24,6 +24,8 @@
 package com.qcadoo.model.integration;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -356,4 +358,146 @@ public class HqlIntegrationTest extends IntegrationTest {
         assertEquals("asd", result.getEntities().get(1).getField("0"));
     }
 
+    @Test
+    public void shouldCheckIfEntitiesExist() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        boolean asdExists = productDao.find("where name = :name").setString("name", "asd").exists();
+        boolean csdExists = productDao.find("where name = :name").setString("name", "csd").exists();
+
+        // then
+        assertTrue(asdExists);
+        assertFalse(csdExists);
+    }
+
+    @Test
+    public void shouldCountEntitiesIgnoringOrders() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd1", "asd1"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        long count = productDao.find("from #products_product p where p.name like 'asd%' order by lower(p.name) desc").count();
+
+        // then
+        assertEquals(2L, count);
+    }
+
+    @Test
+    public void shouldCountEntitiesForQueryWithSelect() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        long count = productDao.find("select distinct p.name from #products_product p").count();
+
+        // then
+        assertEquals(2L, count);
+    }
+
+    @Test
+    public void shouldCheckIfEntitiesExistForQueryWithSelect() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+
+        // when
+        boolean asdExists = productDao.find("select p.name from #products_product p where p.name = :name")
+                .setString("name", "asd").exists();
+        boolean csdExists = productDao.find("select p.name from #products_product p where p.name = :name")
+                .setString("name", "csd").exists();
+
+        // then
+        assertTrue(asdExists);
+        assertFalse(csdExists);
+    }
+
+    @Test
+    public void shouldCountEntitiesForQueryWithGroupBy() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd", "asd1"));
+        productDao.save(createProduct("bsd", "bsd"));
+        productDao.save(createProduct("csd", "csd"));
+
+        // when
+        long count = productDao.find("select p.name, count(p) from #products_product p group by p.name order by p.name").count();
+        long havingCount = productDao.find(
+                "select p.name, count(p) from #products_product p group by p.name having count(p) > :minCount")
+                .setLong("minCount", 1L).count();
+
+        // then
+        assertEquals(3L, count);
+        assertEquals(1L, havingCount);
+    }
+
+    @Test
+    public void shouldCountEntitiesForQueryWithAggregates() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        long count = productDao.find("select count(p), max(p.name) from #products_product p").count();
+
+        // then
+        assertEquals(1L, count);
+    }
+
+    @Test
+    public void shouldCountEntitiesForQueryWithDistinctOverSeveralColumns() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd", "asd"));
+        productDao.save(createProduct("asd", "asd1"));
+        productDao.save(createProduct("bsd", "bsd"));
+
+        // when
+        long count = productDao.find("select distinct p.name, p.number from #products_product p order by p.name").count();
+
+        // then
+        assertEquals(3L, count);
+    }
+
+    @Test
+    public void shouldCountEntitiesForQueryWithSubqueries() throws Exception {
+        // given
+        DataDefinition productDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PRODUCT);
+        DataDefinition partDao = dataDefinitionService.get(PLUGIN_PRODUCTS_NAME, ENTITY_NAME_PART);
+
+        productDao.save(createProduct("qwe", "qwe"));
+        Entity product = productDao.save(createProduct("asd", "asd"));
+        partDao.save(createPart("name1", product));
+        partDao.save(createPart("name2", product));
+
+        // when
+        long count = productDao.find("from #products_product as p where exists(from #products_part x where x.product = p)")
+                .count();
+        long selectCount = productDao.find(
+                "select p, (select max(x.name) from #products_part x where x.product = p) from #products_product as p").count();
+
+        // then
+        assertEquals(1L, count);
+        assertEquals(2L, selectCount);
+    }
+
 }
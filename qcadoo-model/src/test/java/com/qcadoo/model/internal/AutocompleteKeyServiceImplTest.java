@@ -0,0 +1,136 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Maps;
+import com.qcadoo.model.api.FieldDefinition;
+import com.qcadoo.model.internal.api.EntityService;
+import com.qcadoo.model.internal.api.InternalDataDefinition;
+import com.qcadoo.model.internal.types.IntegerType;
+import com.qcadoo.model.internal.types.StringType;
+
+public class AutocompleteKeyServiceImplTest {
+
+    private AutocompleteKeyServiceImpl autocompleteKeyService;
+
+    @Mock
+    private EntityService entityService;
+
+    @Mock
+    private InternalDataDefinition dataDefinition;
+
+    @Mock
+    private FieldDefinition numberFieldDefinition;
+
+    @Mock
+    private FieldDefinition numberKeyFieldDefinition;
+
+    @Mock
+    private FieldDefinition quantityFieldDefinition;
+
+    private final Object databaseEntity = new Object();
+
+    @Before
+    public final void init() {
+        MockitoAnnotations.initMocks(this);
+        autocompleteKeyService = new AutocompleteKeyServiceImpl();
+        ReflectionTestUtils.setField(autocompleteKeyService, "entityService", entityService);
+
+        given(numberFieldDefinition.getName()).willReturn("number");
+        given(numberFieldDefinition.getType()).willReturn(new StringType());
+        given(numberKeyFieldDefinition.getName()).willReturn("numberAutocompleteKey");
+        given(numberKeyFieldDefinition.getType()).willReturn(new StringType());
+        given(quantityFieldDefinition.getName()).willReturn("quantity");
+        given(quantityFieldDefinition.getType()).willReturn(new IntegerType());
+
+        Map<String, FieldDefinition> fields = Maps.newLinkedHashMap();
+        fields.put("number", numberFieldDefinition);
+        fields.put("numberAutocompleteKey", numberKeyFieldDefinition);
+        fields.put("quantity", quantityFieldDefinition);
+
+        given(dataDefinition.getFields()).willReturn(fields);
+        given(dataDefinition.getField("number")).willReturn(numberFieldDefinition);
+        given(dataDefinition.getField("numberAutocompleteKey")).willReturn(numberKeyFieldDefinition);
+        given(dataDefinition.getField("quantity")).willReturn(quantityFieldDefinition);
+    }
+
+    @Test
+    public final void shouldNormalizeValue() throws Exception {
+        // when & then
+        assertEquals("creme brulee", autocompleteKeyService.normalize("  Cr\u00e8me   BR\u00dbL\u00c9E "));
+        assertEquals("cafe creme", autocompleteKeyService.normalize("Caf\u00e9\tcr\u00e8me"));
+        assertEquals("", autocompleteKeyService.normalize("   "));
+        assertNull(autocompleteKeyService.normalize(null));
+    }
+
+    @Test
+    public final void shouldBeKeyIndexedOnlyIfModelHasKeyField() throws Exception {
+        // when & then
+        assertTrue(autocompleteKeyService.isKeyIndexed(dataDefinition, "number"));
+        assertFalse(autocompleteKeyService.isKeyIndexed(dataDefinition, "quantity"));
+        assertFalse(autocompleteKeyService.isKeyIndexed(dataDefinition, "name"));
+    }
+
+    @Test
+    public final void shouldSetNormalizedKeyOfIndexedField() throws Exception {
+        // given
+        given(entityService.getField(databaseEntity, numberFieldDefinition)).willReturn(" Pr\u00f6duct-001 ");
+
+        // when
+        autocompleteKeyService.indexEntity(dataDefinition, databaseEntity);
+
+        // then
+        verify(entityService).setField(databaseEntity, numberKeyFieldDefinition, "product-001");
+        verify(entityService, never()).setField(databaseEntity, quantityFieldDefinition, null);
+    }
+
+    @Test
+    public final void shouldClearKeyIfFieldIsEmpty() throws Exception {
+        // given
+        given(entityService.getField(databaseEntity, numberFieldDefinition)).willReturn(null);
+
+        // when
+        autocompleteKeyService.indexEntity(dataDefinition, databaseEntity);
+
+        // then
+        verify(entityService).setField(databaseEntity, numberKeyFieldDefinition, null);
+    }
+
+}
@@ -56,6 +56,7 @@ import com.qcadoo.model.internal.api.DataAccessService;
 import com.qcadoo.model.internal.api.EntityService;
 import com.qcadoo.model.internal.api.HibernateService;
 import com.qcadoo.model.internal.api.PriorityService;
+import com.qcadoo.model.internal.api.SearchResultCacheInvalidator;
 import com.qcadoo.model.internal.api.ValidationService;
 import com.qcadoo.model.internal.types.BelongsToEntityType;
 import com.qcadoo.model.internal.types.BooleanType;
@@ -94,6 +95,10 @@ public abstract class DataAccessTest extends TransactionMockAwareTest {
 
     protected PriorityService priorityService = null;
 
+    protected TreePathServiceImpl treePathService = null;
+
+    protected AutocompleteKeyServiceImpl autocompleteKeyService = null;
+
     protected DataAccessService dataAccessService = null;
 
     protected DataDefinitionImpl parentDataDefinition = null;
@@ -158,9 +163,20 @@ public abstract class DataAccessTest extends TransactionMockAwareTest {
         ReflectionTestUtils.setField(priorityService, "entityService", entityService);
         ReflectionTestUtils.setField(priorityService, "hibernateService", hibernateService);
 
+        treePathService = new TreePathServiceImpl();
+        ReflectionTestUtils.setField(treePathService, "entityService", entityService);
+        ReflectionTestUtils.setField(treePathService, "hibernateService", hibernateService);
+
+        autocompleteKeyService = new AutocompleteKeyServiceImpl();
+        ReflectionTestUtils.setField(autocompleteKeyService, "entityService", entityService);
+        ReflectionTestUtils.setField(autocompleteKeyService, "hibernateService", hibernateService);
+
         dataAccessService = new DataAccessServiceImpl();
         ReflectionTestUtils.setField(dataAccessService, "entityService", entityService);
         ReflectionTestUtils.setField(dataAccessService, "priorityService", priorityService);
+        ReflectionTestUtils.setField(dataAccessService, "treePathIndexService", treePathService);
+        ReflectionTestUtils.setField(dataAccessService, "autocompleteKeyIndexService", autocompleteKeyService);
+        ReflectionTestUtils.setField(dataAccessService, "searchResultCacheInvalidator", mock(SearchResultCacheInvalidator.class));
         ReflectionTestUtils.setField(dataAccessService, "validationService", validationService);
         ReflectionTestUtils.setField(dataAccessService, "hibernateService", hibernateService);
         AnnotationTransactionAspect.aspectOf();
@@ -0,0 +1,214 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.classic.Session;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.FieldDefinition;
+import com.qcadoo.model.api.search.SearchCriteriaBuilder;
+import com.qcadoo.model.api.search.SearchCriterion;
+import com.qcadoo.model.api.types.FieldType;
+import com.qcadoo.model.api.types.TreeType;
+import com.qcadoo.model.internal.api.EntityService;
+import com.qcadoo.model.internal.api.HibernateService;
+import com.qcadoo.model.internal.api.InternalDataDefinition;
+import com.qcadoo.model.internal.types.StringType;
+import com.qcadoo.model.internal.types.TextType;
+
+public class TreePathServiceImplTest {
+
+    private TreePathServiceImpl treePathService;
+
+    @Mock
+    private DataDefinition dataDefinition;
+
+    @Mock
+    private SearchCriteriaBuilder searchCriteriaBuilder;
+
+    @Mock
+    private Entity node;
+
+    @Mock
+    private InternalDataDefinition internalDataDefinition;
+
+    @Mock
+    private EntityService entityService;
+
+    @Mock
+    private HibernateService hibernateService;
+
+    private final Object databaseEntity = new Object();
+
+    @Before
+    public final void init() {
+        MockitoAnnotations.initMocks(this);
+        treePathService = new TreePathServiceImpl();
+
+        ReflectionTestUtils.setField(treePathService, "entityService", entityService);
+        ReflectionTestUtils.setField(treePathService, "hibernateService", hibernateService);
+
+        given(node.getDataDefinition()).willReturn(dataDefinition);
+        given(dataDefinition.getField(TreeType.NODE_PATH_FIELD)).willReturn(mock(FieldDefinition.class));
+        given(dataDefinition.getField("parent")).willReturn(mock(FieldDefinition.class));
+        given(dataDefinition.find()).willReturn(searchCriteriaBuilder);
+        given(searchCriteriaBuilder.add(any(SearchCriterion.class))).willReturn(searchCriteriaBuilder);
+    }
+
+    @Test
+    public final void shouldBePathIndexedOnlyIfModelHasPathField() throws Exception {
+        // given
+        DataDefinition notIndexedDataDefinition = mock(DataDefinition.class);
+        given(notIndexedDataDefinition.getField("parent")).willReturn(mock(FieldDefinition.class));
+
+        // when & then
+        assertTrue(treePathService.isPathIndexed(dataDefinition));
+        assertFalse(treePathService.isPathIndexed(notIndexedDataDefinition));
+    }
+
+    @Test
+    public final void shouldReturnDepthOfNode() throws Exception {
+        // given
+        given(node.getStringField(TreeType.NODE_PATH_FIELD)).willReturn("12/45/78/");
+
+        // when
+        int depth = treePathService.getDepth(node);
+
+        // then
+        assertEquals(2, depth);
+    }
+
+    @Test
+    public final void shouldFindSubtreeByPathPrefix() throws Exception {
+        // given
+        given(node.getStringField(TreeType.NODE_PATH_FIELD)).willReturn("12/45/");
+
+        // when
+        treePathService.findSubtree(node);
+
+        // then
+        ArgumentCaptor<SearchCriterion> criterion = ArgumentCaptor.forClass(SearchCriterion.class);
+        verify(searchCriteriaBuilder).add(criterion.capture());
+        assertEquals("nodePath like 12/45/%", criterion.getValue().getHibernateCriterion().toString());
+    }
+
+    @Test
+    public final void shouldFindDepthLimitedSubtree() throws Exception {
+        // given
+        given(node.getStringField(TreeType.NODE_PATH_FIELD)).willReturn("12/45/");
+
+        // when
+        treePathService.findSubtree(node, 1);
+
+        // then
+        ArgumentCaptor<SearchCriterion> criterion = ArgumentCaptor.forClass(SearchCriterion.class);
+        verify(searchCriteriaBuilder, times(2)).add(criterion.capture());
+        assertEquals("nodePath like 12/45/%", criterion.getAllValues().get(0).getHibernateCriterion().toString());
+        assertEquals("not nodePath like 12/45/%/%/", criterion.getAllValues().get(1).getHibernateCriterion().toString());
+    }
+
+    @Test
+    public final void shouldFindAncestorsByIdsFromPath() throws Exception {
+        // given
+        given(node.getStringField(TreeType.NODE_PATH_FIELD)).willReturn("12/45/78/");
+
+        // when
+        treePathService.findAncestors(node);
+
+        // then
+        ArgumentCaptor<SearchCriterion> criterion = ArgumentCaptor.forClass(SearchCriterion.class);
+        verify(searchCriteriaBuilder).add(criterion.capture());
+        assertEquals("id in (12, 45)", criterion.getValue().getHibernateCriterion().toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void shouldFailIfNodeHasNoPath() throws Exception {
+        // given
+        given(node.getStringField(TreeType.NODE_PATH_FIELD)).willReturn(null);
+
+        // when
+        treePathService.findSubtree(node);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public final void shouldFailIfPathDoesNotFitIntoStringField() throws Exception {
+        // given
+        FieldDefinition pathFieldDefinition = mockNodeWithParentPath(new StringType(), StringUtils.repeat("1234/", 51));
+
+        // when
+        treePathService.indexTreeNode(internalDataDefinition, databaseEntity, null);
+    }
+
+    @Test
+    public final void shouldSetLongPathOfTextField() throws Exception {
+        // given
+        String parentPath = StringUtils.repeat("1234/", 51);
+        FieldDefinition pathFieldDefinition = mockNodeWithParentPath(new TextType(), parentPath);
+
+        // when
+        treePathService.indexTreeNode(internalDataDefinition, databaseEntity, null);
+
+        // then
+        verify(entityService).setField(databaseEntity, pathFieldDefinition, parentPath + "3/");
+    }
+
+    private FieldDefinition mockNodeWithParentPath(final FieldType pathFieldType, final String parentPath) {
+        FieldDefinition pathFieldDefinition = mock(FieldDefinition.class);
+        FieldDefinition parentFieldDefinition = mock(FieldDefinition.class);
+        Entity parent = mock(Entity.class);
+        Object parentDatabaseEntity = new Object();
+        Session session = mock(Session.class);
+
+        given(pathFieldDefinition.getType()).willReturn(pathFieldType);
+        given(internalDataDefinition.getField(TreeType.NODE_PATH_FIELD)).willReturn(pathFieldDefinition);
+        given(internalDataDefinition.getField("parent")).willReturn(parentFieldDefinition);
+        given(entityService.getId(databaseEntity)).willReturn(3L);
+        given(entityService.getField(databaseEntity, parentFieldDefinition)).willReturn(parent);
+        given(parent.getId()).willReturn(2L);
+        given(hibernateService.getCurrentSession()).willReturn(session);
+        given(session.get(any(Class.class), eq(2L))).willReturn(parentDatabaseEntity);
+        given(entityService.getField(parentDatabaseEntity, pathFieldDefinition)).willReturn(parentPath);
+
+        return pathFieldDefinition;
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.model.internal.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.collect.Lists;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.SearchCriteriaBuilder;
+import com.qcadoo.model.api.search.SearchResult;
+import com.qcadoo.model.internal.DefaultEntity;
+import com.qcadoo.model.internal.api.InternalDataDefinition;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+public class SearchResultCacheImplTest {
+
+    private SearchResultCacheImpl searchResultCache;
+
+    @Mock
+    private MultiTenantService multiTenantService;
+
+    @Mock
+    private InternalDataDefinition dataDefinition;
+
+    private SearchCriteriaBuilder criteria;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+
+        searchResultCache = new SearchResultCacheImpl();
+        setField(searchResultCache, "maxSize", 10);
+        setField(searchResultCache, "ttlInSeconds", 60);
+        setField(searchResultCache, "multiTenantService", multiTenantService);
+
+        given(dataDefinition.getPluginIdentifier()).willReturn("plugin");
+        given(dataDefinition.getName()).willReturn("model");
+
+        criteria = mockCriteria("criteria");
+    }
+
+    private SearchCriteriaBuilder mockCriteria(final String fingerprint) {
+        SearchCriteriaBuilder criteria = mock(SearchCriteriaBuilder.class, withSettings().extraInterfaces(SearchCriteria.class));
+        given(((SearchCriteria) criteria).getDataDefinition()).willReturn(dataDefinition);
+        given(((SearchCriteria) criteria).getFingerprint()).willReturn(fingerprint);
+
+        SearchResultImpl result = new SearchResultImpl();
+        result.setResults(Lists.<Entity> newArrayList(new DefaultEntity(dataDefinition, 1L)));
+        result.setTotalNumberOfEntities(1);
+        given(criteria.list()).willReturn(result);
+
+        return criteria;
+    }
+
+    @Test
+    public void shouldReuseResultsOfTheSameCriteria() throws Exception {
+        // when
+        SearchResult result1 = searchResultCache.list(criteria);
+        SearchResult result2 = searchResultCache.list(mockCriteria("criteria"));
+
+        // then
+        verify(criteria, times(1)).list();
+        assertEquals(1, result2.getTotalNumberOfEntities());
+        assertEquals(Long.valueOf(1L), result2.getEntities().get(0).getId());
+        assertNotSame(result1.getEntities().get(0), result2.getEntities().get(0));
+        assertEquals(1, searchResultCache.getHitCount());
+        assertEquals(1, searchResultCache.getMissCount());
+    }
+
+    @Test
+    public void shouldSeparateResultsByFingerprintAndTenant() throws Exception {
+        // given
+        searchResultCache.list(criteria);
+
+        // when
+        searchResultCache.list(mockCriteria("otherCriteria"));
+        given(multiTenantService.getCurrentTenantId()).willReturn(2);
+        searchResultCache.list(criteria);
+
+        // then
+        verify(criteria, times(2)).list();
+        assertEquals(3, searchResultCache.getMissCount());
+    }
+
+    @Test
+    public void shouldExecuteCriteriaAgainAfterModelChange() throws Exception {
+        // given
+        searchResultCache.list(criteria);
+
+        // when
+        searchResultCache.invalidate(dataDefinition);
+        searchResultCache.list(criteria);
+
+        // then
+        verify(criteria, times(2)).list();
+    }
+
+    @Test
+    public void shouldExecuteCriteriaAgainAfterExpiration() throws Exception {
+        // given
+        setField(searchResultCache, "ttlInSeconds", 0);
+        searchResultCache.list(criteria);
+
+        // when
+        searchResultCache.list(criteria);
+
+        // then
+        verify(criteria, times(2)).list();
+    }
+
+    @Test
+    public void shouldNotCacheCriteriaWithoutDataDefinition() throws Exception {
+        // given
+        given(((SearchCriteria) criteria).getDataDefinition()).willReturn(null);
+
+        // when
+        searchResultCache.list(criteria);
+        searchResultCache.list(criteria);
+
+        // then
+        verify(criteria, times(2)).list();
+    }
+
+    @Test
+    public void shouldNotCacheProjections() throws Exception {
+        // given
+        given(((SearchCriteria) criteria).hasProjection()).willReturn(true);
+
+        // when
+        searchResultCache.list(criteria);
+        searchResultCache.list(criteria);
+
+        // then
+        verify(criteria, times(2)).list();
+        assertEquals(0, searchResultCache.getMissCount());
+    }
+
+}
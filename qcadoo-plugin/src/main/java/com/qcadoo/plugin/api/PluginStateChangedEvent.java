@@ -0,0 +1,59 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.plugin.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published after plugins have been enabled, disabled or uninstalled. Listen to it if you cache content which depends on
+ * the enabled plugins.
+ * 
+ * @since 1.5
+ */
+public class PluginStateChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<String> pluginIdentifiers;
+
+    public PluginStateChangedEvent(final Object source, final Collection<String> pluginIdentifiers) {
+        super(source);
+        this.pluginIdentifiers = Collections.unmodifiableList(new ArrayList<String>(pluginIdentifiers));
+    }
+
+    /**
+     * Returns identifiers of the plugins which state has changed.
+     * 
+     * @return plugins' identifiers
+     */
+    public List<String> getPluginIdentifiers() {
+        return pluginIdentifiers;
+    }
+
+}
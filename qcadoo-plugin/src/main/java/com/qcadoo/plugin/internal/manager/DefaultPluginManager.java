@@ -34,6 +34,7 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import com.qcadoo.model.beans.qcadooPlugin.QcadooPluginPlugin;
@@ -43,6 +44,7 @@ import com.qcadoo.plugin.api.PluginDependencyResult;
 import com.qcadoo.plugin.api.PluginManager;
 import com.qcadoo.plugin.api.PluginOperationResult;
 import com.qcadoo.plugin.api.PluginState;
+import com.qcadoo.plugin.api.PluginStateChangedEvent;
 import com.qcadoo.plugin.api.artifact.PluginArtifact;
 import com.qcadoo.plugin.internal.PluginException;
 import com.qcadoo.plugin.internal.api.InternalPlugin;
@@ -75,6 +77,9 @@ public class DefaultPluginManager implements PluginManager {
     @Autowired
     private PluginDescriptorParser pluginDescriptorParser;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     private final PluginStatusResolver pluginStatusResolver = new SimplePluginStatusResolver();
 
     @Override
@@ -139,6 +144,8 @@ public class DefaultPluginManager implements PluginManager {
 
                     ((InternalPlugin) plugin).changeStateTo(PluginState.DISABLED);
 
+                    publishStateChange(plugins);
+
                     return PluginOperationResultImpl.pluginEnablingEncounteredErrors();
                 }
             }
@@ -147,6 +154,8 @@ public class DefaultPluginManager implements PluginManager {
             pluginAccessor.savePlugin(plugin);
         }
 
+        publishStateChange(plugins);
+
         if (shouldRestart) {
             return PluginOperationResultImpl.successWithRestart();
         } else {
@@ -193,6 +202,8 @@ public class DefaultPluginManager implements PluginManager {
             pluginAccessor.savePlugin(plugin);
         }
 
+        publishStateChange(plugins);
+
         return PluginOperationResultImpl.success();
     }
 
@@ -239,6 +250,8 @@ public class DefaultPluginManager implements PluginManager {
             pluginAccessor.removePlugin(plugin);
         }
 
+        publishStateChange(plugins);
+
         if (shouldRestart) {
             return PluginOperationResultImpl.successWithRestart();
         } else {
@@ -373,6 +386,16 @@ public class DefaultPluginManager implements PluginManager {
         }
     }
 
+    private void publishStateChange(final List<Plugin> plugins) {
+        List<String> pluginIdentifiers = new ArrayList<String>();
+
+        for (Plugin plugin : plugins) {
+            pluginIdentifiers.add(plugin.getIdentifier());
+        }
+
+        applicationEventPublisher.publishEvent(new PluginStateChangedEvent(this, pluginIdentifiers));
+    }
+
     void setPluginAccessor(final InternalPluginAccessor pluginAccessor) {
         this.pluginAccessor = pluginAccessor;
 
@@ -395,6 +418,10 @@ public class DefaultPluginManager implements PluginManager {
         this.pluginDescriptorParser = pluginDescriptorParser;
     }
 
+    void setApplicationEventPublisher(final ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @Override
     public List<Plugin> getEnabledPluginsList() {
         List<Plugin> pluginIdentifierList = new ArrayList<Plugin>();
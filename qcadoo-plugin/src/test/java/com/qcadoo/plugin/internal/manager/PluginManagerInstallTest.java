@@ -32,6 +32,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.io.File;
 import java.util.Collections;
@@ -58,6 +59,8 @@ public class PluginManagerInstallTest {
 
     private final PluginDescriptorParser pluginDescriptorParser = mock(PluginDescriptorParser.class);
 
+    private final ApplicationEventPublisher applicationEventPublisher = mock(ApplicationEventPublisher.class);
+
     private final PluginArtifact pluginArtifact = mock(PluginArtifact.class);
 
     private DefaultPluginManager pluginManager;
@@ -78,6 +81,7 @@ public class PluginManagerInstallTest {
         pluginManager.setPluginDependencyManager(pluginDependencyManager);
         pluginManager.setPluginFileManager(pluginFileManager);
         pluginManager.setPluginDescriptorParser(pluginDescriptorParser);
+        pluginManager.setApplicationEventPublisher(applicationEventPublisher);
     }
 
     @Test
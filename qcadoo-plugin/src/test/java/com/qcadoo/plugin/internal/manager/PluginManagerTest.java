@@ -40,6 +40,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.qcadoo.plugin.api.Plugin;
 import com.qcadoo.plugin.api.PluginDependencyInformation;
@@ -47,6 +48,7 @@ import com.qcadoo.plugin.api.PluginDependencyResult;
 import com.qcadoo.plugin.api.PluginOperationResult;
 import com.qcadoo.plugin.api.PluginOperationStatus;
 import com.qcadoo.plugin.api.PluginState;
+import com.qcadoo.plugin.api.PluginStateChangedEvent;
 import com.qcadoo.plugin.api.VersionOfDependency;
 import com.qcadoo.plugin.internal.api.InternalPlugin;
 import com.qcadoo.plugin.internal.api.InternalPluginAccessor;
@@ -73,6 +75,8 @@ public class PluginManagerTest {
 
     private final PluginDescriptorParser pluginDescriptorParser = mock(PluginDescriptorParser.class);
 
+    private final ApplicationEventPublisher applicationEventPublisher = mock(ApplicationEventPublisher.class);
+
     private DefaultPluginManager pluginManager;
 
     @Before
@@ -86,6 +90,7 @@ public class PluginManagerTest {
         pluginManager.setPluginDependencyManager(pluginDependencyManager);
         pluginManager.setPluginFileManager(pluginFileManager);
         pluginManager.setPluginDescriptorParser(pluginDescriptorParser);
+        pluginManager.setApplicationEventPublisher(applicationEventPublisher);
     }
 
     @Test
@@ -314,6 +319,7 @@ public class PluginManagerTest {
         verify(plugin).changeStateTo(PluginState.DISABLED);
         verify(pluginDao).save(plugin);
         verify(pluginAccessor).savePlugin(plugin);
+        verify(applicationEventPublisher).publishEvent(Mockito.any(PluginStateChangedEvent.class));
         assertTrue(pluginOperationResult.isSuccess());
         assertEquals(PluginOperationStatus.SUCCESS, pluginOperationResult.getStatus());
         assertEquals(0, pluginOperationResult.getPluginDependencyResult().getDependenciesToDisable().size());
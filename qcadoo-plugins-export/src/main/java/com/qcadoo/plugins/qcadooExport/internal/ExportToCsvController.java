@@ -27,16 +27,18 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.text.DateFormat;
+import java.util.Collection;
 import java.util.Date;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import org.apache.commons.io.IOUtils;
-import org.json.JSONException;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -52,7 +54,9 @@ import com.qcadoo.model.api.aop.Monitorable;
 import com.qcadoo.model.api.file.FileService;
 import com.qcadoo.view.api.ViewDefinitionState;
 import com.qcadoo.view.api.components.GridComponent;
+import com.qcadoo.view.api.components.grid.GridExport;
 import com.qcadoo.view.api.crud.CrudService;
+import com.qcadoo.view.api.jobs.JobContext;
 
 @Controller
 public class ExportToCsvController {
@@ -66,6 +70,8 @@ public class ExportToCsvController {
     private static final String L_CONTROLLER_PATH = "exportToCsv/{" + L_PLUGIN_IDENTIFIER_VARIABLE + "}/{" + L_VIEW_NAME_VARIABLE
             + "}";
 
+    private static final int L_WRITER_BUFFER_SIZE = 64 * 1024;
+
     @Value("${exportedCsvSeparator:','}")
     private String exportedCsvSeparator;
 
@@ -75,113 +81,108 @@ public class ExportToCsvController {
     @Autowired
     private CrudService crudService;
 
+    @Autowired
+    private GridExportHelper gridExportHelper;
+
     @Monitorable(threshold = 500)
     @ResponseBody
     @RequestMapping(value = { L_CONTROLLER_PATH }, method = RequestMethod.POST)
     public Object generateCsv(@PathVariable(L_PLUGIN_IDENTIFIER_VARIABLE) final String pluginIdentifier,
             @PathVariable(L_VIEW_NAME_VARIABLE) final String viewName, @RequestBody final JSONObject body, final Locale locale) {
-        try {
-            changeMaxResults(body);
+        ViewDefinitionState state = crudService.invokeEvent(pluginIdentifier, viewName, body, locale);
 
-            ViewDefinitionState state = crudService.invokeEvent(pluginIdentifier, viewName, body, locale);
+        GridExport export = ((GridComponent) state.getComponentByReference(L_GRID)).createExport();
 
-            GridComponent grid = (GridComponent) state.getComponentByReference(L_GRID);
-
-            String date = DateFormat.getDateInstance().format(new Date());
-            File file = fileService.createExportFile("export_" + grid.getName() + "_" + date + ".csv");
-
-            BufferedWriter bufferedWriter = null;
-
-            try {
-                FileOutputStream fileOutputStream = new FileOutputStream(file);
+        String date = DateFormat.getDateInstance().format(new Date());
+        String fileName = "export_" + export.getName() + "_" + date + ".csv";
 
-                fileOutputStream.write(239);
-                fileOutputStream.write(187);
-                fileOutputStream.write(191);
+        if (gridExportHelper.shouldExportInBackground(export)) {
+            gridExportHelper.exportInBackground(state, fileName,
+                    (outputStream, context) -> writeCsv(export, outputStream, context));
 
-                bufferedWriter = new BufferedWriter(new OutputStreamWriter(fileOutputStream, Charset.forName("UTF-8")));
-
-                boolean firstName = true;
-
-                for (String name : grid.getColumnNames().values()) {
-                    if (firstName) {
-                        firstName = false;
-                    } else {
-                        bufferedWriter.append(exportedCsvSeparator);
-                    }
+            return crudService.renderView(state);
+        }
 
-                    bufferedWriter.append("\"").append(normalizeString(name)).append("\"");
-                }
+        File file = fileService.createExportFile(fileName);
+        OutputStream outputStream = null;
 
-                bufferedWriter.append("\n");
+        try {
+            outputStream = new FileOutputStream(file);
 
-                List<Map<String, String>> rows;
+            writeCsv(export, outputStream, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            IOUtils.closeQuietly(outputStream);
+        }
 
-                if (grid.getSelectedEntitiesIds().isEmpty()) {
-                    rows = grid.getColumnValuesOfAllRecords();
-                } else {
-                    rows = grid.getColumnValuesOfSelectedRecords();
-                }
+        state.redirectTo(fileService.getUrl(file.getAbsolutePath()) + "?clean", true, false);
 
-                for (Map<String, String> row : rows) {
-                    boolean firstValue = true;
+        return crudService.renderView(state);
+    }
 
-                    for (String value : row.values()) {
-                        if (firstValue) {
-                            firstValue = false;
-                        } else {
-                            bufferedWriter.append(exportedCsvSeparator);
-                        }
+    private void writeCsv(final GridExport export, final OutputStream outputStream, final JobContext context)
+            throws IOException {
+        outputStream.write(239);
+        outputStream.write(187);
+        outputStream.write(191);
 
-                        bufferedWriter.append("\"").append(normalizeString(value)).append("\"");
-                    }
+        final BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream, Charset.forName("UTF-8")),
+                L_WRITER_BUFFER_SIZE);
 
-                    bufferedWriter.append("\n");
-                }
+        writeRow(writer, export.getColumnNames().values());
 
-                bufferedWriter.flush();
+        Consumer<Map<String, String>> rowWriter = row -> {
+            try {
+                writeRow(writer, row.values());
             } catch (IOException e) {
                 throw new IllegalStateException(e.getMessage(), e);
-            } finally {
-                IOUtils.closeQuietly(bufferedWriter);
             }
+        };
 
-            state.redirectTo(fileService.getUrl(file.getAbsolutePath()) + "?clean", true, false);
+        gridExportHelper.scrollRows(export, rowWriter, context);
 
-            return crudService.renderView(state);
-        } catch (JSONException e) {
-            throw new IllegalStateException(e.getMessage(), e);
-        }
+        writer.flush();
     }
 
-    private String normalizeString(final String string) {
-        if (StringUtils.hasText(string)) {
-            return string.replaceAll("\"", "\\\"").replaceAll("\n", " ");
-        } else {
-            return "";
-        }
-    }
+    private void writeRow(final Writer writer, final Collection<String> values) throws IOException {
+        boolean first = true;
 
-    private void changeMaxResults(final JSONObject json) throws JSONException {
-        JSONObject component = getComponent(json, getComponentName(json));
-        component.getJSONObject("content").put("firstEntity", 0);
-        component.getJSONObject("content").put("maxEntities", Integer.MAX_VALUE);
-    }
+        for (String value : values) {
+            if (first) {
+                first = false;
+            } else {
+                writer.write(exportedCsvSeparator);
+            }
 
-    private JSONObject getComponent(final JSONObject json, final String componentName) throws JSONException {
-        String[] path = componentName.split("\\.");
+            writer.write('"');
+            writeEscaped(writer, value);
+            writer.write('"');
+        }
 
-        JSONObject component = json;
+        writer.write('\n');
+    }
 
-        for (String p : path) {
-            component = component.getJSONObject("components").getJSONObject(p);
+    /**
+     * Writes quoted field content as defined by RFC 4180 - quotes are doubled. Line breaks are replaced with spaces to keep one
+     * record per line.
+     */
+    private void writeEscaped(final Writer writer, final String value) throws IOException {
+        if (!StringUtils.hasText(value)) {
+            return;
         }
 
-        return component;
-    }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
 
-    private String getComponentName(final JSONObject body) throws JSONException {
-        return body.getJSONObject("event").getString("component");
+            if (c == '"') {
+                writer.write("\"\"");
+            } else if (c == '\n' || c == '\r') {
+                writer.write(' ');
+            } else {
+                writer.write(c);
+            }
+        }
     }
 
 }
@@ -26,13 +26,14 @@ package com.qcadoo.plugins.qcadooExport.internal;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.text.DateFormat;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
-import org.json.JSONException;
+import org.apache.commons.io.IOUtils;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -42,12 +43,10 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
 
-import com.google.common.base.Strings;
 import com.google.common.collect.Lists;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.PageSize;
-import com.lowagie.text.Phrase;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import com.qcadoo.localization.api.TranslationService;
@@ -55,12 +54,14 @@ import com.qcadoo.model.api.aop.Monitorable;
 import com.qcadoo.model.api.file.FileService;
 import com.qcadoo.report.api.FontUtils;
 import com.qcadoo.report.api.FooterResolver;
+import com.qcadoo.report.api.pdf.ChunkedPdfTable;
 import com.qcadoo.report.api.pdf.PdfHelper;
 import com.qcadoo.report.api.pdf.PdfPageNumbering;
-import com.qcadoo.security.api.SecurityRolesService;
 import com.qcadoo.view.api.ViewDefinitionState;
 import com.qcadoo.view.api.components.GridComponent;
+import com.qcadoo.view.api.components.grid.GridExport;
 import com.qcadoo.view.api.crud.CrudService;
+import com.qcadoo.view.api.jobs.JobContext;
 
 @Controller
 public class ExportToPDFController {
@@ -83,140 +84,100 @@ public class ExportToPDFController {
     @Autowired
     private TranslationService translationService;
 
-    @Autowired
-    private SecurityRolesService securityRolesService;
-
     @Autowired
     private PdfHelper pdfHelper;
 
     @Autowired
     private FooterResolver footerResolver;
 
+    @Autowired
+    private GridExportHelper gridExportHelper;
+
     @Monitorable(threshold = 500)
     @ResponseBody
     @RequestMapping(value = { L_CONTROLLER_PATH }, method = RequestMethod.POST)
     public Object generatePdf(@PathVariable(L_PLUGIN_IDENTIFIER_VARIABLE) final String pluginIdentifier,
             @PathVariable(L_VIEW_NAME_VARIABLE) final String viewName, @RequestBody final JSONObject body, final Locale locale) {
-        try {
-            changeMaxResults(body);
-
-            ViewDefinitionState state = crudService.invokeEvent(pluginIdentifier, viewName, body, locale);
-
-            GridComponent grid = (GridComponent) state.getComponentByReference(L_GRID);
-
-            Document document = new Document(PageSize.A4.rotate());
-            String date = DateFormat.getDateInstance().format(new Date());
-            File file = fileService.createExportFile("export_" + grid.getName() + "_" + date + ".pdf");
+        ViewDefinitionState state = crudService.invokeEvent(pluginIdentifier, viewName, body, locale);
 
-            FileOutputStream fileOutputStream = new FileOutputStream(file);
-            PdfWriter pdfWriter = PdfWriter.getInstance(document, fileOutputStream);
+        GridExport export = ((GridComponent) state.getComponentByReference(L_GRID)).createExport();
 
-            pdfWriter.setPageEvent(new PdfPageNumbering(footerResolver.resolveFooter(locale)));
+        String date = DateFormat.getDateInstance().format(new Date());
+        String fileName = "export_" + export.getName() + "_" + date + ".pdf";
 
-            document.setMargins(40, 40, 60, 60);
+        String title = translationService.translate(pluginIdentifier + "." + viewName + ".window.mainTab." + export.getName()
+                + ".header", locale);
 
-            document.addTitle("export.pdf");
-            pdfHelper.addMetaData(document);
-            pdfWriter.createXmpMetadata();
-            document.open();
+        if (gridExportHelper.shouldExportInBackground(export)) {
+            gridExportHelper.exportInBackground(state, fileName,
+                    (outputStream, context) -> writePdf(export, title, locale, outputStream, context));
 
-            String title = translationService
-                    .translate(pluginIdentifier + "." + viewName + ".window.mainTab." + grid.getName() + ".header", locale);
-
-            Date generationDate = new Date();
-
-            pdfHelper.addDocumentHeader(document, "", title,
-                    translationService.translate("qcadooReport.commons.generatedBy.label", locale), generationDate);
-
-            List<String> columns = getColumns(grid, viewName);
-            List<String> columnNames = getColumnNames(grid, columns);
-
-            PdfPTable pdfTable = pdfHelper.createTableWithHeader(columnNames.size(), columnNames, false);
-
-            List<Map<String, String>> rows;
-
-            if (grid.getSelectedEntitiesIds().isEmpty()) {
-                rows = grid.getColumnValuesOfAllRecords();
-            } else {
-                rows = grid.getColumnValuesOfSelectedRecords();
-            }
-
-            addPdfTableCells(pdfTable, rows, columns, viewName);
+            return crudService.renderView(state);
+        }
 
-            document.add(pdfTable);
-            document.close();
+        File file = fileService.createExportFile(fileName);
+        OutputStream outputStream = null;
 
-            state.redirectTo(fileService.getUrl(file.getAbsolutePath()) + "?clean", true, false);
+        try {
+            outputStream = new FileOutputStream(file);
 
-            return crudService.renderView(state);
-        } catch (JSONException e) {
-            throw new IllegalStateException(e.getMessage(), e);
+            writePdf(export, title, locale, outputStream, null);
         } catch (FileNotFoundException e) {
             throw new IllegalStateException(e.getMessage(), e);
         } catch (DocumentException e) {
             throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            IOUtils.closeQuietly(outputStream);
         }
+
+        state.redirectTo(fileService.getUrl(file.getAbsolutePath()) + "?clean", true, false);
+
+        return crudService.renderView(state);
     }
 
-    private List<String> getColumns(final GridComponent grid, final String viewName) {
-        List<String> columns = Lists.newLinkedList();
+    private void writePdf(final GridExport export, final String title, final Locale locale, final OutputStream outputStream,
+            final JobContext context) throws DocumentException {
+        Document document = new Document(PageSize.A4.rotate());
 
-        grid.getColumns().entrySet().stream().forEach(entry -> {
-            String columnAuthorizationRole = entry.getValue().getAuthorizationRole();
+        PdfWriter pdfWriter = PdfWriter.getInstance(document, outputStream);
 
-            if ((Strings.isNullOrEmpty(columnAuthorizationRole) || securityRolesService.canAccess(columnAuthorizationRole))
-                    && !entry.getValue().isHidden()) {
-                columns.add(entry.getKey());
-            }
-        });
+        pdfWriter.setPageEvent(new PdfPageNumbering(footerResolver.resolveFooter(locale)));
 
-        return columns;
-    }
+        document.setMargins(40, 40, 60, 60);
 
-    private List<String> getColumnNames(final GridComponent grid, final List<String> columns) {
-        List<String> columnNames = Lists.newLinkedList();
+        document.addTitle("export.pdf");
+        pdfHelper.addMetaData(document);
+        pdfWriter.createXmpMetadata();
+        document.open();
 
-        columns.forEach(column -> {
-            String columnName = grid.getColumnNames().get(column);
+        Date generationDate = new Date();
 
-            if (!Strings.isNullOrEmpty(columnName)) {
-                columnNames.add(columnName);
-            }
-        });
+        pdfHelper.addDocumentHeader(document, "", title,
+                translationService.translate("qcadooReport.commons.generatedBy.label", locale), generationDate);
 
-        return columnNames;
-    }
+        List<String> columns = Lists.newArrayList(export.getColumnNames().keySet());
+        List<String> columnNames = Lists.newArrayList(export.getColumnNames().values());
 
-    private void addPdfTableCells(final PdfPTable pdfTable, final List<Map<String, String>> rows, final List<String> columns,
-            final String viewName) {
-        rows.forEach(row -> {
-            columns.forEach(column -> {
-                pdfTable.addCell(new Phrase(row.get(column), FontUtils.getDejavuRegular7Dark()));
-            });
-        });
-    }
+        PdfPTable pdfTable = pdfHelper.createTableWithHeader(columnNames.size(), columnNames, false);
+
+        ChunkedPdfTable chunkedTable = new ChunkedPdfTable(document, pdfTable, ChunkedPdfTable.DEFAULT_CHUNK_SIZE);
 
-    private void changeMaxResults(final JSONObject json) throws JSONException {
-        JSONObject component = getComponent(json, getComponentName(json));
+        gridExportHelper.scrollRows(export, row -> addPdfTableRow(chunkedTable, row, columns), context);
 
-        component.getJSONObject("content").put("firstEntity", 0);
-        component.getJSONObject("content").put("maxEntities", Integer.MAX_VALUE);
+        chunkedTable.finish();
+        document.close();
     }
 
-    private JSONObject getComponent(final JSONObject json, final String componentName) throws JSONException {
-        String[] path = componentName.split("\\.");
+    private void addPdfTableRow(final ChunkedPdfTable chunkedTable, final Map<String, String> row, final List<String> columns) {
+        List<String> values = Lists.newArrayListWithCapacity(columns.size());
 
-        JSONObject component = json;
+        columns.forEach(column -> values.add(row.get(column)));
 
-        for (String p : path) {
-            component = component.getJSONObject("components").getJSONObject(p);
+        try {
+            chunkedTable.addRow(values, FontUtils.getDejavuRegular7Dark());
+        } catch (DocumentException e) {
+            throw new IllegalStateException(e.getMessage(), e);
         }
-
-        return component;
-    }
-
-    private String getComponentName(final JSONObject body) throws JSONException {
-        return body.getJSONObject("event").getString("component");
     }
 
 }
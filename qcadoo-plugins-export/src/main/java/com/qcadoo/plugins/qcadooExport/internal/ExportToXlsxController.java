@@ -0,0 +1,197 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.plugins.qcadooExport.internal;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.DateFormat;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Locale;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.qcadoo.model.api.aop.Monitorable;
+import com.qcadoo.model.api.file.FileService;
+import com.qcadoo.report.api.xls.XlsHelper;
+import com.qcadoo.report.api.xls.XlsxDocumentService;
+import com.qcadoo.view.api.ViewDefinitionState;
+import com.qcadoo.view.api.components.GridComponent;
+import com.qcadoo.view.api.components.grid.GridExport;
+import com.qcadoo.view.api.crud.CrudService;
+import com.qcadoo.view.api.jobs.JobContext;
+
+@Controller
+public class ExportToXlsxController {
+
+    private static final String L_GRID = "grid";
+
+    private static final String L_VIEW_NAME_VARIABLE = "viewName";
+
+    private static final String L_PLUGIN_IDENTIFIER_VARIABLE = "pluginIdentifier";
+
+    private static final String L_CONTROLLER_PATH = "exportToXlsx/{" + L_PLUGIN_IDENTIFIER_VARIABLE + "}/{" + L_VIEW_NAME_VARIABLE
+            + "}";
+
+    private static final int L_MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private CrudService crudService;
+
+    @Autowired
+    private XlsHelper xlsHelper;
+
+    @Autowired
+    private GridExportHelper gridExportHelper;
+
+    @Monitorable(threshold = 500)
+    @ResponseBody
+    @RequestMapping(value = { L_CONTROLLER_PATH }, method = RequestMethod.POST)
+    public Object generateXlsx(@PathVariable(L_PLUGIN_IDENTIFIER_VARIABLE) final String pluginIdentifier,
+            @PathVariable(L_VIEW_NAME_VARIABLE) final String viewName, @RequestBody final JSONObject body, final Locale locale) {
+        ViewDefinitionState state = crudService.invokeEvent(pluginIdentifier, viewName, body, locale);
+
+        GridExport export = ((GridComponent) state.getComponentByReference(L_GRID)).createExport();
+
+        String date = DateFormat.getDateInstance().format(new Date());
+        String fileName = "export_" + export.getName() + "_" + date + ".xlsx";
+
+        if (gridExportHelper.shouldExportInBackground(export)) {
+            gridExportHelper.exportInBackground(state, fileName,
+                    (outputStream, context) -> writeXlsx(export, outputStream, context));
+
+            return crudService.renderView(state);
+        }
+
+        File file = fileService.createExportFile(fileName);
+        OutputStream outputStream = null;
+
+        try {
+            outputStream = new FileOutputStream(file);
+
+            writeXlsx(export, outputStream, null);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            IOUtils.closeQuietly(outputStream);
+        }
+
+        state.redirectTo(fileService.getUrl(file.getAbsolutePath()) + "?clean", true, false);
+
+        return crudService.renderView(state);
+    }
+
+    private void writeXlsx(final GridExport export, final OutputStream outputStream, final JobContext context)
+            throws IOException {
+        SXSSFWorkbook workbook = XlsxDocumentService.createWorkbook(XlsxDocumentService.DEFAULT_ROW_ACCESS_WINDOW_SIZE);
+
+        try {
+            SheetWriter sheetWriter = new SheetWriter(workbook, export.getName(), export.getColumnNames().values());
+
+            gridExportHelper.scrollRows(export, row -> sheetWriter.addRow(row.values()), context);
+
+            workbook.write(outputStream);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Writes rows to the sheets of the workbook, starting the next sheet (with the header repeated) when the current one is full.
+     */
+    private final class SheetWriter {
+
+        private final SXSSFWorkbook workbook;
+
+        private final String name;
+
+        private final Collection<String> columnNames;
+
+        private Sheet sheet;
+
+        private int rowNumber;
+
+        private SheetWriter(final SXSSFWorkbook workbook, final String name, final Collection<String> columnNames) {
+            this.workbook = workbook;
+            this.name = name;
+            this.columnNames = columnNames;
+
+            createSheet();
+        }
+
+        private void addRow(final Collection<String> values) {
+            if (rowNumber >= L_MAX_ROWS) {
+                createSheet();
+            }
+
+            Row row = sheet.createRow(rowNumber++);
+            int columnNumber = 0;
+
+            for (String value : values) {
+                row.createCell(columnNumber++).setCellValue(value);
+            }
+        }
+
+        private void createSheet() {
+            String sheetName = name;
+
+            if (workbook.getNumberOfSheets() > 0) {
+                sheetName = name + " (" + (workbook.getNumberOfSheets() + 1) + ")";
+            }
+
+            sheet = workbook.createSheet(WorkbookUtil.createSafeSheetName(sheetName));
+            rowNumber = 0;
+
+            Row header = sheet.createRow(rowNumber++);
+            int columnNumber = 0;
+
+            for (String columnName : columnNames) {
+                Cell cell = header.createCell(columnNumber++);
+                cell.setCellValue(columnName);
+                xlsHelper.setCellStyle(sheet, cell);
+            }
+        }
+
+    }
+
+}
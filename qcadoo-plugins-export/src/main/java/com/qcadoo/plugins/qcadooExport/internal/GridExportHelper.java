@@ -0,0 +1,99 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.plugins.qcadooExport.internal;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.qcadoo.view.api.ComponentState.MessageType;
+import com.qcadoo.view.api.ViewDefinitionState;
+import com.qcadoo.view.api.components.grid.GridExport;
+import com.qcadoo.view.api.jobs.DocumentJobService;
+import com.qcadoo.view.api.jobs.DocumentWriter;
+import com.qcadoo.view.api.jobs.JobContext;
+
+/**
+ * Common part of the grid exports. Exports of more than exportInBackgroundThreshold records are generated by the background job
+ * in the export pool, so they don't hold the request thread - user is told the job id and the URL the document can be downloaded
+ * from when it's finished. Exports work on the {@link GridExport} snapshot, never on the request-scoped grid.
+ */
+@Service
+public class GridExportHelper {
+
+    private static final String L_EXPORT_POOL = "export";
+
+    @Value("${exportInBackgroundThreshold:10000}")
+    private long exportInBackgroundThreshold;
+
+    @Autowired
+    private DocumentJobService documentJobService;
+
+    public boolean shouldExportInBackground(final GridExport export) {
+        return exportInBackgroundThreshold > 0 && export.count() > exportInBackgroundThreshold;
+    }
+
+    public void exportInBackground(final ViewDefinitionState state, final String fileName, final DocumentWriter writer) {
+        try {
+            Long jobId = documentJobService.submit(L_EXPORT_POOL, fileName, writer);
+
+            state.addMessage("qcadooExport.export.inBackground", MessageType.INFO, false, fileName, String.valueOf(jobId),
+                    documentJobService.getDownloadUrl(jobId));
+        } catch (IllegalStateException e) {
+            state.addMessage("qcadooExport.export.tooManyExports", MessageType.FAILURE);
+        }
+    }
+
+    /**
+     * Passes exported rows of the grid (selected ones or all if nothing is selected) to the consumer.
+     *
+     * @param export
+     *            export of the grid
+     * @param consumer
+     *            consumer of the column values
+     * @param context
+     *            context of the background job, used for progress and cancellation, or null if export isn't background one
+     */
+    public void scrollRows(final GridExport export, final Consumer<Map<String, String>> consumer, final JobContext context) {
+        Consumer<Map<String, String>> rowConsumer = consumer;
+
+        if (context != null) {
+            final long total = export.count();
+            final AtomicLong done = new AtomicLong();
+
+            rowConsumer = row -> {
+                context.checkCancelled();
+                consumer.accept(row);
+                context.updateProgress(done.incrementAndGet(), total);
+            };
+        }
+
+        export.scroll(rowConsumer);
+    }
+
+}
@@ -32,7 +32,7 @@ public class ReportException extends Exception {
     public static enum Type {
         JSON_EXCEPTION("jsonException"), WRONG_REPORT_TYPE("wrongType"), ERROR_WHILE_COPYING_REPORT_TO_RESPONSE(
                 "errorWhileCopyingToResponse"), NO_TEMPLATE_FOUND("noTemplateFound"), GENERATE_REPORT_EXCEPTION(
-                "generateReportException");
+                "generateReportException"), TOO_MANY_REPORTS("tooManyReports");
 
         private String code;
 
@@ -0,0 +1,156 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.api;
+
+/**
+ * Snapshot of the report generation metrics.
+ *
+ * @since 1.5
+ */
+public final class ReportMetrics {
+
+    private final int activeCount;
+
+    private final int queueDepth;
+
+    private final long generatedCount;
+
+    private final long failedCount;
+
+    private final long rejectedCount;
+
+    private final long averageQueueTime;
+
+    private final long averageFillTime;
+
+    private final long averageExportTime;
+
+    private final long pagesCount;
+
+    private final long bytesCount;
+
+    public ReportMetrics(final int activeCount, final int queueDepth, final long generatedCount, final long failedCount,
+            final long rejectedCount, final long averageQueueTime, final long averageFillTime, final long averageExportTime,
+            final long pagesCount, final long bytesCount) {
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.generatedCount = generatedCount;
+        this.failedCount = failedCount;
+        this.rejectedCount = rejectedCount;
+        this.averageQueueTime = averageQueueTime;
+        this.averageFillTime = averageFillTime;
+        this.averageExportTime = averageExportTime;
+        this.pagesCount = pagesCount;
+        this.bytesCount = bytesCount;
+    }
+
+    /**
+     * Returns number of reports being filled or exported right now.
+     *
+     * @return active reports count
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns number of reports waiting for the free slot.
+     *
+     * @return queued reports count
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getGeneratedCount() {
+        return generatedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Returns number of reports rejected because the queue was full or the slot wasn't free in time.
+     *
+     * @return rejected reports count
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Returns average time (in milliseconds) spent waiting for the free slot.
+     *
+     * @return average queue time
+     */
+    public long getAverageQueueTime() {
+        return averageQueueTime;
+    }
+
+    /**
+     * Returns average time (in milliseconds) of filling the report with data.
+     *
+     * @return average fill time
+     */
+    public long getAverageFillTime() {
+        return averageFillTime;
+    }
+
+    /**
+     * Returns average time (in milliseconds) of exporting the filled report to the output format.
+     *
+     * @return average export time
+     */
+    public long getAverageExportTime() {
+        return averageExportTime;
+    }
+
+    /**
+     * Returns total number of pages of all generated reports.
+     *
+     * @return pages count
+     */
+    public long getPagesCount() {
+        return pagesCount;
+    }
+
+    /**
+     * Returns total size (in bytes) of all generated reports.
+     *
+     * @return bytes count
+     */
+    public long getBytesCount() {
+        return bytesCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ReportMetrics[active=" + activeCount + ", queue=" + queueDepth + ", generated=" + generatedCount + ", failed="
+                + failedCount + ", rejected=" + rejectedCount + ", queueTime=" + averageQueueTime + "ms, fillTime="
+                + averageFillTime + "ms, exportTime=" + averageExportTime + "ms, pages=" + pagesCount + ", bytes=" + bytesCount
+                + "]";
+    }
+
+}
@@ -26,6 +26,7 @@ package com.qcadoo.report.api;
 import com.qcadoo.view.api.ComponentState;
 import com.qcadoo.view.api.ViewDefinitionState;
 
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -74,6 +75,26 @@ public interface ReportService {
     byte[] generateReportForEntity(String templatePlugin, String templateName, ReportType type, List<Long> entityIds,
             Map<String, String> userArgs, Locale locale) throws ReportException;
 
+    /**
+     * Generate report for entity and write it to the given stream. Report is filled before anything is written, so errors in the
+     * template or data are thrown before the stream is used. Stream isn't closed.
+     * 
+     * @param templatePlugin
+     * @param templateName
+     * @param type
+     * @param entityIds
+     *            list of entity ids
+     * @param userArgs
+     *            additional user args
+     * @param locale
+     * @param outputStream
+     *            stream for the report
+     * @throws ReportException
+     * @since 1.5
+     */
+    void generateReportForEntity(String templatePlugin, String templateName, ReportType type, List<Long> entityIds,
+            Map<String, String> userArgs, Locale locale, OutputStream outputStream) throws ReportException;
+
     /**
      * Generate report for given parameters.
      * 
@@ -88,6 +109,22 @@ public interface ReportService {
     byte[] generateReport(String templatePlugin, String templateName, ReportType type, Map<String, Object> parameters,
             Locale locale) throws ReportException;
 
+    /**
+     * Generate report for given parameters and write it to the given stream. Stream isn't closed.
+     * 
+     * @param templatePlugin
+     * @param templateName
+     * @param type
+     * @param parameters
+     * @param locale
+     * @param outputStream
+     *            stream for the report
+     * @throws ReportException
+     * @since 1.5
+     */
+    void generateReport(String templatePlugin, String templateName, ReportType type, Map<String, Object> parameters,
+            Locale locale, OutputStream outputStream) throws ReportException;
+
     /**
      * Generate report with given content for given parameters.
      * 
@@ -111,4 +148,12 @@ public interface ReportService {
      */
     void printGeneratedReport(final ViewDefinitionState viewDefinitionState, final ComponentState state, final String[] args);
 
+    /**
+     * Returns metrics of the reports generated on this node since the start.
+     * 
+     * @return report metrics
+     * @since 1.5
+     */
+    ReportMetrics getMetrics();
+
 }
@@ -0,0 +1,133 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.api.pdf;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collection;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Font;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.pdf.PdfPTable;
+
+/**
+ * Writes the table with many rows without keeping all of them in memory. Table is marked as incomplete and added to the document
+ * after each chunk of rows, iText writes completed rows and removes them from the table. Header rows of the table are repeated on
+ * each page.
+ *
+ * Default cell of the table is used as a template for all body cells, so table should be prepared using one of the
+ * {@link PdfHelper#createTableWithHeader} methods.
+ *
+ * @since 1.5
+ */
+public final class ChunkedPdfTable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 200;
+
+    private final Document document;
+
+    private final PdfPTable table;
+
+    private final int chunkSize;
+
+    private int pendingRows;
+
+    private boolean finished;
+
+    /**
+     * Creates chunked table using given table with header.
+     *
+     * @param document
+     *            opened document
+     * @param table
+     *            table with header rows already added
+     * @param chunkSize
+     *            number of rows kept in memory before they are written to the document
+     */
+    public ChunkedPdfTable(final Document document, final PdfPTable table, final int chunkSize) {
+        checkArgument(chunkSize > 0, "Chunk size must be positive");
+
+        this.document = document;
+        this.table = table;
+        this.chunkSize = chunkSize;
+
+        if (table.getHeaderRows() == 0) {
+            table.setHeaderRows(table.size());
+        }
+        table.setComplete(false);
+    }
+
+    /**
+     * Adds row to the table, writing pending rows to the document when chunk is full.
+     *
+     * @param values
+     *            cell values, one for each column
+     * @param font
+     *            font of the cells
+     * @throws DocumentException
+     */
+    public void addRow(final Collection<String> values, final Font font) throws DocumentException {
+        checkState(!finished, "Table is already finished");
+
+        for (String value : values) {
+            table.addCell(new Phrase(value, font));
+        }
+
+        if (++pendingRows >= chunkSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes remaining rows and closes the table. Table can't be used after this call.
+     *
+     * @throws DocumentException
+     */
+    public void finish() throws DocumentException {
+        checkState(!finished, "Table is already finished");
+
+        finished = true;
+        table.setComplete(true);
+        document.add(table);
+        pendingRows = 0;
+    }
+
+    /**
+     * Returns number of body rows which aren't written to the document yet.
+     *
+     * @return number of pending rows
+     */
+    public int getPendingRows() {
+        return pendingRows;
+    }
+
+    private void flush() throws DocumentException {
+        document.add(table);
+        pendingRows = 0;
+    }
+
+}
@@ -23,10 +23,17 @@
  */
 package com.qcadoo.report.api.pdf;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedOutputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,6 +66,8 @@ public abstract class PdfDocumentWithWriterService implements ReportDocumentServ
 
     private static final Logger LOG = LoggerFactory.getLogger(PdfDocumentWithWriterService.class);
 
+    private static final int L_OUTPUT_BUFFER_SIZE = 64 * 1024;
+
     @Override
     public void generateDocument(final Entity entity, final Locale locale, final Rectangle pageSize) throws IOException,
             DocumentException {
@@ -98,17 +107,82 @@ public abstract class PdfDocumentWithWriterService implements ReportDocumentServ
 
     private void generate(final Entity entity, final Locale locale, final String filename, final Rectangle pageSize)
             throws IOException, DocumentException {
+        OutputStream outputStream = null;
+        try {
+            outputStream = new BufferedOutputStream(new FileOutputStream(fileService.createReportFile(filename + "."
+                    + ReportService.ReportType.PDF.getExtension())), L_OUTPUT_BUFFER_SIZE);
+
+            generateDocuments(Collections.singletonList(entity), locale, pageSize, outputStream, new PdfRenderingContext(
+                    footerResolver));
+
+            outputStream.flush();
+        } finally {
+            IOUtils.closeQuietly(outputStream);
+        }
+    }
+
+    /**
+     * Writes documents of all the given entities into one PDF, e.g. for batch printing. Each document starts on the new page and
+     * has its own page numbering.
+     *
+     * @param entities
+     *            entities
+     * @param locale
+     *            locale
+     * @param outputStream
+     *            output stream, it isn't closed
+     * @throws DocumentException
+     *
+     * @since 1.5
+     */
+    public void generateDocuments(final List<Entity> entities, final Locale locale, final OutputStream outputStream)
+            throws DocumentException {
+        generateDocuments(entities, locale, PageSize.A4, outputStream, new PdfRenderingContext(footerResolver));
+    }
+
+    /**
+     * Writes documents of all the given entities into one PDF, e.g. for batch printing. Each document starts on the new page and
+     * has its own page numbering. Footer and generation date are taken from the given rendering context, so it can be shared by
+     * many calls.
+     *
+     * @param entities
+     *            entities
+     * @param locale
+     *            locale
+     * @param pageSize
+     *            page size
+     * @param outputStream
+     *            output stream, it isn't closed
+     * @param renderingContext
+     *            rendering context
+     * @throws DocumentException
+     *
+     * @since 1.5
+     */
+    public void generateDocuments(final List<Entity> entities, final Locale locale, final Rectangle pageSize,
+            final OutputStream outputStream, final PdfRenderingContext renderingContext) throws DocumentException {
+        checkArgument(!entities.isEmpty(), "entities must be given");
+
         Document document = new Document(pageSize);
         try {
-            FileOutputStream fileOutputStream = new FileOutputStream(fileService.createReportFile(filename + "."
-                    + ReportService.ReportType.PDF.getExtension()));
-            PdfWriter writer = PdfWriter.getInstance(document, fileOutputStream);
-            writer.setPageEvent(new PdfPageNumbering(footerResolver.resolveFooter(locale)));
+            PdfWriter writer = PdfWriter.getInstance(document, outputStream);
+            writer.setCloseStream(false);
+            PdfPageNumbering pageNumbering = renderingContext.createPageNumbering(locale);
+            writer.setPageEvent(pageNumbering);
             document.setMargins(40, 40, 60, 60);
             buildPdfMetadata(document, locale);
             writer.createXmpMetadata();
             document.open();
-            buildPdfContent(writer, document, entity, locale);
+
+            for (int i = 0; i < entities.size(); i++) {
+                if (i > 0) {
+                    document.newPage();
+                    pageNumbering.startSection(writer);
+                }
+
+                buildPdfContent(writer, document, entities.get(i), locale);
+            }
+
             document.close();
         } catch (DocumentException e) {
             LOG.error("Problem with generating document - " + e.getMessage());
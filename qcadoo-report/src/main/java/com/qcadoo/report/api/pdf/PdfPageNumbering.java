@@ -25,9 +25,9 @@ package com.qcadoo.report.api.pdf;
 
 import static org.springframework.context.i18n.LocaleContextHolder.getLocale;
 
-import java.text.SimpleDateFormat;
 import java.util.Date;
 
+import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -57,6 +57,12 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
     /** The PdfTemplate that contains the total number of pages. */
     private PdfTemplate total;
 
+    /** Number of the first page of the current section. */
+    private int firstPageNumber = 1;
+
+    /** Width of the digit used to place the total number of pages. */
+    private float adjust;
+
     private final String generationDate;
 
     private final Footer footer;
@@ -77,7 +83,7 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
         super();
 
         this.footer = footer;
-        this.generationDate = new SimpleDateFormat(DateUtils.L_DATE_TIME_FORMAT, getLocale()).format(new Date());
+        this.generationDate = FastDateFormat.getInstance(DateUtils.L_DATE_TIME_FORMAT, getLocale()).format(new Date());
         this.addHeader = true;
         this.addFooter = true;
     }
@@ -96,18 +102,59 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
         super();
 
         this.footer = footer;
-        this.generationDate = new SimpleDateFormat(DateUtils.L_DATE_TIME_FORMAT, getLocale()).format(new Date());
+        this.generationDate = FastDateFormat.getInstance(DateUtils.L_DATE_TIME_FORMAT, getLocale()).format(new Date());
         this.addHeader = addHeader;
         this.addFooter = addFooter;
     }
 
+    /**
+     * Constructor which uses already formatted generation date, see {@link PdfRenderingContext}.
+     *
+     * @param footer
+     *
+     * @param generationDate
+     *
+     * @param addHeader
+     *
+     * @param addFooter
+     *
+     * @since 1.5
+     */
+    public PdfPageNumbering(final Footer footer, final String generationDate, final boolean addHeader, final boolean addFooter) {
+        super();
+
+        this.footer = footer;
+        this.generationDate = generationDate;
+        this.addHeader = addHeader;
+        this.addFooter = addFooter;
+    }
+
+    /**
+     * Starts numbering pages from 1 again, used when many documents are written into one stream. Must be called after
+     * {@link Document#newPage()} which ends the last page of the previous document.
+     *
+     * @param writer
+     *            writer of the document
+     *
+     * @since 1.5
+     */
+    public void startSection(final PdfWriter writer) {
+        if (writer.getPageNumber() == firstPageNumber) {
+            return;
+        }
+
+        writeTotal(writer.getPageNumber() - firstPageNumber);
+
+        total = createTotal(writer);
+        firstPageNumber = writer.getPageNumber();
+    }
+
     /**
      * @see com.lowagie.text.pdf.PdfPageEvent#onOpenDocument(com.lowagie.text.pdf.PdfWriter, com.lowagie.text.Document)
      */
     @Override
     public void onOpenDocument(final PdfWriter writer, final Document document) {
-        total = writer.getDirectContent().createTemplate(100, 100);
-        total.setBoundingBox(new Rectangle(-20, -20, 100, 100));
+        total = createTotal(writer);
 
         try {
             ColorUtils.prepare();
@@ -116,6 +163,14 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
         } catch (Exception e) {
             throw new ExceptionConverter(e);
         }
+
+        adjust = FontUtils.getDejavu().getWidthPoint("0", 7);
+    }
+
+    private PdfTemplate createTotal(final PdfWriter writer) {
+        PdfTemplate template = writer.getDirectContent().createTemplate(100, 100);
+        template.setBoundingBox(new Rectangle(-20, -20, 100, 100));
+        return template;
     }
 
     /**
@@ -144,7 +199,7 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
 
         cb.saveState();
 
-        String text = footer.getPage() + " " + writer.getPageNumber() + " " + footer.getIn() + " ";
+        String text = footer.getPage() + " " + (writer.getPageNumber() - firstPageNumber + 1) + " " + footer.getIn() + " ";
 
         float textBase = document.bottom() - 25;
         float textSize = FontUtils.getDejavu().getWidthPoint(text, 7);
@@ -159,8 +214,6 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
         cb.beginText();
         cb.setFontAndSize(FontUtils.getDejavu(), 7);
 
-        float adjust = FontUtils.getDejavu().getWidthPoint("0", 7);
-
         cb.setTextMatrix(document.right() - textSize - adjust, textBase);
         cb.showText(text);
 
@@ -213,7 +266,7 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
     private void buildHeader(final PdfWriter writer, final Document document) {
         PdfContentByte cb = writer.getDirectContent();
         cb.saveState();
-        String text = footer.getPage() + " " + writer.getPageNumber() + " " + footer.getIn() + " ";
+        String text = footer.getPage() + " " + (writer.getPageNumber() - firstPageNumber + 1) + " " + footer.getIn() + " ";
 
         float textBase = document.top() + 22;
         float textSize = FontUtils.getDejavu().getWidthPoint(text, 7);
@@ -223,8 +276,6 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
         cb.beginText();
         cb.setFontAndSize(FontUtils.getDejavu(), 7);
 
-        float adjust = FontUtils.getDejavu().getWidthPoint("0", 7);
-
         cb.setTextMatrix(document.right() - textSize - adjust, textBase);
         cb.showText(text);
         cb.endText();
@@ -243,10 +294,14 @@ public final class PdfPageNumbering extends PdfPageEventHelper {
      */
     @Override
     public void onCloseDocument(final PdfWriter writer, final Document document) {
+        writeTotal(writer.getPageNumber() - firstPageNumber);
+    }
+
+    private void writeTotal(final int pagesCount) {
         total.beginText();
         total.setFontAndSize(FontUtils.getDejavu(), 7);
         total.setTextMatrix(0, 0);
-        total.showText(String.valueOf(writer.getPageNumber() - 1));
+        total.showText(String.valueOf(pagesCount));
         total.endText();
     }
 
@@ -0,0 +1,139 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.api.pdf;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.time.FastDateFormat;
+
+import com.qcadoo.localization.api.utils.DateUtils;
+import com.qcadoo.report.api.Footer;
+import com.qcadoo.report.api.FooterResolver;
+
+/**
+ * Resources shared by all PDF documents generated in one batch. Footer (translated labels and the document author) and the
+ * generation date are resolved only once for each locale instead of once for each document. Fonts are shared globally by
+ * {@link com.qcadoo.report.api.FontUtils}.
+ *
+ * Footer contains the current user, so the context mustn't outlive the request (or the job) it was created for.
+ *
+ * @since 1.5
+ */
+public final class PdfRenderingContext {
+
+    private final FooterResolver footerResolver;
+
+    private final Date generationDate;
+
+    private final ConcurrentMap<Locale, Footer> footers = new ConcurrentHashMap<Locale, Footer>();
+
+    private final ConcurrentMap<Locale, String> generationDates = new ConcurrentHashMap<Locale, String>();
+
+    public PdfRenderingContext(final FooterResolver footerResolver) {
+        this(footerResolver, new Date());
+    }
+
+    public PdfRenderingContext(final FooterResolver footerResolver, final Date generationDate) {
+        checkNotNull(footerResolver, "footerResolver must be given");
+        checkNotNull(generationDate, "generationDate must be given");
+
+        this.footerResolver = footerResolver;
+        this.generationDate = new Date(generationDate.getTime());
+    }
+
+    /**
+     * Returns footer for the given locale, resolved on the first call.
+     *
+     * @param locale
+     *            locale
+     * @return footer
+     */
+    public Footer getFooter(final Locale locale) {
+        Footer footer = footers.get(locale);
+
+        if (footer == null) {
+            footer = footerResolver.resolveFooter(locale);
+
+            Footer existingFooter = footers.putIfAbsent(locale, footer);
+
+            if (existingFooter != null) {
+                footer = existingFooter;
+            }
+        }
+
+        return footer;
+    }
+
+    /**
+     * Returns generation date of the batch formatted for the given locale.
+     *
+     * @param locale
+     *            locale
+     * @return formatted generation date
+     */
+    public String getGenerationDate(final Locale locale) {
+        String formattedDate = generationDates.get(locale);
+
+        if (formattedDate == null) {
+            formattedDate = FastDateFormat.getInstance(DateUtils.L_DATE_TIME_FORMAT, locale).format(generationDate);
+
+            generationDates.putIfAbsent(locale, formattedDate);
+        }
+
+        return formattedDate;
+    }
+
+    /**
+     * Creates page event which adds header and footer to the document. Page event keeps the total pages template of the
+     * document, so each writer needs its own one.
+     *
+     * @param locale
+     *            locale
+     * @return page event
+     */
+    public PdfPageNumbering createPageNumbering(final Locale locale) {
+        return createPageNumbering(locale, true, true);
+    }
+
+    /**
+     * Creates page event which adds header and/or footer to the document.
+     *
+     * @param locale
+     *            locale
+     * @param addHeader
+     *            true if header should be added
+     * @param addFooter
+     *            true if footer should be added
+     * @return page event
+     */
+    public PdfPageNumbering createPageNumbering(final Locale locale, final boolean addHeader, final boolean addFooter) {
+        return new PdfPageNumbering(getFooter(locale), getGenerationDate(locale), addHeader, addFooter);
+    }
+
+}
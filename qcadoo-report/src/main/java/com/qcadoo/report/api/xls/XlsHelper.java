@@ -25,6 +25,8 @@ package com.qcadoo.report.api.xls;
 
 import org.apache.poi.hssf.usermodel.HSSFCell;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Sheet;
 
 /**
  * Helper for XLS style.
@@ -43,4 +45,15 @@ public interface XlsHelper {
      */
     void setCellStyle(HSSFSheet sheet, HSSFCell cell);
 
+    /**
+     * Set header style for the given cell of any workbook type. Header style is created once per workbook and shared by all
+     * header cells.
+     * 
+     * @param sheet
+     *            cell worksheet
+     * @param cell
+     * @since 1.5
+     */
+    void setCellStyle(Sheet sheet, Cell cell);
+
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.api.xls;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Rectangle;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.file.FileService;
+import com.qcadoo.report.api.ReportDocumentService;
+import com.qcadoo.report.api.ReportService;
+
+/**
+ * Service for creating XLSX report documents. Unlike {@link XlsDocumentService} sheets aren't limited to 65536 rows and aren't
+ * kept in memory - only the last {@link #getRowAccessWindowSize()} rows of each sheet are accessible, older rows are flushed to
+ * the compressed temporary file. Rows have to be created in ascending order.
+ *
+ * Cell styles should be created once per workbook and shared between cells, e.g. by
+ * {@link XlsHelper#setCellStyle(Sheet, org.apache.poi.ss.usermodel.Cell)}.
+ *
+ * @since 1.5
+ */
+public abstract class XlsxDocumentService implements ReportDocumentService {
+
+    public static final int DEFAULT_ROW_ACCESS_WINDOW_SIZE = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(XlsxDocumentService.class);
+
+    @Autowired
+    private FileService fileService;
+
+    @Override
+    public final void generateDocument(final Entity entity, final Locale locale) throws IOException {
+        generateDocument(entity, locale, PageSize.A4);
+    }
+
+    @Override
+    public final void generateDocument(final Entity entity, final Locale locale, final Rectangle pageSize) throws IOException {
+        SXSSFWorkbook workbook = createWorkbook(getRowAccessWindowSize());
+        OutputStream outputStream = null;
+        try {
+            Sheet sheet = createSheet(workbook, getReportTitle(locale));
+            addHeader(sheet, locale, entity);
+            addSeries(sheet, entity);
+            addExtraSheets(workbook, entity, locale);
+
+            outputStream = new FileOutputStream(fileService.createReportFile((String) entity.getField("fileName") + "."
+                    + ReportService.ReportType.XLSX.getExtension()));
+            workbook.write(outputStream);
+        } catch (IOException e) {
+            LOG.error("Problem with generating document - " + e.getMessage());
+            throw e;
+        } finally {
+            IOUtils.closeQuietly(outputStream);
+            workbook.dispose();
+        }
+    }
+
+    /**
+     * Creates streaming workbook with compressed temporary files. Caller is responsible for calling
+     * {@link SXSSFWorkbook#dispose()} after the workbook is written.
+     *
+     * @param rowAccessWindowSize
+     *            number of rows kept in memory for each sheet
+     * @return workbook
+     */
+    public static SXSSFWorkbook createWorkbook(final int rowAccessWindowSize) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindowSize);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
+    protected abstract void addHeader(final Sheet sheet, final Locale locale, final Entity entity);
+
+    protected abstract void addSeries(final Sheet sheet, final Entity entity);
+
+    protected void addExtraSheets(final Workbook workbook, final Entity entity, final Locale locale) {
+
+    }
+
+    protected Sheet createSheet(final Workbook workbook, final String title) {
+        Sheet sheet = workbook.createSheet(title);
+        sheet.setZoom(4, 3);
+        return sheet;
+    }
+
+    protected int getRowAccessWindowSize() {
+        return DEFAULT_ROW_ACCESS_WINDOW_SIZE;
+    }
+
+}
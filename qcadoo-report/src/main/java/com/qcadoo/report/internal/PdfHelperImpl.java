@@ -47,6 +47,7 @@ import com.qcadoo.report.api.pdf.PdfHelper;
 import com.qcadoo.report.api.pdf.TableBorderEvent;
 import com.qcadoo.security.api.SecurityService;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.time.FastDateFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -54,7 +55,6 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
-import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
@@ -93,7 +93,7 @@ public final class PdfHelperImpl implements PdfHelper {
     @Override
     public void addDocumentHeader(final Document document, final String name, final String documenTitle,
             final String documentAuthor, final Date date, final String username) throws DocumentException {
-        SimpleDateFormat df = new SimpleDateFormat(DateUtils.L_DATE_TIME_FORMAT, getLocale());
+        FastDateFormat df = FastDateFormat.getInstance(DateUtils.L_DATE_TIME_FORMAT, getLocale());
         LineSeparator line = new LineSeparator(3, 100f, ColorUtils.getLineDarkColor(), Element.ALIGN_LEFT, 0);
         document.add(Chunk.NEWLINE);
         Paragraph title = new Paragraph(new Phrase(documenTitle, FontUtils.getDejavuBold17Light()));
@@ -118,7 +118,7 @@ public final class PdfHelperImpl implements PdfHelper {
     @Override
     public void addDocumentHeader(final Document document, final String name, final String documenTitle,
             final String documentAuthor, final Date date) throws DocumentException {
-        SimpleDateFormat df = new SimpleDateFormat(DateUtils.L_DATE_TIME_FORMAT, getLocale());
+        FastDateFormat df = FastDateFormat.getInstance(DateUtils.L_DATE_TIME_FORMAT, getLocale());
         LineSeparator line = new LineSeparator(2, 100f, ColorUtils.getLineDarkColor(), Element.ALIGN_LEFT, 0);
         document.add(Chunk.NEWLINE);
         Paragraph title = new Paragraph(new Phrase(documenTitle, FontUtils.getDejavuBold17Light()));
@@ -143,7 +143,7 @@ public final class PdfHelperImpl implements PdfHelper {
     @Override
     public void addDocumentHeaderThin(final Document document, final String name, final String documentTitle,
             final String documentAuthor, final Date date) throws DocumentException {
-        SimpleDateFormat df = new SimpleDateFormat(DateUtils.L_DATE_TIME_FORMAT, getLocale());
+        FastDateFormat df = FastDateFormat.getInstance(DateUtils.L_DATE_TIME_FORMAT, getLocale());
         LineSeparator line = new LineSeparator(2, 100f, ColorUtils.getLineDarkColor(), Element.ALIGN_LEFT, 0);
         Paragraph title = new Paragraph(new Phrase(documentTitle, FontUtils.getDejavuBold14Light()));
         title.add(new Phrase(" " + name, FontUtils.getDejavuBold14Dark()));
@@ -23,30 +23,30 @@
  */
 package com.qcadoo.report.internal;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.TimeUnit;
 
 import net.sf.jasperreports.engine.JRException;
 import net.sf.jasperreports.engine.JRExporter;
 import net.sf.jasperreports.engine.JRExporterParameter;
 import net.sf.jasperreports.engine.JRParameter;
-import net.sf.jasperreports.engine.JasperCompileManager;
 import net.sf.jasperreports.engine.JasperFillManager;
 import net.sf.jasperreports.engine.JasperPrint;
 import net.sf.jasperreports.engine.JasperReport;
 import net.sf.jasperreports.engine.export.JRCsvExporter;
 import net.sf.jasperreports.engine.export.JRPdfExporter;
 import net.sf.jasperreports.engine.export.JRXlsExporter;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
 import net.sf.jasperreports.engine.query.JRHibernateQueryExecuterFactory;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.ByteArrayOutputStream;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 import org.slf4j.Logger;
@@ -61,8 +61,13 @@ import org.springframework.util.StringUtils;
 import com.qcadoo.model.api.DataDefinitionService;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.report.api.ReportException;
+import com.qcadoo.report.api.ReportMetrics;
 import com.qcadoo.report.api.ReportService;
 import com.qcadoo.report.api.pdf.PdfHelper;
+import com.qcadoo.report.internal.execution.ReportExecutionLimiter;
+import com.qcadoo.report.internal.execution.ReportMetricsCollector;
+import com.qcadoo.report.internal.execution.ReportVirtualizerFactory;
+import com.qcadoo.report.internal.templates.CompiledTemplateCache;
 import com.qcadoo.report.internal.templates.ReportTemplateService;
 import com.qcadoo.report.internal.util.ReportFormatFactory;
 import com.qcadoo.view.api.ComponentState;
@@ -73,11 +78,19 @@ import com.qcadoo.view.api.components.FormComponent;
 @Service
 public class ReportServiceImpl implements ReportService {
 
+    /**
+     * Identifier of the templates passed as a content, e.g. uploaded in the report development view.
+     */
+    public static final String TEMPLATE_CONTENT_ID = "templateContent";
+
     private static final Logger LOG = LoggerFactory.getLogger(ReportServiceImpl.class);
 
     @Autowired
     private ReportTemplateService reportTemplateService;
 
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
     @Autowired
     private SessionFactory sessionFactory;
 
@@ -90,6 +103,15 @@ public class ReportServiceImpl implements ReportService {
     @Autowired
     private PdfHelper pdfHelper;
 
+    @Autowired
+    private ReportExecutionLimiter reportExecutionLimiter;
+
+    @Autowired
+    private ReportMetricsCollector reportMetricsCollector;
+
+    @Autowired
+    private ReportVirtualizerFactory reportVirtualizerFactory;
+
     @Override
     public byte[] generateReportForEntity(final String templatePlugin, final String templateName, final ReportType type,
             final List<Long> entityIds, final Map<String, String> userArgs, final Locale locale) throws ReportException {
@@ -100,10 +122,32 @@ public class ReportServiceImpl implements ReportService {
         return generateReport(templatePlugin, templateName, type, parameters, locale);
     }
 
+    @Override
+    public void generateReportForEntity(final String templatePlugin, final String templateName, final ReportType type,
+            final List<Long> entityIds, final Map<String, String> userArgs, final Locale locale, final OutputStream outputStream)
+            throws ReportException {
+
+        Map<String, Object> parameters = new HashMap<String, Object>(userArgs);
+        parameters.put("EntityIds", entityIds);
+
+        generateReport(templatePlugin, templateName, type, parameters, locale, outputStream);
+    }
+
     @Transactional(readOnly = true)
     @Override
     public byte[] generateReport(final String templatePlugin, final String templateName, final ReportType type,
             final Map<String, Object> parameters, final Locale locale) throws ReportException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        generateReport(templatePlugin, templateName, type, parameters, locale, stream);
+
+        return stream.toByteArray();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void generateReport(final String templatePlugin, final String templateName, final ReportType type,
+            final Map<String, Object> parameters, final Locale locale, final OutputStream outputStream) throws ReportException {
         if (LOG.isDebugEnabled()) {
             LOG.debug("Try to generate report [" + type + ", " + templatePlugin + "." + templateName + ", " + parameters + "]");
         }
@@ -114,34 +158,43 @@ public class ReportServiceImpl implements ReportService {
             throw new ReportException(ReportException.Type.NO_TEMPLATE_FOUND, templatePlugin + "." + templateName);
         }
 
-        return generateReport(template, type, parameters, locale);
+        generateReport(template, type, parameters, locale, outputStream);
     }
 
     @Transactional(readOnly = true)
     @Override
     public byte[] generateReport(final String templateContent, final ReportType type, final Map<String, Object> parameters,
             final Locale locale) throws ReportException {
-        InputStream in = null;
-
         try {
-            in = new ByteArrayInputStream(templateContent.getBytes("UTF-8"));
+            JasperReport template = compiledTemplateCache.compile(TEMPLATE_CONTENT_ID, templateContent.getBytes("UTF-8"));
+
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
 
-            JasperReport template = JasperCompileManager.compileReport(in);
+            generateReport(template, type, parameters, locale, stream);
 
-            return generateReport(template, type, parameters, locale);
+            return stream.toByteArray();
         } catch (JRException e) {
             throw new ReportException(ReportException.Type.NO_TEMPLATE_FOUND, e);
         } catch (UnsupportedEncodingException e) {
             throw new ReportException(ReportException.Type.NO_TEMPLATE_FOUND, e);
-        } finally {
-            IOUtils.closeQuietly(in);
         }
     }
 
-    private byte[] generateReport(final JasperReport template, final ReportType type, final Map<String, Object> parameters,
-            final Locale locale) throws ReportException {
+    @Override
+    public ReportMetrics getMetrics() {
+        return reportMetricsCollector.getMetrics();
+    }
+
+    private void generateReport(final JasperReport template, final ReportType type, final Map<String, Object> parameters,
+            final Locale locale, final OutputStream outputStream) throws ReportException {
+        ReportExecutionLimiter.Permit permit = reportExecutionLimiter.acquire();
+
         Session session = null;
+        JRSwapFileVirtualizer virtualizer = null;
         try {
+            reportMetricsCollector.recordStart(permit.getQueueTime());
+
+            virtualizer = reportVirtualizerFactory.create();
             session = sessionFactory.openSession();
             parameters.put(JRParameter.REPORT_LOCALE, locale);
             parameters.put("Author", pdfHelper.getDocumentAuthor());
@@ -152,24 +205,53 @@ public class ReportServiceImpl implements ReportService {
 
             parameters.put(JRParameter.REPORT_FORMAT_FACTORY, new ReportFormatFactory());
 
+            if (virtualizer != null) {
+                parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+            }
+
+            long fillStartTime = System.nanoTime();
+
             JasperPrint jasperPrint = JasperFillManager.fillReport(template, parameters);
 
+            if (virtualizer != null) {
+                virtualizer.setReadOnly(true);
+            }
+
+            long exportStartTime = System.nanoTime();
+
             JRExporter exporter = getExporter(type);
+            CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
 
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
             exporter.setParameter(JRExporterParameter.JASPER_PRINT, jasperPrint);
-            exporter.setParameter(JRExporterParameter.OUTPUT_STREAM, stream);
+            exporter.setParameter(JRExporterParameter.OUTPUT_STREAM, countingOutputStream);
 
             exporter.exportReport();
 
-            return stream.toByteArray();
+            long exportEndTime = System.nanoTime();
+
+            reportMetricsCollector.recordGenerated(exportStartTime - fillStartTime, exportEndTime - exportStartTime, jasperPrint
+                    .getPages().size(), countingOutputStream.getByteCount());
 
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Report " + template.getName() + " generated [" + type + ", pages: " + jasperPrint.getPages().size()
+                        + ", bytes: " + countingOutputStream.getByteCount() + ", fill: "
+                        + TimeUnit.NANOSECONDS.toMillis(exportStartTime - fillStartTime) + "ms, export: "
+                        + TimeUnit.NANOSECONDS.toMillis(exportEndTime - exportStartTime) + "ms]");
+            }
         } catch (JRException e) {
+            reportMetricsCollector.recordFailed();
             throw new ReportException(ReportException.Type.GENERATE_REPORT_EXCEPTION, e);
+        } catch (ReportException | RuntimeException e) {
+            reportMetricsCollector.recordFailed();
+            throw e;
         } finally {
+            if (virtualizer != null) {
+                virtualizer.cleanup();
+            }
             if (session != null) {
                 session.close();
             }
+            permit.release();
         }
     }
 
@@ -23,12 +23,17 @@
  */
 package com.qcadoo.report.internal;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import org.apache.poi.hssf.usermodel.HSSFCell;
-import org.apache.poi.hssf.usermodel.HSSFCellStyle;
 import org.apache.poi.hssf.usermodel.HSSFFont;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.stereotype.Component;
 
 import com.qcadoo.report.api.xls.XlsHelper;
@@ -36,13 +41,38 @@ import com.qcadoo.report.api.xls.XlsHelper;
 @Component
 public final class XlsHelperImpl implements XlsHelper {
 
+    /**
+     * Indexes of the header styles, workbooks are weak keys and indexes don't reference them, so entries disappear together
+     * with the workbooks. Workbooks have limited number of styles, so creating a style per cell isn't an option for large sheets.
+     */
+    private final Map<Workbook, Short> headerStyles = new WeakHashMap<Workbook, Short>();
+
     @Override
     public void setCellStyle(final HSSFSheet sheet, final HSSFCell cell) {
+        setCellStyle((Sheet) sheet, (Cell) cell);
+    }
+
+    @Override
+    public void setCellStyle(final Sheet sheet, final Cell cell) {
         cell.setCellStyle(getHeaderStyle(sheet.getWorkbook()));
     }
 
-    private HSSFCellStyle getHeaderStyle(final HSSFWorkbook workbook) {
-        HSSFCellStyle style = workbook.createCellStyle();
+    private CellStyle getHeaderStyle(final Workbook workbook) {
+        synchronized (headerStyles) {
+            Short index = headerStyles.get(workbook);
+
+            if (index != null) {
+                return workbook.getCellStyleAt(index);
+            }
+
+            CellStyle style = createHeaderStyle(workbook);
+            headerStyles.put(workbook, style.getIndex());
+            return style;
+        }
+    }
+
+    private CellStyle createHeaderStyle(final Workbook workbook) {
+        CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
         font.setFontHeightInPoints((short) 12);
         font.setFontName(HSSFFont.FONT_ARIAL);
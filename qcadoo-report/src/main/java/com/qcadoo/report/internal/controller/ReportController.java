@@ -23,12 +23,10 @@
  */
 package com.qcadoo.report.internal.controller;
 
-import static org.apache.commons.io.IOUtils.copy;
-
-import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -48,22 +46,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.qcadoo.model.api.DataDefinitionService;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.report.api.ReportException;
 import com.qcadoo.report.api.ReportService;
 import com.qcadoo.view.api.exception.ClassDrivenExceptionResolver;
+import com.qcadoo.view.api.jobs.DocumentJobService;
+import com.qcadoo.view.api.utils.FileDownloadWriter;
 
 @Controller
 public class ReportController {
 
+    private static final int L_RESPONSE_BUFFER_SIZE = 64 * 1024;
+
+    private static final String L_REPORT_POOL = "report";
+
     @Autowired
     private ReportService reportService;
 
     @Autowired
     private DataDefinitionService dataDefinitionService;
 
+    @Autowired
+    private FileDownloadWriter fileDownloadWriter;
+
+    @Autowired
+    private DocumentJobService documentJobService;
+
     @Autowired
     @Qualifier("exceptionResolver")
     private ClassDrivenExceptionResolver exceptionResolver;
@@ -83,18 +94,53 @@ public class ReportController {
         Map<String, String> additionalArgs = convertJsonStringToMap(requestAdditionalArgs);
 
         response.setContentType(reportType.getMimeType());
+        disableCache(response);
 
         try {
-            int bytes = copy(
-                    new ByteArrayInputStream(reportService.generateReportForEntity(templatePlugin, templateName, reportType,
-                            entityIds, additionalArgs, locale)), response.getOutputStream());
+            OutputStream outputStream = new BufferedOutputStream(new ResponseOutputStream(response), L_RESPONSE_BUFFER_SIZE);
+
+            reportService.generateReportForEntity(templatePlugin, templateName, reportType, entityIds, additionalArgs, locale,
+                    outputStream);
 
-            response.setContentLength(bytes);
+            outputStream.flush();
         } catch (IOException e) {
             throw new ReportException(ReportException.Type.ERROR_WHILE_COPYING_REPORT_TO_RESPONSE, e);
         }
+    }
 
-        disableCache(response);
+    /**
+     * Submits generation of the report to the report job pool, report is available in the download inbox (/jobs) when the job
+     * is finished.
+     */
+    @ResponseBody
+    @RequestMapping(value = "generateReportForEntityInBackground/{templatePlugin}/{templateName}", method = RequestMethod.POST)
+    public JSONObject generateReportForEntityInBackground(@PathVariable("templatePlugin") final String templatePlugin,
+            @PathVariable("templateName") final String templateName, @RequestParam("id") final List<Long> entityIds,
+            @RequestParam("additionalArgs") final String requestAdditionalArgs, final HttpServletRequest request,
+            final Locale locale) throws ReportException {
+
+        final ReportService.ReportType reportType = getReportType(request);
+        final Map<String, String> additionalArgs = convertJsonStringToMap(requestAdditionalArgs);
+
+        Long jobId;
+
+        try {
+            jobId = documentJobService.submit(L_REPORT_POOL, templateName + "." + reportType.getExtension(),
+                    (outputStream, context) -> reportService.generateReportForEntity(templatePlugin, templateName, reportType,
+                            entityIds, additionalArgs, locale, outputStream));
+        } catch (IllegalStateException e) {
+            throw new ReportException(ReportException.Type.TOO_MANY_REPORTS, e);
+        }
+
+        try {
+            JSONObject json = new JSONObject();
+            json.put("jobId", jobId);
+            json.put("statusUrl", "/jobs/" + jobId);
+            json.put("downloadUrl", documentJobService.getDownloadUrl(jobId));
+            return json;
+        } catch (JSONException e) {
+            throw new ReportException(ReportException.Type.JSON_EXCEPTION, e);
+        }
     }
 
     @RequestMapping(value = "generateSavedReport/{plugin}/{model}", method = RequestMethod.GET)
@@ -111,13 +157,9 @@ public class ReportController {
                 + reportType.getExtension();
 
         response.setHeader("Content-disposition", "inline; filename=" + translatedFileName);
-        response.setContentType(reportType.getMimeType());
         try {
-            int bytes = copy(new FileInputStream(new File(filename + "." + reportType.getExtension())),
-                    response.getOutputStream());
-
-            response.setContentLength(bytes);
-
+            fileDownloadWriter.write(new File(filename + "." + reportType.getExtension()), reportType.getMimeType(), true, request,
+                    response);
         } catch (IOException e) {
             throw new IllegalStateException(e.getMessage(), e);
         }
@@ -156,4 +198,44 @@ public class ReportController {
         response.addHeader("Pragma", "no-cache");
     }
 
+    /**
+     * Gets the response stream only when the first bytes of the report are written. Until then errors can still be rendered by
+     * the exception resolver, which needs the response writer.
+     */
+    private static final class ResponseOutputStream extends OutputStream {
+
+        private final HttpServletResponse response;
+
+        private OutputStream outputStream;
+
+        private ResponseOutputStream(final HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            getOutputStream().write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            getOutputStream().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (outputStream != null) {
+                outputStream.flush();
+            }
+        }
+
+        private OutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = response.getOutputStream();
+            }
+            return outputStream;
+        }
+
+    }
+
 }
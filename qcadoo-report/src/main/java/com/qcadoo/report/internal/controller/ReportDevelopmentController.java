@@ -30,6 +30,8 @@ import com.qcadoo.model.api.EntityList;
 import com.qcadoo.report.api.ReportException;
 import com.qcadoo.report.api.ReportService;
 import com.qcadoo.report.api.ReportService.ReportType;
+import com.qcadoo.report.internal.ReportServiceImpl;
+import com.qcadoo.report.internal.templates.CompiledTemplateCache;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jdom.Document;
@@ -77,6 +79,9 @@ public class ReportDevelopmentController {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
     @Value("${showReportDevelopment}")
     private boolean showReportDevelopment;
 
@@ -174,6 +179,8 @@ public class ReportDevelopmentController {
         try {
             String template = IOUtils.toString(file.getInputStream());
 
+            compiledTemplateCache.invalidate(ReportServiceImpl.TEMPLATE_CONTENT_ID);
+
             List<ReportParameter> params = getReportParameters(template);
 
             return new ModelAndView(L_QCADOO_REPORT_REPORT).addObject(L_TEMPLATE, template).addObject("isParameter", true)
@@ -0,0 +1,205 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal.execution;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.qcadoo.report.api.ReportException;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+/**
+ * Limits the number of reports generated at the same time, globally and for each tenant. Reports which don't get the slot
+ * immediately wait in the fair (first come, first served) queue - request is rejected when the queue is full or the slot isn't
+ * free before the timeout. Timed tryAcquire is used even for the first attempt, because untimed one ignores the fairness.
+ *
+ * Tenant slot is taken before the global one, so reports of one tenant waiting for their quota don't block the global queue for
+ * the other tenants.
+ */
+@Service
+public class ReportExecutionLimiter {
+
+    @Value("${reportMaxConcurrentFills:4}")
+    private int maxConcurrentFills;
+
+    @Value("${reportMaxConcurrentFillsPerTenant:2}")
+    private int maxConcurrentFillsPerTenant;
+
+    @Value("${reportMaxQueuedFills:50}")
+    private int maxQueuedFills;
+
+    @Value("${reportQueueTimeout:120}")
+    private long queueTimeout;
+
+    @Autowired
+    private MultiTenantService multiTenantService;
+
+    private Semaphore permits;
+
+    private final ConcurrentMap<Integer, Semaphore> tenantPermits = new ConcurrentHashMap<Integer, Semaphore>();
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        checkArgument(maxConcurrentFills > 0, "reportMaxConcurrentFills must be positive");
+        checkArgument(maxConcurrentFillsPerTenant > 0, "reportMaxConcurrentFillsPerTenant must be positive");
+
+        permits = new Semaphore(maxConcurrentFills, true);
+    }
+
+    /**
+     * Waits for the free slot for the current tenant.
+     *
+     * @return permit which has to be released when the report is generated
+     * @throws ReportException
+     *             when the queue is full, the slot isn't free in time or the thread is interrupted
+     */
+    public Permit acquire() throws ReportException {
+        long startTime = System.nanoTime();
+        Semaphore tenant = getTenantPermits(multiTenantService.getCurrentTenantId());
+
+        try {
+            if (!tryAcquire(tenant, 0)) {
+                if (queueDepth.incrementAndGet() > maxQueuedFills) {
+                    queueDepth.decrementAndGet();
+                    throw reject();
+                }
+
+                try {
+                    if (!tryAcquire(tenant, TimeUnit.SECONDS.toNanos(queueTimeout))) {
+                        throw reject();
+                    }
+                } finally {
+                    queueDepth.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReportException(ReportException.Type.TOO_MANY_REPORTS, e);
+        }
+
+        return new Permit(tenant, System.nanoTime() - startTime);
+    }
+
+    public int getActiveCount() {
+        return maxConcurrentFills - permits.availablePermits();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    private Semaphore getTenantPermits(final int tenantId) {
+        Semaphore tenant = tenantPermits.get(tenantId);
+
+        if (tenant == null) {
+            tenant = new Semaphore(maxConcurrentFillsPerTenant, true);
+
+            Semaphore existingTenant = tenantPermits.putIfAbsent(tenantId, tenant);
+
+            if (existingTenant != null) {
+                tenant = existingTenant;
+            }
+        }
+
+        return tenant;
+    }
+
+    private boolean tryAcquire(final Semaphore tenant, final long timeout) throws InterruptedException {
+        long startTime = System.nanoTime();
+
+        if (!tenant.tryAcquire(timeout, TimeUnit.NANOSECONDS)) {
+            return false;
+        }
+        if (!permits.tryAcquire(Math.max(0, timeout - (System.nanoTime() - startTime)), TimeUnit.NANOSECONDS)) {
+            tenant.release();
+            return false;
+        }
+
+        return true;
+    }
+
+    private ReportException reject() {
+        rejectedCount.incrementAndGet();
+        return new ReportException(ReportException.Type.TOO_MANY_REPORTS);
+    }
+
+    /**
+     * Slot taken by the generated report.
+     */
+    public final class Permit {
+
+        private final Semaphore tenant;
+
+        private final long queueTime;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(final Semaphore tenant, final long queueTime) {
+            this.tenant = tenant;
+            this.queueTime = queueTime;
+        }
+
+        /**
+         * Returns time (in nanoseconds) spent waiting for the slot.
+         *
+         * @return queue time
+         */
+        public long getQueueTime() {
+            return queueTime;
+        }
+
+        /**
+         * Frees the slot, subsequent calls do nothing.
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+                tenant.release();
+            }
+        }
+
+    }
+
+}
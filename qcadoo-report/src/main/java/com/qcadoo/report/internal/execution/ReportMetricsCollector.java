@@ -0,0 +1,89 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal.execution;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.qcadoo.report.api.ReportMetrics;
+
+@Service
+public class ReportMetricsCollector {
+
+    @Autowired
+    private ReportExecutionLimiter reportExecutionLimiter;
+
+    private final AtomicLong startedCount = new AtomicLong();
+
+    private final AtomicLong generatedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong queueTimeTotal = new AtomicLong();
+
+    private final AtomicLong fillTimeTotal = new AtomicLong();
+
+    private final AtomicLong exportTimeTotal = new AtomicLong();
+
+    private final AtomicLong pagesTotal = new AtomicLong();
+
+    private final AtomicLong bytesTotal = new AtomicLong();
+
+    public void recordStart(final long queueTimeNanos) {
+        startedCount.incrementAndGet();
+        queueTimeTotal.addAndGet(queueTimeNanos);
+    }
+
+    public void recordGenerated(final long fillTimeNanos, final long exportTimeNanos, final int pages, final long bytes) {
+        generatedCount.incrementAndGet();
+        fillTimeTotal.addAndGet(fillTimeNanos);
+        exportTimeTotal.addAndGet(exportTimeNanos);
+        pagesTotal.addAndGet(pages);
+        bytesTotal.addAndGet(bytes);
+    }
+
+    public void recordFailed() {
+        failedCount.incrementAndGet();
+    }
+
+    public ReportMetrics getMetrics() {
+        long generated = generatedCount.get();
+
+        return new ReportMetrics(reportExecutionLimiter.getActiveCount(), reportExecutionLimiter.getQueueDepth(), generated,
+                failedCount.get(), reportExecutionLimiter.getRejectedCount(), average(queueTimeTotal.get(), startedCount.get()),
+                average(fillTimeTotal.get(), generated), average(exportTimeTotal.get(), generated), pagesTotal.get(),
+                bytesTotal.get());
+    }
+
+    private long average(final long totalNanos, final long count) {
+        if (count == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos / count);
+    }
+
+}
@@ -0,0 +1,77 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal.execution;
+
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Creates swap file virtualizers, which keep only the last reportVirtualizerMaxPages pages of the filled report in memory and
+ * move older pages to the temporary file. Virtualizer isn't thread-safe, so each fill needs its own one.
+ *
+ * Virtualization is disabled by default - swapping makes the small reports slower, so it should be enabled only for the
+ * deployments which generate very large reports.
+ */
+@Service
+public class ReportVirtualizerFactory {
+
+    private static final int L_SWAP_FILE_MIN_GROW_COUNT = 100;
+
+    @Value("${reportVirtualizerMaxPages:0}")
+    private int maxPages;
+
+    @Value("${reportVirtualizerBlockSize:4096}")
+    private int blockSize;
+
+    @Value("${reportVirtualizerDirectory:}")
+    private String directory;
+
+    /**
+     * Creates virtualizer for one fill. Caller is responsible for calling {@link JRSwapFileVirtualizer#cleanup()} after the
+     * report is exported.
+     *
+     * @return virtualizer or null if virtualization is disabled (reportVirtualizerMaxPages is 0)
+     */
+    public JRSwapFileVirtualizer create() {
+        if (maxPages <= 0) {
+            return null;
+        }
+
+        JRSwapFile swapFile = new JRSwapFile(getDirectory(), blockSize, L_SWAP_FILE_MIN_GROW_COUNT);
+
+        return new JRSwapFileVirtualizer(maxPages, swapFile, true);
+    }
+
+    private String getDirectory() {
+        if (StringUtils.isBlank(directory)) {
+            return System.getProperty("java.io.tmpdir");
+        }
+        return directory;
+    }
+
+}
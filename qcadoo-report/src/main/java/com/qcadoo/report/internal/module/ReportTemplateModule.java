@@ -23,13 +23,16 @@
  */
 package com.qcadoo.report.internal.module;
 
-import net.sf.jasperreports.engine.JasperCompileManager;
+import java.io.InputStream;
+
 import net.sf.jasperreports.engine.JasperReport;
 
+import org.apache.commons.io.IOUtils;
 import org.springframework.core.io.Resource;
 
 import com.qcadoo.plugin.api.Module;
 import com.qcadoo.plugin.api.ModuleException;
+import com.qcadoo.report.internal.templates.CompiledTemplateCache;
 import com.qcadoo.report.internal.templates.ReportTemplateService;
 
 public class ReportTemplateModule extends Module {
@@ -42,14 +45,17 @@ public class ReportTemplateModule extends Module {
 
     private final ReportTemplateService reportTemplateService;
 
+    private final CompiledTemplateCache compiledTemplateCache;
+
     public ReportTemplateModule(final String pluginIdentifier, final String templateName, final Resource templateFile,
-            final ReportTemplateService reportTemplateService) {
+            final ReportTemplateService reportTemplateService, final CompiledTemplateCache compiledTemplateCache) {
         super();
 
         this.pluginIdentifier = pluginIdentifier;
         this.templateName = templateName;
         this.templateFile = templateFile;
         this.reportTemplateService = reportTemplateService;
+        this.compiledTemplateCache = compiledTemplateCache;
     }
 
     @Override
@@ -59,17 +65,30 @@ public class ReportTemplateModule extends Module {
 
     @Override
     public void enable() {
+        InputStream inputStream = null;
+
         try {
-            JasperReport reportTemplate = JasperCompileManager.compileReport(templateFile.getInputStream());
+            inputStream = templateFile.getInputStream();
+
+            compiledTemplateCache.invalidate(getTemplateId());
+
+            JasperReport reportTemplate = compiledTemplateCache.compile(getTemplateId(), IOUtils.toByteArray(inputStream));
             reportTemplateService.addTemplate(pluginIdentifier, templateName, reportTemplate);
         } catch (Exception e) {
             throw new ModuleException(pluginIdentifier, "report-template", e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
         }
     }
 
     @Override
     public void disable() {
         reportTemplateService.removeTemplate(pluginIdentifier, templateName);
+        compiledTemplateCache.invalidate(getTemplateId());
+    }
+
+    private String getTemplateId() {
+        return pluginIdentifier + "." + templateName;
     }
 
 }
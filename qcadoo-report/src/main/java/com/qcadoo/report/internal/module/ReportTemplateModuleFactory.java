@@ -28,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ClassPathResource;
 
 import com.qcadoo.plugin.api.ModuleFactory;
+import com.qcadoo.report.internal.templates.CompiledTemplateCache;
 import com.qcadoo.report.internal.templates.ReportTemplateService;
 
 public class ReportTemplateModuleFactory extends ModuleFactory<ReportTemplateModule> {
@@ -35,13 +36,16 @@ public class ReportTemplateModuleFactory extends ModuleFactory<ReportTemplateMod
     @Autowired
     private ReportTemplateService reportTemplateService;
 
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
     @Override
     protected ReportTemplateModule parseElement(final String pluginIdentifier, final Element element) {
         String resource = getRequiredAttribute(element, "resource");
         String name = getRequiredAttribute(element, "name");
 
         return new ReportTemplateModule(pluginIdentifier, name, new ClassPathResource(pluginIdentifier + "/" + resource),
-                reportTemplateService);
+                reportTemplateService, compiledTemplateCache);
     }
 
     @Override
@@ -0,0 +1,236 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal.templates;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.util.JRSaver;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.hash.Hashing;
+
+/**
+ * Compiled Jasper templates, keyed by template identifier and hash of the template content - changed template is compiled again
+ * even if nobody invalidated the old version. Whole cache is dropped when it grows over the configured size.
+ *
+ * When reportTemplateCacheDirectory is set, compiled templates are also stored there as .jasper files, so templates which didn't
+ * change aren't compiled again after restart. Files of invalidated templates are deleted, files which weren't used for
+ * reportTemplateCacheMaxAge days are deleted on startup.
+ */
+@Service
+public class CompiledTemplateCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledTemplateCache.class);
+
+    private static final String L_KEY_SEPARATOR = "#";
+
+    private static final String L_FILE_EXTENSION = ".jasper";
+
+    @Value("${reportTemplateCacheSize:200}")
+    private int maxSize;
+
+    @Value("${reportTemplateCacheDirectory:}")
+    private String directory;
+
+    @Value("${reportTemplateCacheMaxAge:30}")
+    private int maxAgeInDays;
+
+    private final ConcurrentMap<String, JasperReport> templates = new ConcurrentHashMap<String, JasperReport>();
+
+    /**
+     * Returns compiled template, compiling it only when given content wasn't compiled before.
+     *
+     * @param templateId
+     *            identifier of the template, used for invalidation
+     * @param content
+     *            JRXML content of the template
+     * @return compiled template
+     * @throws JRException
+     *             when template can't be compiled
+     */
+    public JasperReport compile(final String templateId, final byte[] content) throws JRException {
+        String hash = Hashing.sha1().hashBytes(content).toString();
+        String key = templateId + L_KEY_SEPARATOR + hash;
+
+        JasperReport template = templates.get(key);
+
+        if (template == null) {
+            if (templates.size() >= maxSize) {
+                templates.clear();
+            }
+
+            template = load(hash);
+
+            if (template == null) {
+                template = compileReport(content);
+                save(hash, template);
+            }
+
+            JasperReport existingTemplate = templates.putIfAbsent(key, template);
+
+            if (existingTemplate != null) {
+                template = existingTemplate;
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * Removes all compiled versions of the given template from memory and deletes their files.
+     *
+     * @param templateId
+     *            identifier of the template
+     */
+    public void invalidate(final String templateId) {
+        String prefix = templateId + L_KEY_SEPARATOR;
+
+        for (String key : templates.keySet()) {
+            if (key.startsWith(prefix) && templates.remove(key) != null) {
+                deleteFile(key.substring(prefix.length()));
+            }
+        }
+    }
+
+    /**
+     * Deletes compiled templates which weren't used for the configured number of days.
+     */
+    @PostConstruct
+    public void removeStaleFiles() {
+        if (StringUtils.isBlank(directory)) {
+            return;
+        }
+
+        File[] files = new File(directory).listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        long staleBefore = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(maxAgeInDays);
+
+        for (File file : files) {
+            if (file.getName().endsWith(L_FILE_EXTENSION) && file.lastModified() < staleBefore && !file.delete()) {
+                LOG.warn("Cannot delete stale compiled template " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    protected JasperReport compileReport(final byte[] content) throws JRException {
+        return JasperCompileManager.compileReport(new ByteArrayInputStream(content));
+    }
+
+    private void deleteFile(final String hash) {
+        for (String key : templates.keySet()) {
+            if (key.endsWith(L_KEY_SEPARATOR + hash)) {
+                // the same content is still cached for another template
+                return;
+            }
+        }
+
+        File file = getFile(hash);
+
+        if (file != null && file.isFile() && !file.delete()) {
+            LOG.warn("Cannot delete compiled template " + file.getAbsolutePath());
+        }
+    }
+
+    private JasperReport load(final String hash) {
+        File file = getFile(hash);
+
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+
+        try {
+            JasperReport template = (JasperReport) JRLoader.loadObject(file);
+
+            // last modification time marks the last usage for removeStaleFiles()
+            file.setLastModified(System.currentTimeMillis());
+
+            return template;
+        } catch (JRException e) {
+            LOG.warn("Cannot load compiled template " + file.getAbsolutePath() + ", it will be compiled again", e);
+            return null;
+        }
+    }
+
+    private void save(final String hash, final JasperReport template) {
+        File file = getFile(hash);
+
+        if (file == null) {
+            return;
+        }
+
+        File tempFile = null;
+
+        try {
+            tempFile = File.createTempFile(hash, ".tmp", file.getParentFile());
+
+            JRSaver.saveObject(template, tempFile);
+
+            if (tempFile.renameTo(file)) {
+                tempFile = null;
+            }
+        } catch (JRException | IOException e) {
+            LOG.warn("Cannot save compiled template " + file.getAbsolutePath(), e);
+        } finally {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private File getFile(final String hash) {
+        if (StringUtils.isBlank(directory)) {
+            return null;
+        }
+
+        File cacheDirectory = new File(directory);
+
+        if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+            LOG.warn("Cannot create report template cache directory " + cacheDirectory.getAbsolutePath());
+            return null;
+        }
+
+        return new File(cacheDirectory, hash + L_FILE_EXTENSION);
+    }
+
+}
@@ -0,0 +1,91 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.api.pdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfWriter;
+
+public class ChunkedPdfTableTest {
+
+    private Document document;
+
+    private ByteArrayOutputStream outputStream;
+
+    private PdfPTable table;
+
+    @Before
+    public void init() throws Exception {
+        document = new Document(PageSize.A4);
+        outputStream = new ByteArrayOutputStream();
+        PdfWriter.getInstance(document, outputStream);
+        document.open();
+
+        table = new PdfPTable(2);
+        table.addCell("name");
+        table.addCell("value");
+    }
+
+    @Test
+    public void shouldKeepOnlyPendingRowsInMemory() throws Exception {
+        // given
+        ChunkedPdfTable chunkedTable = new ChunkedPdfTable(document, table, 10);
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            chunkedTable.addRow(Arrays.asList("row " + i, String.valueOf(i)), new Font());
+            assertTrue(table.size() <= 11);
+        }
+        chunkedTable.finish();
+        document.close();
+
+        // then
+        assertEquals(1, table.getHeaderRows());
+        assertEquals(0, chunkedTable.getPendingRows());
+        assertTrue(new PdfReader(outputStream.toByteArray()).getNumberOfPages() > 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotAcceptRowsAfterFinish() throws Exception {
+        // given
+        ChunkedPdfTable chunkedTable = new ChunkedPdfTable(document, table, 10);
+        chunkedTable.finish();
+
+        // when
+        chunkedTable.addRow(Arrays.asList("name", "value"), new Font());
+    }
+
+}
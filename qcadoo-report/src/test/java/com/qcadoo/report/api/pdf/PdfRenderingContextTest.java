@@ -0,0 +1,89 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.api.pdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.qcadoo.report.api.Footer;
+import com.qcadoo.report.api.FooterResolver;
+
+public class PdfRenderingContextTest {
+
+    private PdfRenderingContext renderingContext;
+
+    @Mock
+    private FooterResolver footerResolver;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+
+        renderingContext = new PdfRenderingContext(footerResolver, new Date(0));
+    }
+
+    @Test
+    public void shouldResolveFooterOncePerLocale() {
+        // given
+        Footer englishFooter = mock(Footer.class);
+        Footer polishFooter = mock(Footer.class);
+        given(footerResolver.resolveFooter(Locale.ENGLISH)).willReturn(englishFooter);
+        given(footerResolver.resolveFooter(new Locale("pl"))).willReturn(polishFooter);
+
+        // when
+        renderingContext.createPageNumbering(Locale.ENGLISH);
+        renderingContext.createPageNumbering(new Locale("pl"));
+        Footer footer = renderingContext.getFooter(Locale.ENGLISH);
+
+        // then
+        assertSame(englishFooter, footer);
+        assertSame(polishFooter, renderingContext.getFooter(new Locale("pl")));
+        verify(footerResolver, times(1)).resolveFooter(Locale.ENGLISH);
+        verify(footerResolver, times(1)).resolveFooter(new Locale("pl"));
+    }
+
+    @Test
+    public void shouldFormatGenerationDateOfBatch() {
+        // when
+        String firstDate = renderingContext.getGenerationDate(Locale.ENGLISH);
+        String secondDate = renderingContext.getGenerationDate(Locale.ENGLISH);
+
+        // then
+        assertSame(firstDate, secondDate);
+        assertEquals(19, firstDate.length());
+    }
+
+}
@@ -0,0 +1,180 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.MessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.report.api.ReportService.ReportType;
+import com.qcadoo.report.api.pdf.PdfHelper;
+import com.qcadoo.report.internal.execution.ReportExecutionLimiter;
+import com.qcadoo.report.internal.execution.ReportMetricsCollector;
+import com.qcadoo.report.internal.execution.ReportVirtualizerFactory;
+import com.qcadoo.report.internal.templates.ReportTemplateService;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+public class ReportServiceImplTest {
+
+    private static final String L_TEMPLATE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<jasperReport xmlns=\"http://jasperreports.sourceforge.net/jasperreports\" name=\"report\" pageWidth=\"595\""
+            + " pageHeight=\"842\" columnWidth=\"555\" leftMargin=\"20\" rightMargin=\"20\" topMargin=\"20\""
+            + " bottomMargin=\"20\" whenNoDataType=\"AllSectionsNoDetail\"><title><band height=\"50\"><staticText>"
+            + "<reportElement x=\"0\" y=\"0\" width=\"555\" height=\"50\"/><text><![CDATA[Report]]></text></staticText>"
+            + "</band></title></jasperReport>";
+
+    private ReportServiceImpl reportService;
+
+    @Mock
+    private ReportTemplateService reportTemplateService;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private MessageSource messageSource;
+
+    @Mock
+    private PdfHelper pdfHelper;
+
+    @Mock
+    private ReportVirtualizerFactory reportVirtualizerFactory;
+
+    @Mock
+    private MultiTenantService multiTenantService;
+
+    @Before
+    public void init() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        ReportExecutionLimiter reportExecutionLimiter = new ReportExecutionLimiter();
+        ReflectionTestUtils.setField(reportExecutionLimiter, "multiTenantService", multiTenantService);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "maxConcurrentFills", 1);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "maxConcurrentFillsPerTenant", 1);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "maxQueuedFills", 0);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "queueTimeout", 0L);
+        reportExecutionLimiter.init();
+
+        ReportMetricsCollector reportMetricsCollector = new ReportMetricsCollector();
+        ReflectionTestUtils.setField(reportMetricsCollector, "reportExecutionLimiter", reportExecutionLimiter);
+
+        reportService = new ReportServiceImpl();
+
+        ReflectionTestUtils.setField(reportService, "reportTemplateService", reportTemplateService);
+        ReflectionTestUtils.setField(reportService, "sessionFactory", sessionFactory);
+        ReflectionTestUtils.setField(reportService, "messageSource", messageSource);
+        ReflectionTestUtils.setField(reportService, "pdfHelper", pdfHelper);
+        ReflectionTestUtils.setField(reportService, "reportExecutionLimiter", reportExecutionLimiter);
+        ReflectionTestUtils.setField(reportService, "reportMetricsCollector", reportMetricsCollector);
+        ReflectionTestUtils.setField(reportService, "reportVirtualizerFactory", reportVirtualizerFactory);
+
+        JasperReport template = JasperCompileManager.compileReport(new ByteArrayInputStream(L_TEMPLATE.getBytes("UTF-8")));
+
+        given(reportTemplateService.getTemplate("plugin", "report")).willReturn(template);
+        given(sessionFactory.openSession()).willReturn(session);
+    }
+
+    @Test
+    public void shouldWriteReportToGivenStreamInChunks() throws Exception {
+        // given
+        RecordingOutputStream outputStream = new RecordingOutputStream();
+
+        // when
+        reportService.generateReport("plugin", "report", ReportType.PDF, new HashMap<String, Object>(), Locale.ENGLISH,
+                outputStream);
+
+        // then
+        byte[] report = outputStream.toByteArray();
+
+        assertEquals("%PDF-", new String(report, 0, 5, "US-ASCII"));
+        assertTrue(outputStream.chunkSizes.size() > 1);
+
+        for (Integer chunkSize : outputStream.chunkSizes) {
+            assertTrue(chunkSize < report.length);
+        }
+    }
+
+    @Test
+    public void shouldWriteTheSameReportAsByteArrayVariant() throws Exception {
+        // given
+        RecordingOutputStream outputStream = new RecordingOutputStream();
+
+        // when
+        reportService.generateReport("plugin", "report", ReportType.CSV, new HashMap<String, Object>(), Locale.ENGLISH,
+                outputStream);
+        byte[] report = reportService.generateReport("plugin", "report", ReportType.CSV, new HashMap<String, Object>(),
+                Locale.ENGLISH);
+
+        // then
+        assertEquals(new String(report, "UTF-8"), new String(outputStream.toByteArray(), "UTF-8"));
+    }
+
+    private static final class RecordingOutputStream extends OutputStream {
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+        private final List<Integer> chunkSizes = new ArrayList<Integer>();
+
+        @Override
+        public void write(final int b) {
+            chunkSizes.add(1);
+            content.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            chunkSizes.add(len);
+            content.write(b, off, len);
+        }
+
+        private byte[] toByteArray() {
+            return content.toByteArray();
+        }
+
+    }
+
+}
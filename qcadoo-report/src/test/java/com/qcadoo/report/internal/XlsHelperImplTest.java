@@ -0,0 +1,87 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import org.apache.poi.hssf.usermodel.HSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XlsHelperImplTest {
+
+    private XlsHelperImpl xlsHelper;
+
+    @Before
+    public void init() {
+        xlsHelper = new XlsHelperImpl();
+    }
+
+    @Test
+    public void shouldShareHeaderStyleWithinWorkbook() throws Exception {
+        // given
+        SXSSFWorkbook workbook = new SXSSFWorkbook(10);
+        Sheet sheet = workbook.createSheet("sheet");
+        Row row = sheet.createRow(0);
+        int styles = workbook.getNumCellStyles();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            xlsHelper.setCellStyle(sheet, row.createCell(i));
+        }
+
+        // then
+        assertEquals(styles + 1, workbook.getNumCellStyles());
+        assertEquals(row.getCell(0).getCellStyle().getIndex(), row.getCell(99).getCellStyle().getIndex());
+
+        workbook.dispose();
+    }
+
+    @Test
+    public void shouldCreateHeaderStylePerWorkbook() throws Exception {
+        // given
+        HSSFWorkbook workbook1 = new HSSFWorkbook();
+        HSSFWorkbook workbook2 = new HSSFWorkbook();
+        HSSFSheet sheet1 = workbook1.createSheet("sheet");
+        HSSFSheet sheet2 = workbook2.createSheet("sheet");
+
+        // when
+        xlsHelper.setCellStyle(sheet1, sheet1.createRow(0).createCell(0));
+        xlsHelper.setCellStyle(sheet1, sheet1.createRow(1).createCell(0));
+        xlsHelper.setCellStyle(sheet2, sheet2.createRow(0).createCell(0));
+
+        // then
+        assertEquals(sheet1.getRow(0).getCell(0).getCellStyle().getIndex(), sheet1.getRow(1).getCell(0).getCellStyle()
+                .getIndex());
+        assertNotSame(sheet1.getRow(0).getCell(0).getCellStyle(), sheet2.getRow(0).getCell(0).getCellStyle());
+        assertEquals(Font.BOLDWEIGHT_BOLD, sheet2.getRow(0).getCell(0).getCellStyle().getFont(workbook2).getBoldweight());
+    }
+
+}
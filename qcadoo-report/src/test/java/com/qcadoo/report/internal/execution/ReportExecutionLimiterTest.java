@@ -0,0 +1,113 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.report.api.ReportException;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+public class ReportExecutionLimiterTest {
+
+    private ReportExecutionLimiter reportExecutionLimiter;
+
+    @Mock
+    private MultiTenantService multiTenantService;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+
+        reportExecutionLimiter = new ReportExecutionLimiter();
+
+        ReflectionTestUtils.setField(reportExecutionLimiter, "multiTenantService", multiTenantService);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "maxConcurrentFills", 2);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "maxConcurrentFillsPerTenant", 1);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "maxQueuedFills", 0);
+        ReflectionTestUtils.setField(reportExecutionLimiter, "queueTimeout", 0L);
+
+        reportExecutionLimiter.init();
+    }
+
+    @Test
+    public void shouldRejectReportOverTenantQuota() throws Exception {
+        // given
+        given(multiTenantService.getCurrentTenantId()).willReturn(1);
+        reportExecutionLimiter.acquire();
+
+        // when
+        try {
+            reportExecutionLimiter.acquire();
+            fail();
+        } catch (ReportException e) {
+            // then
+            assertEquals(ReportException.Type.TOO_MANY_REPORTS.getCode(), e.getCode());
+        }
+
+        assertEquals(1, reportExecutionLimiter.getActiveCount());
+        assertEquals(1L, reportExecutionLimiter.getRejectedCount());
+        assertEquals(0, reportExecutionLimiter.getQueueDepth());
+    }
+
+    @Test
+    public void shouldAcceptReportOfOtherTenant() throws Exception {
+        // given
+        given(multiTenantService.getCurrentTenantId()).willReturn(1, 2);
+        reportExecutionLimiter.acquire();
+
+        // when
+        reportExecutionLimiter.acquire();
+
+        // then
+        assertEquals(2, reportExecutionLimiter.getActiveCount());
+        assertEquals(0L, reportExecutionLimiter.getRejectedCount());
+    }
+
+    @Test
+    public void shouldFreeSlotOnlyOnceWhenPermitIsReleased() throws Exception {
+        // given
+        given(multiTenantService.getCurrentTenantId()).willReturn(1);
+        ReportExecutionLimiter.Permit permit = reportExecutionLimiter.acquire();
+
+        // when
+        permit.release();
+        permit.release();
+
+        // then
+        assertEquals(0, reportExecutionLimiter.getActiveCount());
+
+        reportExecutionLimiter.acquire();
+
+        assertEquals(1, reportExecutionLimiter.getActiveCount());
+    }
+
+}
@@ -0,0 +1,183 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.report.internal.templates;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperReport;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.hash.Hashing;
+
+public class CompiledTemplateCacheTest {
+
+    private static final String L_TEMPLATE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+            + "<jasperReport xmlns=\"http://jasperreports.sourceforge.net/jasperreports\" name=\"%s\" pageWidth=\"595\""
+            + " pageHeight=\"842\" columnWidth=\"555\" leftMargin=\"20\" rightMargin=\"20\" topMargin=\"20\""
+            + " bottomMargin=\"20\"/>";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private CountingCompiledTemplateCache compiledTemplateCache;
+
+    @Before
+    public void init() {
+        compiledTemplateCache = createCache(null);
+    }
+
+    private CountingCompiledTemplateCache createCache(final File directory) {
+        CountingCompiledTemplateCache cache = new CountingCompiledTemplateCache();
+
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "maxAgeInDays", 30);
+        ReflectionTestUtils.setField(cache, "directory", directory == null ? "" : directory.getAbsolutePath());
+
+        return cache;
+    }
+
+    private byte[] template(final String name) throws Exception {
+        return String.format(L_TEMPLATE, name).getBytes("UTF-8");
+    }
+
+    private File file(final File directory, final byte[] content) {
+        return new File(directory, Hashing.sha1().hashBytes(content).toString() + ".jasper");
+    }
+
+    @Test
+    public void shouldCompileTheSameContentOnlyOnce() throws Exception {
+        // when
+        JasperReport template1 = compiledTemplateCache.compile("template", template("a"));
+        JasperReport template2 = compiledTemplateCache.compile("template", template("a"));
+
+        // then
+        assertSame(template1, template2);
+        assertEquals(1, compiledTemplateCache.compilations);
+    }
+
+    @Test
+    public void shouldCompileChangedContentAgain() throws Exception {
+        // when
+        JasperReport template1 = compiledTemplateCache.compile("template", template("a"));
+        JasperReport template2 = compiledTemplateCache.compile("template", template("b"));
+
+        // then
+        assertEquals("a", template1.getName());
+        assertEquals("b", template2.getName());
+        assertEquals(2, compiledTemplateCache.compilations);
+    }
+
+    @Test
+    public void shouldDropCachedTemplatesWhenMaxSizeIsReached() throws Exception {
+        // given
+        compiledTemplateCache.compile("template1", template("a"));
+        compiledTemplateCache.compile("template2", template("b"));
+
+        // when
+        compiledTemplateCache.compile("template3", template("c"));
+        compiledTemplateCache.compile("template1", template("a"));
+
+        // then
+        assertEquals(4, compiledTemplateCache.compilations);
+    }
+
+    @Test
+    public void shouldReuseTemplateCompiledBeforeRestart() throws Exception {
+        // given
+        File directory = folder.newFolder("templates");
+        createCache(directory).compile("template", template("a"));
+
+        CountingCompiledTemplateCache restartedCache = createCache(directory);
+
+        // when
+        JasperReport template = restartedCache.compile("template", template("a"));
+
+        // then
+        assertTrue(file(directory, template("a")).isFile());
+        assertEquals("a", template.getName());
+        assertEquals(0, restartedCache.compilations);
+    }
+
+    @Test
+    public void shouldCompileAgainAndDeleteFileAfterInvalidation() throws Exception {
+        // given
+        File directory = folder.newFolder("templates");
+        CountingCompiledTemplateCache cache = createCache(directory);
+        cache.compile("template", template("a"));
+
+        // when
+        cache.invalidate("template");
+
+        // then
+        assertFalse(file(directory, template("a")).exists());
+
+        cache.compile("template", template("a"));
+        assertEquals(2, cache.compilations);
+    }
+
+    @Test
+    public void shouldRemoveStaleFilesOnStartup() throws Exception {
+        // given
+        File directory = folder.newFolder("templates");
+        CountingCompiledTemplateCache cache = createCache(directory);
+        cache.compile("template1", template("a"));
+        cache.compile("template2", template("b"));
+
+        File staleFile = file(directory, template("a"));
+        staleFile.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(31));
+
+        // when
+        createCache(directory).removeStaleFiles();
+
+        // then
+        assertFalse(staleFile.exists());
+        assertTrue(file(directory, template("b")).exists());
+    }
+
+    private static final class CountingCompiledTemplateCache extends CompiledTemplateCache {
+
+        private int compilations;
+
+        @Override
+        protected JasperReport compileReport(final byte[] content) throws JRException {
+            compilations++;
+
+            return super.compileReport(content);
+        }
+
+    }
+
+}
@@ -59,8 +59,8 @@ public class UserModule extends Module {
 
     @Override
     public void multiTenantEnable() {
-        if (dataDefinitionService.get("qcadooSecurity", "user").find().add(SearchRestrictions.eq("userName", login)).list()
-                .getTotalNumberOfEntities() > 0) {
+        if (dataDefinitionService.get("qcadooSecurity", "user").find().add(SearchRestrictions.eq("userName", login))
+                .exists()) {
             return;
         }
 
@@ -26,6 +26,9 @@ package com.qcadoo.security.internal.role;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
@@ -35,6 +38,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
 import com.qcadoo.security.api.SecurityRole;
 
 @Service
@@ -43,8 +47,16 @@ public class InternalSecurityRolesServiceImpl implements InternalSecurityRolesSe
 	@Autowired
 	private RoleHierarchy roleHierarchy;
 
+	private static final int REACHABLE_AUTHORITIES_CACHE_SIZE = 1000;
+
 	private final Map<String, SecurityRole> roles = new HashMap<String, SecurityRole>();
 
+	/**
+	 * Role hierarchy doesn't change at runtime, so reachable authorities are computed once for each distinct set of granted
+	 * authorities. Checking access is done many times for each request (menu, ribbons, grid columns).
+	 */
+	private final ConcurrentMap<Set<String>, Set<String>> reachableAuthoritiesCache = new ConcurrentHashMap<Set<String>, Set<String>>();
+
 	@Override
 	public SecurityRole getRoleByIdentifier(final String roleIdentifier) {
 		return roles.get(roleIdentifier);
@@ -79,16 +91,34 @@ public class InternalSecurityRolesServiceImpl implements InternalSecurityRolesSe
 			return true;
 		}
 
-		Collection<? extends GrantedAuthority> reachableAuthorities = roleHierarchy
-		        .getReachableGrantedAuthorities(userAuthentication.getAuthorities());
+		return getReachableAuthorities(userAuthentication.getAuthorities()).contains(targetRole.getRoleIdentifier());
+	}
+
+	private Set<String> getReachableAuthorities(final Collection<? extends GrantedAuthority> authorities) {
+		Set<String> grantedAuthorities = getAuthorityIdentifiers(authorities);
+		Set<String> reachableAuthorities = reachableAuthoritiesCache.get(grantedAuthorities);
+
+		if (reachableAuthorities == null) {
+			reachableAuthorities = getAuthorityIdentifiers(roleHierarchy.getReachableGrantedAuthorities(authorities));
 
-		for (GrantedAuthority grantedAuthority : reachableAuthorities) {
-			if (grantedAuthority.getAuthority().equals(targetRole.getRoleIdentifier())) {
-				return true;
+			if (reachableAuthoritiesCache.size() >= REACHABLE_AUTHORITIES_CACHE_SIZE) {
+				reachableAuthoritiesCache.clear();
 			}
+
+			reachableAuthoritiesCache.put(grantedAuthorities, reachableAuthorities);
+		}
+
+		return reachableAuthorities;
+	}
+
+	private Set<String> getAuthorityIdentifiers(final Collection<? extends GrantedAuthority> authorities) {
+		ImmutableSet.Builder<String> identifiers = ImmutableSet.builder();
+
+		for (GrantedAuthority authority : authorities) {
+			identifiers.add(authority.getAuthority());
 		}
 
-		return false;
+		return identifiers.build();
 	}
 
 }
@@ -26,6 +26,7 @@ package com.qcadoo.view.api.components;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.api.search.CustomRestriction;
@@ -33,6 +34,7 @@ import com.qcadoo.view.api.ComponentState;
 import com.qcadoo.view.api.components.lookup.FilterValueHolder;
 import com.qcadoo.view.internal.components.grid.GridComponentColumn;
 import com.qcadoo.view.api.components.grid.GridComponentMultiSearchFilter;
+import com.qcadoo.view.api.components.grid.GridExport;
 
 /**
  * Represents grid component
@@ -107,6 +109,44 @@ public interface GridComponent extends ComponentState {
      */
     List<Map<String, String>> getColumnValuesOfSelectedRecords();
 
+    /**
+     * Passes column values of all records matching filters, search and restrictions of the current grid to the given consumer,
+     * ignoring paging. Records are read from the database cursor one by one, so large grids can be exported without loading all
+     * records into memory.
+     * 
+     * @param consumer
+     *            consumer of the column values, called for each record in the grid order
+     * @since 1.5
+     */
+    void scrollColumnValuesOfAllRecords(Consumer<Map<String, String>> consumer);
+
+    /**
+     * Passes column values of the selected records to the given consumer, the same way as
+     * {@link #scrollColumnValuesOfAllRecords(Consumer)} does. Selected records which don't match filters of the grid are skipped.
+     * 
+     * @param consumer
+     *            consumer of the column values, called for each selected record in the grid order
+     * @since 1.5
+     */
+    void scrollColumnValuesOfSelectedRecords(Consumer<Map<String, String>> consumer);
+
+    /**
+     * Counts records matching filters, search and restrictions of the current grid, ignoring paging. Records aren't loaded.
+     * 
+     * @return number of records
+     * @since 1.5
+     */
+    long countAllRecords();
+
+    /**
+     * Creates export of the current grid - selected records or all records matching filters, search and restrictions if nothing
+     * is selected. Criteria, columns and selection are copied, so the export can be run after the request ends.
+     * 
+     * @return export of the grid
+     * @since 1.5
+     */
+    GridExport createExport();
+
     /**
      * Adds restriction to this grid
      * 
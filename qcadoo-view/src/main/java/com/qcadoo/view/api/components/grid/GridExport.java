@@ -0,0 +1,76 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.components.grid;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Immutable snapshot of the exported grid, created by {@link com.qcadoo.view.api.components.GridComponent#createExport()}.
+ * Search criteria, visible columns and selected records are captured when the export is created, so it doesn't depend on the
+ * request-scoped grid and can be run later by the background job.
+ *
+ * @since 1.5
+ */
+public interface GridExport {
+
+    /**
+     * Returns name of the exported grid
+     *
+     * @return name of the grid
+     */
+    String getName();
+
+    /**
+     * Returns translated names of the exported columns, in the grid order
+     *
+     * @return column names by column
+     */
+    Map<String, String> getColumnNames();
+
+    /**
+     * Returns ids of the selected records, export contains only them unless the set is empty
+     *
+     * @return ids of the selected records
+     */
+    Set<Long> getSelectedEntitiesIds();
+
+    /**
+     * Counts exported records
+     *
+     * @return number of records
+     */
+    long count();
+
+    /**
+     * Passes column values of the exported records (selected ones or all if nothing is selected) to the given consumer. Records
+     * are read from the database cursor one by one.
+     *
+     * @param consumer
+     *            consumer of the column values, called for each record in the grid order
+     */
+    void scroll(Consumer<Map<String, String>> consumer);
+
+}
@@ -0,0 +1,61 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.jobs;
+
+/**
+ * Service for generating documents (exports, reports) in the background. Document is written to the report file of the
+ * current tenant, finished jobs with their documents form the download inbox of the user - they can be polled and downloaded
+ * using the /jobs controller until they are removed after the retention period (jobResultRetentionHours).
+ *
+ * @since 1.5
+ */
+public interface DocumentJobService {
+
+    /**
+     * Submits document job to the given pool.
+     *
+     * @param poolName
+     *            name of the pool, see {@link JobService}
+     * @param fileName
+     *            name of the document file, shown to the user as the job name
+     * @param writer
+     *            writer of the document
+     * @return id of the registered job
+     * @throws IllegalArgumentException
+     *             if pool with given name doesn't exist
+     * @throws IllegalStateException
+     *             if the pool queue is full
+     */
+    Long submit(String poolName, String fileName, DocumentWriter writer);
+
+    /**
+     * Returns URL of the document of the given job, valid when job is finished.
+     *
+     * @param jobId
+     *            id of the job
+     * @return document URL
+     */
+    String getDownloadUrl(Long jobId);
+
+}
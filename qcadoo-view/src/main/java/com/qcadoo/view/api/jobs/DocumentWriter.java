@@ -0,0 +1,47 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.jobs;
+
+import java.io.OutputStream;
+
+/**
+ * Writes document generated by the background job.
+ *
+ * @since 1.5
+ */
+public interface DocumentWriter {
+
+    /**
+     * Writes the document to the given stream. Stream is buffered and closed by the caller.
+     *
+     * @param outputStream
+     *            stream of the document file
+     * @param context
+     *            context of the job, used for progress and cancellation
+     * @throws Exception
+     *             if the document can't be generated, job is marked as failed
+     */
+    void write(OutputStream outputStream, JobContext context) throws Exception;
+
+}
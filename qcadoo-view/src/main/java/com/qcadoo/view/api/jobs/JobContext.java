@@ -0,0 +1,73 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.jobs;
+
+/**
+ * Progress and cancellation token of the running job.
+ *
+ * @since 1.5
+ */
+public interface JobContext {
+
+    /**
+     * Returns id of the job.
+     *
+     * @return job id
+     */
+    Long getJobId();
+
+    /**
+     * Reports progress of the job. Progress is stored as percentage, registry is updated only when percentage changes.
+     *
+     * @param done
+     *            number of processed items
+     * @param total
+     *            number of all items
+     */
+    void updateProgress(long done, long total);
+
+    /**
+     * Checks if cancellation of the job was requested.
+     *
+     * @return true if job should stop
+     */
+    boolean isCancelled();
+
+    /**
+     * Throws {@link JobCancelledException} if cancellation of the job was requested.
+     *
+     * @throws JobCancelledException
+     *             if job should stop
+     */
+    void checkCancelled();
+
+    /**
+     * Sets result of the job (i.e. path to the generated file), stored in the registry when job finishes.
+     *
+     * @param result
+     *            result of the job
+     */
+    void setResult(String result);
+
+}
@@ -0,0 +1,130 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.jobs;
+
+/**
+ * Snapshot of the job pool metrics.
+ *
+ * @since 1.5
+ */
+public final class JobPoolMetrics {
+
+    private final String poolName;
+
+    private final int poolSize;
+
+    private final int activeCount;
+
+    private final int queueDepth;
+
+    private final int queueCapacity;
+
+    private final long completedCount;
+
+    private final long failedCount;
+
+    private final long rejectedCount;
+
+    private final long averageQueueLatency;
+
+    private final long averageExecutionTime;
+
+    public JobPoolMetrics(final String poolName, final int poolSize, final int activeCount, final int queueDepth,
+            final int queueCapacity, final long completedCount, final long failedCount, final long rejectedCount,
+            final long averageQueueLatency, final long averageExecutionTime) {
+        this.poolName = poolName;
+        this.poolSize = poolSize;
+        this.activeCount = activeCount;
+        this.queueDepth = queueDepth;
+        this.queueCapacity = queueCapacity;
+        this.completedCount = completedCount;
+        this.failedCount = failedCount;
+        this.rejectedCount = rejectedCount;
+        this.averageQueueLatency = averageQueueLatency;
+        this.averageExecutionTime = averageExecutionTime;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Returns number of jobs finished successfully or cancelled.
+     *
+     * @return completed jobs count
+     */
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    public long getFailedCount() {
+        return failedCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * Returns average time (in milliseconds) between submitting and starting the job.
+     *
+     * @return average queue latency
+     */
+    public long getAverageQueueLatency() {
+        return averageQueueLatency;
+    }
+
+    /**
+     * Returns average execution time (in milliseconds) of the job.
+     *
+     * @return average execution time
+     */
+    public long getAverageExecutionTime() {
+        return averageExecutionTime;
+    }
+
+    @Override
+    public String toString() {
+        return "JobPoolMetrics[" + poolName + ", active=" + activeCount + "/" + poolSize + ", queue=" + queueDepth + "/"
+                + queueCapacity + ", completed=" + completedCount + ", failed=" + failedCount + ", rejected=" + rejectedCount
+                + ", queueLatency=" + averageQueueLatency + "ms, executionTime=" + averageExecutionTime + "ms]";
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.jobs;
+
+import java.util.List;
+
+/**
+ * Service for running long-lasting tasks (exports, reports, recalculations) outside of the request threads.
+ *
+ * Every job is executed in one of the bounded, named pools, with the tenant, user and locale of the submitting thread. Jobs are
+ * registered in the qcadooView.job model, so their state and progress can be shown using ordinary views.
+ *
+ * @since 1.5
+ */
+public interface JobService {
+
+    /**
+     * Name of the pool used when no pool is given.
+     */
+    String DEFAULT_POOL = "default";
+
+    /**
+     * Submits job to the default pool.
+     *
+     * @param jobName
+     *            name of the job, shown to the user
+     * @param task
+     *            task to execute
+     * @return id of the registered job
+     * @throws IllegalStateException
+     *             if the pool queue is full
+     */
+    Long submit(String jobName, JobTask task);
+
+    /**
+     * Submits job to the given pool.
+     *
+     * @param poolName
+     *            name of the pool
+     * @param jobName
+     *            name of the job, shown to the user
+     * @param task
+     *            task to execute
+     * @return id of the registered job
+     * @throws IllegalArgumentException
+     *             if pool with given name doesn't exist
+     * @throws IllegalStateException
+     *             if the pool queue is full
+     */
+    Long submit(String poolName, String jobName, JobTask task);
+
+    /**
+     * Requests cancellation of the job. Queued job is cancelled immediately, running job is cancelled when its task checks the
+     * {@link JobContext#isCancelled()} flag.
+     *
+     * @param jobId
+     *            id of the job
+     * @return false if job has already finished or doesn't exist
+     */
+    boolean cancel(Long jobId);
+
+    /**
+     * Checks if job is queued or running on this node.
+     *
+     * @param jobId
+     *            id of the job
+     * @return true if job is queued or running
+     */
+    boolean isActive(Long jobId);
+
+    /**
+     * Returns metrics of the given pool.
+     *
+     * @param poolName
+     *            name of the pool
+     * @return pool metrics
+     * @throws IllegalArgumentException
+     *             if pool with given name doesn't exist
+     */
+    JobPoolMetrics getPoolMetrics(String poolName);
+
+    /**
+     * Returns metrics of all pools.
+     *
+     * @return pools metrics
+     */
+    List<JobPoolMetrics> getPoolsMetrics();
+
+}
@@ -0,0 +1,273 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.stereotype.Component;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Writes files to the response using {@link FileChannel#transferTo(long, long, WritableByteChannel)}, or the container's
+ * sendfile support when it is available. Handles conditional requests (If-None-Match) and single or multiple byte ranges
+ * (Range, If-Range), so large downloads can be resumed and fetched partially.
+ * 
+ * @since 1.5
+ */
+@Component
+public class FileDownloadWriter {
+
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final String BYTES_UNIT = "bytes";
+
+    private static final int MAX_RANGES = 16;
+
+    /**
+     * Writes given file to the response.
+     * 
+     * @param file
+     *            file to write
+     * @param contentType
+     *            content type of the file
+     * @param allowSendfile
+     *            false if file must be written before this method returns (e.g. it will be removed afterwards)
+     * @param request
+     *            request
+     * @param response
+     *            response
+     * @throws IOException
+     *             if file can't be read or response can't be written
+     */
+    public void write(final File file, final String contentType, final boolean allowSendfile, final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        long length = file.length();
+        String etag = getEtag(file);
+
+        response.setHeader("Accept-Ranges", BYTES_UNIT);
+        response.setHeader("ETag", etag);
+        response.setDateHeader("Last-Modified", file.lastModified());
+
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        List<long[]> ranges = Collections.emptyList();
+
+        String rangeHeader = request.getHeader("Range");
+        String ifRangeHeader = request.getHeader("If-Range");
+
+        if (rangeHeader != null && (ifRangeHeader == null || ifRangeHeader.trim().equals(etag))) {
+            ranges = parseRanges(rangeHeader, length);
+
+            if (ranges == null) {
+                response.setHeader("Content-Range", BYTES_UNIT + " */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        if (ranges.isEmpty()) {
+            response.setContentType(contentType);
+            response.setHeader("Content-Length", String.valueOf(length));
+            transfer(file, 0, length, allowSendfile, request, response);
+        } else if (ranges.size() == 1) {
+            long[] range = ranges.get(0);
+
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setContentType(contentType);
+            response.setHeader("Content-Range", getContentRange(range, length));
+            response.setHeader("Content-Length", String.valueOf(range[1] - range[0] + 1));
+            transfer(file, range[0], range[1] + 1, allowSendfile, request, response);
+        } else {
+            writeMultipart(file, contentType, ranges, response);
+        }
+    }
+
+    /**
+     * Parses value of the Range header.
+     * 
+     * @param rangeHeader
+     *            value of the Range header
+     * @param length
+     *            length of the file
+     * @return list of the satisfiable ranges (first and last byte, inclusive), empty list if header should be ignored or null
+     *         if none of the ranges can be satisfied
+     */
+    static List<long[]> parseRanges(final String rangeHeader, final long length) {
+        if (!rangeHeader.startsWith(BYTES_UNIT + "=")) {
+            return Collections.emptyList();
+        }
+
+        String[] specs = rangeHeader.substring(BYTES_UNIT.length() + 1).split(",");
+
+        if (specs.length > MAX_RANGES) {
+            return Collections.emptyList();
+        }
+
+        List<long[]> ranges = Lists.newArrayListWithCapacity(specs.length);
+
+        for (String spec : specs) {
+            String trimmedSpec = spec.trim();
+            int dashIndex = trimmedSpec.indexOf('-');
+
+            if (dashIndex < 0) {
+                return Collections.emptyList();
+            }
+
+            long start;
+            long end;
+
+            try {
+                if (dashIndex == 0) {
+                    long suffixLength = Long.parseLong(trimmedSpec.substring(1));
+                    start = Math.max(0, length - suffixLength);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(trimmedSpec.substring(0, dashIndex));
+                    end = dashIndex == trimmedSpec.length() - 1 ? length - 1 : Math.min(length - 1,
+                            Long.parseLong(trimmedSpec.substring(dashIndex + 1)));
+                }
+            } catch (NumberFormatException e) {
+                return Collections.emptyList();
+            }
+
+            if (start <= end && start < length) {
+                ranges.add(new long[] { start, end });
+            }
+        }
+
+        if (ranges.isEmpty()) {
+            return null;
+        }
+
+        return ranges;
+    }
+
+    private void writeMultipart(final File file, final String contentType, final List<long[]> ranges,
+            final HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString();
+        long length = file.length();
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+
+        OutputStream output = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(output);
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+
+            for (long[] range : ranges) {
+                String partHeader = "\r\n--" + boundary + "\r\nContent-Type: " + contentType + "\r\nContent-Range: "
+                        + getContentRange(range, length) + "\r\n\r\n";
+                output.write(partHeader.getBytes(StandardCharsets.ISO_8859_1));
+                transferTo(channel, range[0], range[1] + 1, target);
+            }
+
+            output.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        } finally {
+            randomAccessFile.close();
+        }
+
+        output.flush();
+    }
+
+    private void transfer(final File file, final long start, final long end, final boolean allowSendfile,
+            final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        if (allowSendfile && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.getAbsolutePath());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end);
+            return;
+        }
+
+        OutputStream output = response.getOutputStream();
+
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            transferTo(randomAccessFile.getChannel(), start, end, Channels.newChannel(output));
+        } finally {
+            randomAccessFile.close();
+        }
+
+        output.flush();
+    }
+
+    private void transferTo(final FileChannel channel, final long start, final long end, final WritableByteChannel target)
+            throws IOException {
+        long position = start;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+    }
+
+    private String getContentRange(final long[] range, final long length) {
+        return BYTES_UNIT + " " + range[0] + "-" + range[1] + "/" + length;
+    }
+
+    private String getEtag(final File file) {
+        return "\"" + Long.toHexString(file.length()) + "-" + Long.toHexString(file.lastModified()) + "\"";
+    }
+
+    private boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmedTag = tag.trim();
+            if ("*".equals(trimmedTag) || etag.equals(trimmedTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -60,9 +60,24 @@ public class TranslationUtilsService {
      * @return category translation
      */
     public String getCategoryTranslation(final Entity category, final Locale locale) {
-        return translationService.translate(
-                category.getStringField(L_PLUGIN_IDENTIFIER) + L_MENU + category.getStringField(L_NAME), "qcadooView.menu."
-                        + category.getStringField(L_NAME), locale);
+        return getCategoryTranslation(category.getStringField(L_PLUGIN_IDENTIFIER), category.getStringField(L_NAME), locale);
+    }
+
+    /**
+     * Returns menu category translation
+     * 
+     * @param pluginIdentifier
+     *            category's plugin identifier
+     * @param categoryName
+     *            category's name
+     * @param locale
+     *            localization
+     * @return category translation
+     * 
+     * @since 1.5
+     */
+    public String getCategoryTranslation(final String pluginIdentifier, final String categoryName, final Locale locale) {
+        return translationService.translate(pluginIdentifier + L_MENU + categoryName, "qcadooView.menu." + categoryName, locale);
     }
 
     /**
@@ -77,9 +92,26 @@ public class TranslationUtilsService {
      * @since 1.1.3
      */
     public String getCategoryDescriptionTranslation(final Entity category, final Locale locale) {
-        String translationKey = category.getStringField(L_PLUGIN_IDENTIFIER) + L_MENU + category.getStringField(L_NAME)
-                + ".description";
-        return translateAndIgnoreMissingMessages(translationKey, locale);
+        return getCategoryDescriptionTranslation(category.getStringField(L_PLUGIN_IDENTIFIER), category.getStringField(L_NAME),
+                locale);
+    }
+
+    /**
+     * Returns menu category description translation
+     * 
+     * @param pluginIdentifier
+     *            category's plugin identifier
+     * @param categoryName
+     *            category's name
+     * @param locale
+     *            localization
+     * @return category description translation or empty String if translation does not exists
+     * 
+     * @since 1.5
+     */
+    public String getCategoryDescriptionTranslation(final String pluginIdentifier, final String categoryName,
+            final Locale locale) {
+        return translateAndIgnoreMissingMessages(pluginIdentifier + L_MENU + categoryName + ".description", locale);
     }
 
     /**
@@ -93,10 +125,29 @@ public class TranslationUtilsService {
      */
     public String getItemTranslation(final Entity item, final Locale locale) {
         Entity categoryEntity = item.getBelongsToField(L_CATEGORY);
-        return translationService.translate(
-                item.getStringField(L_PLUGIN_IDENTIFIER) + L_MENU + categoryEntity.getStringField(L_NAME) + '.'
-                        + item.getStringField(L_NAME),
-                "qcadooView.menu." + categoryEntity.getStringField(L_NAME) + '.' + item.getStringField(L_NAME), locale);
+        return getItemTranslation(item.getStringField(L_PLUGIN_IDENTIFIER), categoryEntity.getStringField(L_NAME),
+                item.getStringField(L_NAME), locale);
+    }
+
+    /**
+     * Returns menu item translation
+     * 
+     * @param pluginIdentifier
+     *            item's plugin identifier
+     * @param categoryName
+     *            name of the item's category
+     * @param itemName
+     *            item's name
+     * @param locale
+     *            localization
+     * @return item translation
+     * 
+     * @since 1.5
+     */
+    public String getItemTranslation(final String pluginIdentifier, final String categoryName, final String itemName,
+            final Locale locale) {
+        return translationService.translate(pluginIdentifier + L_MENU + categoryName + '.' + itemName, "qcadooView.menu."
+                + categoryName + '.' + itemName, locale);
     }
 
     /**
@@ -112,9 +163,29 @@ public class TranslationUtilsService {
      */
     public String getItemDescriptionTranslation(final Entity item, final Locale locale) {
         Entity category = item.getBelongsToField(L_CATEGORY);
-        String translationKey = item.getStringField(L_PLUGIN_IDENTIFIER) + L_MENU + category.getStringField(L_NAME) + '.'
-                + item.getStringField(L_NAME) + ".description";
-        return translateAndIgnoreMissingMessages(translationKey, locale);
+        return getItemDescriptionTranslation(item.getStringField(L_PLUGIN_IDENTIFIER), category.getStringField(L_NAME),
+                item.getStringField(L_NAME), locale);
+    }
+
+    /**
+     * Returns menu item description translation
+     * 
+     * @param pluginIdentifier
+     *            item's plugin identifier
+     * @param categoryName
+     *            name of the item's category
+     * @param itemName
+     *            item's name
+     * @param locale
+     *            localization
+     * @return item description translation or empty String if translation does not exists
+     * 
+     * @since 1.5
+     */
+    public String getItemDescriptionTranslation(final String pluginIdentifier, final String categoryName,
+            final String itemName, final Locale locale) {
+        return translateAndIgnoreMissingMessages(pluginIdentifier + L_MENU + categoryName + '.' + itemName + ".description",
+                locale);
     }
 
     /**
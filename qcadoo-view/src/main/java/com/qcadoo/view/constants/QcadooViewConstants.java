@@ -42,6 +42,8 @@ public final class QcadooViewConstants {
 
     public static final String MODEL_VIEW = "view";
 
+    public static final String MODEL_JOB = "job";
+
     // VIEW
     public static final String VIEW_SYSTEM_INFO = "systemInfo";
 
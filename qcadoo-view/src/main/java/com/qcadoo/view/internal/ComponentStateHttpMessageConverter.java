@@ -0,0 +1,86 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal;
+
+import java.io.IOException;
+
+import org.json.JSONException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.qcadoo.view.internal.api.InternalComponentState;
+import com.qcadoo.view.internal.states.JsonStreamingUtils;
+
+/**
+ * Writes rendered component states as UTF-8 bytes straight to the response, without building the whole response as
+ * {@link org.json.JSONObject}, String or byte array first. Content-Length isn't known up front, so the container sends the
+ * response chunked. Components which don't support streaming are rendered by their org.json {@code render()} and copied into
+ * the stream, see {@link com.qcadoo.view.internal.states.AbstractComponentState#render(JsonGenerator)}.
+ * 
+ * @since 1.5
+ */
+public final class ComponentStateHttpMessageConverter extends AbstractHttpMessageConverter<InternalComponentState> {
+
+    private final JsonFactory jsonFactory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    public ComponentStateHttpMessageConverter() {
+        super(JsonHttpMessageConverter.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return InternalComponentState.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected InternalComponentState readInternal(final Class<? extends InternalComponentState> clazz,
+            final HttpInputMessage inputMessage) throws IOException {
+        throw new HttpMessageNotReadableException("Component state cannot be read from the request");
+    }
+
+    @Override
+    protected void writeInternal(final InternalComponentState state, final HttpOutputMessage outputMessage) throws IOException {
+        JsonGenerator generator = jsonFactory.createGenerator(outputMessage.getBody(), JsonEncoding.UTF8);
+
+        try {
+            JsonStreamingUtils.render(state, generator);
+        } catch (JSONException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } finally {
+            generator.close();
+        }
+    }
+
+}
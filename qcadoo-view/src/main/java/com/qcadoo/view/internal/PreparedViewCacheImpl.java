@@ -0,0 +1,202 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableSet;
+import com.qcadoo.localization.api.TranslationsChangedEvent;
+import com.qcadoo.localization.internal.ConfigUtil;
+import com.qcadoo.plugin.api.Plugin;
+import com.qcadoo.plugin.api.PluginAccessor;
+import com.qcadoo.plugin.api.PluginStateResolver;
+import com.qcadoo.tenant.api.MultiTenantService;
+import com.qcadoo.view.internal.api.InternalViewDefinition;
+import com.qcadoo.view.internal.api.PreparedViewCache;
+
+/**
+ * Prepared models are kept until translations change or view definitions are (re)registered. Enabled plugins are part of the
+ * key, so enabling or disabling plugin for the tenant switches to the other set of models. Whole cache is dropped when it grows
+ * over the configured size, which keeps it bounded without tracking usage of the entries.
+ */
+@Service
+public class PreparedViewCacheImpl implements PreparedViewCache, ApplicationListener<TranslationsChangedEvent> {
+
+    @Value("${preparedViewCacheSize:2000}")
+    private int maxSize;
+
+    @Autowired
+    private PluginAccessor pluginAccessor;
+
+    @Autowired
+    private PluginStateResolver pluginStateResolver;
+
+    @Autowired
+    private MultiTenantService multiTenantService;
+
+    @Autowired
+    private ConfigUtil configUtil;
+
+    private final ConcurrentMap<Key, Map<String, Object>> models = new ConcurrentHashMap<Key, Map<String, Object>>();
+
+    @Override
+    public Map<String, Object> get(final InternalViewDefinition viewDefinition, final Locale locale, final boolean showBack,
+            final boolean permanentlyDisabled, final Supplier<Map<String, Object>> loader) {
+        if (configUtil.isHotDeploy()) {
+            return loader.get();
+        }
+
+        Key key = new Key(viewDefinition, locale, multiTenantService.getCurrentTenantId(), getCurrentAuthorities(),
+                getEnabledPlugins(), showBack, permanentlyDisabled);
+
+        Map<String, Object> model = models.get(key);
+
+        if (model == null) {
+            if (models.size() >= maxSize) {
+                models.clear();
+            }
+
+            model = Collections.unmodifiableMap(loader.get());
+
+            Map<String, Object> existingModel = models.putIfAbsent(key, model);
+
+            if (existingModel != null) {
+                model = existingModel;
+            }
+        }
+
+        return model;
+    }
+
+    @Override
+    public void invalidate() {
+        models.clear();
+    }
+
+    @Override
+    public void onApplicationEvent(final TranslationsChangedEvent event) {
+        invalidate();
+    }
+
+    private Set<String> getCurrentAuthorities() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null) {
+            return Collections.emptySet();
+        }
+
+        ImmutableSet.Builder<String> authorities = ImmutableSet.builder();
+
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+
+        return authorities.build();
+    }
+
+    private Set<String> getEnabledPlugins() {
+        ImmutableSet.Builder<String> enabledPlugins = ImmutableSet.builder();
+
+        for (Plugin plugin : pluginAccessor.getPlugins()) {
+            if (pluginStateResolver.isEnabled(plugin)) {
+                enabledPlugins.add(plugin.getIdentifier());
+            }
+        }
+
+        return enabledPlugins.build();
+    }
+
+    private static final class Key {
+
+        private final String pluginIdentifier;
+
+        private final String viewName;
+
+        private final Locale locale;
+
+        private final int tenantId;
+
+        private final Set<String> authorities;
+
+        private final Set<String> enabledPlugins;
+
+        private final boolean showBack;
+
+        private final boolean permanentlyDisabled;
+
+        private final int hashCode;
+
+        private Key(final InternalViewDefinition viewDefinition, final Locale locale, final int tenantId,
+                final Set<String> authorities, final Set<String> enabledPlugins, final boolean showBack,
+                final boolean permanentlyDisabled) {
+            this.pluginIdentifier = viewDefinition.getPluginIdentifier();
+            this.viewName = viewDefinition.getName();
+            this.locale = locale;
+            this.tenantId = tenantId;
+            this.authorities = authorities;
+            this.enabledPlugins = enabledPlugins;
+            this.showBack = showBack;
+            this.permanentlyDisabled = permanentlyDisabled;
+            this.hashCode = Objects.hashCode(pluginIdentifier, viewName, locale, tenantId, authorities, enabledPlugins, showBack,
+                    permanentlyDisabled);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return tenantId == other.tenantId && showBack == other.showBack && permanentlyDisabled == other.permanentlyDisabled
+                    && pluginIdentifier.equals(other.pluginIdentifier) && viewName.equals(other.viewName)
+                    && Objects.equal(locale, other.locale) && authorities.equals(other.authorities)
+                    && enabledPlugins.equals(other.enabledPlugins);
+        }
+
+    }
+
+}
@@ -28,6 +28,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +38,7 @@ import com.qcadoo.plugin.api.PluginUtils;
 import com.qcadoo.security.api.SecurityRole;
 import com.qcadoo.view.internal.api.InternalViewDefinition;
 import com.qcadoo.view.internal.api.InternalViewDefinitionService;
+import com.qcadoo.view.internal.api.PreparedViewCache;
 import com.qcadoo.view.internal.api.ViewDefinition;
 import com.qcadoo.view.internal.security.SecurityViewDefinitionRoleResolver;
 
@@ -45,6 +47,9 @@ public class ViewDefinitionServiceImpl implements InternalViewDefinitionService,
 
     private final Map<String, InternalViewDefinition> viewDefinitions = new HashMap<String, InternalViewDefinition>();
 
+    @Autowired(required = false)
+    private PreparedViewCache preparedViewCache;
+
     @Override
     @Transactional(readOnly = true)
     @Monitorable
@@ -86,6 +91,7 @@ public class ViewDefinitionServiceImpl implements InternalViewDefinitionService,
     @Monitorable
     public void save(final InternalViewDefinition viewDefinition) {
         viewDefinitions.put(viewDefinition.getPluginIdentifier() + "." + viewDefinition.getName(), viewDefinition);
+        invalidatePreparedViews();
     }
 
     @Override
@@ -93,6 +99,13 @@ public class ViewDefinitionServiceImpl implements InternalViewDefinitionService,
     @Monitorable
     public void delete(final InternalViewDefinition viewDefinition) {
         viewDefinitions.remove(viewDefinition.getPluginIdentifier() + "." + viewDefinition.getName());
+        invalidatePreparedViews();
+    }
+
+    private void invalidatePreparedViews() {
+        if (preparedViewCache != null) {
+            preparedViewCache.invalidate();
+        }
     }
 
     @Override
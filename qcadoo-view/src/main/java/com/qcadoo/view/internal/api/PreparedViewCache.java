@@ -0,0 +1,61 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.api;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the models produced by {@link InternalViewDefinition#prepareView(org.json.JSONObject, Locale)}. Prepared model
+ * depends only on the view, locale, tenant, enabled plugins and roles of the current user, so it can be shared between requests.
+ *
+ * @since 1.5
+ */
+public interface PreparedViewCache {
+
+    /**
+     * Returns cached model of the given view or builds it using given loader. Returned model is immutable.
+     *
+     * @param viewDefinition
+     *            view definition
+     * @param locale
+     *            locale
+     * @param showBack
+     *            true if view is opened with additional navigation (back button)
+     * @param permanentlyDisabled
+     *            true if view is opened as permanently disabled
+     * @param loader
+     *            builds model when it isn't cached yet
+     * @return prepared model
+     */
+    Map<String, Object> get(InternalViewDefinition viewDefinition, Locale locale, boolean showBack, boolean permanentlyDisabled,
+            Supplier<Map<String, Object>> loader);
+
+    /**
+     * Removes all cached models.
+     */
+    void invalidate();
+
+}
@@ -0,0 +1,52 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.api;
+
+import java.io.IOException;
+
+import org.json.JSONException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Component state which can render itself directly into the JSON stream, without building the intermediate
+ * {@link org.json.JSONObject} tree. <b>For internal usage only</b>
+ * 
+ * @since 1.5
+ */
+public interface StreamingComponentState extends InternalComponentState {
+
+    /**
+     * Renders this component state to client, the same way as {@link #render()} does. <b>For internal usage only</b>
+     * 
+     * @param generator
+     *            JSON stream
+     * @throws IOException
+     *             when stream cannot be written
+     * @throws JSONException
+     *             when data for client contains errors
+     */
+    void render(JsonGenerator generator) throws IOException, JSONException;
+
+}
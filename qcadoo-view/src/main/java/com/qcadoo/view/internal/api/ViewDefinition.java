@@ -25,7 +25,6 @@ package com.qcadoo.view.internal.api;
 
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.security.api.SecurityRole;
-import org.json.JSONObject;
 
 /**
  * ViewDefinition defines single 'view' in system.
@@ -68,18 +67,5 @@ public interface ViewDefinition {
      * @return main data definition of this view
      */
     DataDefinition getDataDefinition();
-    
-    /**
-     * Set context form url
-     * 
-     * @param jSONObject 
-     */
-    void setJsonContext(JSONObject jSONObject);
-    
-    /**
-     * Get context from url
-     * 
-     * @return 
-     */
-    JSONObject getJsonContext();
+
 }
@@ -23,6 +23,7 @@
  */
 package com.qcadoo.view.internal.components.awesomeDynamicList;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.Lists;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.view.api.components.AwesomeDynamicListComponent;
@@ -38,6 +39,7 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.*;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -145,6 +147,36 @@ public class AwesomeDynamicListState extends FieldComponentState implements Awes
         return json;
     }
 
+    @Override
+    protected void renderFields(final JsonGenerator generator) throws IOException, JSONException {
+        super.renderFields(generator);
+        if (!isRenderRequested()) {
+            generator.writeObjectFieldStart(JSON_CONTENT);
+            generator.writeObjectFieldStart("innerFormChanges");
+            for (FormComponentState form : forms) {
+                generator.writeFieldName(form.getName());
+                form.render(generator);
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    @Override
+    protected void renderContent(final JsonGenerator generator) throws IOException, JSONException {
+        generator.writeStartObject();
+
+        generator.writeArrayFieldStart(JSON_FORM_VALUES);
+        for (FormComponentState formState : forms) {
+            formState.render(generator);
+        }
+        generator.writeEndArray();
+
+        generator.writeBooleanField(JSON_REQUIRED, isRequired());
+
+        generator.writeEndObject();
+    }
+
     @Override
     public Map<String, InternalComponentState> getChildren() {
         Map<String, InternalComponentState> children = new HashMap<String, InternalComponentState>();
@@ -23,6 +23,7 @@
  */
 package com.qcadoo.view.internal.components.form;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.qcadoo.model.api.*;
 import com.qcadoo.model.api.expression.ExpressionUtils;
 import com.qcadoo.model.api.validators.ErrorMessage;
@@ -41,6 +42,7 @@ import com.qcadoo.view.internal.states.AbstractContainerState;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.*;
 
 public class FormComponentState extends AbstractContainerState implements FormComponent {
@@ -232,6 +234,12 @@ public class FormComponentState extends AbstractContainerState implements FormCo
         return json;
     }
 
+    @Override
+    protected void renderFields(final JsonGenerator generator) throws IOException, JSONException {
+        super.renderFields(generator);
+        generator.writeBooleanField(JSON_BACK_REQUIRED, performBackRequired);
+    }
+
     @Override
     protected JSONObject renderContent() throws JSONException {
         JSONObject json = new JSONObject();
@@ -0,0 +1,116 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.components.ganttChart;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.qcadoo.view.api.components.ganttChart.GanttChartItem;
+
+/**
+ * Finds collisions between items of the single gantt row using a sweep line. Items are visited in order of their start
+ * positions, while items which are still open are kept in the heap ordered by their end positions. Collision lasts as long as at
+ * least two items are open, so the whole row is processed in O(n log n) time.
+ */
+final class GanttChartCollisionDetector {
+
+    private static final Comparator<GanttChartItem> BY_FROM = new Comparator<GanttChartItem>() {
+
+        @Override
+        public int compare(final GanttChartItem itemA, final GanttChartItem itemB) {
+            return Double.compare(itemA.getFrom(), itemB.getFrom());
+        }
+    };
+
+    private static final Comparator<GanttChartItem> BY_TO = new Comparator<GanttChartItem>() {
+
+        @Override
+        public int compare(final GanttChartItem itemA, final GanttChartItem itemB) {
+            return Double.compare(itemA.getTo(), itemB.getTo());
+        }
+    };
+
+    private GanttChartCollisionDetector() {
+    }
+
+    /**
+     * Returns collisions between given items. Items which only touch each other are not considered as colliding.
+     *
+     * @param row
+     *            name of the row
+     * @param items
+     *            items of the row, in any order
+     * @return list of the collisions, sorted by their positions
+     */
+    static List<GanttChartItem> detect(final String row, final List<GanttChartItem> items) {
+        List<GanttChartItem> sortedItems = new ArrayList<GanttChartItem>(items);
+        sortedItems.removeAll(Collections.singleton(null));
+        Collections.sort(sortedItems, BY_FROM);
+
+        List<GanttChartItem> collisions = new ArrayList<GanttChartItem>();
+        PriorityQueue<GanttChartItem> openItems = new PriorityQueue<GanttChartItem>(Math.max(1, sortedItems.size()), BY_TO);
+
+        GanttChartConflictItem collision = null;
+
+        for (GanttChartItem item : sortedItems) {
+            collision = closeItems(openItems, item.getFrom(), collision, collisions);
+
+            if (!openItems.isEmpty()) {
+                if (collision == null) {
+                    collision = new GanttChartConflictItem(row, item.getDateFrom(), null, item.getFrom(), item.getFrom());
+                    collision.addItem(openItems.peek());
+                }
+                collision.addItem(item);
+            }
+
+            openItems.add(item);
+        }
+
+        closeItems(openItems, Double.POSITIVE_INFINITY, collision, collisions);
+
+        return collisions;
+    }
+
+    private static GanttChartConflictItem closeItems(final PriorityQueue<GanttChartItem> openItems, final double position,
+            final GanttChartConflictItem collision, final List<GanttChartItem> collisions) {
+        GanttChartConflictItem openCollision = collision;
+
+        while (!openItems.isEmpty() && openItems.peek().getTo() <= position) {
+            GanttChartItem closedItem = openItems.poll();
+
+            if (openCollision != null && openItems.size() < 2) {
+                openCollision.setTo(closedItem.getTo());
+                openCollision.setDateTo(closedItem.getDateTo());
+                collisions.add(openCollision);
+                openCollision = null;
+            }
+        }
+
+        return openCollision;
+    }
+
+}
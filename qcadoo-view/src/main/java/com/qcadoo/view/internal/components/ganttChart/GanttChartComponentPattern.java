@@ -61,6 +61,8 @@ public class GanttChartComponentPattern extends AbstractComponentPattern {
 
     private String itemsBorderColor;
 
+    private int windowMargin;
+
     public GanttChartComponentPattern(final ComponentDefinition componentDefinition) {
         super(componentDefinition);
     }
@@ -100,6 +102,8 @@ public class GanttChartComponentPattern extends AbstractComponentPattern {
                 itemsBorderWidth = Integer.valueOf(option.getValue());
             } else if ("itemsBorderColor".equals(option.getType())) {
                 itemsBorderColor = option.getValue();
+            } else if ("windowMargin".equals(option.getType())) {
+                windowMargin = Integer.valueOf(option.getValue());
             }
         }
         if (resolver == null) {
@@ -178,4 +182,15 @@ public class GanttChartComponentPattern extends AbstractComponentPattern {
         return itemsBorderColor;
     }
 
+    /**
+     * Returns number of cells rendered on both sides of the visible part of the chart. Zero means that windowed loading is
+     * disabled and all items are rendered.
+     *
+     * @return window margin in cells
+     * @since 1.5
+     */
+    public int getWindowMargin() {
+        return windowMargin;
+    }
+
 }
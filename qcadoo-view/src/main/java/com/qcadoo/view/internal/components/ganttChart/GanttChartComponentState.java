@@ -24,10 +24,9 @@
 package com.qcadoo.view.internal.components.ganttChart;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -81,6 +80,12 @@ public class GanttChartComponentState extends AbstractComponentState {
 
     private final String itemsBorderColor;
 
+    private final int windowMargin;
+
+    private Double visibleFrom;
+
+    private Double visibleTo;
+
     public GanttChartComponentState(final GanttChartItemResolver itemResolver, final GanttChartComponentPattern pattern) {
         super(pattern);
         this.itemResolver = itemResolver;
@@ -90,6 +95,7 @@ public class GanttChartComponentState extends AbstractComponentState {
         this.stripsOrientation = pattern.getStripOrientation();
         this.itemsBorderWidth = pattern.getItemsBorderWidth();
         this.itemsBorderColor = pattern.getItemsBorderColor();
+        this.windowMargin = pattern.getWindowMargin();
         registerEvent("refresh", eventPerformer, "refresh");
         registerEvent("initialize", eventPerformer, "initialize");
         registerEvent("select", eventPerformer, "selectEntity");
@@ -157,6 +163,11 @@ public class GanttChartComponentState extends AbstractComponentState {
             selectedEntityId = json.getLong("selectedEntityId");
         }
 
+        if (windowMargin > 0 && json.has("visibleFrom") && json.has("visibleTo")) {
+            visibleFrom = json.getDouble("visibleFrom");
+            visibleTo = json.getDouble("visibleTo");
+        }
+
     }
 
     @Override
@@ -208,6 +219,13 @@ public class GanttChartComponentState extends AbstractComponentState {
             }
             json.put("collisions", collisionItemsArray);
 
+            if (isWindowed()) {
+                JSONObject window = new JSONObject();
+                window.put("from", getWindowFrom());
+                window.put("to", getWindowTo());
+                json.put("window", window);
+            }
+
             json.put("selectedEntityId", selectedEntityId);
         }
 
@@ -222,6 +240,18 @@ public class GanttChartComponentState extends AbstractComponentState {
         }
     }
 
+    private boolean isWindowed() {
+        return visibleFrom != null && visibleTo != null;
+    }
+
+    private double getWindowFrom() {
+        return Math.max(0, visibleFrom - windowMargin);
+    }
+
+    private double getWindowTo() {
+        return visibleTo + windowMargin;
+    }
+
     protected String translate(final String suffix, final String... args) {
         return getTranslationService().translate(getTranslationPath() + "." + suffix, "qcadooView.gantt." + suffix, getLocale(),
                 args);
@@ -246,7 +276,7 @@ public class GanttChartComponentState extends AbstractComponentState {
             if (globalErrorMessage != null) {
                 return;
             }
-            items = itemResolver.resolve(scale, context, getLocale());
+            items = getItemsInWindow(itemResolver.resolve(scale, context, getLocale()));
             updateCollisionItems();
         }
 
@@ -257,77 +287,32 @@ public class GanttChartComponentState extends AbstractComponentState {
         private void updateCollisionItems() {
             collisionItems = new HashMap<String, List<GanttChartItem>>();
             for (Entry<String, List<GanttChartItem>> rowEntry : items.entrySet()) {
-
-                List<GanttChartItem> sortedItems = new ArrayList<GanttChartItem>(rowEntry.getValue());
-                Collections.sort(sortedItems, new Comparator<GanttChartItem>() {
-
-                    @Override
-                    public int compare(final GanttChartItem itemA, final GanttChartItem itemB) {
-                        return Double.valueOf(itemA.getFrom()).compareTo(Double.valueOf(itemB.getFrom()));
-                    }
-                });
-
-                List<GanttChartItem> collisionRow = getCollisionsList(sortedItems, rowEntry.getKey());
+                List<GanttChartItem> collisionRow = GanttChartCollisionDetector.detect(rowEntry.getKey(), rowEntry.getValue());
                 if (!collisionRow.isEmpty()) {
                     collisionItems.put(rowEntry.getKey(), collisionRow);
                 }
-
             }
         }
 
-        private List<GanttChartItem> getCollisionsList(final List<GanttChartItem> sortedItems, final String row) {
-
-            List<GanttChartItem> collisionRow = new ArrayList<GanttChartItem>();
-
-            GanttChartConflictItem collisionItem = null;
-            GanttChartItem previousItem = null;
-
-            for (GanttChartItem item : sortedItems) {
-
-                if (previousItem != null && item.getFrom() < previousItem.getTo()) {
-
-                    if (collisionItem != null && item.getFrom() < collisionItem.getTo()) { // same collision
-
-                        if (item.getTo() > collisionItem.getTo()) { // not entirely included in existing collision
-                            if (item.getTo() > previousItem.getTo()) { // entirely included in previous item
-                                collisionItem.setTo(item.getTo());
-                                collisionItem.setDateTo(item.getDateTo());
-                            } else {
-                                collisionItem.setTo(previousItem.getTo());
-                                collisionItem.setDateTo(previousItem.getDateTo());
-                            }
-                        }
-
-                    } else { // different collision
-
-                        if (collisionItem != null) {
-                            collisionRow.add(collisionItem);
-                        }
+        private Map<String, List<GanttChartItem>> getItemsInWindow(final Map<String, List<GanttChartItem>> allItems) {
+            if (!isWindowed()) {
+                return allItems;
+            }
 
-                        if (item.getTo() < previousItem.getTo()) { // entirely included in previous item
-                            collisionItem = new GanttChartConflictItem(row, item.getDateFrom(), item.getDateTo(), item.getFrom(),
-                                    item.getTo());
-                        } else {
-                            collisionItem = new GanttChartConflictItem(row, item.getDateFrom(), previousItem.getDateTo(),
-                                    item.getFrom(), previousItem.getTo());
-                        }
-                        collisionItem.addItem(previousItem);
+            double windowFrom = getWindowFrom();
+            double windowTo = getWindowTo();
 
+            Map<String, List<GanttChartItem>> itemsInWindow = new LinkedHashMap<String, List<GanttChartItem>>();
+            for (Entry<String, List<GanttChartItem>> rowEntry : allItems.entrySet()) {
+                List<GanttChartItem> rowItems = new ArrayList<GanttChartItem>();
+                for (GanttChartItem item : rowEntry.getValue()) {
+                    if (item != null && item.getTo() >= windowFrom && item.getFrom() <= windowTo) {
+                        rowItems.add(item);
                     }
-
-                    collisionItem.addItem(item);
-                }
-
-                if (previousItem == null || item.getTo() > previousItem.getTo()) {
-                    previousItem = item;
                 }
+                itemsInWindow.put(rowEntry.getKey(), rowItems);
             }
-
-            if (collisionItem != null) {
-                collisionRow.add(collisionItem);
-            }
-
-            return collisionRow;
+            return itemsInWindow;
         }
     }
 
@@ -24,6 +24,7 @@
 package com.qcadoo.view.internal.components.ganttChart;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.json.JSONArray;
@@ -44,6 +45,10 @@ public class GanttChartConflictItem extends GanttChartItemImpl {
         items.add(item);
     }
 
+    List<GanttChartItem> getItems() {
+        return Collections.unmodifiableList(items);
+    }
+
     @Override
     public JSONObject getAsJson() throws JSONException {
         JSONObject json = super.getAsJson();
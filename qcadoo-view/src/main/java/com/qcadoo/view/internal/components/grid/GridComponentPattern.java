@@ -171,6 +171,8 @@ public class GridComponentPattern extends AbstractComponentPattern {
 
     private boolean autoRefresh = false;
 
+    private boolean cacheResults = false;
+
     private final SecurityRolesService securityRolesService;
 
     public GridComponentPattern(final ComponentDefinition componentDefinition) {
@@ -433,9 +435,12 @@ public class GridComponentPattern extends AbstractComponentPattern {
     }
 
     public Collection<GridComponentColumn> filterColumnsWithAccess(Collection<GridComponentColumn> columns) {
+        // columns usually share a few roles, so each role is checked only once
+        Map<String, Boolean> accessDecisions = Maps.newHashMap();
         List<GridComponentColumn> collect = columns.stream().filter(item -> {
             String columnAuthorizationRole = item.getAuthorizationRole();
-            return Strings.isNullOrEmpty(columnAuthorizationRole) || securityRolesService.canAccess(columnAuthorizationRole);
+            return Strings.isNullOrEmpty(columnAuthorizationRole)
+                    || accessDecisions.computeIfAbsent(columnAuthorizationRole, securityRolesService::canAccess);
 
         }).collect(Collectors.toList());
 
@@ -625,6 +630,8 @@ public class GridComponentPattern extends AbstractComponentPattern {
                 columnsToSummary = option.getValue();
             } else if ("columnsToSummaryTime".equals(option.getType())) {
                 columnsToSummaryTime = option.getValue();
+            } else if ("cacheResults".equals(option.getType())) {
+                cacheResults = Boolean.parseBoolean(option.getValue());
             }
         }
         if (defaultOrderColumn == null) {
@@ -784,6 +791,16 @@ public class GridComponentPattern extends AbstractComponentPattern {
         return footerRow;
     }
 
+    /**
+     * Returns true if results of this grid should be taken from the short-lived, shared search result cache.
+     * 
+     * @return true if results are cached
+     * @since 1.5
+     */
+    public boolean isCacheResults() {
+        return cacheResults;
+    }
+
     public String getColumnsToSummary() {
         return columnsToSummary;
     }
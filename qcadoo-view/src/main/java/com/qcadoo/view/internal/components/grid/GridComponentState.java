@@ -23,7 +23,9 @@
  */
 package com.qcadoo.view.internal.components.grid;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -31,16 +33,20 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.qcadoo.localization.api.TranslationService;
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.api.EntityOpResult;
@@ -51,6 +57,7 @@ import com.qcadoo.model.api.search.SearchCriteriaBuilder;
 import com.qcadoo.model.api.search.SearchOrders;
 import com.qcadoo.model.api.search.SearchRestrictions;
 import com.qcadoo.model.api.search.SearchResult;
+import com.qcadoo.model.api.search.SearchResultCache;
 import com.qcadoo.model.api.types.BelongsToType;
 import com.qcadoo.model.api.types.FieldType;
 import com.qcadoo.model.api.types.JoinFieldHolder;
@@ -62,11 +69,13 @@ import com.qcadoo.security.api.SecurityRole;
 import com.qcadoo.security.api.SecurityRolesService;
 import com.qcadoo.view.api.components.GridComponent;
 import com.qcadoo.view.api.components.grid.GridComponentMultiSearchFilter;
+import com.qcadoo.view.api.components.grid.GridExport;
 import com.qcadoo.view.api.components.lookup.FilterValueHolder;
 import com.qcadoo.view.internal.CriteriaModifier;
 import com.qcadoo.view.internal.FilterValueHolderImpl;
 import com.qcadoo.view.internal.RowStyleResolver;
 import com.qcadoo.view.internal.states.AbstractComponentState;
+import com.qcadoo.view.internal.states.JsonStreamingUtils;
 
 public final class GridComponentState extends AbstractComponentState implements GridComponent {
 
@@ -122,10 +131,14 @@ public final class GridComponentState extends AbstractComponentState implements
 
     public static final String JSON_AUTOMATIC_REFRESH = "autoRefresh";
 
+    private static final int SCROLL_FETCH_SIZE = 500;
+
     private final GridEventPerformer eventPerformer = new GridEventPerformer();
 
     private final Map<String, GridComponentColumn> columns;
 
+    private Collection<GridComponentColumn> columnsWithAccess;
+
     private final FieldDefinition belongsToFieldDefinition;
 
     private Long selectedEntityId;
@@ -200,6 +213,8 @@ public final class GridComponentState extends AbstractComponentState implements
 
     private final GridComponentPattern pattern;
 
+    private final SearchResultCache searchResultCache;
+
     public GridComponentState(final DataDefinition dataDefinition, final GridComponentPattern pattern) {
         super(pattern);
         this.pattern = pattern;
@@ -226,6 +241,8 @@ public final class GridComponentState extends AbstractComponentState implements
         this.columnsToSummaryTime = pattern.getColumnsToSummaryTime();
         this.useDto = pattern.isUseDto();
         this.columns = pattern.getColumns();
+        this.searchResultCache = pattern.isCacheResults() ? pattern.getApplicationContext().getBean(SearchResultCache.class)
+                : null;
         registerEvent("refresh", eventPerformer, "refresh");
         registerEvent("select", eventPerformer, "selectEntity");
         registerEvent("addExistingEntity", eventPerformer, "addExistingEntity");
@@ -445,6 +462,36 @@ public final class GridComponentState extends AbstractComponentState implements
 
     @Override
     protected JSONObject renderContent() throws JSONException {
+        JSONObject json = renderContentWithoutEntities();
+
+        JSONArray jsonEntities = new JSONArray();
+        for (Entity entity : entities) {
+            jsonEntities.put(convertEntityToJson(entity));
+        }
+
+        json.put(JSON_ENTITIES, jsonEntities);
+
+        return json;
+    }
+
+    @Override
+    protected void renderContent(final JsonGenerator generator) throws IOException, JSONException {
+        // rows are written one by one, so the whole page of entities is never held as JSONObject tree
+        JSONObject json = renderContentWithoutEntities();
+
+        generator.writeStartObject();
+        JsonStreamingUtils.writeFields(generator, json);
+
+        generator.writeArrayFieldStart(JSON_ENTITIES);
+        for (Entity entity : entities) {
+            writeEntity(generator, entity);
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    private JSONObject renderContentWithoutEntities() throws JSONException {
         if (entities == null) {
             eventPerformer.reload();
         }
@@ -501,13 +548,6 @@ public final class GridComponentState extends AbstractComponentState implements
         json.put(JSON_FILTERS, new JSONObject(filters));
         json.put(JSON_MULTI_SEARCH_FILTER, multiSearchFilter.toJson());
 
-        JSONArray jsonEntities = new JSONArray();
-        for (Entity entity : entities) {
-            jsonEntities.put(convertEntityToJson(entity));
-        }
-
-        json.put(JSON_ENTITIES, jsonEntities);
-
         if (criteriaModifierParameter != null) {
             json.put(JSON_CRITERIA_MODIFIER_PARAMETER, criteriaModifierParameter);
             if (criteriaModifierParameter.has(JSON_HEADER_VALUE)) {
@@ -529,6 +569,14 @@ public final class GridComponentState extends AbstractComponentState implements
         return stylesForEntities;
     }
 
+    private Collection<GridComponentColumn> getColumnsWithAccess() {
+        // state lives for a single request, so access decisions are computed once and reused for every row
+        if (columnsWithAccess == null) {
+            columnsWithAccess = pattern.filterColumnsWithAccess(columns.values());
+        }
+        return columnsWithAccess;
+    }
+
     private JSONObject convertEntityToJson(final Entity entity) throws JSONException {
         JSONObject json = new JSONObject();
         json.put("id", entity.getId());
@@ -538,7 +586,7 @@ public final class GridComponentState extends AbstractComponentState implements
             json.put("active", true);
         }
         JSONObject fields = new JSONObject();
-        for (GridComponentColumn column : pattern.filterColumnsWithAccess(columns.values())){
+        for (GridComponentColumn column : getColumnsWithAccess()){
             fields.put(column.getName(), column.getValue(entity, getLocale()));
         }
         json.put("fields", fields);
@@ -546,6 +594,23 @@ public final class GridComponentState extends AbstractComponentState implements
         return json;
     }
 
+    private void writeEntity(final JsonGenerator generator, final Entity entity) throws IOException {
+        generator.writeStartObject();
+        if (entity.getId() != null) {
+            generator.writeNumberField("id", entity.getId());
+        }
+        generator.writeBooleanField("active", !activable || entity.isActive());
+        generator.writeObjectFieldStart("fields");
+        for (GridComponentColumn column : getColumnsWithAccess()) {
+            String value = column.getValue(entity, getLocale());
+            if (value != null) {
+                generator.writeStringField(column.getName(), value);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
     @Override
     public Set<Long> getSelectedEntitiesIds() {
         return selectedEntities;
@@ -785,67 +850,128 @@ public final class GridComponentState extends AbstractComponentState implements
         }
 
         private void reload() {
-            if (belongsToFieldDefinition == null || belongsToEntityId != null) {
-                SearchCriteriaBuilder criteria = getDataDefinition().find();
-                if (belongsToFieldDefinition != null && !useDto) {
-                    if (belongsToFieldDefinition.getType() instanceof ManyToManyType) {
-                        String belongsToFieldName = belongsToFieldDefinition.getName();
-                        criteria.createAlias(belongsToFieldName, belongsToFieldName).add(
-                                SearchRestrictions.eq(belongsToFieldName + ".id", belongsToEntityId));
-                    } else {
-                        // criteria.add(SearchRestrictions.belongsTo(belongsToFieldDefinition.getName(), ((DataDefinitionHolder)
-                        // belongsToFieldDefinition.getType()).getDataDefinition(), belongsToEntityId));
-                        criteria.add(SearchRestrictions.eq(belongsToFieldDefinition.getName() + ".id", belongsToEntityId));
-                    }
+            try {
+                SearchCriteriaBuilder criteria = createCriteria(true);
+
+                if (criteria == null) {
+                    clear();
+                    return;
                 }
-                if (useDto) {
-                    criteria.add(SearchRestrictions.eq(buildDtoIdFieldName(belongsToFieldDefinition.getName()),
-                            belongsToEntityId.intValue()));
+
+                SearchResult result = list(criteria);
+
+                if (repeatWithFixedFirstResult(result)) {
+                    addPaging(criteria);
+                    result = list(criteria);
                 }
 
-                try {
-                    if (filtersEnabled) {
-                        GridComponentFilterUtils.addFilters(filters, columns, getDataDefinition(), criteria);
-                    }
+                entities = result.getEntities();
+                totalEntities = result.getTotalNumberOfEntities();
+            } catch (GridComponentFilterException gcfe) {
+                addMessage("qcadooView.grid.filter.incorrectValue", MessageType.FAILURE, gcfe.getFilterValue());
+                clear();
+            }
+        }
 
-                    if (multiSearchEnabled) {
-                        GridComponentFilterUtils.addMultiSearchFilter(multiSearchFilter, columns, getDataDefinition(), criteria);
-                    }
+        private void scroll(final Set<Long> entityIds, final Consumer<Entity> consumer) {
+            try {
+                SearchCriteriaBuilder criteria = createCriteria(false);
 
-                    if (customRestriction != null) {
-                        customRestriction.addRestriction(criteria);
+                if (criteria != null) {
+                    if (entityIds != null) {
+                        criteria.add(SearchRestrictions.in("id", entityIds));
                     }
 
-                    if (activable && onlyActive) {
-                        criteria.add(SearchRestrictions.eq("active", true));
-                    }
-                    if (activable && onlyInactive) {
-                        criteria.add(SearchRestrictions.eq("active", false));
-                    }
+                    criteria.scroll(SCROLL_FETCH_SIZE, consumer);
+                }
+            } catch (GridComponentFilterException gcfe) {
+                addMessage("qcadooView.grid.filter.incorrectValue", MessageType.FAILURE, gcfe.getFilterValue());
+            }
+        }
 
-                    addOrder(criteria);
-                    addPaging(criteria);
+        private SearchCriteriaBuilder createExportCriteria() {
+            try {
+                return createCriteria(false);
+            } catch (GridComponentFilterException gcfe) {
+                addMessage("qcadooView.grid.filter.incorrectValue", MessageType.FAILURE, gcfe.getFilterValue());
+                return null;
+            }
+        }
 
-                    if (criteriaModifier != null) {
-                        criteriaModifier.modifyCriteria(criteria, criteriaModifierParameter);
-                    }
+        private long count() {
+            try {
+                SearchCriteriaBuilder criteria = createCriteria(false);
 
-                    SearchResult result = criteria.list();
+                if (criteria == null) {
+                    return 0;
+                }
 
-                    if (repeatWithFixedFirstResult(result)) {
-                        addPaging(criteria);
-                        result = criteria.list();
-                    }
+                return criteria.count();
+            } catch (GridComponentFilterException gcfe) {
+                addMessage("qcadooView.grid.filter.incorrectValue", MessageType.FAILURE, gcfe.getFilterValue());
+                return 0;
+            }
+        }
 
-                    entities = result.getEntities();
-                    totalEntities = result.getTotalNumberOfEntities();
-                } catch (GridComponentFilterException gcfe) {
-                    addMessage("qcadooView.grid.filter.incorrectValue", MessageType.FAILURE, gcfe.getFilterValue());
-                    clear();
+        private SearchCriteriaBuilder createCriteria(final boolean paged) throws GridComponentFilterException {
+            if (belongsToFieldDefinition != null && belongsToEntityId == null) {
+                return null;
+            }
+
+            SearchCriteriaBuilder criteria = getDataDefinition().find();
+            if (belongsToFieldDefinition != null && !useDto) {
+                if (belongsToFieldDefinition.getType() instanceof ManyToManyType) {
+                    String belongsToFieldName = belongsToFieldDefinition.getName();
+                    criteria.createAlias(belongsToFieldName, belongsToFieldName).add(
+                            SearchRestrictions.eq(belongsToFieldName + ".id", belongsToEntityId));
+                } else {
+                    // criteria.add(SearchRestrictions.belongsTo(belongsToFieldDefinition.getName(), ((DataDefinitionHolder)
+                    // belongsToFieldDefinition.getType()).getDataDefinition(), belongsToEntityId));
+                    criteria.add(SearchRestrictions.eq(belongsToFieldDefinition.getName() + ".id", belongsToEntityId));
                 }
-            } else {
-                clear();
             }
+            if (useDto) {
+                criteria.add(SearchRestrictions.eq(buildDtoIdFieldName(belongsToFieldDefinition.getName()),
+                        belongsToEntityId.intValue()));
+            }
+
+            if (filtersEnabled) {
+                GridComponentFilterUtils.addFilters(filters, columns, getDataDefinition(), criteria);
+            }
+
+            if (multiSearchEnabled) {
+                GridComponentFilterUtils.addMultiSearchFilter(multiSearchFilter, columns, getDataDefinition(), criteria);
+            }
+
+            if (customRestriction != null) {
+                customRestriction.addRestriction(criteria);
+            }
+
+            if (activable && onlyActive) {
+                criteria.add(SearchRestrictions.eq("active", true));
+            }
+            if (activable && onlyInactive) {
+                criteria.add(SearchRestrictions.eq("active", false));
+            }
+
+            addOrder(criteria);
+
+            if (paged) {
+                addPaging(criteria);
+            }
+
+            if (criteriaModifier != null) {
+                criteriaModifier.modifyCriteria(criteria, criteriaModifierParameter);
+            }
+
+            return criteria;
+        }
+
+        private SearchResult list(final SearchCriteriaBuilder criteria) {
+            if (searchResultCache == null) {
+                return criteria.list();
+            }
+            return searchResultCache.list(criteria);
         }
 
         private void clear() {
@@ -897,7 +1023,7 @@ public final class GridComponentState extends AbstractComponentState implements
     public Map<String, String> getColumnNames() {
         Map<String, String> names = new LinkedHashMap<String, String>();
 
-        for (GridComponentColumn column : pattern.filterColumnsWithAccess(columns.values())){
+        for (GridComponentColumn column : getColumnsWithAccess()){
             if (column.isHidden()) {
                 continue;
             }
@@ -927,6 +1053,37 @@ public final class GridComponentState extends AbstractComponentState implements
         return getColumnValues(ExportMode.SELECTED);
     }
 
+    @Override
+    public void scrollColumnValuesOfAllRecords(final Consumer<Map<String, String>> consumer) {
+        scrollColumnValues(null, consumer);
+    }
+
+    @Override
+    public void scrollColumnValuesOfSelectedRecords(final Consumer<Map<String, String>> consumer) {
+        if (!getSelectedEntitiesIds().isEmpty()) {
+            scrollColumnValues(getSelectedEntitiesIds(), consumer);
+        }
+    }
+
+    @Override
+    public long countAllRecords() {
+        return eventPerformer.count();
+    }
+
+    @Override
+    public GridExport createExport() {
+        SearchCriteriaBuilder criteria = eventPerformer.createExportCriteria();
+
+        return new GridComponentExport(getName(), getColumnNames(), getSelectedEntitiesIds(), criteria,
+                getColumnValueFormatters());
+    }
+
+    private void scrollColumnValues(final Set<Long> entityIds, final Consumer<Map<String, String>> consumer) {
+        final List<ColumnValueFormatter> formatters = getColumnValueFormatters();
+
+        eventPerformer.scroll(entityIds, entity -> consumer.accept(convertEntityToMap(entity, formatters)));
+    }
+
     private List<Map<String, String>> getColumnValues(final ExportMode mode) {
         if (entities == null) {
             eventPerformer.reload();
@@ -936,52 +1093,184 @@ public final class GridComponentState extends AbstractComponentState implements
             throw new IllegalStateException("Cannot load entities for grid component");
         }
 
+        List<ColumnValueFormatter> formatters = getColumnValueFormatters();
         List<Map<String, String>> values = new ArrayList<Map<String, String>>();
 
         for (Entity entity : entities) {
             if (mode == ExportMode.ALL || (mode == ExportMode.SELECTED && getSelectedEntitiesIds().contains(entity.getId()))) {
-                values.add(convertEntityToMap(entity));
+                values.add(convertEntityToMap(entity, formatters));
             }
         }
 
         return values;
     }
 
-    private Map<String, String> convertEntityToMap(final Entity entity) {
+    private static Map<String, String> convertEntityToMap(final Entity entity, final List<ColumnValueFormatter> formatters) {
         Map<String, String> values = new LinkedHashMap<String, String>();
-        for (GridComponentColumn column : pattern.filterColumnsWithAccess(columns.values())){
-            if (column.isHidden()) {
-                continue;
+        for (ColumnValueFormatter formatter : formatters) {
+            values.put(formatter.getColumnName(), formatter.format(entity));
+        }
+        return values;
+    }
+
+    private List<ColumnValueFormatter> getColumnValueFormatters() {
+        List<ColumnValueFormatter> formatters = new ArrayList<ColumnValueFormatter>();
+        for (GridComponentColumn column : getColumnsWithAccess()) {
+            if (!column.isHidden()) {
+                formatters.add(new ColumnValueFormatter(column, getDataDefinition(), getTranslationService(), getLocale()));
             }
-            if (column.getFields().get(0).getType() instanceof EnumType) {
-                String fieldValue = column.getValue(entity, getLocale());
-
-                StringBuffer localeString = new StringBuffer();
-                localeString.append(getDataDefinition().getPluginIdentifier());
-                localeString.append('.');
-                localeString.append(getDataDefinition().getName());
-                localeString.append('.');
-                localeString.append(column.getName());
-                localeString.append(".value.");
-                localeString.append(fieldValue);
-
-                values.put(column.getName(), getTranslationService().translate(localeString.toString(), getLocale()));
-            } else if (column.getFields().get(0).getType().getType().equals(Boolean.class)) {
-                String fieldValue = column.getValue(entity, getLocale());
-                if (fieldValue != null) {
-                    if (fieldValue.equals("1")) {
-                        values.put(column.getName(), getTranslationService().translate("qcadooView.true", getLocale()));
-                    } else {
-                        values.put(column.getName(), getTranslationService().translate("qcadooView.false", getLocale()));
-                    }
+        }
+        return formatters;
+    }
+
+    /**
+     * Converts values of the single column to the exported form. Translations of the booleans and enum values are resolved once
+     * per export instead of once per cell. Formatter doesn't refer to the grid state, so it can be used by the background export.
+     */
+    private static final class ColumnValueFormatter {
+
+        private final GridComponentColumn column;
+
+        private final TranslationService translationService;
+
+        private final Locale locale;
+
+        private final boolean enumColumn;
+
+        private final boolean booleanColumn;
+
+        private final String enumTranslationPrefix;
+
+        private final Map<String, String> enumTranslations = new HashMap<String, String>();
+
+        private final String trueTranslation;
+
+        private final String falseTranslation;
+
+        private ColumnValueFormatter(final GridComponentColumn column, final DataDefinition dataDefinition,
+                final TranslationService translationService, final Locale locale) {
+            this.column = column;
+            this.translationService = translationService;
+            this.locale = locale;
+
+            FieldType fieldType = column.getFields().get(0).getType();
+
+            this.enumColumn = fieldType instanceof EnumType;
+            this.booleanColumn = !enumColumn && fieldType.getType().equals(Boolean.class);
+
+            if (enumColumn) {
+                this.enumTranslationPrefix = dataDefinition.getPluginIdentifier() + "." + dataDefinition.getName() + "."
+                        + column.getName() + ".value.";
+            } else {
+                this.enumTranslationPrefix = null;
+            }
+
+            if (booleanColumn) {
+                this.trueTranslation = translationService.translate("qcadooView.true", locale);
+                this.falseTranslation = translationService.translate("qcadooView.false", locale);
+            } else {
+                this.trueTranslation = null;
+                this.falseTranslation = null;
+            }
+        }
+
+        private String getColumnName() {
+            return column.getName();
+        }
+
+        private String format(final Entity entity) {
+            String fieldValue = column.getValue(entity, locale);
+
+            if (enumColumn) {
+                String translation = enumTranslations.get(fieldValue);
+
+                if (translation == null) {
+                    translation = translationService.translate(enumTranslationPrefix + fieldValue, locale);
+                    enumTranslations.put(fieldValue, translation);
+                }
+
+                return translation;
+            } else if (booleanColumn) {
+                if (fieldValue == null) {
+                    return "";
+                } else if (fieldValue.equals("1")) {
+                    return trueTranslation;
                 } else {
-                    values.put(column.getName(), "");
+                    return falseTranslation;
                 }
             } else {
-                values.put(column.getName(), column.getValue(entity, getLocale()));
+                return fieldValue;
             }
         }
-        return values;
+
+    }
+
+    /**
+     * Export of the grid which holds its own copy of the criteria, columns and selection.
+     */
+    private static final class GridComponentExport implements GridExport {
+
+        private final String name;
+
+        private final Map<String, String> columnNames;
+
+        private final Set<Long> selectedEntitiesIds;
+
+        private final SearchCriteriaBuilder criteria;
+
+        private final List<ColumnValueFormatter> formatters;
+
+        private GridComponentExport(final String name, final Map<String, String> columnNames,
+                final Set<Long> selectedEntitiesIds, final SearchCriteriaBuilder criteria,
+                final List<ColumnValueFormatter> formatters) {
+            this.name = name;
+            this.columnNames = Collections.unmodifiableMap(new LinkedHashMap<String, String>(columnNames));
+            if (selectedEntitiesIds == null) {
+                this.selectedEntitiesIds = Collections.emptySet();
+            } else {
+                this.selectedEntitiesIds = Collections.unmodifiableSet(new HashSet<Long>(selectedEntitiesIds));
+            }
+            this.criteria = criteria;
+            this.formatters = Collections.unmodifiableList(formatters);
+
+            if (criteria != null && !this.selectedEntitiesIds.isEmpty()) {
+                criteria.add(SearchRestrictions.in("id", this.selectedEntitiesIds));
+            }
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Map<String, String> getColumnNames() {
+            return columnNames;
+        }
+
+        @Override
+        public Set<Long> getSelectedEntitiesIds() {
+            return selectedEntitiesIds;
+        }
+
+        @Override
+        public long count() {
+            if (criteria == null) {
+                return 0;
+            }
+            if (!selectedEntitiesIds.isEmpty()) {
+                return selectedEntitiesIds.size();
+            }
+            return criteria.count();
+        }
+
+        @Override
+        public void scroll(final Consumer<Map<String, String>> consumer) {
+            if (criteria != null) {
+                criteria.scroll(SCROLL_FETCH_SIZE, entity -> consumer.accept(convertEntityToMap(entity, formatters)));
+            }
+        }
+
     }
 
     private void copyFieldValidationMessages(final Entity messagesSource) {
@@ -0,0 +1,124 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.components.lookup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Throwables;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.SearchResult;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+/**
+ * Coalesces identical autocomplete searches which are executed at the same time. Lookup fires search for every typed character,
+ * so the same query is often requested concurrently (e.g. by the repeated requests or by the users working with the same
+ * lookup). Only the first request queries the database, the other ones wait for its result. Each caller gets its own copies of
+ * the found entities, so they can be modified independently. Results aren't cached after the search finishes.
+ */
+@Service
+public class AutocompleteSearchCoalescer {
+
+    @Autowired
+    private MultiTenantService multiTenantService;
+
+    private final ConcurrentMap<List<Object>, FutureTask<SearchResult>> searches = new ConcurrentHashMap<List<Object>, FutureTask<SearchResult>>();
+
+    public SearchResult search(final List<Object> query, final Callable<SearchResult> search) {
+        List<Object> key = Arrays.asList(multiTenantService.getCurrentTenantId(), getCurrentUserName(), query);
+
+        FutureTask<SearchResult> task = new FutureTask<SearchResult>(search);
+        FutureTask<SearchResult> runningTask = searches.putIfAbsent(key, task);
+
+        if (runningTask == null) {
+            try {
+                task.run();
+            } finally {
+                searches.remove(key, task);
+            }
+
+            runningTask = task;
+        }
+
+        try {
+            return copyOf(runningTask.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Autocomplete search has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private SearchResult copyOf(final SearchResult result) {
+        List<Entity> entities = new ArrayList<Entity>(result.getEntities().size());
+
+        for (Entity entity : result.getEntities()) {
+            entities.add(entity.copy());
+        }
+
+        return new CopiedSearchResult(entities, result.getTotalNumberOfEntities());
+    }
+
+    private String getCurrentUserName() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        return authentication == null ? null : authentication.getName();
+    }
+
+    private static final class CopiedSearchResult implements SearchResult {
+
+        private final List<Entity> entities;
+
+        private final int totalNumberOfEntities;
+
+        private CopiedSearchResult(final List<Entity> entities, final int totalNumberOfEntities) {
+            this.entities = entities;
+            this.totalNumberOfEntities = totalNumberOfEntities;
+        }
+
+        @Override
+        public List<Entity> getEntities() {
+            return entities;
+        }
+
+        @Override
+        public int getTotalNumberOfEntities() {
+            return totalNumberOfEntities;
+        }
+
+    }
+
+}
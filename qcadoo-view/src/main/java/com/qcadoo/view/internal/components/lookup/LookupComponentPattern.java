@@ -40,6 +40,7 @@ import com.google.common.collect.ImmutableMap;
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.FieldDefinition;
 import com.qcadoo.model.api.types.JoinFieldHolder;
+import com.qcadoo.model.api.utils.AutocompleteKeyService;
 import com.qcadoo.view.api.ComponentState;
 import com.qcadoo.view.api.ribbon.RibbonActionItem.Type;
 import com.qcadoo.view.internal.ComponentDefinition;
@@ -90,6 +91,12 @@ public class LookupComponentPattern extends FieldComponentPattern {
 
     private boolean onlyActive = true;
 
+    private boolean autocompleteIndex = false;
+
+    private AutocompleteKeyService autocompleteKeyService;
+
+    private AutocompleteSearchCoalescer autocompleteSearchCoalescer;
+
     private ModalDimensions modalDimensions;
 
     private InternalViewDefinition lookupViewDefinition;
@@ -160,6 +167,8 @@ public class LookupComponentPattern extends FieldComponentPattern {
                 prioritizable = Boolean.parseBoolean(option.getValue());
             } else if ("onlyActive".equals(option.getType())) {
                 onlyActive = Boolean.parseBoolean(option.getValue());
+            } else if ("autocompleteIndex".equals(option.getType())) {
+                autocompleteIndex = Boolean.parseBoolean(option.getValue());
             } else if ("textRepresentationOnDisabled".equals(option.getType())) {
                 textRepresentationOnDisabled = Boolean.parseBoolean(option.getValue());
             } else if ("boldTextRepresentationOnDisabled".equals(option.getType())) {
@@ -174,6 +183,11 @@ public class LookupComponentPattern extends FieldComponentPattern {
         checkState(hasText(fieldCode), "Missing fieldCode for lookup");
         checkState(hasText(expression), "Missing expression for lookup");
 
+        if (autocompleteIndex) {
+            autocompleteKeyService = getApplicationContext().getBean(AutocompleteKeyService.class);
+            autocompleteSearchCoalescer = getApplicationContext().getBean(AutocompleteSearchCoalescer.class);
+        }
+
         String viewName = getViewName();
 
         DataDefinition dataDefinition = getDataDefinition();
@@ -385,4 +399,16 @@ public class LookupComponentPattern extends FieldComponentPattern {
         return onlyActive;
     }
 
+    public AutocompleteKeyService getAutocompleteKeyService() {
+        return autocompleteKeyService;
+    }
+
+    public AutocompleteSearchCoalescer getAutocompleteSearchCoalescer() {
+        return autocompleteSearchCoalescer;
+    }
+
+    public String getAutocompleteSearchName() {
+        return getViewName();
+    }
+
 }
@@ -23,6 +23,7 @@
  */
 package com.qcadoo.view.internal.components.lookup;
 
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -40,6 +41,7 @@ import com.qcadoo.model.api.search.SearchRestrictions;
 import com.qcadoo.model.api.search.SearchRestrictions.SearchMatchMode;
 import com.qcadoo.model.api.search.SearchResult;
 import com.qcadoo.model.api.types.BelongsToType;
+import com.qcadoo.model.api.utils.AutocompleteKeyService;
 import com.qcadoo.view.api.components.LookupComponent;
 import com.qcadoo.view.api.components.lookup.FilterValueHolder;
 import com.qcadoo.view.internal.CriteriaModifier;
@@ -107,7 +109,13 @@ public final class LookupComponentState extends FieldComponentState implements L
     private final CriteriaModifier criteriaModifier;
 
     private final FilterValueHolder criteriaModifierParameter;
-    
+
+    private final AutocompleteKeyService autocompleteKeyService;
+
+    private final AutocompleteSearchCoalescer autocompleteSearchCoalescer;
+
+    private final String autocompleteSearchName;
+
     public LookupComponentState(final FieldDefinition scopeField, final String fieldCode, final String expression,
             final LookupComponentPattern pattern) {
         super(pattern);
@@ -117,6 +125,9 @@ public final class LookupComponentState extends FieldComponentState implements L
         this.criteriaModifier = pattern.getCriteriaModifier();
         this.criteriaModifierParameter = this.criteriaModifier != null ? new FilterValueHolderImpl() : null;
         this.onlyActive = pattern.isOnlyActive();
+        this.autocompleteKeyService = pattern.getAutocompleteKeyService();
+        this.autocompleteSearchCoalescer = pattern.getAutocompleteSearchCoalescer();
+        this.autocompleteSearchName = pattern.getAutocompleteSearchName();
         registerEvent("initialize", eventPerformer, "initialize");
         registerEvent("autompleteSearch", eventPerformer, "autompleteSearch");
         registerEvent("onSelectedEntityChange", eventPerformer, "onSelectedEntityChange");
@@ -265,8 +276,12 @@ public final class LookupComponentState extends FieldComponentState implements L
             if ((belongsToFieldDefinition == null || belongsToEntityId != null)) {
                 SearchCriteriaBuilder searchCriteriaBuilder = getDataDefinition().find();
 
-                if(StringUtils.hasText(currentCode)){
-                    searchCriteriaBuilder.add(SearchRestrictions.ilike(fieldCode, currentCode, SearchMatchMode.ANYWHERE));
+                if (StringUtils.hasText(currentCode)) {
+                    if (autocompleteKeyService == null) {
+                        searchCriteriaBuilder.add(SearchRestrictions.ilike(fieldCode, currentCode, SearchMatchMode.ANYWHERE));
+                    } else {
+                        searchCriteriaBuilder.add(autocompleteKeyService.startsWith(getDataDefinition(), fieldCode, currentCode));
+                    }
                 }
                 
                 if (belongsToFieldDefinition != null && belongsToEntityId != null
@@ -292,8 +307,8 @@ public final class LookupComponentState extends FieldComponentState implements L
                 }
 
                 searchCriteriaBuilder.setMaxResults(25);
-                
-                SearchResult results = searchCriteriaBuilder.list();
+
+                SearchResult results = search(searchCriteriaBuilder);
 
                 autocompleteEntitiesNumber = results.getTotalNumberOfEntities();
 
@@ -316,6 +331,22 @@ public final class LookupComponentState extends FieldComponentState implements L
             requestRender();
         }
 
+        private SearchResult search(final SearchCriteriaBuilder searchCriteriaBuilder) {
+            if (autocompleteSearchCoalescer == null) {
+                return searchCriteriaBuilder.list();
+            }
+
+            String code = autocompleteKeyService == null ? currentCode : autocompleteKeyService.normalize(currentCode);
+            String criteriaModifierParameterValue = criteriaModifierParameter == null ? null : criteriaModifierParameter
+                    .toJSON().toString();
+
+            List<Object> query = Arrays.asList(autocompleteSearchName, getDataDefinition().getPluginIdentifier(),
+                    getDataDefinition().getName(), code, belongsToEntityId, onlyActive, oldSelectedEntityId,
+                    criteriaModifierParameterValue);
+
+            return autocompleteSearchCoalescer.search(query, searchCriteriaBuilder::list);
+        }
+
         public void onSelectedEntityChange(final String[] args) {
             notifyEntityIdChangeListeners(getFieldValue());
         }
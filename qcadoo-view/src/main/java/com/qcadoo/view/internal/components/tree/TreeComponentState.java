@@ -44,7 +44,6 @@ import com.qcadoo.model.api.EntityTree;
 import com.qcadoo.model.api.EntityTreeNode;
 import com.qcadoo.model.api.FieldDefinition;
 import com.qcadoo.model.api.expression.ExpressionUtils;
-import com.qcadoo.model.api.search.SearchCriteriaBuilder;
 import com.qcadoo.model.api.search.SearchRestrictions;
 import com.qcadoo.model.api.types.TreeType;
 import com.qcadoo.model.api.utils.TreeNumberingServiceImpl;
@@ -255,8 +254,7 @@ public final class TreeComponentState extends FieldComponentState implements Tre
         if (tree instanceof DetachedEntityTreeImpl) {
             return ((DetachedEntityTreeImpl) tree).checkIfTreeContainsEntity(entityId);
         }
-        SearchCriteriaBuilder searchBuilder = tree.find().add(SearchRestrictions.idEq(entityId));
-        return searchBuilder.list().getTotalNumberOfEntities() > 0;
+        return tree.find().add(SearchRestrictions.idEq(entityId)).exists();
     }
 
     /*
@@ -23,14 +23,12 @@
  */
 package com.qcadoo.view.internal.controllers;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -39,6 +37,7 @@ import org.springframework.web.bind.annotation.RequestMethod;
 
 import com.qcadoo.model.api.file.FileService;
 import com.qcadoo.tenant.api.MultiTenantUtil;
+import com.qcadoo.view.api.utils.FileDownloadWriter;
 
 @Controller
 public class FileResolverController {
@@ -46,6 +45,9 @@ public class FileResolverController {
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private FileDownloadWriter fileDownloadWriter;
+
     @RequestMapping(value = "{tenantId:\\d+}/{firstLevel:\\d+}/{secondLevel:\\d+}/{fileName}", method = RequestMethod.GET)
     public void resolve(final HttpServletRequest request, final HttpServletResponse response,
             @PathVariable("tenantId") final String tenantId) {
@@ -53,30 +55,21 @@ public class FileResolverController {
 
         boolean removeFileAfterProcessing = request.getParameterMap().containsKey("clean");
 
-        if (Integer.valueOf(tenantId) != MultiTenantUtil.getCurrentTenantId()) {
-            try {
+        try {
+            if (Integer.valueOf(tenantId) != MultiTenantUtil.getCurrentTenantId()) {
                 response.sendRedirect("/error.html?code=404");
-            } catch (IOException e) {
-                throw new IllegalStateException(e.getMessage(), e);
+                return;
             }
-        }
-
-        InputStream input = null;
 
-        try {
-            input = fileService.getInputStream(path);
+            File file = new File(path);
 
-            if (input == null) {
+            if (!file.isFile()) {
                 response.sendRedirect("/error.html?code=404");
             } else {
                 response.setHeader("Content-disposition", "inline; filename=" + fileService.getName(path));
-                response.setContentType(fileService.getContentType(path));
-                OutputStream output = response.getOutputStream();
-                IOUtils.copy(input, output);
-                output.flush();
+                fileDownloadWriter.write(file, fileService.getContentType(path), !removeFileAfterProcessing, request, response);
             }
         } catch (IOException e) {
-            IOUtils.closeQuietly(input);
             throw new IllegalStateException(e.getMessage(), e);
         }
 
@@ -56,6 +56,9 @@ public class CrudController {
     @Value("${useCompressedStaticResources}")
     private boolean useCompressedStaticResources;
 
+    @Value("${useStreamingJsonRendering:true}")
+    private boolean useStreamingJsonRendering;
+
     @Monitorable(threshold = 500)
     @RequestMapping(value = CONTROLLER_PATH, method = RequestMethod.GET)
     public ModelAndView prepareView(@PathVariable(PLUGIN_IDENTIFIER_VARIABLE) final String pluginIdentifier,
@@ -72,6 +75,10 @@ public class CrudController {
     @RequestMapping(value = { CONTROLLER_PATH }, method = RequestMethod.POST)
     public Object performEvent(@PathVariable(PLUGIN_IDENTIFIER_VARIABLE) final String pluginIdentifier,
             @PathVariable(VIEW_NAME_VARIABLE) final String viewName, @RequestBody final JSONObject body, final Locale locale) {
+        if (useStreamingJsonRendering) {
+            // rendered directly to the response by ComponentStateHttpMessageConverter
+            return crudService.invokeEvent(pluginIdentifier, viewName, body, locale);
+        }
         return crudService.invokeEventAndRenderView(pluginIdentifier, viewName, body, locale);
     }
 
@@ -32,12 +32,16 @@ import com.qcadoo.view.api.ViewDefinitionState;
 import com.qcadoo.view.api.ribbon.RibbonActionItem.Type;
 import com.qcadoo.view.internal.api.ComponentPattern;
 import com.qcadoo.view.internal.api.ContainerPattern;
+import com.qcadoo.view.internal.api.InternalComponentState;
 import com.qcadoo.view.internal.api.InternalViewDefinition;
 import com.qcadoo.view.internal.api.InternalViewDefinitionService;
+import com.qcadoo.view.internal.api.PreparedViewCache;
 import com.qcadoo.view.internal.components.window.WindowComponentPattern;
+import com.qcadoo.view.internal.components.window.WindowComponentState;
 import com.qcadoo.view.internal.hooks.AbstractViewHookDefinition;
 import com.qcadoo.view.internal.hooks.HookType;
 import com.qcadoo.view.internal.patterns.AbstractComponentPattern;
+import com.qcadoo.view.internal.ribbon.RibbonUtils;
 import com.qcadoo.view.internal.ribbon.model.*;
 import com.qcadoo.view.internal.states.AbstractComponentState;
 import org.json.JSONArray;
@@ -75,11 +79,9 @@ public final class ViewDefinitionImpl implements InternalViewDefinition {
 
     private boolean alreadyHasNavigation;
 
-    private boolean permanentlyDisabled;
-
     private RibbonGroupsPack ribbonNavigationGroupPack;
-    
-    private JSONObject jsonContext;
+
+    private PreparedViewCache preparedViewCache;
 
     public ViewDefinitionImpl(final String name, final String pluginIdentifier, final DataDefinition dataDefinition,
             final boolean menuAccessible, final TranslationService translationService) {
@@ -131,21 +133,36 @@ public final class ViewDefinitionImpl implements InternalViewDefinition {
         initAdditionalNavigation();
     }
 
+    public void setPreparedViewCache(final PreparedViewCache preparedViewCache) {
+        this.preparedViewCache = preparedViewCache;
+    }
+
     @Override
     public Map<String, Object> prepareView(final JSONObject jsonObject, final Locale locale) {
         viewHooksHolder.callConstructionHooks(this, jsonObject, locale);
 
+        final boolean showBack = getBooleanFromJson(jsonObject, "window.showBack");
+        final boolean permanentlyDisabled = getBooleanFromJson(jsonObject, "window."
+                + AbstractComponentState.JSON_PERMANENTLY_DISABLED);
+
+        if (preparedViewCache == null || viewHooksHolder.hasConstructionHooks()) {
+            return createModel(locale, showBack, permanentlyDisabled);
+        }
+
+        return preparedViewCache.get(this, locale, showBack, permanentlyDisabled, () -> createModel(locale, showBack,
+                permanentlyDisabled));
+    }
+
+    private Map<String, Object> createModel(final Locale locale, final boolean showBack, final boolean permanentlyDisabled) {
         Map<String, Object> model = Maps.newHashMap();
         Map<String, Object> childrenModels = Maps.newHashMap();
 
-        toggleAdditionalNavigationGroup(getBooleanFromJson(jsonObject, "window.showBack"));
-        permanentlyDisabled = getBooleanFromJson(jsonObject, "window." + AbstractComponentState.JSON_PERMANENTLY_DISABLED);
-        toggleRibbonPermanentlyDisabled();
-
         for (ComponentPattern componentPattern : patterns.values()) {
             childrenModels.put(componentPattern.getName(), componentPattern.prepareView(locale));
         }
 
+        overrideRibbon(childrenModels, locale, showBack, permanentlyDisabled);
+
         model.put(JSON_COMPONENTS, childrenModels);
         model.put(JSON_JS_FILE_PATHS, getJsFilePaths());
 
@@ -171,6 +188,33 @@ public final class ViewDefinitionImpl implements InternalViewDefinition {
         return model;
     }
 
+    // TODO MAKU move additional navigation to template
+    @SuppressWarnings("unchecked")
+    private void overrideRibbon(final Map<String, Object> childrenModels, final Locale locale, final boolean showBack,
+            final boolean permanentlyDisabled) {
+        InternalRibbon ribbon = getRibbon();
+        boolean addNavigation = showBack && !alreadyHasNavigation && ribbonNavigationGroupPack != null;
+
+        if (ribbon == null || !(addNavigation || permanentlyDisabled) || !childrenModels.containsKey("window")) {
+            return;
+        }
+
+        InternalRibbon ribbonCopy = ribbon.getCopy();
+        if (addNavigation) {
+            ribbonCopy.addGroupPackAsFirst(ribbonNavigationGroupPack.getCopy());
+        }
+        ribbonCopy.setPermanentlyDisabled(permanentlyDisabled);
+
+        Map<String, Object> windowModel = (Map<String, Object>) childrenModels.get("window");
+
+        try {
+            ((JSONObject) windowModel.get("jsOptions")).put("ribbon",
+                    RibbonUtils.translateRibbon(ribbonCopy, locale, (WindowComponentPattern) patterns.get("window")));
+        } catch (JSONException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
     private boolean getBooleanFromJson(final JSONObject jsonObject, final String fieldName) {
         try {
             return jsonObject.has(fieldName) && !jsonObject.isNull(fieldName) && jsonObject.getBoolean(fieldName);
@@ -206,35 +250,13 @@ public final class ViewDefinitionImpl implements InternalViewDefinition {
         ribbonNavigationGroupPack = new SingleRibbonGroupPack(additionalNavigationGroup);
     }
 
-    // TODO MAKU move additional navigation to template
-    private void toggleAdditionalNavigationGroup(final boolean showBack) {
-        InternalRibbon ribbon = getRibbon();
-        if (ribbon == null || alreadyHasNavigation) {
-            return;
-        }
-        if (!showBack) {
-            ribbon.removeGroupsPack(ribbonNavigationGroupPack);
-            return;
-        }
-        if (ribbon.getGroupByName("navigation") == null) {
-            ribbon.addGroupPackAsFirst(ribbonNavigationGroupPack);
-        }
-    }
-
-    private void toggleRibbonPermanentlyDisabled() {
-        InternalRibbon ribbon = getRibbon();
-        if (ribbon != null) {
-            ribbon.setPermanentlyDisabled(permanentlyDisabled);
-        }
-    }
-
     @Override
     public ViewDefinitionState performEvent(final JSONObject jsonObject, final Locale locale) throws JSONException {
         viewHooksHolder.callConstructionHooks(this, jsonObject, locale);
 
         ViewDefinitionStateImpl viewDefinitionState = new ViewDefinitionStateImpl();
         viewDefinitionState.setTranslationService(translationService);
-        viewDefinitionState.setJsonContext(getJsonContext());
+        viewDefinitionState.setJsonContext(getJsonContext(jsonObject));
 
         JSONObject eventJson = jsonObject.getJSONObject(JSON_EVENT);
         String eventName = eventJson.getString(JSON_EVENT_NAME);
@@ -243,8 +265,17 @@ public final class ViewDefinitionImpl implements InternalViewDefinition {
 
         viewDefinitionState.setViewAfterRedirect(eventName.startsWith("redirect") || eventName.startsWith("initialize"));
 
+        JSONObject windowContext = getComponentContext(jsonObject, "window");
+        boolean showBack = windowContext != null && windowContext.optBoolean("showBack");
+        boolean permanentlyDisabled = windowContext != null
+                && windowContext.optBoolean(AbstractComponentState.JSON_PERMANENTLY_DISABLED);
+
         for (ComponentPattern cp : patterns.values()) {
-            viewDefinitionState.addChild(cp.createComponentState(viewDefinitionState));
+            InternalComponentState componentState = cp.createComponentState(viewDefinitionState);
+            if (showBack && componentState instanceof WindowComponentState) {
+                addAdditionalNavigation((InternalRibbon) ((WindowComponentState) componentState).getRibbon());
+            }
+            viewDefinitionState.addChild(componentState);
         }
 
         viewHooksHolder.callLifecycleHooks(HookType.BEFORE_INITIALIZE, viewDefinitionState);
@@ -274,6 +305,58 @@ public final class ViewDefinitionImpl implements InternalViewDefinition {
         return viewDefinitionState;
     }
 
+    private void addAdditionalNavigation(final InternalRibbon ribbon) {
+        if (ribbon == null || alreadyHasNavigation || ribbonNavigationGroupPack == null
+                || ribbon.getGroupByName("navigation") != null) {
+            return;
+        }
+        ribbon.addGroupPackAsFirst(ribbonNavigationGroupPack.getCopy());
+    }
+
+    private JSONObject getComponentContext(final JSONObject jsonObject, final String componentName) {
+        JSONObject components = jsonObject.optJSONObject(JSON_COMPONENTS);
+        if (components == null) {
+            return null;
+        }
+        JSONObject component = components.optJSONObject(componentName);
+        if (component == null) {
+            return null;
+        }
+        return component.optJSONObject(AbstractComponentState.JSON_CONTEXT);
+    }
+
+    private JSONObject getJsonContext(final JSONObject jsonObject) throws JSONException {
+        JSONObject jsonContext = new JSONObject();
+        collectJsonContext(jsonObject.optJSONObject(JSON_COMPONENTS), null, jsonContext);
+        return jsonContext;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collectJsonContext(final JSONObject components, final String parentPath, final JSONObject jsonContext)
+            throws JSONException {
+        if (components == null) {
+            return;
+        }
+        Iterator<String> names = components.keys();
+        while (names.hasNext()) {
+            String name = names.next();
+            JSONObject component = components.optJSONObject(name);
+            if (component == null) {
+                continue;
+            }
+            String path = parentPath == null ? name : parentPath + "." + name;
+            JSONObject context = component.optJSONObject(AbstractComponentState.JSON_CONTEXT);
+            if (context != null) {
+                Iterator<String> fields = context.keys();
+                while (fields.hasNext()) {
+                    String field = fields.next();
+                    jsonContext.put(path + "." + field, context.get(field));
+                }
+            }
+            collectJsonContext(component.optJSONObject(AbstractComponentState.JSON_CHILDREN), path, jsonContext);
+        }
+    }
+
     public void registerViews(final InternalViewDefinitionService viewDefinitionService) {
         for (ComponentPattern cp : patterns.values()) {
             cp.registerViews(viewDefinitionService);
@@ -403,13 +486,4 @@ public final class ViewDefinitionImpl implements InternalViewDefinition {
         return authorizationRole;
     }
 
-    @Override
-    public JSONObject getJsonContext() {
-        return jsonContext;
-    }
-
-    @Override
-    public void setJsonContext(JSONObject jsonContext) {
-        this.jsonContext = jsonContext;
-    }
 }
@@ -23,6 +23,7 @@
  */
 package com.qcadoo.view.internal.internal;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.base.Optional;
 import com.qcadoo.view.api.ComponentState;
 import com.qcadoo.view.internal.api.ContainerState;
@@ -32,6 +33,7 @@ import com.qcadoo.view.internal.states.AbstractContainerState;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.*;
 
 public final class ViewDefinitionStateImpl extends AbstractContainerState implements InternalViewDefinitionState {
@@ -83,6 +85,21 @@ public final class ViewDefinitionStateImpl extends AbstractContainerState implem
         return json;
     }
 
+    @Override
+    protected void renderFields(final JsonGenerator generator) throws IOException, JSONException {
+        if (redirectToUrl == null) {
+            super.renderFields(generator);
+            return;
+        }
+
+        generator.writeObjectFieldStart("redirect");
+        generator.writeStringField("url", redirectToUrl);
+        generator.writeBooleanField("openInNewWindow", openInNewWindow);
+        generator.writeBooleanField("openInModalWindow", openInModalWindow);
+        generator.writeBooleanField("shouldSerializeWindow", shouldSerializeWindow);
+        generator.writeEndObject();
+    }
+
     @Override
     protected JSONObject renderContent() throws JSONException {
         JSONObject json = new JSONObject();
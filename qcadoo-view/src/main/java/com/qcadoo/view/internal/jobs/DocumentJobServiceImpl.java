@@ -0,0 +1,100 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.qcadoo.model.api.file.FileService;
+import com.qcadoo.view.api.jobs.DocumentJobService;
+import com.qcadoo.view.api.jobs.DocumentWriter;
+import com.qcadoo.view.api.jobs.JobContext;
+import com.qcadoo.view.api.jobs.JobService;
+import com.qcadoo.view.api.jobs.JobTask;
+
+@Service
+public class DocumentJobServiceImpl implements DocumentJobService {
+
+    private static final String L_FILE_NAME_SEPARATOR = "_";
+
+    private static final int L_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private FileService fileService;
+
+    @Override
+    public Long submit(final String poolName, final String fileName, final DocumentWriter writer) {
+        return jobService.submit(poolName, fileName, new JobTask() {
+
+            @Override
+            public void execute(final JobContext context) throws Exception {
+                File file = fileService.createReportFile(context.getJobId() + L_FILE_NAME_SEPARATOR + fileName);
+                OutputStream outputStream = null;
+                boolean written = false;
+
+                try {
+                    outputStream = new BufferedOutputStream(new FileOutputStream(file), L_BUFFER_SIZE);
+                    writer.write(outputStream, context);
+                    outputStream.close();
+
+                    written = !context.isCancelled();
+                } finally {
+                    IOUtils.closeQuietly(outputStream);
+
+                    if (!written) {
+                        FileUtils.deleteQuietly(file);
+                    }
+                }
+
+                if (written) {
+                    context.setResult(file.getAbsolutePath());
+                }
+            }
+
+        });
+    }
+
+    @Override
+    public String getDownloadUrl(final Long jobId) {
+        return "/jobs/" + jobId + "/download";
+    }
+
+    /**
+     * Checks if given job result is the document written by this service - results of the other jobs aren't files.
+     */
+    static boolean isDocument(final Long jobId, final String result) {
+        return result != null && new File(result).getName().startsWith(jobId + L_FILE_NAME_SEPARATOR);
+    }
+
+}
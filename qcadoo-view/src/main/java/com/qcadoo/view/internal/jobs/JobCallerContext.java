@@ -0,0 +1,72 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import java.util.Locale;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.qcadoo.tenant.api.MultiTenantCallback;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+/**
+ * Tenant, user and locale of the thread which submitted the job, restored in the worker thread.
+ */
+final class JobCallerContext {
+
+    private final int tenantId;
+
+    private final Authentication authentication;
+
+    private final Locale locale;
+
+    private JobCallerContext(final int tenantId, final Authentication authentication, final Locale locale) {
+        this.tenantId = tenantId;
+        this.authentication = authentication;
+        this.locale = locale;
+    }
+
+    static JobCallerContext capture(final MultiTenantService multiTenantService) {
+        return new JobCallerContext(multiTenantService.getCurrentTenantId(), SecurityContextHolder.getContext()
+                .getAuthentication(), LocaleContextHolder.getLocale());
+    }
+
+    void execute(final MultiTenantService multiTenantService, final MultiTenantCallback callback) {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        LocaleContextHolder.setLocale(locale);
+
+        try {
+            multiTenantService.doInMultiTenantContext(tenantId, callback);
+        } finally {
+            SecurityContextHolder.clearContext();
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+
+}
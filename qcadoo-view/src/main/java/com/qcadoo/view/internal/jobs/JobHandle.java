@@ -0,0 +1,142 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.qcadoo.view.api.jobs.JobCancelledException;
+import com.qcadoo.view.api.jobs.JobContext;
+
+final class JobHandle implements JobContext {
+
+    private static final int QUEUED = 0;
+
+    private static final int RUNNING = 1;
+
+    private static final int DONE = 2;
+
+    private final Long jobId;
+
+    private final JobRegistry jobRegistry;
+
+    private final long submitTime = System.nanoTime();
+
+    private final AtomicInteger status = new AtomicInteger(QUEUED);
+
+    private volatile boolean cancelled;
+
+    private volatile int progress;
+
+    private volatile String result;
+
+    private volatile Future<?> future;
+
+    JobHandle(final Long jobId, final JobRegistry jobRegistry) {
+        this.jobId = jobId;
+        this.jobRegistry = jobRegistry;
+    }
+
+    @Override
+    public Long getJobId() {
+        return jobId;
+    }
+
+    @Override
+    public void updateProgress(final long done, final long total) {
+        int newProgress = 0;
+        if (total > 0) {
+            newProgress = (int) (Math.min(Math.max(done, 0), total) * 100 / total);
+        }
+        if (newProgress != progress) {
+            progress = newProgress;
+            jobRegistry.updateProgress(jobId, newProgress);
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new JobCancelledException(jobId);
+        }
+    }
+
+    @Override
+    public void setResult(final String result) {
+        this.result = result;
+    }
+
+    String getResult() {
+        return result;
+    }
+
+    long getSubmitTime() {
+        return submitTime;
+    }
+
+    void setFuture(final Future<?> future) {
+        this.future = future;
+    }
+
+    boolean start() {
+        return status.compareAndSet(QUEUED, RUNNING);
+    }
+
+    void finish() {
+        status.set(DONE);
+    }
+
+    /**
+     * Cancels the job if it is still waiting in the queue.
+     *
+     * @return true if job was removed from the queue and won't be executed
+     */
+    boolean cancelQueued() {
+        if (!status.compareAndSet(QUEUED, DONE)) {
+            return false;
+        }
+        cancelled = true;
+        Future<?> queuedFuture = future;
+        if (queuedFuture != null) {
+            queuedFuture.cancel(false);
+        }
+        return true;
+    }
+
+    /**
+     * Requests cancellation of the running job.
+     *
+     * @return true if job is still running
+     */
+    boolean requestCancel() {
+        cancelled = true;
+        return status.get() == RUNNING;
+    }
+
+}
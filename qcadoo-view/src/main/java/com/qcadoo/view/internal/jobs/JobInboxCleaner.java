@@ -0,0 +1,146 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import java.io.File;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.qcadoo.tenant.api.MultiTenantCallback;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+/**
+ * Removes jobs finished more than jobResultRetentionHours ago, together with their documents. Jobs left queued or running by
+ * the previous run of the application are marked as failed first, so they are removed as well. Cleanup runs every
+ * jobResultCleanupIntervalMinutes for all tenants.
+ */
+@Service
+public class JobInboxCleaner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobInboxCleaner.class);
+
+    private static final String L_INTERRUPTED_MESSAGE = "Job was interrupted by the application restart";
+
+    @Value("${jobResultRetentionHours:24}")
+    private int retentionHours;
+
+    @Value("${jobResultCleanupIntervalMinutes:60}")
+    private int cleanupIntervalMinutes;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private MultiTenantService multiTenantService;
+
+    private ScheduledExecutorService executor;
+
+    private final Date startDate = new Date();
+
+    @PostConstruct
+    public void init() {
+        if (cleanupIntervalMinutes <= 0) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+                Thread thread = new Thread(runnable, "qcadoo-job-inbox-cleaner");
+                thread.setDaemon(true);
+                return thread;
+            }
+
+        });
+        executor.scheduleWithFixedDelay(new Runnable() {
+
+            @Override
+            public void run() {
+                cleanAllTenants();
+            }
+
+        }, cleanupIntervalMinutes, cleanupIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void cleanAllTenants() {
+        try {
+            multiTenantService.doInMultiTenantContext(new MultiTenantCallback() {
+
+                @Override
+                public void invoke() {
+                    clean();
+                }
+
+            });
+        } catch (RuntimeException e) {
+            // exception would cancel all subsequent runs
+            LOG.warn("Cannot remove expired jobs", e);
+        }
+    }
+
+    void clean() {
+        int interruptedJobs = jobRegistry.failUnfinishedSubmittedBefore(startDate, L_INTERRUPTED_MESSAGE);
+
+        if (interruptedJobs > 0) {
+            LOG.info("Marked " + interruptedJobs + " jobs interrupted by the application restart as failed");
+        }
+
+        Date date = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours));
+
+        Map<Long, String> results = jobRegistry.removeFinishedBefore(date);
+
+        for (Map.Entry<Long, String> result : results.entrySet()) {
+            if (DocumentJobServiceImpl.isDocument(result.getKey(), result.getValue())) {
+                FileUtils.deleteQuietly(new File(result.getValue()));
+            }
+        }
+
+        if (!results.isEmpty() && LOG.isDebugEnabled()) {
+            LOG.debug("Removed " + results.size() + " jobs finished before " + date);
+        }
+    }
+
+}
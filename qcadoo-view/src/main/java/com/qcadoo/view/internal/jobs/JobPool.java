@@ -0,0 +1,133 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.qcadoo.commons.tasks.DefaultAsyncTaskExecutorWrapper;
+import com.qcadoo.view.api.jobs.JobPoolMetrics;
+
+final class JobPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobPool.class);
+
+    private final String name;
+
+    private final int queueCapacity;
+
+    private final ThreadPoolTaskExecutor threadPoolTaskExecutor;
+
+    private final AsyncTaskExecutor executor;
+
+    private final AtomicLong startedCount = new AtomicLong();
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final AtomicLong queueLatencyTotal = new AtomicLong();
+
+    private final AtomicLong executionTimeTotal = new AtomicLong();
+
+    JobPool(final String name, final int threads, final int queueCapacity) {
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+
+        threadPoolTaskExecutor = new ThreadPoolTaskExecutor();
+        threadPoolTaskExecutor.setCorePoolSize(threads);
+        threadPoolTaskExecutor.setMaxPoolSize(threads);
+        threadPoolTaskExecutor.setQueueCapacity(queueCapacity);
+        threadPoolTaskExecutor.setThreadNamePrefix("qcadoo-job-" + name + "-");
+        threadPoolTaskExecutor.setDaemon(true);
+        threadPoolTaskExecutor.initialize();
+
+        executor = new DefaultAsyncTaskExecutorWrapper(threadPoolTaskExecutor) {
+
+            @Override
+            protected void onException(final Exception ex) {
+                LOG.error("Unexpected exception in job pool " + JobPool.this.name, ex);
+            }
+
+        };
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Future<?> submit(final Runnable task) {
+        try {
+            return executor.submit(task);
+        } catch (TaskRejectedException e) {
+            rejectedCount.incrementAndGet();
+            throw new IllegalStateException("Job pool " + name + " is full (" + queueCapacity + " queued jobs)", e);
+        }
+    }
+
+    void recordStart(final long queueLatencyNanos) {
+        startedCount.incrementAndGet();
+        queueLatencyTotal.addAndGet(queueLatencyNanos);
+    }
+
+    void recordFinish(final long executionTimeNanos, final boolean failed) {
+        executionTimeTotal.addAndGet(executionTimeNanos);
+        if (failed) {
+            failedCount.incrementAndGet();
+        } else {
+            completedCount.incrementAndGet();
+        }
+    }
+
+    JobPoolMetrics getMetrics() {
+        long started = startedCount.get();
+        long finished = completedCount.get() + failedCount.get();
+
+        return new JobPoolMetrics(name, threadPoolTaskExecutor.getPoolSize(), threadPoolTaskExecutor.getActiveCount(),
+                threadPoolTaskExecutor.getThreadPoolExecutor().getQueue().size(), queueCapacity, completedCount.get(),
+                failedCount.get(), rejectedCount.get(), average(queueLatencyTotal.get(), started), average(
+                        executionTimeTotal.get(), finished));
+    }
+
+    private long average(final long totalNanos, final long count) {
+        if (count == 0) {
+            return 0;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(totalNanos / count);
+    }
+
+    void shutdown() {
+        threadPoolTaskExecutor.shutdown();
+    }
+
+}
@@ -0,0 +1,209 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.google.common.collect.Maps;
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.DataDefinitionService;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.SearchOrders;
+import com.qcadoo.model.api.search.SearchRestrictions;
+import com.qcadoo.security.api.UserService;
+import com.qcadoo.view.constants.JobFields;
+import com.qcadoo.view.constants.JobState;
+import com.qcadoo.view.constants.QcadooViewConstants;
+
+/**
+ * Keeps state of the jobs in the qcadooView.job model. Every change is committed in its own transaction, so the job is visible
+ * to the worker thread and to the user before the submitting request finishes.
+ */
+@Service
+public class JobRegistry {
+
+    @Autowired
+    private DataDefinitionService dataDefinitionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Long register(final String poolName, final String jobName) {
+        Entity job = getJobDD().create();
+        job.setField(JobFields.NAME, jobName);
+        job.setField(JobFields.POOL, poolName);
+        job.setField(JobFields.STATE, JobState.QUEUED);
+        job.setField(JobFields.PROGRESS, 0);
+        job.setField(JobFields.USER, userService.getCurrentUserEntity());
+        job.setField(JobFields.SUBMIT_DATE, new Date());
+        job = job.getDataDefinition().save(job);
+
+        if (!job.isValid()) {
+            throw new IllegalStateException("Cannot register job " + jobName + ": " + job.getErrors());
+        }
+        return job.getId();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markRunning(final Long jobId) {
+        Entity job = getJob(jobId);
+        if (job == null) {
+            return;
+        }
+        job.setField(JobFields.STATE, JobState.RUNNING);
+        job.setField(JobFields.START_DATE, new Date());
+        job.getDataDefinition().save(job);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void updateProgress(final Long jobId, final int progress) {
+        Entity job = getJob(jobId);
+        if (job == null) {
+            return;
+        }
+        job.setField(JobFields.PROGRESS, progress);
+        job.getDataDefinition().save(job);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markFinished(final Long jobId, final String state, final String result, final String errorMessage) {
+        Entity job = getJob(jobId);
+        if (job == null) {
+            return;
+        }
+        job.setField(JobFields.STATE, state);
+        if (JobState.FINISHED.equals(state)) {
+            job.setField(JobFields.PROGRESS, 100);
+        }
+        job.setField(JobFields.FINISH_DATE, new Date());
+        job.setField(JobFields.RESULT, result);
+        job.setField(JobFields.ERROR_MESSAGE, errorMessage);
+        job.getDataDefinition().save(job);
+    }
+
+    /**
+     * Returns job of the current user.
+     *
+     * @param jobId
+     *            id of the job
+     * @return job or null if it doesn't exist or belongs to the other user
+     */
+    @Transactional(readOnly = true)
+    public Entity getJobOfCurrentUser(final Long jobId) {
+        Entity job = getJob(jobId);
+        Entity user = userService.getCurrentUserEntity();
+
+        if (job == null || user == null) {
+            return null;
+        }
+
+        Entity owner = job.getBelongsToField(JobFields.USER);
+
+        if (owner == null || !owner.getId().equals(user.getId())) {
+            return null;
+        }
+
+        return job;
+    }
+
+    /**
+     * Returns jobs of the current user, the newest first.
+     *
+     * @return jobs
+     */
+    @Transactional(readOnly = true)
+    public List<Entity> getJobsOfCurrentUser() {
+        Entity user = userService.getCurrentUserEntity();
+
+        if (user == null) {
+            return Collections.emptyList();
+        }
+
+        return getJobDD().find().add(SearchRestrictions.belongsTo(JobFields.USER, user))
+                .addOrder(SearchOrders.desc(JobFields.SUBMIT_DATE)).list().getEntities();
+    }
+
+    /**
+     * Removes jobs finished before given date.
+     *
+     * @param date
+     *            date of the oldest finished job which is kept
+     * @return results of the removed jobs, by job id
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Map<Long, String> removeFinishedBefore(final Date date) {
+        List<Entity> jobs = getJobDD().find().add(SearchRestrictions.lt(JobFields.FINISH_DATE, date)).list().getEntities();
+        Map<Long, String> results = Maps.newHashMap();
+
+        for (Entity job : jobs) {
+            results.put(job.getId(), job.getStringField(JobFields.RESULT));
+            getJobDD().delete(job.getId());
+        }
+
+        return results;
+    }
+
+    /**
+     * Marks jobs which are still queued or running, but were submitted before given date, as failed. Active jobs are kept only
+     * in the memory, so such jobs were interrupted by the application restart and would never be finished.
+     *
+     * @param date
+     *            date of the application start
+     * @param errorMessage
+     *            error message of the failed jobs
+     * @return number of the failed jobs
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int failUnfinishedSubmittedBefore(final Date date, final String errorMessage) {
+        List<Entity> jobs = getJobDD().find().add(SearchRestrictions.in(JobFields.STATE, JobState.QUEUED, JobState.RUNNING))
+                .add(SearchRestrictions.lt(JobFields.SUBMIT_DATE, date)).list().getEntities();
+
+        for (Entity job : jobs) {
+            job.setField(JobFields.STATE, JobState.FAILED);
+            job.setField(JobFields.FINISH_DATE, new Date());
+            job.setField(JobFields.ERROR_MESSAGE, errorMessage);
+            job.getDataDefinition().save(job);
+        }
+
+        return jobs.size();
+    }
+
+    private Entity getJob(final Long jobId) {
+        return getJobDD().get(jobId);
+    }
+
+    private DataDefinition getJobDD() {
+        return dataDefinitionService.get(QcadooViewConstants.PLUGIN_IDENTIFIER, QcadooViewConstants.MODEL_JOB);
+    }
+
+}
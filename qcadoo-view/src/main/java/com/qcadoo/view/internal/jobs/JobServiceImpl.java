@@ -0,0 +1,223 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.qcadoo.tenant.api.MultiTenantCallback;
+import com.qcadoo.tenant.api.MultiTenantService;
+import com.qcadoo.view.api.jobs.JobCancelledException;
+import com.qcadoo.view.api.jobs.JobPoolMetrics;
+import com.qcadoo.view.api.jobs.JobService;
+import com.qcadoo.view.api.jobs.JobTask;
+import com.qcadoo.view.constants.JobState;
+
+@Service
+public class JobServiceImpl implements JobService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobServiceImpl.class);
+
+    private static final int DEFAULT_POOL_THREADS = 2;
+
+    private static final int DEFAULT_POOL_QUEUE_CAPACITY = 100;
+
+    @Value("${jobPools:default:2:100,export:2:50,report:2:50,recalculation:1:50}")
+    private String jobPools;
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private MultiTenantService multiTenantService;
+
+    private final Map<String, JobPool> pools = Maps.newLinkedHashMap();
+
+    private final ConcurrentMap<Long, JobHandle> activeJobs = new ConcurrentHashMap<Long, JobHandle>();
+
+    @PostConstruct
+    public void init() {
+        for (String definition : Splitter.on(',').trimResults().omitEmptyStrings().split(jobPools)) {
+            List<String> parts = Lists.newArrayList(Splitter.on(':').trimResults().split(definition));
+
+            checkArgument(parts.size() == 3, "Invalid job pool definition '%s', expected name:threads:queueCapacity", definition);
+
+            pools.put(parts.get(0), new JobPool(parts.get(0), Integer.parseInt(parts.get(1)), Integer.parseInt(parts.get(2))));
+        }
+        if (!pools.containsKey(DEFAULT_POOL)) {
+            pools.put(DEFAULT_POOL, new JobPool(DEFAULT_POOL, DEFAULT_POOL_THREADS, DEFAULT_POOL_QUEUE_CAPACITY));
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        for (JobPool pool : pools.values()) {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public Long submit(final String jobName, final JobTask task) {
+        return submit(DEFAULT_POOL, jobName, task);
+    }
+
+    @Override
+    public Long submit(final String poolName, final String jobName, final JobTask task) {
+        JobPool pool = getPool(poolName);
+
+        Long jobId = jobRegistry.register(poolName, jobName);
+        JobHandle handle = new JobHandle(jobId, jobRegistry);
+        activeJobs.put(jobId, handle);
+
+        try {
+            handle.setFuture(pool.submit(new JobRunnable(pool, handle, task, JobCallerContext.capture(multiTenantService))));
+        } catch (IllegalStateException e) {
+            activeJobs.remove(jobId);
+            jobRegistry.markFinished(jobId, JobState.FAILED, null, e.getMessage());
+            throw e;
+        }
+
+        return jobId;
+    }
+
+    @Override
+    public boolean cancel(final Long jobId) {
+        JobHandle handle = activeJobs.get(jobId);
+
+        if (handle == null) {
+            return false;
+        }
+        if (handle.cancelQueued()) {
+            activeJobs.remove(jobId);
+            jobRegistry.markFinished(jobId, JobState.CANCELLED, null, null);
+            return true;
+        }
+        return handle.requestCancel();
+    }
+
+    @Override
+    public boolean isActive(final Long jobId) {
+        return activeJobs.containsKey(jobId);
+    }
+
+    @Override
+    public JobPoolMetrics getPoolMetrics(final String poolName) {
+        return getPool(poolName).getMetrics();
+    }
+
+    @Override
+    public List<JobPoolMetrics> getPoolsMetrics() {
+        List<JobPoolMetrics> metrics = Lists.newArrayList();
+        for (JobPool pool : pools.values()) {
+            metrics.add(pool.getMetrics());
+        }
+        return metrics;
+    }
+
+    private JobPool getPool(final String poolName) {
+        JobPool pool = pools.get(poolName);
+        checkArgument(pool != null, "Job pool '%s' doesn't exist", poolName);
+        return pool;
+    }
+
+    private final class JobRunnable implements Runnable {
+
+        private final JobPool pool;
+
+        private final JobHandle handle;
+
+        private final JobTask task;
+
+        private final JobCallerContext callerContext;
+
+        private JobRunnable(final JobPool pool, final JobHandle handle, final JobTask task, final JobCallerContext callerContext) {
+            this.pool = pool;
+            this.handle = handle;
+            this.task = task;
+            this.callerContext = callerContext;
+        }
+
+        @Override
+        public void run() {
+            if (!handle.start()) {
+                return;
+            }
+
+            pool.recordStart(System.nanoTime() - handle.getSubmitTime());
+
+            try {
+                callerContext.execute(multiTenantService, new MultiTenantCallback() {
+
+                    @Override
+                    public void invoke() {
+                        execute();
+                    }
+
+                });
+            } finally {
+                handle.finish();
+                activeJobs.remove(handle.getJobId());
+            }
+        }
+
+        private void execute() {
+            long startTime = System.nanoTime();
+            boolean failed = false;
+
+            try {
+                jobRegistry.markRunning(handle.getJobId());
+                task.execute(handle);
+
+                jobRegistry.markFinished(handle.getJobId(), handle.isCancelled() ? JobState.CANCELLED : JobState.FINISHED,
+                        handle.getResult(), null);
+            } catch (JobCancelledException e) {
+                jobRegistry.markFinished(handle.getJobId(), JobState.CANCELLED, handle.getResult(), null);
+            } catch (Exception e) {
+                failed = true;
+                LOG.warn("Job " + handle.getJobId() + " failed", e);
+                jobRegistry.markFinished(handle.getJobId(), JobState.FAILED, null, e.getMessage());
+            } finally {
+                pool.recordFinish(System.nanoTime() - startTime, failed);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,163 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import com.google.common.collect.Lists;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.file.FileService;
+import com.qcadoo.view.api.jobs.DocumentJobService;
+import com.qcadoo.view.api.jobs.JobService;
+import com.qcadoo.view.api.utils.FileDownloadWriter;
+import com.qcadoo.view.constants.JobFields;
+import com.qcadoo.view.constants.JobState;
+
+/**
+ * Progress and download inbox of the background jobs of the current user, polled by the views.
+ */
+@Controller
+@RequestMapping("/jobs")
+public class JobsController {
+
+    @Autowired
+    private JobRegistry jobRegistry;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private DocumentJobService documentJobService;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private FileDownloadWriter fileDownloadWriter;
+
+    @ResponseBody
+    @RequestMapping(method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<JobDto> getJobs() {
+        List<JobDto> jobs = Lists.newArrayList();
+
+        for (Entity job : jobRegistry.getJobsOfCurrentUser()) {
+            jobs.add(mapToDTO(job));
+        }
+
+        return jobs;
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/{jobId}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<JobDto> getJob(@PathVariable("jobId") final Long jobId) {
+        Entity job = jobRegistry.getJobOfCurrentUser(jobId);
+
+        if (job == null) {
+            return new ResponseEntity<JobDto>(HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<JobDto>(mapToDTO(job), HttpStatus.OK);
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/{jobId}/cancel", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Boolean> cancelJob(@PathVariable("jobId") final Long jobId) {
+        if (jobRegistry.getJobOfCurrentUser(jobId) == null) {
+            return new ResponseEntity<Boolean>(HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<Boolean>(jobService.cancel(jobId), HttpStatus.OK);
+    }
+
+    @RequestMapping(value = "/{jobId}/download", method = RequestMethod.GET)
+    public void download(@PathVariable("jobId") final Long jobId, final HttpServletRequest request,
+            final HttpServletResponse response) throws IOException {
+        File file = getDocument(jobRegistry.getJobOfCurrentUser(jobId));
+
+        if (file == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader("Content-disposition", "attachment; filename=" + getFileName(jobId, file));
+        fileDownloadWriter.write(file, fileService.getContentType(file.getAbsolutePath()), true, request, response);
+    }
+
+    private File getDocument(final Entity job) {
+        if (job == null || !JobState.FINISHED.equals(job.getStringField(JobFields.STATE))) {
+            return null;
+        }
+
+        String result = job.getStringField(JobFields.RESULT);
+
+        if (!DocumentJobServiceImpl.isDocument(job.getId(), result)) {
+            return null;
+        }
+
+        File file = new File(result);
+
+        if (!file.isFile()) {
+            return null;
+        }
+
+        return file;
+    }
+
+    private String getFileName(final Long jobId, final File file) {
+        return file.getName().substring(String.valueOf(jobId).length() + 1);
+    }
+
+    private JobDto mapToDTO(final Entity job) {
+        JobDto jobDto = new JobDto();
+        jobDto.setId(job.getId());
+        jobDto.setName(job.getStringField(JobFields.NAME));
+        jobDto.setState(job.getStringField(JobFields.STATE));
+        jobDto.setProgress(job.getIntegerField(JobFields.PROGRESS) == null ? 0 : job.getIntegerField(JobFields.PROGRESS));
+        jobDto.setSubmitDate(job.getDateField(JobFields.SUBMIT_DATE));
+        jobDto.setFinishDate(job.getDateField(JobFields.FINISH_DATE));
+        jobDto.setErrorMessage(job.getStringField(JobFields.ERROR_MESSAGE));
+
+        if (getDocument(job) != null) {
+            jobDto.setDownloadUrl(documentJobService.getDownloadUrl(job.getId()));
+        }
+
+        return jobDto;
+    }
+
+}
@@ -23,6 +23,9 @@
  */
 package com.qcadoo.view.internal.menu;
 
+import static com.qcadoo.model.api.search.SearchProjections.alias;
+import static com.qcadoo.model.api.search.SearchProjections.field;
+import static com.qcadoo.model.api.search.SearchProjections.id;
 import static com.qcadoo.model.api.search.SearchRestrictions.belongsTo;
 import static com.qcadoo.model.api.search.SearchRestrictions.eq;
 
@@ -34,7 +37,10 @@ import org.springframework.stereotype.Service;
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.DataDefinitionService;
 import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.JoinType;
 import com.qcadoo.model.api.search.SearchOrders;
+import com.qcadoo.model.api.search.SearchProjectionList;
+import com.qcadoo.model.api.search.SearchProjections;
 import com.qcadoo.view.constants.MenuCategoryFields;
 import com.qcadoo.view.constants.MenuItemFields;
 import com.qcadoo.view.constants.QcadooViewConstants;
@@ -45,6 +51,34 @@ import com.qcadoo.view.internal.menu.definitions.MenuItemDefinition;
 @Service
 public class MenuCrudService {
 
+    public static final String ENTRY_CATEGORY_ID = "categoryId";
+
+    public static final String ENTRY_CATEGORY_PLUGIN_IDENTIFIER = "categoryPluginIdentifier";
+
+    public static final String ENTRY_CATEGORY_NAME = "categoryName";
+
+    public static final String ENTRY_CATEGORY_AUTH_ROLE = "categoryAuthRole";
+
+    public static final String ENTRY_ITEM_ID = "itemId";
+
+    public static final String ENTRY_ITEM_PLUGIN_IDENTIFIER = "itemPluginIdentifier";
+
+    public static final String ENTRY_ITEM_NAME = "itemName";
+
+    public static final String ENTRY_ITEM_ACTIVE = "itemActive";
+
+    public static final String ENTRY_ITEM_AUTH_ROLE = "itemAuthRole";
+
+    public static final String ENTRY_VIEW_PLUGIN_IDENTIFIER = "viewPluginIdentifier";
+
+    public static final String ENTRY_VIEW_NAME = "viewName";
+
+    public static final String ENTRY_VIEW_URL = "viewUrl";
+
+    private static final String L_ITEM = "item";
+
+    private static final String L_VIEW = "view";
+
     @Autowired
     private DataDefinitionService dataDefinitionService;
 
@@ -70,6 +104,34 @@ public class MenuCrudService {
                 .addOrder(SearchOrders.asc(MenuItemFields.SUCCESSION)).list().getEntities();
     }
 
+    /**
+     * Returns all menu categories joined with their items and views, using single query. Each entry contains fields named by
+     * the ENTRY_* constants, category without items is returned as single entry with null item's fields.
+     * 
+     * @return entries sorted by category and item succession
+     */
+    public List<Entity> getSortedMenuEntries() {
+        SearchProjectionList projection = SearchProjections.list()
+                .add(alias(id(), ENTRY_CATEGORY_ID))
+                .add(alias(field(MenuCategoryFields.PLUGIN_IDENTIFIER), ENTRY_CATEGORY_PLUGIN_IDENTIFIER))
+                .add(alias(field(MenuCategoryFields.NAME), ENTRY_CATEGORY_NAME))
+                .add(alias(field(MenuCategoryFields.AUTH_ROLE), ENTRY_CATEGORY_AUTH_ROLE))
+                .add(alias(field(L_ITEM + ".id"), ENTRY_ITEM_ID))
+                .add(alias(field(L_ITEM + "." + MenuItemFields.PLUGIN_IDENTIFIER), ENTRY_ITEM_PLUGIN_IDENTIFIER))
+                .add(alias(field(L_ITEM + "." + MenuItemFields.NAME), ENTRY_ITEM_NAME))
+                .add(alias(field(L_ITEM + "." + MenuItemFields.ACTIVE), ENTRY_ITEM_ACTIVE))
+                .add(alias(field(L_ITEM + "." + MenuItemFields.AUTH_ROLE), ENTRY_ITEM_AUTH_ROLE))
+                .add(alias(field(L_VIEW + "." + ViewFields.PLUGIN_IDENTIFIER), ENTRY_VIEW_PLUGIN_IDENTIFIER))
+                .add(alias(field(L_VIEW + "." + ViewFields.NAME), ENTRY_VIEW_NAME))
+                .add(alias(field(L_VIEW + "." + ViewFields.URL), ENTRY_VIEW_URL));
+
+        return getDataDefinition(QcadooViewConstants.MODEL_CATEGORY).find()
+                .createAlias(MenuCategoryFields.ITEMS, L_ITEM, JoinType.LEFT)
+                .createAlias(L_ITEM + "." + MenuItemFields.VIEW, L_VIEW, JoinType.LEFT).setProjection(projection)
+                .addOrder(SearchOrders.asc(MenuCategoryFields.SUCCESSION))
+                .addOrder(SearchOrders.asc(L_ITEM + "." + MenuItemFields.SUCCESSION)).list().getEntities();
+    }
+
     public int getTotalNumberOfCategories() {
         return getDataDefinition(QcadooViewConstants.MODEL_CATEGORY).find().list().getTotalNumberOfEntities() + 1;
     }
@@ -23,8 +23,8 @@
  */
 package com.qcadoo.view.internal.menu;
 
-import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -32,6 +32,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.api.aop.Monitorable;
 import com.qcadoo.plugin.api.PluginUtils;
@@ -72,20 +73,25 @@ public final class MenuServiceImpl implements InternalMenuService {
     @Autowired
     private ViewDefinitionService viewDefinitionService;
 
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
     @Override
     @Transactional(readOnly = true)
     @Monitorable
     public MenuDefinition getMenu(final Locale locale) {
         MenuDefinition menuDefinition = new MenuDefinition();
 
-        List<Entity> menuCategories = menuCrudService.getSortedMenuCategories();
-        for (Entity menuCategory : menuCategories) {
-            String authRoleIdentifier = menuCategory.getStringField(MenuCategoryFields.AUTH_ROLE);
-            if (!currentUserHasPrivilegesOf(authRoleIdentifier)) {
+        MenuSnapshot menuSnapshot = menuSnapshotCache.get(() -> MenuSnapshot.build(menuCrudService.getSortedMenuEntries()));
+
+        Map<SecurityRole, Boolean> accessByRole = Maps.newHashMap();
+
+        for (MenuSnapshot.Category menuCategory : menuSnapshot.getCategories()) {
+            if (!canAccess(getAuthorizationRole(menuCategory.getAuthRole()), accessByRole)) {
                 continue;
             }
 
-            MenuItemsGroup category = buildCategoryWithItems(menuCategory, locale);
+            MenuItemsGroup category = buildCategoryWithItems(menuCategory, locale, accessByRole);
             if (ADMINISTRATION_CATEGORY.equals(category.getName())) {
                 menuDefinition.setAdministrationCategory(category);
             } else if (HOME_CATEGORY.equals(category.getName())) {
@@ -98,28 +104,28 @@ public final class MenuServiceImpl implements InternalMenuService {
         return menuDefinition;
     }
 
-    private MenuItemsGroup buildCategoryWithItems(final Entity menuCategory, final Locale locale) {
+    private MenuItemsGroup buildCategoryWithItems(final MenuSnapshot.Category menuCategory, final Locale locale,
+            final Map<SecurityRole, Boolean> accessByRole) {
         MenuItemsGroup category = buildMenuCategory(menuCategory, locale);
-        Iterable<Entity> menuItems = menuCrudService.getSortedMenuCategoryItems(menuCategory);
-        for (Entity menuItem : menuItems) {
-            if (!menuItem.getBooleanField(MenuItemFields.ACTIVE)
-                    || !currentUserHasPrivilegesOf(menuItem.getStringField(MenuItemFields.AUTH_ROLE))) {
+        for (MenuSnapshot.Item menuItem : menuCategory.getItems()) {
+            if (!canAccess(getAuthorizationRole(menuItem.getAuthRole()), accessByRole)) {
                 continue;
             }
-            Entity menuView = menuItem.getBelongsToField(MenuItemFields.VIEW);
-            if (canAccessView(menuView.getStringField(ViewFields.PLUGIN_IDENTIFIER), menuView.getStringField(ViewFields.NAME))) {
-                category.addItem(buildMenuItem(menuItem, locale, menuView));
+            if (canAccessView(menuItem.getViewPluginIdentifier(), menuItem.getViewName(), accessByRole)) {
+                category.addItem(buildMenuItem(menuCategory, menuItem, locale));
             }
         }
         return category;
     }
 
-    private MenuItemsGroup buildMenuCategory(final Entity menuCategory, final Locale locale) {
-        String categoryName = menuCategory.getStringField(MenuCategoryFields.NAME);
-        String categoryDescription = translationUtilsService.getCategoryDescriptionTranslation(menuCategory, locale);
+    private MenuItemsGroup buildMenuCategory(final MenuSnapshot.Category menuCategory, final Locale locale) {
+        String categoryName = menuCategory.getName();
+        String categoryDescription = translationUtilsService.getCategoryDescriptionTranslation(
+                menuCategory.getPluginIdentifier(), categoryName, locale);
         String categoryLabel = categoryName;
-        if (menuCategory.getStringField(MenuCategoryFields.PLUGIN_IDENTIFIER) != null) {
-            categoryLabel = translationUtilsService.getCategoryTranslation(menuCategory, locale);
+        if (menuCategory.getPluginIdentifier() != null) {
+            categoryLabel = translationUtilsService.getCategoryTranslation(menuCategory.getPluginIdentifier(), categoryName,
+                    locale);
         }
 
         return new MenuItemsGroup(categoryName, categoryLabel, categoryDescription);
@@ -132,39 +138,40 @@ public final class MenuServiceImpl implements InternalMenuService {
         return role;
     }
 
-    private String getItemLabel(final Entity menuItem, final Locale locale) {
-        String itemLabel = menuItem.getStringField(MenuItemFields.NAME);
-        if (menuItem.getStringField(MenuItemFields.PLUGIN_IDENTIFIER) != null) {
-            itemLabel = translationUtilsService.getItemTranslation(menuItem, locale);
+    private MenuItem buildMenuItem(final MenuSnapshot.Category menuCategory, final MenuSnapshot.Item menuItem,
+            final Locale locale) {
+        String itemName = menuItem.getName();
+        String itemDescription = translationUtilsService.getItemDescriptionTranslation(menuItem.getPluginIdentifier(),
+                menuCategory.getName(), itemName, locale);
+        String itemLabel = itemName;
+        if (menuItem.getPluginIdentifier() != null) {
+            itemLabel = translationUtilsService.getItemTranslation(menuItem.getPluginIdentifier(), menuCategory.getName(),
+                    itemName, locale);
         }
-        return itemLabel;
-    }
-
-    private MenuItem buildMenuItem(final Entity menuItem, final Locale locale, final Entity menuView) {
-        String itemDescription = translationUtilsService.getItemDescriptionTranslation(menuItem, locale);
-        String itemLabel = getItemLabel(menuItem, locale);
-        String itemName = menuItem.getStringField(MenuItemFields.NAME);
-        if (menuView.getStringField(ViewFields.URL) == null) {
-            String viewPlugin = menuView.getStringField(ViewFields.PLUGIN_IDENTIFIER);
-            String viewName = menuView.getStringField(ViewFields.NAME);
-            return new ViewDefinitionMenuItemItem(itemName, itemLabel, itemDescription, viewPlugin, viewName);
+        if (menuItem.getViewUrl() == null) {
+            return new ViewDefinitionMenuItemItem(itemName, itemLabel, itemDescription, menuItem.getViewPluginIdentifier(),
+                    menuItem.getViewName());
         } else {
-            String viewUrl = menuView.getStringField(ViewFields.URL);
-            return new UrlMenuItem(itemName, itemLabel, itemDescription, null, viewUrl);
+            return new UrlMenuItem(itemName, itemLabel, itemDescription, null, menuItem.getViewUrl());
         }
     }
 
-    private boolean canAccessView(final String pluginIdentifier, final String viewName) {
+    private boolean canAccessView(final String pluginIdentifier, final String viewName,
+            final Map<SecurityRole, Boolean> accessByRole) {
         if (!PluginUtils.isEnabled(pluginIdentifier)) {
             return false;
         }
         SecurityRole viewRole = viewDefinitionRoleResolver.getRoleForView(pluginIdentifier, viewName);
-        return securityRolesService.canAccess(viewRole);
+        return canAccess(viewRole, accessByRole);
     }
 
-    private boolean currentUserHasPrivilegesOf(final String roleIdentifier) {
-        SecurityRole authRole = getAuthorizationRole(roleIdentifier);
-        return securityRolesService.canAccess(authRole);
+    private boolean canAccess(final SecurityRole role, final Map<SecurityRole, Boolean> accessByRole) {
+        Boolean canAccess = accessByRole.get(role);
+        if (canAccess == null) {
+            canAccess = securityRolesService.canAccess(role);
+            accessByRole.put(role, canAccess);
+        }
+        return canAccess;
     }
 
     @Override
@@ -0,0 +1,170 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.menu;
+
+import java.util.List;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.qcadoo.model.api.Entity;
+
+/**
+ * Immutable, not translated and not filtered by user's privileges copy of the menu structure of the tenant. Only active items
+ * are kept.
+ */
+final class MenuSnapshot {
+
+    private final List<Category> categories;
+
+    private MenuSnapshot(final List<Category> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * Builds snapshot from entries returned by {@link MenuCrudService#getSortedMenuEntries()}.
+     * 
+     * @param entries
+     *            menu entries sorted by category and item succession
+     * @return menu snapshot
+     */
+    static MenuSnapshot build(final List<Entity> entries) {
+        ImmutableList.Builder<Category> categories = ImmutableList.builder();
+
+        Object categoryId = null;
+        Entity categoryEntry = null;
+        ImmutableList.Builder<Item> items = null;
+
+        for (Entity entry : entries) {
+            if (categoryEntry == null || !Objects.equal(categoryId, entry.getField(MenuCrudService.ENTRY_CATEGORY_ID))) {
+                if (categoryEntry != null) {
+                    categories.add(new Category(categoryEntry, items.build()));
+                }
+
+                categoryId = entry.getField(MenuCrudService.ENTRY_CATEGORY_ID);
+                categoryEntry = entry;
+                items = ImmutableList.builder();
+            }
+
+            if (entry.getField(MenuCrudService.ENTRY_ITEM_ID) != null
+                    && entry.getBooleanField(MenuCrudService.ENTRY_ITEM_ACTIVE)) {
+                items.add(new Item(entry));
+            }
+        }
+
+        if (categoryEntry != null) {
+            categories.add(new Category(categoryEntry, items.build()));
+        }
+
+        return new MenuSnapshot(categories.build());
+    }
+
+    List<Category> getCategories() {
+        return categories;
+    }
+
+    static final class Category {
+
+        private final String pluginIdentifier;
+
+        private final String name;
+
+        private final String authRole;
+
+        private final List<Item> items;
+
+        private Category(final Entity entry, final List<Item> items) {
+            this.pluginIdentifier = entry.getStringField(MenuCrudService.ENTRY_CATEGORY_PLUGIN_IDENTIFIER);
+            this.name = entry.getStringField(MenuCrudService.ENTRY_CATEGORY_NAME);
+            this.authRole = entry.getStringField(MenuCrudService.ENTRY_CATEGORY_AUTH_ROLE);
+            this.items = items;
+        }
+
+        String getPluginIdentifier() {
+            return pluginIdentifier;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getAuthRole() {
+            return authRole;
+        }
+
+        List<Item> getItems() {
+            return items;
+        }
+
+    }
+
+    static final class Item {
+
+        private final String pluginIdentifier;
+
+        private final String name;
+
+        private final String authRole;
+
+        private final String viewPluginIdentifier;
+
+        private final String viewName;
+
+        private final String viewUrl;
+
+        private Item(final Entity entry) {
+            this.pluginIdentifier = entry.getStringField(MenuCrudService.ENTRY_ITEM_PLUGIN_IDENTIFIER);
+            this.name = entry.getStringField(MenuCrudService.ENTRY_ITEM_NAME);
+            this.authRole = entry.getStringField(MenuCrudService.ENTRY_ITEM_AUTH_ROLE);
+            this.viewPluginIdentifier = entry.getStringField(MenuCrudService.ENTRY_VIEW_PLUGIN_IDENTIFIER);
+            this.viewName = entry.getStringField(MenuCrudService.ENTRY_VIEW_NAME);
+            this.viewUrl = entry.getStringField(MenuCrudService.ENTRY_VIEW_URL);
+        }
+
+        String getPluginIdentifier() {
+            return pluginIdentifier;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getAuthRole() {
+            return authRole;
+        }
+
+        String getViewPluginIdentifier() {
+            return viewPluginIdentifier;
+        }
+
+        String getViewName() {
+            return viewName;
+        }
+
+        String getViewUrl() {
+            return viewUrl;
+        }
+
+    }
+
+}
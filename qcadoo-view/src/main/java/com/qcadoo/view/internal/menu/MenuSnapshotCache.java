@@ -0,0 +1,105 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.menu;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.qcadoo.plugin.api.PluginStateChangedEvent;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+/**
+ * Keeps menu snapshot of each tenant. Snapshot of the current tenant is dropped when menu categories, items or views are
+ * modified (also after the modifying transaction completes, so concurrent requests can't cache uncommitted state) and all
+ * snapshots are dropped when plugins are enabled or disabled.
+ */
+@Service
+public class MenuSnapshotCache implements ApplicationListener<PluginStateChangedEvent> {
+
+    @Autowired
+    private MultiTenantService multiTenantService;
+
+    private final ConcurrentMap<Integer, MenuSnapshot> snapshots = new ConcurrentHashMap<Integer, MenuSnapshot>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    MenuSnapshot get(final Supplier<MenuSnapshot> loader) {
+        Integer tenantId = multiTenantService.getCurrentTenantId();
+
+        MenuSnapshot snapshot = snapshots.get(tenantId);
+
+        if (snapshot == null) {
+            long loadedGeneration = generation.get();
+
+            snapshot = loader.get();
+
+            if (loadedGeneration == generation.get()) {
+                MenuSnapshot existingSnapshot = snapshots.putIfAbsent(tenantId, snapshot);
+
+                if (existingSnapshot != null) {
+                    snapshot = existingSnapshot;
+                }
+            }
+        }
+
+        return snapshot;
+    }
+
+    public void invalidate() {
+        final Integer tenantId = multiTenantService.getCurrentTenantId();
+
+        invalidate(tenantId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    invalidate(tenantId);
+                }
+
+            });
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(final PluginStateChangedEvent event) {
+        generation.incrementAndGet();
+        snapshots.clear();
+    }
+
+    private void invalidate(final Integer tenantId) {
+        generation.incrementAndGet();
+        snapshots.remove(tenantId);
+    }
+
+}
@@ -30,6 +30,7 @@ import com.qcadoo.plugin.api.ModuleException;
 import com.qcadoo.view.internal.api.InternalViewDefinition;
 import com.qcadoo.view.internal.api.InternalViewDefinitionService;
 import com.qcadoo.view.internal.xml.ViewDefinitionParser;
+import com.qcadoo.view.internal.xml.XmlDocumentLoader;
 
 public class ViewModule extends Module {
 
@@ -37,18 +38,28 @@ public class ViewModule extends Module {
 
     private final InternalViewDefinitionService viewDefinitionService;
 
+    private final XmlDocumentLoader xmlDocumentLoader;
+
     private final String pluginIdentifier;
 
     private final Resource xmlFile;
 
+    private InternalViewDefinition enabledViewDefinition;
+
     public ViewModule(final String pluginIdentifier, final Resource xmlFile, final ViewDefinitionParser viewDefinitionParser,
-            final InternalViewDefinitionService viewDefinitionService) {
+            final InternalViewDefinitionService viewDefinitionService, final XmlDocumentLoader xmlDocumentLoader) {
         super();
 
         this.pluginIdentifier = pluginIdentifier;
         this.xmlFile = xmlFile;
         this.viewDefinitionParser = viewDefinitionParser;
         this.viewDefinitionService = viewDefinitionService;
+        this.xmlDocumentLoader = xmlDocumentLoader;
+    }
+
+    @Override
+    public void init() {
+        xmlDocumentLoader.preload(xmlFile);
     }
 
     @Override
@@ -56,11 +67,17 @@ public class ViewModule extends Module {
         enable();
     }
 
+    @Override
+    public void disableOnStartup() {
+        xmlDocumentLoader.discard(xmlFile);
+    }
+
     @Override
     public void enable() {
         try {
             InternalViewDefinition viewDefinition = viewDefinitionParser.parseViewXml(xmlFile, pluginIdentifier);
             viewDefinitionService.save(viewDefinition);
+            enabledViewDefinition = viewDefinition;
         } catch (Exception e) {
             throw new ModuleException(pluginIdentifier, "view", e);
         }
@@ -68,8 +85,14 @@ public class ViewModule extends Module {
 
     @Override
     public void disable() {
-        InternalViewDefinition viewDefinition = viewDefinitionParser.parseViewXml(xmlFile, pluginIdentifier);
+        InternalViewDefinition viewDefinition = enabledViewDefinition;
+
+        if (viewDefinition == null) {
+            viewDefinition = viewDefinitionParser.parseViewXml(xmlFile, pluginIdentifier);
+        }
+
         viewDefinitionService.delete(viewDefinition);
+        enabledViewDefinition = null;
     }
 
 }
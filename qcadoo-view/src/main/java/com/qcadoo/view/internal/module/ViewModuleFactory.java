@@ -30,6 +30,7 @@ import org.springframework.core.io.ClassPathResource;
 import com.qcadoo.plugin.api.ModuleFactory;
 import com.qcadoo.view.internal.api.InternalViewDefinitionService;
 import com.qcadoo.view.internal.xml.ViewDefinitionParser;
+import com.qcadoo.view.internal.xml.XmlDocumentLoader;
 
 public class ViewModuleFactory extends ModuleFactory<ViewModule> {
 
@@ -39,12 +40,15 @@ public class ViewModuleFactory extends ModuleFactory<ViewModule> {
     @Autowired
     private InternalViewDefinitionService viewDefinitionService;
 
+    @Autowired
+    private XmlDocumentLoader xmlDocumentLoader;
+
     @Override
     protected ViewModule parseElement(final String pluginIdentifier, final Element element) {
         String resource = getRequiredAttribute(element, "resource");
 
         return new ViewModule(pluginIdentifier, new ClassPathResource(pluginIdentifier + "/" + resource), viewDefinitionParser,
-                viewDefinitionService);
+                viewDefinitionService, xmlDocumentLoader);
     }
 
     @Override
@@ -24,46 +24,70 @@
 package com.qcadoo.view.internal.resource;
 
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+/**
+ * Dispatches requests for static resources to the resource modules. Module which served given uri is remembered, so next
+ * requests for the same uri don't have to be matched against all registered modules.
+ */
 @Service
 public class ResourceService {
 
-    private final Set<ResourceModule> resourceModules = new HashSet<ResourceModule>();
+    private final Set<ResourceModule> resourceModules = new CopyOnWriteArraySet<ResourceModule>();
+
+    private final ConcurrentMap<String, ResourceModule> resourceModulesByUri = new ConcurrentHashMap<String, ResourceModule>();
+
+    @Autowired
+    private StaticResourceCache staticResourceCache;
 
     public void addResourceModule(final ResourceModule resourceModule) {
         if (resourceModules.contains(resourceModule)) {
             throw new IllegalStateException("Module " + resourceModule + " is already added");
         }
         resourceModules.add(resourceModule);
+        invalidate();
     }
 
     public void removeResourceModule(final ResourceModule resourceModule) {
         resourceModules.remove(resourceModule);
+        invalidate();
     }
 
     public void serveResource(final HttpServletRequest request, final HttpServletResponse response) {
+        String uri = request.getRequestURI();
+
+        ResourceModule cachedResourceModule = resourceModulesByUri.get(uri);
+
+        if (cachedResourceModule != null && cachedResourceModule.serveResource(request, response)) {
+            return;
+        }
 
-        boolean resourceServed = false;
         for (ResourceModule resourceModule : resourceModules) {
             if (resourceModule.serveResource(request, response)) {
-                resourceServed = true;
-                continue;
+                resourceModulesByUri.put(uri, resourceModule);
+                return;
             }
         }
-        if (!resourceServed) {
-            try {
-                response.sendError(HttpServletResponse.SC_NOT_FOUND, "resource not found");
-            } catch (IOException e) {
-                throw new IllegalStateException(e.getMessage(), e);
-            }
+
+        try {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "resource not found");
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
         }
     }
 
+    private void invalidate() {
+        resourceModulesByUri.clear();
+        staticResourceCache.invalidate();
+    }
+
 }
@@ -0,0 +1,305 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.IOUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.google.common.hash.Hashing;
+import com.qcadoo.localization.internal.ConfigUtil;
+
+/**
+ * Keeps content of the static resources in memory together with their content hashes and gzip compressed variants, so
+ * resources are read from the classpath only once and unchanged resources are answered with 304 Not Modified.
+ * 
+ * Resources requested with the version parameter (ver=${buildNumber} in the jsp pages) are served as immutable, other ones
+ * have to be revalidated by the browser using ETag or Last-Modified headers.
+ * 
+ * @since 1.5
+ */
+@Service
+public class StaticResourceCache {
+
+    private static final String VERSION_PARAMETER = "ver";
+
+    private static final long ONE_YEAR_IN_SECONDS = 365L * 24 * 60 * 60;
+
+    private static final int MIN_COMPRESSED_LENGTH = 1024;
+
+    @Value("${staticResourcesCacheSize:2000}")
+    private int maxSize;
+
+    @Value("${staticResourceMaxCachedLength:2097152}")
+    private int maxCachedLength;
+
+    @Autowired
+    private ConfigUtil configUtil;
+
+    private final ConcurrentMap<String, CachedResource> resources = new ConcurrentHashMap<String, CachedResource>();
+
+    /**
+     * Serves given resource to response, answering conditional requests with 304 Not Modified.
+     * 
+     * @param uri
+     *            requested uri
+     * @param resource
+     *            classpath resource
+     * @param contentType
+     *            content type of the resource
+     * @param request
+     *            request
+     * @param response
+     *            response
+     */
+    public void serve(final String uri, final Resource resource, final String contentType, final HttpServletRequest request,
+            final HttpServletResponse response) {
+        try {
+            CachedResource cachedResource = getCachedResource(uri, resource, contentType);
+
+            if (cachedResource == null) {
+                response.setContentType(contentType);
+                IOUtils.copy(resource.getInputStream(), response.getOutputStream());
+                return;
+            }
+
+            cachedResource.serve(request, response);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Serves resource from the cache if it's already there, without resolving it on the classpath.
+     * 
+     * @param uri
+     *            requested uri
+     * @param request
+     *            request
+     * @param response
+     *            response
+     * @return true if resource has been served, false if it isn't cached
+     */
+    public boolean serveCached(final String uri, final HttpServletRequest request, final HttpServletResponse response) {
+        if (configUtil.isHotDeploy()) {
+            return false;
+        }
+
+        CachedResource cachedResource = resources.get(uri);
+
+        if (cachedResource == null) {
+            return false;
+        }
+
+        try {
+            cachedResource.serve(request, response);
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes all cached resources.
+     */
+    public void invalidate() {
+        resources.clear();
+    }
+
+    private CachedResource getCachedResource(final String uri, final Resource resource, final String contentType)
+            throws IOException {
+        if (configUtil.isHotDeploy()) {
+            return null;
+        }
+
+        CachedResource cachedResource = resources.get(uri);
+
+        if (cachedResource == null) {
+            long length = resource.contentLength();
+
+            if (length > maxCachedLength) {
+                return null;
+            }
+
+            if (resources.size() >= maxSize) {
+                resources.clear();
+            }
+
+            cachedResource = load(resource, contentType);
+
+            CachedResource existingResource = resources.putIfAbsent(uri, cachedResource);
+
+            if (existingResource != null) {
+                cachedResource = existingResource;
+            }
+        }
+
+        return cachedResource;
+    }
+
+    private CachedResource load(final Resource resource, final String contentType) throws IOException {
+        byte[] content;
+
+        InputStream inputStream = resource.getInputStream();
+        try {
+            content = IOUtils.toByteArray(inputStream);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+
+        String etag = "\"" + Hashing.sha1().hashBytes(content).toString() + "\"";
+
+        long lastModified;
+        try {
+            lastModified = resource.lastModified() / 1000 * 1000;
+        } catch (IOException e) {
+            lastModified = System.currentTimeMillis() / 1000 * 1000;
+        }
+
+        return new CachedResource(contentType, content, compress(content, contentType), etag, lastModified);
+    }
+
+    private byte[] compress(final byte[] content, final String contentType) throws IOException {
+        if (content.length < MIN_COMPRESSED_LENGTH || !isCompressible(contentType)) {
+            return null;
+        }
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 3);
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed);
+        try {
+            gzipOutputStream.write(content);
+        } finally {
+            gzipOutputStream.close();
+        }
+
+        if (compressed.size() >= content.length) {
+            return null;
+        }
+
+        return compressed.toByteArray();
+    }
+
+    private boolean isCompressible(final String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        return contentType.startsWith("text/") || contentType.contains("javascript") || contentType.contains("json")
+                || contentType.contains("xml") || contentType.contains("svg");
+    }
+
+    private static final class CachedResource {
+
+        private final String contentType;
+
+        private final byte[] content;
+
+        private final byte[] gzippedContent;
+
+        private final String etag;
+
+        private final long lastModified;
+
+        private CachedResource(final String contentType, final byte[] content, final byte[] gzippedContent, final String etag,
+                final long lastModified) {
+            this.contentType = contentType;
+            this.content = content;
+            this.gzippedContent = gzippedContent;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        private void serve(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+            response.setHeader("ETag", etag);
+            response.setDateHeader("Last-Modified", lastModified);
+
+            if (request.getParameter(VERSION_PARAMETER) == null) {
+                response.setHeader("Cache-Control", "no-cache");
+            } else {
+                response.setHeader("Cache-Control", "public, max-age=" + ONE_YEAR_IN_SECONDS + ", immutable");
+            }
+
+            if (gzippedContent != null) {
+                response.setHeader("Vary", "Accept-Encoding");
+            }
+
+            if (isNotModified(request)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+
+            response.setContentType(contentType);
+
+            byte[] body = content;
+
+            if (gzippedContent != null && acceptsGzip(request)) {
+                response.setHeader("Content-Encoding", "gzip");
+                body = gzippedContent;
+            }
+
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+
+        private boolean isNotModified(final HttpServletRequest request) {
+            String ifNoneMatch = request.getHeader("If-None-Match");
+
+            if (ifNoneMatch != null) {
+                for (String tag : ifNoneMatch.split(",")) {
+                    String trimmedTag = tag.trim();
+                    if ("*".equals(trimmedTag) || etag.equals(trimmedTag) || ("W/" + etag).equals(trimmedTag)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            try {
+                long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+                return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        private boolean acceptsGzip(final HttpServletRequest request) {
+            String acceptEncoding = request.getHeader("Accept-Encoding");
+            return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        }
+
+    }
+
+}
@@ -23,13 +23,11 @@
  */
 package com.qcadoo.view.internal.resource.module;
 
-import java.io.IOException;
 import java.net.URLConnection;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-import org.apache.commons.io.IOUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.io.Resource;
 import org.springframework.util.AntPathMatcher;
@@ -37,19 +35,23 @@ import org.springframework.util.PathMatcher;
 
 import com.qcadoo.view.internal.resource.ResourceModule;
 import com.qcadoo.view.internal.resource.ResourceService;
+import com.qcadoo.view.internal.resource.StaticResourceCache;
 
 public class UniversalResourceModule extends ResourceModule {
 
     private final ApplicationContext applicationContext;
 
+    private final StaticResourceCache staticResourceCache;
+
     private final String uriPattern;
 
     private final PathMatcher matcher = new AntPathMatcher();
 
-    public UniversalResourceModule(final ResourceService resourceService, final ApplicationContext applicationContext,
-            final String pluginIdentifier, final String uriPattern) {
+    public UniversalResourceModule(final ResourceService resourceService, final StaticResourceCache staticResourceCache,
+            final ApplicationContext applicationContext, final String pluginIdentifier, final String uriPattern) {
         super(resourceService);
         this.applicationContext = applicationContext;
+        this.staticResourceCache = staticResourceCache;
         if (uriPattern.charAt(0) == '/') {
             this.uriPattern = "/" + pluginIdentifier + uriPattern;
         } else {
@@ -60,14 +62,16 @@ public class UniversalResourceModule extends ResourceModule {
 
     @Override
     public boolean serveResource(final HttpServletRequest request, final HttpServletResponse response) {
+        if (!matcher.match(uriPattern, request.getRequestURI())) {
+            return false;
+        }
+        if (staticResourceCache.serveCached(request.getRequestURI(), request, response)) {
+            return true;
+        }
+
         Resource resource = getResourceFromURI(request.getRequestURI());
         if (resource != null && resource.exists()) {
-            response.setContentType(getContentTypeFromURI(request));
-            try {
-                IOUtils.copy(resource.getInputStream(), response.getOutputStream());
-            } catch (IOException e) {
-                throw new IllegalStateException(e.getMessage(), e);
-            }
+            staticResourceCache.serve(request.getRequestURI(), resource, getContentTypeFromURI(request), request, response);
             return true;
         } else {
             return false;
@@ -29,19 +29,23 @@ import org.springframework.context.ApplicationContext;
 
 import com.qcadoo.plugin.api.ModuleFactory;
 import com.qcadoo.view.internal.resource.ResourceService;
+import com.qcadoo.view.internal.resource.StaticResourceCache;
 
 public class UniversalResourceModuleFactory extends ModuleFactory<UniversalResourceModule> {
 
     @Autowired
     private ResourceService resourceService;
 
+    @Autowired
+    private StaticResourceCache staticResourceCache;
+
     @Autowired
     private ApplicationContext applicationContext;
 
     @Override
     protected UniversalResourceModule parseElement(final String pluginIdentifier, final Element element) {
         String uri = getRequiredAttribute(element, "uri");
-        return new UniversalResourceModule(resourceService, applicationContext, pluginIdentifier, uri);
+        return new UniversalResourceModule(resourceService, staticResourceCache, applicationContext, pluginIdentifier, uri);
     }
 
     @Override
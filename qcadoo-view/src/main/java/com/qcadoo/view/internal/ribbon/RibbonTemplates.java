@@ -137,6 +137,7 @@ public class RibbonTemplates {
             final SecurityRole role) {
         InternalRibbonGroup ribbonGroup = new RibbonGroupImpl(GENERIC_EXPORT, role);
         ribbonGroup.addItem(createGridExportCsvAction(viewDefinition));
+        ribbonGroup.addItem(createGridExportXlsxAction(viewDefinition));
         ribbonGroup.addItem(createGridExportPdfAction(viewDefinition));
         return ribbonGroup;
     }
@@ -213,6 +214,18 @@ public class RibbonTemplates {
         return ribbonExportPdfAction;
     }
 
+    private InternalRibbonActionItem createGridExportXlsxAction(final ViewDefinition viewDefinition) {
+        InternalRibbonActionItem ribbonExportXlsxAction = new RibbonActionItemImpl();
+        ribbonExportXlsxAction.setIcon("xlsIcon16.png");
+        ribbonExportXlsxAction.setName("xlsx");
+        ribbonExportXlsxAction.setEnabled(true);
+        ribbonExportXlsxAction
+                .setScript("var listener = {onClick: function() {#{grid}.performEvent('exportToXlsx', [], 'exportToXlsx');}};"
+                        + " this.addOnChangeListener(listener);");
+        ribbonExportXlsxAction.setType(RibbonActionItem.Type.SMALL_BUTTON);
+        return ribbonExportXlsxAction;
+    }
+
     private InternalRibbonActionItem createGridExportCsvAction(final ViewDefinition viewDefinition) {
         InternalRibbonActionItem ribbonExportCsvAction = new RibbonActionItemImpl();
         ribbonExportCsvAction.setIcon("exportToCsvIcon16.png");
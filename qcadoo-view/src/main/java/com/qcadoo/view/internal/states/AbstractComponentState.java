@@ -23,6 +23,7 @@
  */
 package com.qcadoo.view.internal.states;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.qcadoo.localization.api.TranslationService;
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.validators.ErrorMessage;
@@ -32,7 +33,7 @@ import com.qcadoo.view.api.ViewDefinitionState;
 import com.qcadoo.view.internal.FieldEntityIdChangeListener;
 import com.qcadoo.view.internal.ScopeEntityIdChangeListener;
 import com.qcadoo.view.internal.api.ComponentPattern;
-import com.qcadoo.view.internal.api.InternalComponentState;
+import com.qcadoo.view.internal.api.StreamingComponentState;
 import com.qcadoo.view.internal.hooks.ViewEventListenerHook;
 import com.qcadoo.view.internal.internal.EntityIdChangeListenerHolder;
 import com.qcadoo.view.internal.internal.EventHandlerHolder;
@@ -40,11 +41,14 @@ import com.qcadoo.view.internal.internal.MessageHolder;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-public abstract class AbstractComponentState implements InternalComponentState, FieldEntityIdChangeListener,
+public abstract class AbstractComponentState implements StreamingComponentState, FieldEntityIdChangeListener,
         ScopeEntityIdChangeListener {
 
     public static final String JSON_UPDATE_STATE = "updateState";
@@ -77,6 +81,8 @@ public abstract class AbstractComponentState implements InternalComponentState,
 
     public static final String JSON_COMPONENT_OPTIONS = "options";
 
+    private static final ConcurrentMap<Class<?>, Boolean> STREAMING_SUPPORT = new ConcurrentHashMap<Class<?>, Boolean>();
+
     private final EntityIdChangeListenerHolder listenerHolder = new EntityIdChangeListenerHolder();
 
     private final EventHandlerHolder eventHandlerHolder = new EventHandlerHolder(this);
@@ -311,8 +317,99 @@ public abstract class AbstractComponentState implements InternalComponentState,
         return json;
     }
 
+    /**
+     * Streaming counterpart of {@link #render()}. Subclasses which add fields in {@link #render()} should add them in
+     * {@link #renderFields(JsonGenerator)} as well. If {@link #render()} or {@link #renderContent()} is overridden without its
+     * streaming counterpart, output of {@link #render()} is written instead.
+     */
+    @Override
+    public final void render(final JsonGenerator generator) throws IOException, JSONException {
+        if (!isStreamingSupported(getClass())) {
+            JsonStreamingUtils.writeValue(generator, render());
+            return;
+        }
+
+        generator.writeStartObject();
+        renderFields(generator);
+        generator.writeEndObject();
+    }
+
+    private static boolean isStreamingSupported(final Class<?> stateClass) {
+        Boolean streamingSupported = STREAMING_SUPPORT.get(stateClass);
+
+        if (streamingSupported == null) {
+            streamingSupported = isStreamingOverridden(stateClass, "render", "renderFields")
+                    && isStreamingOverridden(stateClass, "renderContent", "renderContent");
+
+            STREAMING_SUPPORT.putIfAbsent(stateClass, streamingSupported);
+        }
+
+        return streamingSupported;
+    }
+
+    /**
+     * Checks if the streaming method is declared in the same class as the rendering method (or in its subclass), or it's the
+     * default implementation which delegates to the rendering method.
+     */
+    private static boolean isStreamingOverridden(final Class<?> stateClass, final String methodName,
+            final String streamingMethodName) {
+        Class<?> declaringClass = getDeclaringClass(stateClass, methodName);
+        Class<?> streamingDeclaringClass = getDeclaringClass(stateClass, streamingMethodName, JsonGenerator.class);
+
+        if ("renderContent".equals(methodName) && streamingDeclaringClass == AbstractComponentState.class) {
+            return true;
+        }
+
+        return declaringClass.isAssignableFrom(streamingDeclaringClass);
+    }
+
+    private static Class<?> getDeclaringClass(final Class<?> stateClass, final String methodName,
+            final Class<?>... parameterTypes) {
+        for (Class<?> clazz = stateClass; clazz != null; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod(methodName, parameterTypes);
+                return clazz;
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+        }
+
+        return AbstractComponentState.class;
+    }
+
+    protected void renderFields(final JsonGenerator generator) throws IOException, JSONException {
+        generator.writeBooleanField(JSON_ENABLED, isEnabled());
+        generator.writeBooleanField(JSON_PERMANENTLY_DISABLED, permanentlyDisabled);
+        generator.writeBooleanField(JSON_VISIBLE, isVisible());
+
+        if (requestRender) {
+            generator.writeFieldName(JSON_CONTENT);
+            renderContent(generator);
+            generator.writeBooleanField(JSON_UPDATE_STATE, requestUpdateState);
+        } else {
+            generator.writeBooleanField(JSON_UPDATE_STATE, false);
+        }
+
+        if (messageHolder != null) {
+            generator.writeFieldName(JSON_MESSAGES);
+            JsonStreamingUtils.writeValue(generator, messageHolder.renderMessages());
+        }
+    }
+
     protected abstract JSONObject renderContent() throws JSONException;
 
+    /**
+     * Writes content of this component into the stream. By default content is built using {@link #renderContent()}, components
+     * with big content (i.e. grid rows) should write it directly.
+     */
+    protected void renderContent(final JsonGenerator generator) throws IOException, JSONException {
+        JsonStreamingUtils.writeValue(generator, renderContent());
+    }
+
+    protected final boolean isRenderRequested() {
+        return requestRender;
+    }
+
     protected final void notifyEntityIdChangeListeners(final Long entityId) {
         listenerHolder.notifyEntityIdChangeListeners(entityId);
     }
@@ -25,6 +25,7 @@ package com.qcadoo.view.internal.states;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
@@ -32,6 +33,7 @@ import java.util.Map;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.qcadoo.view.api.ComponentState;
 import com.qcadoo.view.api.components.FieldComponent;
 import com.qcadoo.view.internal.api.ComponentPattern;
@@ -97,6 +99,18 @@ public abstract class AbstractContainerState extends AbstractComponentState impl
         return json;
     }
 
+    @Override
+    protected void renderFields(final JsonGenerator generator) throws IOException, JSONException {
+        super.renderFields(generator);
+
+        generator.writeObjectFieldStart(JSON_CHILDREN);
+        for (Map.Entry<String, InternalComponentState> child : children.entrySet()) {
+            generator.writeFieldName(child.getKey());
+            JsonStreamingUtils.render(child.getValue(), generator);
+        }
+        generator.writeEndObject();
+    }
+
     @Override
     public boolean isHasError() {
         if (super.isHasError()) {
@@ -0,0 +1,131 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.states;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.qcadoo.view.internal.api.InternalComponentState;
+import com.qcadoo.view.internal.api.StreamingComponentState;
+
+/**
+ * Writes component states and org.json values to {@link JsonGenerator}. Values are written the same way as
+ * {@link JSONObject#toString()} would write them.
+ * 
+ * @since 1.5
+ */
+public final class JsonStreamingUtils {
+
+    private JsonStreamingUtils() {
+
+    }
+
+    /**
+     * Renders component state into the stream. States which don't support streaming are rendered using {@link JSONObject} tree.
+     * 
+     * @param state
+     *            component state
+     * @param generator
+     *            JSON stream
+     * @throws IOException
+     *             when stream cannot be written
+     * @throws JSONException
+     *             when data for client contains errors
+     */
+    public static void render(final InternalComponentState state, final JsonGenerator generator) throws IOException,
+            JSONException {
+        if (state instanceof StreamingComponentState) {
+            ((StreamingComponentState) state).render(generator);
+        } else {
+            writeValue(generator, state.render());
+        }
+    }
+
+    /**
+     * Writes all fields of the given object into the current JSON object.
+     * 
+     * @param generator
+     *            JSON stream, positioned inside the object
+     * @param json
+     *            fields to write
+     * @throws IOException
+     *             when stream cannot be written
+     * @throws JSONException
+     *             when data for client contains errors
+     */
+    @SuppressWarnings("unchecked")
+    public static void writeFields(final JsonGenerator generator, final JSONObject json) throws IOException, JSONException {
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            generator.writeFieldName(key);
+            writeValue(generator, json.get(key));
+        }
+    }
+
+    public static void writeValue(final JsonGenerator generator, final Object value) throws IOException, JSONException {
+        if (value == null || JSONObject.NULL.equals(value)) {
+            generator.writeNull();
+        } else if (value instanceof JSONObject) {
+            generator.writeStartObject();
+            writeFields(generator, (JSONObject) value);
+            generator.writeEndObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            generator.writeStartArray();
+            for (int i = 0; i < array.length(); i++) {
+                writeValue(generator, array.get(i));
+            }
+            generator.writeEndArray();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Number) {
+            generator.writeRawValue(JSONObject.numberToString((Number) value));
+        } else if (value instanceof Map) {
+            writeValue(generator, new JSONObject((Map<?, ?>) value));
+        } else if (value instanceof Collection) {
+            writeValue(generator, new JSONArray((Collection<?>) value));
+        } else {
+            generator.writeRawValue(JSONObject.valueToString(value));
+        }
+    }
+
+}
@@ -53,9 +53,6 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.HashMap;
@@ -95,12 +92,18 @@ public final class ViewDefinitionParserImpl implements ViewDefinitionParser {
     @Autowired
     private RibbonParserService ribbonService;
 
+    @Autowired
+    private PreparedViewCache preparedViewCache;
+
+    @Autowired
+    private XmlDocumentLoader xmlDocumentLoader;
+
     private int currentIndexOrder;
 
     @Override
     public InternalViewDefinition parseViewXml(final Resource viewXml, final String pluginIdentifier) {
         try {
-            return parse(viewXml.getInputStream(), pluginIdentifier);
+            return parse(xmlDocumentLoader.load(viewXml), pluginIdentifier);
         } catch (IOException e) {
             throw ViewDefinitionParserException.forFile(viewXml.getFilename(), "Error while reading view resource", e);
         } catch (ViewDefinitionParserNodeException e) {
@@ -110,25 +113,13 @@ public final class ViewDefinitionParserImpl implements ViewDefinitionParser {
         }
     }
 
-    private InternalViewDefinition parse(final InputStream viewDefinitionInputStream, final String pluginIdentifier)
+    private InternalViewDefinition parse(final Document document, final String pluginIdentifier)
             throws ViewDefinitionParserNodeException {
-        try {
-            DocumentBuilder documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            Document document = documentBuilder.parse(viewDefinitionInputStream);
-
-            Node root = document.getDocumentElement();
-
-            checkState("view".equals(root.getNodeName()), root, "Wrong root node '" + root.getNodeName() + "'");
+        Node root = document.getDocumentElement();
 
-            return parseViewDefinition(root, pluginIdentifier);
+        checkState("view".equals(root.getNodeName()), root, "Wrong root node '" + root.getNodeName() + "'");
 
-        } catch (ParserConfigurationException e) {
-            throw new IllegalStateException(e.getMessage(), e);
-        } catch (SAXException e) {
-            throw new IllegalStateException(e.getMessage(), e);
-        } catch (IOException e) {
-            throw new IllegalStateException(e.getMessage(), e);
-        }
+        return parseViewDefinition(root, pluginIdentifier);
     }
 
     private InternalViewDefinition parseViewDefinition(final Node viewNode, final String pluginIdentifier)
@@ -159,6 +150,7 @@ public final class ViewDefinitionParserImpl implements ViewDefinitionParser {
                 translationService);
 
         viewDefinition.setWindowDimmension(windowWidth, windowHeight);
+        viewDefinition.setPreparedViewCache(preparedViewCache);
 
         ComponentPattern root = null;
 
@@ -245,11 +237,8 @@ public final class ViewDefinitionParserImpl implements ViewDefinitionParser {
     @Override
     public Node getRootOfXmlDocument(final Resource xmlFile) {
         try {
-            DocumentBuilder documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            Document document = documentBuilder.parse(xmlFile.getInputStream());
+            Document document = xmlDocumentLoader.load(xmlFile);
             return document.getDocumentElement();
-        } catch (ParserConfigurationException e) {
-            throw new IllegalStateException(e.getMessage(), e);
         } catch (SAXException e) {
             throw new IllegalStateException(e.getMessage(), e);
         } catch (IOException e) {
@@ -426,8 +415,7 @@ public final class ViewDefinitionParserImpl implements ViewDefinitionParser {
     public ViewExtension getViewExtensionNode(final InputStream resource, final String tagType)
             throws ViewDefinitionParserNodeException {
         try {
-            DocumentBuilder documentBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            Document document = documentBuilder.parse(resource);
+            Document document = xmlDocumentLoader.parse(resource);
 
             Node root = document.getDocumentElement();
 
@@ -441,8 +429,6 @@ public final class ViewDefinitionParserImpl implements ViewDefinitionParser {
 
             return new ViewExtension(plugin, view, root);
 
-        } catch (ParserConfigurationException e) {
-            throw new IllegalStateException(e.getMessage(), e);
         } catch (SAXException e) {
             throw new IllegalStateException(e.getMessage(), e);
         } catch (IOException e) {
@@ -0,0 +1,223 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.xml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PreDestroy;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+/**
+ * Parses view xml files using document builders confined to the parsing thread. View modules preload their files when they are
+ * initialized, so documents of all views are parsed in parallel before the views are built (which has to be done serially).
+ * 
+ * @since 1.5
+ */
+@Service
+public class XmlDocumentLoader {
+
+    @Value("${viewXmlParserThreads:0}")
+    private int threads;
+
+    private final DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+
+    private final ThreadLocal<DocumentBuilder> documentBuilders = new ThreadLocal<DocumentBuilder>() {
+
+        @Override
+        protected DocumentBuilder initialValue() {
+            try {
+                synchronized (documentBuilderFactory) {
+                    return documentBuilderFactory.newDocumentBuilder();
+                }
+            } catch (ParserConfigurationException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+
+    };
+
+    private final ConcurrentMap<Resource, Future<Document>> preloadedDocuments = new ConcurrentHashMap<Resource, Future<Document>>();
+
+    private ExecutorService executor;
+
+    /**
+     * Starts parsing of the given resource in the background. Parsed document can be taken using {@link #load(Resource)}.
+     * 
+     * @param resource
+     *            xml resource
+     */
+    public void preload(final Resource resource) {
+        if (preloadedDocuments.containsKey(resource)) {
+            return;
+        }
+
+        Future<Document> document = getExecutor().submit(new Callable<Document>() {
+
+            @Override
+            public Document call() throws IOException, SAXException {
+                return parse(resource);
+            }
+
+        });
+
+        if (preloadedDocuments.putIfAbsent(resource, document) != null) {
+            document.cancel(false);
+        }
+    }
+
+    /**
+     * Drops preloaded document of the given resource, if it won't be loaded.
+     * 
+     * @param resource
+     *            xml resource
+     */
+    public void discard(final Resource resource) {
+        Future<Document> document = preloadedDocuments.remove(resource);
+
+        if (document != null) {
+            document.cancel(false);
+        }
+    }
+
+    /**
+     * Returns parsed document of the given resource, preloaded one if it was preloaded.
+     * 
+     * @param resource
+     *            xml resource
+     * @return parsed document
+     * @throws IOException
+     *             if resource can't be read
+     * @throws SAXException
+     *             if resource isn't valid xml
+     */
+    public Document load(final Resource resource) throws IOException, SAXException {
+        Future<Document> document = preloadedDocuments.remove(resource);
+
+        if (document == null || document.isCancelled()) {
+            return parse(resource);
+        }
+
+        try {
+            return document.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof SAXException) {
+                throw (SAXException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Parses given xml stream.
+     * 
+     * @param inputStream
+     *            xml stream
+     * @return parsed document
+     * @throws IOException
+     *             if stream can't be read
+     * @throws SAXException
+     *             if stream doesn't contain valid xml
+     */
+    public Document parse(final InputStream inputStream) throws IOException, SAXException {
+        DocumentBuilder documentBuilder = documentBuilders.get();
+
+        try {
+            return documentBuilder.parse(inputStream);
+        } finally {
+            documentBuilder.reset();
+        }
+    }
+
+    private Document parse(final Resource resource) throws IOException, SAXException {
+        InputStream inputStream = resource.getInputStream();
+
+        try {
+            return parse(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 1, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ParserThreadFactory());
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+
+            executor = threadPoolExecutor;
+        }
+
+        return executor;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        preloadedDocuments.clear();
+    }
+
+    private static final class ParserThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            Thread thread = new Thread(runnable, "view-xml-parser-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+
+    }
+
+}
@@ -67,6 +67,10 @@ QCD.components.elements.GanttChart = function (_element, _mainController) {
 
     var ganttTooltip;
 
+    var loadedWindow;
+
+    var windowRefreshTimeout;
+
     function constructor() {
         createGantt();
         createGanttTooltip();
@@ -79,6 +83,11 @@ QCD.components.elements.GanttChart = function (_element, _mainController) {
         var data = {
             headerParameters: headerParameters
         };
+        if (htmlElements.rowsContainerWrapper) {
+            var scrollLeft = htmlElements.rowsContainerWrapper.scrollLeft();
+            data.visibleFrom = scrollLeft / constants.CELL_WIDTH;
+            data.visibleTo = (scrollLeft + htmlElements.rowsContainerWrapper.width()) / constants.CELL_WIDTH;
+        }
         if (selectedItem && selectedItem[0] && selectedItem[0].entityId) {
             data.selectedEntityId = selectedItem[0].entityId;
         }
@@ -139,6 +148,25 @@ QCD.components.elements.GanttChart = function (_element, _mainController) {
     }
 
 
+    function refreshWindowIfNeeded(scrollLeft) {
+        if (!loadedWindow) {
+            return;
+        }
+        var visibleFrom = scrollLeft / constants.CELL_WIDTH;
+        var visibleTo = (scrollLeft + htmlElements.rowsContainerWrapper.width()) / constants.CELL_WIDTH;
+        if (visibleFrom >= loadedWindow.from && visibleTo <= loadedWindow.to) {
+            return;
+        }
+        if (windowRefreshTimeout) {
+            clearTimeout(windowRefreshTimeout);
+        }
+        windowRefreshTimeout = setTimeout(function () {
+            windowRefreshTimeout = null;
+            loadedWindow = null;
+            refreshContent();
+        }, 200);
+    }
+
     function applySettings(cellSettings) {
         if (cellSettings.globalErrorMessage) {
             return;
@@ -170,6 +198,8 @@ QCD.components.elements.GanttChart = function (_element, _mainController) {
 
         updateItems(cellSettings.items, cellSettings.collisions);
 
+        loadedWindow = cellSettings.window;
+
         currentCellSettings = cellSettings;
     }
 
@@ -266,6 +296,8 @@ QCD.components.elements.GanttChart = function (_element, _mainController) {
 
             var scrollTop = htmlElements.rowsContainerWrapper.scrollTop();
             htmlElements.rowNamesConteiner.scrollTop(scrollTop);
+
+            refreshWindowIfNeeded(scrollLeft);
         });
 
         var collisionInfoBox = $("<div>").addClass("collisionInfoBox").click(function () {
@@ -0,0 +1,169 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.api.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+public class FileDownloadWriterTest {
+
+    private FileDownloadWriter fileDownloadWriter;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    private File file;
+
+    @Before
+    public void init() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        fileDownloadWriter = new FileDownloadWriter();
+
+        file = File.createTempFile("download", ".txt");
+        FileUtils.writeStringToFile(file, "0123456789");
+
+        given(request.getAttribute("org.apache.tomcat.sendfile.support")).willReturn(Boolean.TRUE);
+    }
+
+    @After
+    public void cleanup() {
+        FileUtils.deleteQuietly(file);
+    }
+
+    @Test
+    public void shouldParseRanges() throws Exception {
+        // when
+        List<long[]> ranges = FileDownloadWriter.parseRanges("bytes=0-1, 5-, -3, 8-100", 10);
+
+        // then
+        assertEquals(4, ranges.size());
+        assertArrayEquals(new long[] { 0, 1 }, ranges.get(0));
+        assertArrayEquals(new long[] { 5, 9 }, ranges.get(1));
+        assertArrayEquals(new long[] { 7, 9 }, ranges.get(2));
+        assertArrayEquals(new long[] { 8, 9 }, ranges.get(3));
+    }
+
+    @Test
+    public void shouldIgnoreMalformedRanges() throws Exception {
+        // when
+        List<long[]> ranges = FileDownloadWriter.parseRanges("bytes=a-b", 10);
+
+        // then
+        assertTrue(ranges.isEmpty());
+    }
+
+    @Test
+    public void shouldReturnNullForUnsatisfiableRanges() throws Exception {
+        // when
+        List<long[]> ranges = FileDownloadWriter.parseRanges("bytes=20-30", 10);
+
+        // then
+        assertNull(ranges);
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        // given
+        fileDownloadWriter.write(file, "text/plain", true, request, response);
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        verify(response).setHeader(eq("ETag"), etag.capture());
+
+        given(request.getHeader("If-None-Match")).willReturn(etag.getValue());
+
+        // when
+        fileDownloadWriter.write(file, "text/plain", true, request, response);
+
+        // then
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void shouldServeSingleRangeUsingSendfile() throws Exception {
+        // given
+        given(request.getHeader("Range")).willReturn("bytes=2-5");
+
+        // when
+        fileDownloadWriter.write(file, "text/plain", true, request, response);
+
+        // then
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 2-5/10");
+        verify(response).setHeader("Content-Length", "4");
+        verify(request).setAttribute("org.apache.tomcat.sendfile.start", 2L);
+        verify(request).setAttribute("org.apache.tomcat.sendfile.end", 6L);
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void shouldIgnoreRangeWhenIfRangeDoesNotMatch() throws Exception {
+        // given
+        given(request.getHeader("Range")).willReturn("bytes=2-5");
+        given(request.getHeader("If-Range")).willReturn("\"other\"");
+
+        // when
+        fileDownloadWriter.write(file, "text/plain", true, request, response);
+
+        // then
+        verify(response, never()).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Length", "10");
+    }
+
+    @Test
+    public void shouldRejectUnsatisfiableRange() throws Exception {
+        // given
+        given(request.getHeader("Range")).willReturn("bytes=20-30");
+
+        // when
+        fileDownloadWriter.write(file, "text/plain", true, request, response);
+
+        // then
+        verify(response).setHeader("Content-Range", "bytes */10");
+        verify(response).sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+}
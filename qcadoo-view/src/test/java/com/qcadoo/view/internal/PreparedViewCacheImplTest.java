@@ -0,0 +1,172 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.google.common.collect.Maps;
+import com.qcadoo.localization.api.TranslationsChangedEvent;
+import com.qcadoo.localization.internal.ConfigUtil;
+import com.qcadoo.plugin.api.Plugin;
+import com.qcadoo.plugin.api.PluginAccessor;
+import com.qcadoo.plugin.api.PluginStateResolver;
+import com.qcadoo.tenant.api.MultiTenantService;
+import com.qcadoo.view.internal.api.InternalViewDefinition;
+
+public class PreparedViewCacheImplTest {
+
+    private PreparedViewCacheImpl preparedViewCache;
+
+    @Mock
+    private PluginAccessor pluginAccessor;
+
+    @Mock
+    private PluginStateResolver pluginStateResolver;
+
+    @Mock
+    private MultiTenantService multiTenantService;
+
+    @Mock
+    private ConfigUtil configUtil;
+
+    @Mock
+    private InternalViewDefinition viewDefinition;
+
+    @Mock
+    private Plugin plugin;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<Map<String, Object>> loader = () -> {
+        Map<String, Object> model = Maps.newHashMap();
+        model.put("load", loads.incrementAndGet());
+        return model;
+    };
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+
+        preparedViewCache = new PreparedViewCacheImpl();
+        setField(preparedViewCache, "maxSize", 10);
+        setField(preparedViewCache, "pluginAccessor", pluginAccessor);
+        setField(preparedViewCache, "pluginStateResolver", pluginStateResolver);
+        setField(preparedViewCache, "multiTenantService", multiTenantService);
+        setField(preparedViewCache, "configUtil", configUtil);
+
+        given(viewDefinition.getPluginIdentifier()).willReturn("plugin");
+        given(viewDefinition.getName()).willReturn("view");
+        given(plugin.getIdentifier()).willReturn("plugin");
+        given(pluginAccessor.getPlugins()).willReturn(Collections.singletonList(plugin));
+        given(pluginStateResolver.isEnabled(plugin)).willReturn(true);
+    }
+
+    @Test
+    public void shouldReuseModelForTheSameKey() throws Exception {
+        // when
+        Map<String, Object> model1 = preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+        Map<String, Object> model2 = preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+
+        // then
+        assertSame(model1, model2);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void shouldSeparateModelsByLocaleAndFlags() throws Exception {
+        // when
+        preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+        preparedViewCache.get(viewDefinition, Locale.GERMAN, false, false, loader);
+        preparedViewCache.get(viewDefinition, Locale.ENGLISH, true, false, loader);
+        preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, true, loader);
+
+        // then
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void shouldSeparateModelsByEnabledPlugins() throws Exception {
+        // given
+        Map<String, Object> model1 = preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+
+        // when
+        given(pluginStateResolver.isEnabled(plugin)).willReturn(false);
+        Map<String, Object> model2 = preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+
+        // then
+        assertNotSame(model1, model2);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldInvalidateModelsWhenTranslationsChange() throws Exception {
+        // given
+        preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+
+        // when
+        preparedViewCache.onApplicationEvent(new TranslationsChangedEvent(this));
+        preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+
+        // then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void shouldNotCacheModelsInHotDeployMode() throws Exception {
+        // given
+        given(configUtil.isHotDeploy()).willReturn(true);
+
+        // when
+        preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+        preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+
+        // then
+        assertEquals(2, loads.get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldReturnImmutableModel() throws Exception {
+        // when
+        Map<String, Object> model = preparedViewCache.get(viewDefinition, Locale.ENGLISH, false, false, loader);
+
+        // then
+        model.put("key", "value");
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.components.ganttChart;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.qcadoo.view.api.components.ganttChart.GanttChartItem;
+
+public class GanttChartCollisionDetectorTest {
+
+    private static GanttChartItem item(final double from, final double to) {
+        return new GanttChartItemImpl("row", "item", null, "from" + from, "to" + to, from, to);
+    }
+
+    @Test
+    public void shouldNotDetectCollisionsForTouchingItems() throws Exception {
+        // given
+        List<GanttChartItem> items = Lists.newArrayList(item(5, 10), item(0, 5), item(10, 12));
+
+        // when
+        List<GanttChartItem> collisions = GanttChartCollisionDetector.detect("row", items);
+
+        // then
+        assertTrue(collisions.isEmpty());
+    }
+
+    @Test
+    public void shouldDetectSeparateCollisionsInsideLongItem() throws Exception {
+        // given
+        GanttChartItem longItem = item(0, 10);
+        GanttChartItem first = item(1, 3);
+        GanttChartItem second = item(5, 7);
+
+        // when
+        List<GanttChartItem> collisions = GanttChartCollisionDetector.detect("row", Lists.newArrayList(second, longItem, first));
+
+        // then
+        assertEquals(2, collisions.size());
+        assertCollision(collisions.get(0), 1, 3, longItem, first);
+        assertCollision(collisions.get(1), 5, 7, longItem, second);
+    }
+
+    @Test
+    public void shouldEndCollisionWhenOnlyOneItemRemains() throws Exception {
+        // given
+        GanttChartItem longItem = item(0, 10);
+        GanttChartItem first = item(1, 5);
+        GanttChartItem second = item(4, 8);
+
+        // when
+        List<GanttChartItem> collisions = GanttChartCollisionDetector.detect("row", Lists.newArrayList(longItem, first, second));
+
+        // then
+        assertEquals(1, collisions.size());
+        assertCollision(collisions.get(0), 1, 8, longItem, first, second);
+        assertEquals("from1.0", collisions.get(0).getDateFrom());
+        assertEquals("to8.0", collisions.get(0).getDateTo());
+    }
+
+    @Test
+    public void shouldDetectCollisionsOfManyItems() throws Exception {
+        // given
+        List<GanttChartItem> items = Lists.newArrayList();
+        for (int i = 0; i < 50000; i++) {
+            items.add(item(i * 2, i * 2 + 3));
+        }
+
+        // when
+        List<GanttChartItem> collisions = GanttChartCollisionDetector.detect("row", items);
+
+        // then
+        assertEquals(49999, collisions.size());
+        assertCollision(collisions.get(0), 2, 3, items.get(0), items.get(1));
+    }
+
+    private void assertCollision(final GanttChartItem collision, final double from, final double to,
+            final GanttChartItem... items) {
+        assertEquals(from, collision.getFrom(), 0.0);
+        assertEquals(to, collision.getTo(), 0.0);
+        assertEquals(Lists.newArrayList(items), ((GanttChartConflictItem) collision).getItems());
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.components.lookup;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.SearchResult;
+import com.qcadoo.tenant.api.MultiTenantService;
+
+public class AutocompleteSearchCoalescerTest {
+
+    private AutocompleteSearchCoalescer autocompleteSearchCoalescer;
+
+    @Before
+    public void init() {
+        autocompleteSearchCoalescer = new AutocompleteSearchCoalescer();
+
+        ReflectionTestUtils.setField(autocompleteSearchCoalescer, "multiTenantService", mock(MultiTenantService.class));
+    }
+
+    @Test
+    public void shouldReturnCopiesOfFoundEntities() throws Exception {
+        // given
+        Entity entity = mock(Entity.class);
+        Entity entityCopy = mock(Entity.class);
+        given(entity.copy()).willReturn(entityCopy);
+
+        final SearchResult searchResult = mock(SearchResult.class);
+        given(searchResult.getEntities()).willReturn(Collections.singletonList(entity));
+        given(searchResult.getTotalNumberOfEntities()).willReturn(1);
+
+        List<Object> query = Collections.<Object> singletonList("code");
+
+        // when
+        SearchResult result = autocompleteSearchCoalescer.search(query, new Callable<SearchResult>() {
+
+            @Override
+            public SearchResult call() {
+                return searchResult;
+            }
+
+        });
+
+        // then
+        assertNotSame(searchResult, result);
+        assertEquals(1, result.getTotalNumberOfEntities());
+        assertEquals(1, result.getEntities().size());
+        assertSame(entityCopy, result.getEntities().get(0));
+    }
+
+}
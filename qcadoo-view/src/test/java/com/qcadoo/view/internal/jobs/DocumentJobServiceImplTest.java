@@ -0,0 +1,150 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.model.api.file.FileService;
+import com.qcadoo.view.api.jobs.DocumentWriter;
+import com.qcadoo.view.api.jobs.JobContext;
+import com.qcadoo.view.api.jobs.JobService;
+import com.qcadoo.view.api.jobs.JobTask;
+
+public class DocumentJobServiceImplTest {
+
+    private static final Long L_JOB_ID = 13L;
+
+    private static final String L_FILE_NAME = "export.csv";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private DocumentJobServiceImpl documentJobService;
+
+    @Mock
+    private JobService jobService;
+
+    @Mock
+    private FileService fileService;
+
+    @Mock
+    private JobContext context;
+
+    private File file;
+
+    @Before
+    public void init() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        documentJobService = new DocumentJobServiceImpl();
+
+        ReflectionTestUtils.setField(documentJobService, "jobService", jobService);
+        ReflectionTestUtils.setField(documentJobService, "fileService", fileService);
+
+        file = new File(temporaryFolder.getRoot(), L_JOB_ID + "_" + L_FILE_NAME);
+
+        given(context.getJobId()).willReturn(L_JOB_ID);
+        given(fileService.createReportFile(L_JOB_ID + "_" + L_FILE_NAME)).willReturn(file);
+        given(jobService.submit(anyString(), anyString(), any(JobTask.class))).willReturn(L_JOB_ID);
+    }
+
+    @Test
+    public void shouldWriteDocumentAndSetItAsJobResult() throws Exception {
+        // given
+        JobTask task = submit((outputStream, jobContext) -> outputStream.write("a,b".getBytes("UTF-8")));
+
+        // when
+        task.execute(context);
+
+        // then
+        assertEquals("a,b", FileUtils.readFileToString(file, "UTF-8"));
+        verify(context).setResult(file.getAbsolutePath());
+        assertTrue(DocumentJobServiceImpl.isDocument(L_JOB_ID, file.getAbsolutePath()));
+        assertFalse(DocumentJobServiceImpl.isDocument(L_JOB_ID + 1, file.getAbsolutePath()));
+    }
+
+    @Test
+    public void shouldRemoveDocumentWhenWriterFails() throws Exception {
+        // given
+        JobTask task = submit((outputStream, jobContext) -> {
+            outputStream.write("a,b".getBytes("UTF-8"));
+            throw new IllegalStateException("failed");
+        });
+
+        // when
+        try {
+            task.execute(context);
+            fail();
+        } catch (IllegalStateException e) {
+            // then
+            assertFalse(file.exists());
+            verify(context, never()).setResult(anyString());
+        }
+    }
+
+    @Test
+    public void shouldRemoveDocumentOfCancelledJob() throws Exception {
+        // given
+        given(context.isCancelled()).willReturn(true);
+        JobTask task = submit((outputStream, jobContext) -> outputStream.write("a,b".getBytes("UTF-8")));
+
+        // when
+        task.execute(context);
+
+        // then
+        assertFalse(file.exists());
+        verify(context, never()).setResult(anyString());
+    }
+
+    private JobTask submit(final DocumentWriter writer) {
+        documentJobService.submit("export", L_FILE_NAME, writer);
+
+        ArgumentCaptor<JobTask> taskCaptor = ArgumentCaptor.forClass(JobTask.class);
+        verify(jobService).submit(eq("export"), eq(L_FILE_NAME), taskCaptor.capture());
+
+        return taskCaptor.getValue();
+    }
+
+}
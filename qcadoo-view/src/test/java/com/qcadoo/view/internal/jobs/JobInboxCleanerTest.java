@@ -0,0 +1,75 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.inOrder;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JobInboxCleanerTest {
+
+    private JobInboxCleaner jobInboxCleaner;
+
+    @Mock
+    private JobRegistry jobRegistry;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+
+        jobInboxCleaner = new JobInboxCleaner();
+
+        ReflectionTestUtils.setField(jobInboxCleaner, "jobRegistry", jobRegistry);
+        ReflectionTestUtils.setField(jobInboxCleaner, "retentionHours", 24);
+
+        given(jobRegistry.removeFinishedBefore(any(Date.class))).willReturn(Collections.<Long, String> emptyMap());
+    }
+
+    @Test
+    public void shouldFailJobsInterruptedByRestartBeforeRemovingFinishedJobs() {
+        // given
+        Date startDate = (Date) ReflectionTestUtils.getField(jobInboxCleaner, "startDate");
+
+        // when
+        jobInboxCleaner.clean();
+
+        // then
+        InOrder order = inOrder(jobRegistry);
+        order.verify(jobRegistry).failUnfinishedSubmittedBefore(eq(startDate), anyString());
+        order.verify(jobRegistry).removeFinishedBefore(any(Date.class));
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.util.Date;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.google.common.collect.Lists;
+import com.qcadoo.model.api.DataDefinition;
+import com.qcadoo.model.api.DataDefinitionService;
+import com.qcadoo.model.api.Entity;
+import com.qcadoo.model.api.search.SearchCriteriaBuilder;
+import com.qcadoo.model.api.search.SearchCriterion;
+import com.qcadoo.model.api.search.SearchResult;
+import com.qcadoo.view.constants.JobFields;
+import com.qcadoo.view.constants.JobState;
+import com.qcadoo.view.constants.QcadooViewConstants;
+
+public class JobRegistryTest {
+
+    private JobRegistry jobRegistry;
+
+    @Mock
+    private DataDefinitionService dataDefinitionService;
+
+    @Mock
+    private DataDefinition jobDD;
+
+    @Mock
+    private SearchCriteriaBuilder searchCriteriaBuilder;
+
+    @Mock
+    private SearchResult searchResult;
+
+    @Mock
+    private Entity queuedJob;
+
+    @Mock
+    private Entity runningJob;
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+
+        jobRegistry = new JobRegistry();
+
+        ReflectionTestUtils.setField(jobRegistry, "dataDefinitionService", dataDefinitionService);
+
+        given(dataDefinitionService.get(QcadooViewConstants.PLUGIN_IDENTIFIER, QcadooViewConstants.MODEL_JOB)).willReturn(jobDD);
+        given(jobDD.find()).willReturn(searchCriteriaBuilder);
+        given(searchCriteriaBuilder.add(any(SearchCriterion.class))).willReturn(searchCriteriaBuilder);
+        given(searchCriteriaBuilder.list()).willReturn(searchResult);
+        given(queuedJob.getDataDefinition()).willReturn(jobDD);
+        given(runningJob.getDataDefinition()).willReturn(jobDD);
+    }
+
+    @Test
+    public void shouldMarkUnfinishedJobsSubmittedBeforeStartAsFailed() {
+        // given
+        given(searchResult.getEntities()).willReturn(Lists.newArrayList(queuedJob, runningJob));
+
+        // when
+        int failedJobs = jobRegistry.failUnfinishedSubmittedBefore(new Date(), "interrupted");
+
+        // then
+        assertEquals(2, failedJobs);
+
+        for (Entity job : Lists.newArrayList(queuedJob, runningJob)) {
+            verify(job).setField(JobFields.STATE, JobState.FAILED);
+            verify(job).setField(eq(JobFields.FINISH_DATE), any(Date.class));
+            verify(job).setField(JobFields.ERROR_MESSAGE, "interrupted");
+            verify(jobDD).save(job);
+        }
+    }
+
+    @Test
+    public void shouldNotFailAnyJobIfAllJobsAreFinished() {
+        // given
+        given(searchResult.getEntities()).willReturn(Lists.<Entity> newArrayList());
+
+        // when
+        int failedJobs = jobRegistry.failUnfinishedSubmittedBefore(new Date(), "interrupted");
+
+        // then
+        assertEquals(0, failedJobs);
+    }
+
+}
@@ -0,0 +1,250 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.jobs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.qcadoo.tenant.api.MultiTenantCallback;
+import com.qcadoo.tenant.api.MultiTenantService;
+import com.qcadoo.view.api.jobs.JobContext;
+import com.qcadoo.view.api.jobs.JobPoolMetrics;
+import com.qcadoo.view.api.jobs.JobTask;
+import com.qcadoo.view.constants.JobState;
+
+public class JobServiceImplTest {
+
+    private static final long WAIT = 5000L;
+
+    private JobServiceImpl jobService;
+
+    private JobRegistry jobRegistry;
+
+    private MultiTenantService multiTenantService;
+
+    private long nextJobId;
+
+    @Before
+    public void init() {
+        jobRegistry = mock(JobRegistry.class);
+        when(jobRegistry.register(anyString(), anyString())).thenAnswer(new Answer<Long>() {
+
+            @Override
+            public Long answer(final InvocationOnMock invocation) {
+                return ++nextJobId;
+            }
+
+        });
+
+        multiTenantService = mock(MultiTenantService.class);
+        when(multiTenantService.getCurrentTenantId()).thenReturn(7);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                ((MultiTenantCallback) invocation.getArguments()[1]).invoke();
+                return null;
+            }
+
+        }).when(multiTenantService).doInMultiTenantContext(anyInt(), any(MultiTenantCallback.class));
+
+        jobService = new JobServiceImpl();
+        ReflectionTestUtils.setField(jobService, "jobRegistry", jobRegistry);
+        ReflectionTestUtils.setField(jobService, "multiTenantService", multiTenantService);
+        ReflectionTestUtils.setField(jobService, "jobPools", "default:1:1,export:2:10");
+        jobService.init();
+    }
+
+    @After
+    public void destroy() {
+        jobService.destroy();
+        SecurityContextHolder.clearContext();
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    @Test
+    public void shouldRunJobWithCallerContext() throws Exception {
+        // given
+        Authentication authentication = new UsernamePasswordAuthenticationToken("admin", "admin");
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        LocaleContextHolder.setLocale(Locale.GERMAN);
+
+        final AtomicReference<Authentication> jobAuthentication = new AtomicReference<Authentication>();
+        final AtomicReference<Locale> jobLocale = new AtomicReference<Locale>();
+
+        // when
+        Long jobId = jobService.submit("export", "someExport", new JobTask() {
+
+            @Override
+            public void execute(final JobContext context) {
+                jobAuthentication.set(SecurityContextHolder.getContext().getAuthentication());
+                jobLocale.set(LocaleContextHolder.getLocale());
+                context.updateProgress(1, 2);
+                context.setResult("file.csv");
+            }
+
+        });
+
+        // then
+        verify(jobRegistry, timeout(WAIT)).markFinished(jobId, JobState.FINISHED, "file.csv", null);
+        verify(jobRegistry).register("export", "someExport");
+        verify(jobRegistry).markRunning(jobId);
+        verify(jobRegistry).updateProgress(jobId, 50);
+        verify(multiTenantService).doInMultiTenantContext(eq(7), any(MultiTenantCallback.class));
+        assertEquals(authentication, jobAuthentication.get());
+        assertEquals(Locale.GERMAN, jobLocale.get());
+    }
+
+    @Test
+    public void shouldMarkJobAsFailed() throws Exception {
+        // when
+        Long jobId = jobService.submit("failingJob", new JobTask() {
+
+            @Override
+            public void execute(final JobContext context) {
+                throw new IllegalStateException("error");
+            }
+
+        });
+
+        // then
+        verify(jobRegistry, timeout(WAIT)).markFinished(jobId, JobState.FAILED, null, "error");
+        assertEquals(1L, waitForFinishedJobs(JobServiceImpl.DEFAULT_POOL, 1).getFailedCount());
+    }
+
+    @Test
+    public void shouldCancelQueuedAndRunningJobs() throws Exception {
+        // given
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        Long runningJobId = jobService.submit("runningJob", new JobTask() {
+
+            @Override
+            public void execute(final JobContext context) throws Exception {
+                started.countDown();
+                release.await(WAIT, TimeUnit.MILLISECONDS);
+                context.checkCancelled();
+            }
+
+        });
+        assertTrue(started.await(WAIT, TimeUnit.MILLISECONDS));
+
+        JobTask queuedTask = mock(JobTask.class);
+        Long queuedJobId = jobService.submit("queuedJob", queuedTask);
+
+        // when
+        boolean queuedCancelled = jobService.cancel(queuedJobId);
+        boolean runningCancelled = jobService.cancel(runningJobId);
+        release.countDown();
+
+        // then
+        assertTrue(queuedCancelled);
+        assertTrue(runningCancelled);
+        assertFalse(jobService.isActive(queuedJobId));
+        verify(jobRegistry).markFinished(queuedJobId, JobState.CANCELLED, null, null);
+        verify(jobRegistry, timeout(WAIT)).markFinished(eq(runningJobId), eq(JobState.CANCELLED), (String) isNull(),
+                (String) isNull());
+        verify(queuedTask, never()).execute(any(JobContext.class));
+    }
+
+    @Test
+    public void shouldRejectJobWhenQueueIsFull() throws Exception {
+        // given
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        JobTask blockingTask = new JobTask() {
+
+            @Override
+            public void execute(final JobContext context) throws Exception {
+                started.countDown();
+                release.await(WAIT, TimeUnit.MILLISECONDS);
+            }
+
+        };
+        jobService.submit("first", blockingTask);
+        assertTrue(started.await(WAIT, TimeUnit.MILLISECONDS));
+        jobService.submit("second", blockingTask);
+
+        // when
+        try {
+            jobService.submit("third", blockingTask);
+            fail();
+        } catch (IllegalStateException e) {
+            // then
+            verify(jobRegistry).markFinished(eq(3L), eq(JobState.FAILED), (String) isNull(), anyString());
+        } finally {
+            release.countDown();
+        }
+
+        JobPoolMetrics metrics = jobService.getPoolMetrics(JobServiceImpl.DEFAULT_POOL);
+        assertEquals(1L, metrics.getRejectedCount());
+        assertEquals(1, metrics.getQueueCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForUnknownPool() throws Exception {
+        jobService.submit("unknown", "job", mock(JobTask.class));
+    }
+
+    private JobPoolMetrics waitForFinishedJobs(final String poolName, final long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT;
+        JobPoolMetrics metrics = jobService.getPoolMetrics(poolName);
+        while (metrics.getCompletedCount() + metrics.getFailedCount() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+            metrics = jobService.getPoolMetrics(poolName);
+        }
+        return metrics;
+    }
+
+}
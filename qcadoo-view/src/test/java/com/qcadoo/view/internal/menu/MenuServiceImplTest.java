@@ -53,9 +53,11 @@ import com.google.common.collect.Lists;
 import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.internal.DefaultEntity;
+import com.qcadoo.plugin.api.PluginStateChangedEvent;
 import com.qcadoo.plugin.api.PluginUtils;
 import com.qcadoo.security.api.SecurityRole;
 import com.qcadoo.security.api.SecurityRolesService;
+import com.qcadoo.tenant.api.MultiTenantService;
 import com.qcadoo.view.api.utils.TranslationUtilsService;
 import com.qcadoo.view.constants.MenuCategoryFields;
 import com.qcadoo.view.constants.MenuItemFields;
@@ -96,6 +98,11 @@ public class MenuServiceImplTest {
     @Mock
     private ViewDefinitionService viewDefinitionService;
 
+    @Mock
+    private MultiTenantService multiTenantService;
+
+    private MenuSnapshotCache menuSnapshotCache;
+
     @Captor
     private ArgumentCaptor<Entity> entityCaptor;
 
@@ -112,6 +119,10 @@ public class MenuServiceImplTest {
         ReflectionTestUtils.setField(menuService, "translationUtilsService", translationUtilsService);
         ReflectionTestUtils.setField(menuService, "viewDefinitionService", viewDefinitionService);
 
+        menuSnapshotCache = new MenuSnapshotCache();
+        ReflectionTestUtils.setField(menuSnapshotCache, "multiTenantService", multiTenantService);
+        ReflectionTestUtils.setField(menuService, "menuSnapshotCache", menuSnapshotCache);
+
         stubSecurityRole(ROLE_VISIBLE, true);
         stubSecurityRole(ROLE_INVISIBLE, false);
         stubSecurityRole("ROLE_USER", true);
@@ -443,12 +454,13 @@ public class MenuServiceImplTest {
         List<Entity> cat3items = Lists.newArrayList(cat3item1);
         Entity cat3 = mockCategory(DISABLED_PLUGIN_IDENTIFIER, "cat3", ROLE_VISIBLE, cat3items);
 
-        stubGetSortedMenuCategories(Lists.newArrayList(homeCategory, cat1, cat2, cat3, administrationCategory));
-        stubGetSortedMenuCategoryItems(homeCategory, homeItems);
-        stubGetSortedMenuCategoryItems(cat1, cat1items);
-        stubGetSortedMenuCategoryItems(cat2, cat2items);
-        stubGetSortedMenuCategoryItems(cat3, cat3items);
-        stubGetSortedMenuCategoryItems(administrationCategory, administrationItems);
+        List<Entity> entries = Lists.newArrayList();
+        entries.addAll(buildMenuEntries(homeCategory, homeItems));
+        entries.addAll(buildMenuEntries(cat1, cat1items));
+        entries.addAll(buildMenuEntries(cat2, cat2items));
+        entries.addAll(buildMenuEntries(cat3, cat3items));
+        entries.addAll(buildMenuEntries(administrationCategory, administrationItems));
+        given(menuCrudService.getSortedMenuEntries()).willReturn(entries);
 
         // when
         MenuDefinition menuDefinition = menuService.getMenu(Locale.ENGLISH);
@@ -460,6 +472,42 @@ public class MenuServiceImplTest {
         assertCategory(menuDefinition.getAdministrationCategory(), "administration", Lists.newArrayList("administrationItem"));
     }
 
+    @Test
+    public final void shouldReuseMenuSnapshot() {
+        // given
+        Entity item = mockItem(PLUGIN_IDENTIFIER, "itemName", true, ROLE_VISIBLE, PLUGIN_IDENTIFIER, "view1");
+        Iterable<Entity> items = Lists.newArrayList(item);
+        Entity category = mockCategory(PLUGIN_IDENTIFIER, "category", ROLE_VISIBLE, items);
+        given(menuCrudService.getSortedMenuEntries()).willReturn(buildMenuEntries(category, items));
+
+        // when
+        menuService.getMenu(Locale.ENGLISH);
+        MenuDefinition menuDefinition = menuService.getMenu(Locale.GERMAN);
+
+        // then
+        verify(menuCrudService, times(1)).getSortedMenuEntries();
+        assertCategory(menuDefinition.getItems().get(0), "category", Lists.newArrayList("itemName"));
+    }
+
+    @Test
+    public final void shouldReloadMenuSnapshotAfterInvalidation() {
+        // given
+        Entity item = mockItem(PLUGIN_IDENTIFIER, "itemName", true, ROLE_VISIBLE, PLUGIN_IDENTIFIER, "view1");
+        Iterable<Entity> items = Lists.newArrayList(item);
+        Entity category = mockCategory(PLUGIN_IDENTIFIER, "category", ROLE_VISIBLE, items);
+        given(menuCrudService.getSortedMenuEntries()).willReturn(buildMenuEntries(category, items));
+
+        // when
+        menuService.getMenu(Locale.ENGLISH);
+        menuSnapshotCache.invalidate();
+        menuService.getMenu(Locale.ENGLISH);
+        menuSnapshotCache.onApplicationEvent(new PluginStateChangedEvent(this, Lists.newArrayList(PLUGIN_IDENTIFIER)));
+        menuService.getMenu(Locale.ENGLISH);
+
+        // then
+        verify(menuCrudService, times(3)).getSortedMenuEntries();
+    }
+
     private void assertCategory(final MenuItemsGroup menuGroup, final String expectedName, final List<String> expectedItemNames) {
         assertEquals(expectedName, menuGroup.getName());
         List<MenuItem> menuItems = menuGroup.getItems();
@@ -507,24 +555,34 @@ public class MenuServiceImplTest {
         given(securityRolesService.canAccess(role)).willReturn(canAccess);
     }
 
-    private void stubGetSortedMenuCategories(final Iterable<Entity> categories) {
-        given(menuCrudService.getSortedMenuCategories()).willAnswer(new Answer<List<Entity>>() {
-
-            @Override
-            public List<Entity> answer(final InvocationOnMock invocation) throws Throwable {
-                return Lists.newArrayList(categories);
-            }
-        });
+    private List<Entity> buildMenuEntries(final Entity category, final Iterable<Entity> items) {
+        List<Entity> entries = Lists.newArrayList();
+        for (Entity item : items) {
+            Entity view = item.getBelongsToField(MenuItemFields.VIEW);
+            Entity entry = buildCategoryEntry(category);
+            entry.setField(MenuCrudService.ENTRY_ITEM_ID, 1L);
+            entry.setField(MenuCrudService.ENTRY_ITEM_PLUGIN_IDENTIFIER, item.getStringField(MenuItemFields.PLUGIN_IDENTIFIER));
+            entry.setField(MenuCrudService.ENTRY_ITEM_NAME, item.getStringField(MenuItemFields.NAME));
+            entry.setField(MenuCrudService.ENTRY_ITEM_ACTIVE, item.getBooleanField(MenuItemFields.ACTIVE));
+            entry.setField(MenuCrudService.ENTRY_ITEM_AUTH_ROLE, item.getStringField(MenuItemFields.AUTH_ROLE));
+            entry.setField(MenuCrudService.ENTRY_VIEW_PLUGIN_IDENTIFIER, view.getStringField(ViewFields.PLUGIN_IDENTIFIER));
+            entry.setField(MenuCrudService.ENTRY_VIEW_NAME, view.getStringField(ViewFields.NAME));
+            entries.add(entry);
+        }
+        if (entries.isEmpty()) {
+            entries.add(buildCategoryEntry(category));
+        }
+        return entries;
     }
 
-    private void stubGetSortedMenuCategoryItems(final Entity category, final Iterable<Entity> items) {
-        given(menuCrudService.getSortedMenuCategoryItems(category)).willAnswer(new Answer<List<Entity>>() {
-
-            @Override
-            public List<Entity> answer(final InvocationOnMock invocation) throws Throwable {
-                return Lists.newArrayList(items);
-            }
-        });
+    private Entity buildCategoryEntry(final Entity category) {
+        Entity entry = new DefaultEntity(mock(DataDefinition.class));
+        entry.setField(MenuCrudService.ENTRY_CATEGORY_ID, category.getStringField(MenuCategoryFields.NAME));
+        entry.setField(MenuCrudService.ENTRY_CATEGORY_PLUGIN_IDENTIFIER,
+                category.getStringField(MenuCategoryFields.PLUGIN_IDENTIFIER));
+        entry.setField(MenuCrudService.ENTRY_CATEGORY_NAME, category.getStringField(MenuCategoryFields.NAME));
+        entry.setField(MenuCrudService.ENTRY_CATEGORY_AUTH_ROLE, category.getStringField(MenuCategoryFields.AUTH_ROLE));
+        return entry;
     }
 
     private void stubSecurityRole(final String roleIdentifier, final boolean canAccess) {
@@ -30,6 +30,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.util.ReflectionTestUtils.getField;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
@@ -529,4 +531,58 @@ public class GridComponentPatternTest extends AbstractPatternTest {
 
     }
 
+    @Test
+    public void shouldCheckColumnAccessOncePerRole() throws Exception {
+        // given
+        PluginStateResolver pluginStateResolver = mock(PluginStateResolver.class);
+        PluginUtilsService pluginUtil = new PluginUtilsService(pluginStateResolver);
+        pluginUtil.init();
+
+        SecurityRolesService securityRolesService = mock(SecurityRolesService.class);
+        given(applicationContext.getBean(SecurityRolesService.class)).willReturn(securityRolesService);
+        given(securityRolesService.canAccess("ROLE_X")).willReturn(true);
+        given(securityRolesService.canAccess("ROLE_Y")).willReturn(false);
+
+        InternalViewDefinitionState viewDefinitionState = mock(InternalViewDefinitionState.class);
+        DataDefinition dataDefinition = mock(DataDefinition.class);
+        InternalViewDefinition viewDefinition = mock(InternalViewDefinition.class);
+
+        given(viewDefinition.getDataDefinition()).willReturn(dataDefinition);
+        ComponentDefinition componentDefinition = getComponentDefinition("grid", viewDefinition);
+        componentDefinition.setTranslationService(translationService);
+        componentDefinition.setApplicationContext(applicationContext);
+        componentDefinition.setDataDefinition(dataDefinition);
+        GridComponentPattern pattern = new GridComponentPattern(componentDefinition);
+
+        FieldDefinition nameFieldDefinition = mock(FieldDefinition.class);
+        given(nameFieldDefinition.getType()).willReturn(new StringType());
+        given(dataDefinition.getField("name")).willReturn(nameFieldDefinition);
+
+        pattern.addOption(new ComponentOption("column", ImmutableMap.of("name", "first", "fields", "name", "authorizationRole",
+                "ROLE_X")));
+        pattern.addOption(new ComponentOption("column", ImmutableMap.of("name", "second", "fields", "name", "authorizationRole",
+                "ROLE_X")));
+        pattern.addOption(new ComponentOption("column", ImmutableMap.of("name", "third", "fields", "name", "authorizationRole",
+                "ROLE_Y")));
+        pattern.addOption(new ComponentOption("column", ImmutableMap.of("name", "fourth", "fields", "name")));
+        pattern.addOption(new ComponentOption("order", ImmutableMap.of("column", "first", "direction", "asc")));
+
+        pattern.initialize();
+
+        GridComponent grid = (GridComponent) pattern.createComponentState(viewDefinitionState);
+
+        // when
+        Map<String, String> columnNames = grid.getColumnNames();
+        grid.getColumnNames();
+
+        // then
+        assertEquals(3, columnNames.size());
+        assertTrue(columnNames.containsKey("first"));
+        assertTrue(columnNames.containsKey("second"));
+        assertFalse(columnNames.containsKey("third"));
+        assertTrue(columnNames.containsKey("fourth"));
+        verify(securityRolesService, times(1)).canAccess("ROLE_X");
+        verify(securityRolesService, times(1)).canAccess("ROLE_Y");
+    }
+
 }
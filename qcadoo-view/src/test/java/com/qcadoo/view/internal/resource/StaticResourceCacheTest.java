@@ -0,0 +1,176 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.resource;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import com.qcadoo.localization.internal.ConfigUtil;
+
+public class StaticResourceCacheTest {
+
+    private static final String URI = "/qcadooView/public/js/test.js";
+
+    private static final String CONTENT_TYPE = "text/javascript";
+
+    private StaticResourceCache staticResourceCache;
+
+    @Mock
+    private ConfigUtil configUtil;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    private Resource resource;
+
+    @Before
+    public void init() throws Exception {
+        MockitoAnnotations.initMocks(this);
+
+        staticResourceCache = new StaticResourceCache();
+        setField(staticResourceCache, "maxSize", 10);
+        setField(staticResourceCache, "maxCachedLength", 1024 * 1024);
+        setField(staticResourceCache, "configUtil", configUtil);
+
+        resource = mock(Resource.class);
+        ByteArrayResource content = new ByteArrayResource(StringUtils.repeat("var a = 1;\n", 500).getBytes("UTF-8"));
+        given(resource.getInputStream()).willAnswer(invocation -> content.getInputStream());
+        given(resource.contentLength()).willReturn(content.contentLength());
+        given(resource.lastModified()).willReturn(1000000L);
+
+        given(request.getDateHeader(anyString())).willReturn(-1L);
+        given(response.getOutputStream()).willReturn(outputStream);
+    }
+
+    @Test
+    public void shouldReadResourceOnlyOnce() throws Exception {
+        // when
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+
+        // then
+        verify(resource, times(1)).getInputStream();
+        verify(outputStream, times(2)).write(any(byte[].class));
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        // given
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+        ArgumentCaptor<String> etag = ArgumentCaptor.forClass(String.class);
+        verify(response).setHeader(eq("ETag"), etag.capture());
+
+        given(request.getHeader("If-None-Match")).willReturn(etag.getValue());
+
+        // when
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+
+        // then
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(outputStream, times(1)).write(any(byte[].class));
+    }
+
+    @Test
+    public void shouldServeCompressedContentWhenAccepted() throws Exception {
+        // given
+        given(request.getHeader("Accept-Encoding")).willReturn("gzip, deflate");
+
+        // when
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+
+        // then
+        verify(response).setHeader("Content-Encoding", "gzip");
+    }
+
+    @Test
+    public void shouldServeVersionedResourceAsImmutable() throws Exception {
+        // given
+        given(request.getParameter("ver")).willReturn("123");
+
+        // when
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+
+        // then
+        verify(response).setHeader(eq("Cache-Control"), eq("public, max-age=31536000, immutable"));
+        verify(response, never()).setHeader("Content-Encoding", "gzip");
+    }
+
+    @Test
+    public void shouldNotCacheResourcesInHotDeployMode() throws Exception {
+        // given
+        given(configUtil.isHotDeploy()).willReturn(true);
+
+        // when
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+
+        // then
+        verify(resource, times(2)).getInputStream();
+    }
+
+    @Test
+    public void shouldServeCachedResourceWithoutResolvingIt() throws Exception {
+        // given
+        staticResourceCache.serve(URI, resource, CONTENT_TYPE, request, response);
+
+        // when
+        boolean served = staticResourceCache.serveCached(URI, request, response);
+        boolean servedNotCached = staticResourceCache.serveCached("/qcadooView/public/js/other.js", request, response);
+
+        // then
+        assertTrue(served);
+        assertFalse(servedNotCached);
+        verify(resource, times(1)).getInputStream();
+        verify(outputStream, times(2)).write(any(byte[].class));
+    }
+
+}
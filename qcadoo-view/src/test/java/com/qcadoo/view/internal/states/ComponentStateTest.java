@@ -30,12 +30,16 @@ import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
+import java.io.StringWriter;
 import java.util.Locale;
 
+import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.springframework.context.ApplicationContext;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.google.common.collect.ImmutableMap;
 import com.qcadoo.localization.api.TranslationService;
 import com.qcadoo.model.api.DataDefinition;
@@ -215,4 +219,31 @@ public class ComponentStateTest {
         assertFalse(componentState.render().getBoolean(AbstractComponentState.JSON_ENABLED));
     }
 
+    @Test
+    public void shouldStreamJsonOfOverriddenRender() throws Exception {
+        // given
+        AbstractComponentState componentState = new ComponentStateMock() {
+
+            @Override
+            public JSONObject render() throws JSONException {
+                JSONObject json = super.render();
+                json.put("custom", "value");
+                return json;
+            }
+
+        };
+
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = new JsonFactory().createGenerator(writer);
+
+        // when
+        componentState.render(generator);
+        generator.close();
+
+        // then
+        JSONObject json = new JSONObject(writer.toString());
+        assertEquals("value", json.getString("custom"));
+        assertEquals(componentState.render().toString(), json.toString());
+    }
+
 }
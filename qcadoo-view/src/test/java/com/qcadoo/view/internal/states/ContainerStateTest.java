@@ -32,6 +32,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
 
+import java.io.StringWriter;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Map;
@@ -41,6 +42,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.springframework.context.ApplicationContext;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.qcadoo.view.api.ComponentState;
 import com.qcadoo.view.internal.api.InternalComponentState;
 import com.qcadoo.view.internal.components.form.FormComponentPattern;
@@ -199,4 +202,36 @@ public class ContainerStateTest extends AbstractStateTest {
                         .getString(AbstractComponentState.JSON_CONTENT));
     }
 
+    @Test
+    public void shouldStreamTheSameJsonAsRendered() throws Exception {
+        // given
+        JSONObject component1Json = new JSONObject();
+        component1Json.put(AbstractComponentState.JSON_CONTENT, "test1");
+        JSONObject component2Json = new JSONObject();
+        component2Json.put(AbstractComponentState.JSON_CONTENT, new JSONObject(Collections.singletonMap("value", 12L)));
+
+        InternalComponentState component1 = createMockComponent("component1");
+        given(component1.render()).willReturn(component1Json);
+        InternalComponentState component2 = createMockComponent("component2");
+        given(component2.render()).willReturn(component2Json);
+
+        FormComponentPattern pattern = mock(FormComponentPattern.class);
+        given(pattern.getExpressionNew()).willReturn(null);
+        given(pattern.getExpressionEdit()).willReturn(null);
+        setField(pattern, "applicationContext", applicationContext);
+        FormComponentState container = new FormComponentState(pattern);
+        container.addChild(component1);
+        container.addChild(component2);
+
+        StringWriter writer = new StringWriter();
+        JsonGenerator generator = new JsonFactory().createGenerator(writer);
+
+        // when
+        container.render(generator);
+        generator.close();
+
+        // then
+        assertEquals(container.render().toString(), new JSONObject(writer.toString()).toString());
+    }
+
 }
@@ -29,9 +29,11 @@ import static org.junit.Assert.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.util.ReflectionTestUtils.getField;
 import static org.springframework.test.util.ReflectionTestUtils.setField;
@@ -42,6 +44,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -56,6 +59,7 @@ import com.qcadoo.model.api.DataDefinition;
 import com.qcadoo.model.api.Entity;
 import com.qcadoo.model.api.FieldDefinition;
 import com.qcadoo.model.api.search.SearchCriteriaBuilder;
+import com.qcadoo.model.api.search.SearchRestrictions;
 import com.qcadoo.model.api.search.SearchResult;
 import com.qcadoo.model.api.types.FieldType;
 import com.qcadoo.model.api.types.HasManyType;
@@ -63,6 +67,7 @@ import com.qcadoo.model.internal.DefaultEntity;
 import com.qcadoo.model.internal.ExpressionServiceImpl;
 import com.qcadoo.security.api.SecurityRolesService;
 import com.qcadoo.view.api.ViewDefinitionState;
+import com.qcadoo.view.api.components.grid.GridExport;
 import com.qcadoo.view.internal.FieldEntityIdChangeListener;
 import com.qcadoo.view.internal.components.grid.GridComponentColumn;
 import com.qcadoo.view.internal.components.grid.GridComponentOrderColumn;
@@ -270,6 +275,43 @@ public class GridComponentStateTest extends AbstractStateTest {
         grid.performEvent(viewDefinitionState, "refresh", new String[0]);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldScrollSelectedRecordsWithoutPaging() throws Exception {
+        // given
+        Consumer<Map<String, String>> consumer = mock(Consumer.class);
+        grid.initialize(json, Locale.ENGLISH);
+
+        // when
+        grid.scrollColumnValuesOfSelectedRecords(consumer);
+
+        // then
+        verify(substituteCriteria).add(SearchRestrictions.in("id", Collections.singleton(13L)));
+        verify(substituteCriteria).scroll(anyInt(), any(Consumer.class));
+        verify(substituteCriteria, never()).setFirstResult(anyInt());
+        verify(substituteCriteria, never()).setMaxResults(anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldCreateExportWhichDoesNotDependOnGridState() throws Exception {
+        // given
+        Consumer<Map<String, String>> consumer = mock(Consumer.class);
+        grid.initialize(json, Locale.ENGLISH);
+
+        // when
+        GridExport export = grid.createExport();
+        grid.setSelectedEntitiesIds(Collections.singleton(14L));
+        export.scroll(consumer);
+
+        // then
+        assertEquals(Collections.singleton(13L), export.getSelectedEntitiesIds());
+        assertEquals(1L, export.count());
+        verify(substituteCriteria).add(SearchRestrictions.in("id", Collections.singleton(13L)));
+        verify(substituteCriteria, never()).add(SearchRestrictions.in("id", Collections.singleton(14L)));
+        verify(substituteCriteria).scroll(anyInt(), any(Consumer.class));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldNotModeUpSelectedEntityOnFail() throws Exception {
         // given
@@ -155,6 +155,7 @@ public class ViewDefinitionParserImplTest {
         setField(viewDefinitionParser, "viewComponentsResolver", viewComponentsResolver);
         setField(viewDefinitionParser, "ribbonService", ribbonService);
         setField(viewDefinitionParser, "securityRolesService", securityRolesService);
+        setField(viewDefinitionParser, "xmlDocumentLoader", new XmlDocumentLoader());
 
         userRoleMock = mock(SecurityRole.class);
         given(securityRolesService.getRoleByIdentifier("ROLE_USER")).willReturn(userRoleMock);
@@ -0,0 +1,98 @@
+/**
+ * ***************************************************************************
+ * Copyright (c) 2010 Qcadoo Limited
+ * Project: Qcadoo Framework
+ * Version: 1.4
+ *
+ * This file is part of Qcadoo.
+ *
+ * Qcadoo is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published
+ * by the Free Software Foundation; either version 3 of the License,
+ * or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty
+ * of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA  02110-1301  USA
+ * ***************************************************************************
+ */
+package com.qcadoo.view.internal.xml;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+
+public class XmlDocumentLoaderTest {
+
+    private XmlDocumentLoader xmlDocumentLoader;
+
+    @Before
+    public void init() {
+        xmlDocumentLoader = new XmlDocumentLoader();
+    }
+
+    @After
+    public void cleanup() {
+        xmlDocumentLoader.shutdown();
+    }
+
+    @Test
+    public void shouldLoadPreloadedDocument() throws Exception {
+        // given
+        Resource resource = new ByteArrayResource("<view name=\"preloaded\"/>".getBytes("UTF-8"));
+        xmlDocumentLoader.preload(resource);
+
+        // when
+        Document document = xmlDocumentLoader.load(resource);
+
+        // then
+        assertEquals("preloaded", document.getDocumentElement().getAttribute("name"));
+    }
+
+    @Test
+    public void shouldLoadDocumentWhichWasNotPreloaded() throws Exception {
+        // given
+        Resource resource = new ByteArrayResource("<view name=\"notPreloaded\"/>".getBytes("UTF-8"));
+
+        // when
+        Document document = xmlDocumentLoader.load(resource);
+
+        // then
+        assertEquals("notPreloaded", document.getDocumentElement().getAttribute("name"));
+    }
+
+    @Test
+    public void shouldReuseParserForConsecutiveDocuments() throws Exception {
+        // when
+        Document first = xmlDocumentLoader.parse(new ByteArrayInputStream("<first/>".getBytes("UTF-8")));
+        Document second = xmlDocumentLoader.parse(new ByteArrayInputStream("<second/>".getBytes("UTF-8")));
+
+        // then
+        assertEquals("first", first.getDocumentElement().getNodeName());
+        assertEquals("second", second.getDocumentElement().getNodeName());
+    }
+
+    @Test(expected = SAXException.class)
+    public void shouldRethrowParseErrorOfPreloadedDocument() throws Exception {
+        // given
+        Resource resource = new ByteArrayResource("<view>".getBytes("UTF-8"));
+        xmlDocumentLoader.preload(resource);
+
+        // when
+        xmlDocumentLoader.load(resource);
+    }
+
+}